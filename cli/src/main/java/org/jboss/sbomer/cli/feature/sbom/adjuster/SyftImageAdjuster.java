@@ -33,6 +33,7 @@ import static org.jboss.sbomer.core.features.sbom.utils.SbomUtils.addMissingCont
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -455,7 +456,7 @@ public class SyftImageAdjuster extends AbstractAdjuster {
     private void adjustDependencies(Bom bom) {
         List<Dependency> dependencies = new ArrayList<>();
 
-        populateDependencies(dependencies, bom.getComponents());
+        populateDependencies(dependencies, new HashSet<>(), bom.getComponents());
 
         // The image itself is the first element
         Dependency productDependency = dependencies.get(0);
@@ -479,8 +480,15 @@ public class SyftImageAdjuster extends AbstractAdjuster {
      * <p>
      * CAse where a component has nested components is handled as well.
      * </p>
+     *
+     * @param dependencies the list of dependencies to populate
+     * @param dependencyRefs index of refs of dependencies already added to the {@code dependencies} list
+     * @param components the components to add dependencies for
      */
-    private void populateDependencies(List<Dependency> dependencies, List<Component> components) {
+    private void populateDependencies(
+            List<Dependency> dependencies,
+            Set<String> dependencyRefs,
+            List<Component> components) {
         if (components == null) {
             return;
         }
@@ -488,11 +496,12 @@ public class SyftImageAdjuster extends AbstractAdjuster {
         components.forEach(component -> {
             // Check that there isn't already a dependency with the bom-ref equals to the new purl, otherwise do not
             // update it
-            if (!dependencies.stream().map(Dependency::getRef).toList().contains(component.getPurl())) {
+            if (!dependencyRefs.contains(component.getPurl())) {
                 component.setBomRef(component.getPurl());
             }
             dependencies.add(SbomUtils.createDependency(component.getBomRef()));
-            populateDependencies(dependencies, component.getComponents());
+            dependencyRefs.add(component.getBomRef());
+            populateDependencies(dependencies, dependencyRefs, component.getComponents());
         });
 
     }
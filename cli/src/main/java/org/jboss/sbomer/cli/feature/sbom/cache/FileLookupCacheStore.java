@@ -0,0 +1,160 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.cli.feature.sbom.cache;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+
+import org.jboss.sbomer.core.errors.ApplicationException;
+import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>
+ * A {@link LookupCacheStore} keeping every entry in a separate JSON file within the provided directory. The directory
+ * can be located on a volume shared by multiple generations so that these can reuse results of each other.
+ * </p>
+ *
+ * <p>
+ * Files are named after the SHA-256 hash of the key and written to a temporary file first which is then atomically
+ * moved into place, so that concurrent readers never see partially written entries. Entries which cannot be read are
+ * treated as missing.
+ * </p>
+ *
+ * <p>
+ * Statistics of the caches are written to the {@value #STATISTICS_DIRECTORY} subdirectory, one file for every process.
+ * </p>
+ */
+@Slf4j
+public class FileLookupCacheStore implements LookupCacheStore {
+
+    private static final String FIELD_KEY = "key";
+    private static final String FIELD_EXPIRES_AT = "expiresAt";
+    private static final String FIELD_VALUE = "value";
+
+    static final String STATISTICS_DIRECTORY = "stats";
+
+    @Getter
+    private final Path directory;
+
+    public FileLookupCacheStore(Path directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    public Optional<LookupCacheEntry> get(String cacheName, String key) {
+        Path file = entryPath(cacheName, key);
+
+        if (!Files.exists(file)) {
+            return Optional.empty();
+        }
+
+        try {
+            JsonNode node = ObjectMapperProvider.json().readTree(file.toFile());
+
+            // Guard against hash collisions
+            if (node == null || !key.equals(node.path(FIELD_KEY).asText(null))) {
+                return Optional.empty();
+            }
+
+            return Optional.of(
+                    new LookupCacheEntry(
+                            node.get(FIELD_VALUE),
+                            Instant.ofEpochMilli(node.path(FIELD_EXPIRES_AT).asLong())));
+        } catch (IOException e) {
+            log.debug("Unable to read cache entry '{}' from '{}', ignoring", key, file, e);
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void put(String cacheName, String key, LookupCacheEntry entry) {
+        Path file = entryPath(cacheName, key);
+
+        ObjectNode node = ObjectMapperProvider.json().createObjectNode();
+        node.put(FIELD_KEY, key);
+        node.put(FIELD_EXPIRES_AT, entry.expiresAt().toEpochMilli());
+        node.set(FIELD_VALUE, entry.value());
+
+        try {
+            write(file, node);
+        } catch (IOException e) {
+            log.warn("Unable to write cache entry '{}' to '{}', ignoring", key, file, e);
+        }
+    }
+
+    @Override
+    public void putStatistics(String processId, JsonNode statistics) {
+        Path file = directory.resolve(STATISTICS_DIRECTORY).resolve(processId + ".json");
+
+        try {
+            write(file, statistics);
+            log.info("Lookup cache statistics written to '{}'", file);
+        } catch (IOException e) {
+            log.warn("Unable to write lookup cache statistics to '{}', ignoring", file, e);
+        }
+    }
+
+    private static void write(Path file, JsonNode node) throws IOException {
+        Files.createDirectories(file.getParent());
+
+        Path tmp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+
+        try {
+            Files.write(tmp, ObjectMapperProvider.json().writeValueAsBytes(node));
+            move(tmp, file);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private Path entryPath(String cacheName, String key) {
+        return directory.resolve(cacheName).resolve(sha256(key) + ".json");
+    }
+
+    private static String sha256(String value) {
+        try {
+            return HexFormat.of()
+                    .formatHex(MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new ApplicationException("Unable to find digest algorithm", e);
+        }
+    }
+}
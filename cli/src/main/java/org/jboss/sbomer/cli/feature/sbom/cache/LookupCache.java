@@ -0,0 +1,273 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.cli.feature.sbom.cache;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>
+ * A read-through cache for results of lookups in external systems (PNC, Brew).
+ * </p>
+ *
+ * <p>
+ * Entries are kept in memory and, if a {@link LookupCacheStore} is provided, persisted so that these can be reused by
+ * other processes. Lookups which did not find anything ({@code null} results) are cached too, but with a separate,
+ * usually shorter, time to live. Failed lookups (exceptions) are never cached.
+ * </p>
+ *
+ * @param <V> the type of cached values
+ */
+@Slf4j
+public class LookupCache<V> {
+
+    /**
+     * A lookup which can throw a checked exception.
+     */
+    @FunctionalInterface
+    public interface Loader<V, E extends Exception> {
+        V load() throws E;
+    }
+
+    private record CachedValue<V>(V value, Instant expiresAt) {
+    }
+
+    @Getter
+    private final String name;
+
+    private final Class<V> type;
+
+    private final ObjectMapper mapper;
+
+    private final boolean enabled;
+
+    private final Duration ttl;
+
+    private final Duration negativeTtl;
+
+    private final LookupCacheStore store;
+
+    private final Map<String, CachedValue<V>> entries = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong negativeHits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * @param name the name of the cache, used to separate entries of different caches in the store
+     * @param type the type of cached values
+     * @param mapper the mapper used to convert values when persisting them in the store
+     * @param enabled whether caching is enabled, if not, every lookup is delegated to the loader
+     * @param ttl time to live of entries with a value
+     * @param negativeTtl time to live of entries for lookups which did not find anything
+     * @param store optional persistent store, may be {@code null}
+     */
+    public LookupCache(
+            String name,
+            Class<V> type,
+            ObjectMapper mapper,
+            boolean enabled,
+            Duration ttl,
+            Duration negativeTtl,
+            LookupCacheStore store) {
+        this.name = name;
+        this.type = type;
+        this.mapper = mapper;
+        this.enabled = enabled;
+        this.ttl = ttl;
+        this.negativeTtl = negativeTtl;
+        this.store = store;
+    }
+
+    /**
+     * Returns the cached value for the given key. In case there is no valid entry, the {@code loader} is used to
+     * retrieve the value which is then cached.
+     *
+     * @param key the key
+     * @param loader the lookup to use in case of a cache miss
+     * @return the cached or loaded value, may be {@code null}
+     * @throws E in case the lookup failed
+     */
+    public <E extends Exception> V get(String key, Loader<V, E> loader) throws E {
+        if (!enabled) {
+            return loader.load();
+        }
+
+        Optional<CachedValue<V>> cached = getIfPresent(key);
+
+        if (cached.isPresent()) {
+            return cached.get().value();
+        }
+
+        V value = loader.load();
+
+        put(key, value);
+
+        return value;
+    }
+
+    /**
+     * Returns cached values for all given keys. Keys without a valid entry are resolved at once using the
+     * {@code loader} and the results are cached. Keys which are not part of the map returned by the {@code loader} are
+     * not cached and are not part of the returned map.
+     *
+     * @param keys the keys
+     * @param loader the bulk lookup to use for keys which are not cached
+     * @return a map of keys to cached or loaded values, values may be {@code null}
+     */
+    public Map<String, V> getAll(Collection<String> keys, Function<Set<String>, Map<String, V>> loader) {
+        if (!enabled) {
+            return loader.apply(new LinkedHashSet<>(keys));
+        }
+
+        Map<String, V> result = new HashMap<>();
+        Set<String> missing = new LinkedHashSet<>();
+
+        keys.forEach(key -> getIfPresent(key).ifPresentOrElse(c -> result.put(key, c.value()), () -> missing.add(key)));
+
+        if (!missing.isEmpty()) {
+            loader.apply(missing).forEach((key, value) -> {
+                put(key, value);
+                result.put(key, value);
+            });
+        }
+
+        return result;
+    }
+
+    /**
+     * Caches the value for the given key.
+     *
+     * @param key the key
+     * @param value the value, {@code null} in case the lookup did not find anything
+     */
+    public void put(String key, V value) {
+        if (!enabled) {
+            return;
+        }
+
+        Instant expiresAt = Instant.now().plus(value == null ? negativeTtl : ttl);
+
+        entries.put(key, new CachedValue<>(value, expiresAt));
+
+        if (store == null) {
+            return;
+        }
+
+        JsonNode node;
+
+        try {
+            node = mapper.valueToTree(value);
+        } catch (IllegalArgumentException e) {
+            log.debug("Unable to convert value for key '{}' of cache '{}', it will not be persisted", key, name, e);
+            return;
+        }
+
+        store.put(name, key, new LookupCacheEntry(node, expiresAt));
+    }
+
+    private Optional<CachedValue<V>> getIfPresent(String key) {
+        Instant now = Instant.now();
+        CachedValue<V> cached = entries.get(key);
+
+        if (cached == null && store != null) {
+            cached = readFromStore(key, now);
+
+            if (cached != null) {
+                entries.put(key, cached);
+            }
+        }
+
+        if (cached == null || !cached.expiresAt().isAfter(now)) {
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+
+        hits.incrementAndGet();
+
+        if (cached.value() == null) {
+            negativeHits.incrementAndGet();
+        }
+
+        return Optional.of(cached);
+    }
+
+    private CachedValue<V> readFromStore(String key, Instant now) {
+        LookupCacheEntry entry = store.get(name, key).orElse(null);
+
+        if (entry == null || entry.isExpired(now)) {
+            return null;
+        }
+
+        if (entry.isNegative()) {
+            return new CachedValue<>(null, entry.expiresAt());
+        }
+
+        try {
+            return new CachedValue<>(mapper.treeToValue(entry.value(), type), entry.expiresAt());
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            log.debug("Unable to convert persisted value for key '{}' of cache '{}', ignoring", key, name, e);
+            return null;
+        }
+    }
+
+    /**
+     * @return the number of lookups served from the cache, including negative entries
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of lookups served from the cache by negative entries
+     */
+    public long getNegativeHits() {
+        return negativeHits.get();
+    }
+
+    /**
+     * @return the number of lookups which were not found in the cache
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    @Override
+    public String toString() {
+        return "LookupCache[name=" + name + ", enabled=" + enabled + ", size=" + entries.size() + ", hits="
+                + getHits() + ", negativeHits=" + getNegativeHits() + ", misses=" + getMisses() + "]";
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.cli.feature.sbom.cache;
+
+import java.time.Instant;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * A single entry of the {@link LookupCacheStore}.
+ *
+ * @param value the cached value, {@code null} (or a JSON {@code null}) in case the lookup did not find anything
+ * @param expiresAt the time after which the entry should not be used anymore
+ */
+public record LookupCacheEntry(JsonNode value, Instant expiresAt) {
+
+    /**
+     * @return {@code true} if this entry records a lookup which did not find anything
+     */
+    public boolean isNegative() {
+        return value == null || value.isNull();
+    }
+
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.cli.feature.sbom.cache;
+
+import java.util.Optional;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * A persistent storage backing the {@link LookupCache}. Implementations need to be safe to use by multiple processes
+ * at the same time.
+ */
+public interface LookupCacheStore {
+
+    /**
+     * Reads an entry from the store.
+     *
+     * @param cacheName the name of the cache the entry belongs to
+     * @param key the key of the entry
+     * @return the entry or empty {@link Optional} if there is no such entry or it could not be read
+     */
+    Optional<LookupCacheEntry> get(String cacheName, String key);
+
+    /**
+     * Writes an entry to the store, replacing any existing entry with the same key.
+     *
+     * @param cacheName the name of the cache the entry belongs to
+     * @param key the key of the entry
+     * @param entry the entry to store
+     */
+    void put(String cacheName, String key, LookupCacheEntry entry);
+
+    /**
+     * Records the statistics of the caches used by a single process, so that these can be checked once the process
+     * finished. Does nothing by default.
+     *
+     * @param processId the identifier of the process, unique among the processes using the store
+     * @param statistics the statistics of the caches
+     */
+    default void putStatistics(String processId, JsonNode statistics) {
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.cli.feature.sbom.cache;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.pnc.build.finder.koji.KojiBuild;
+import org.jboss.pnc.dto.Artifact;
+import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.redhat.red.build.koji.model.json.util.KojiObjectMapper;
+import com.redhat.red.build.koji.model.xmlrpc.KojiBuildInfo;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Holds the {@link LookupCache}s used for PNC and Brew lookups.
+ */
+@Slf4j
+@ApplicationScoped
+public class LookupCaches {
+
+    @ConfigProperty(name = "sbomer.cache.enabled", defaultValue = "true")
+    boolean enabled;
+
+    /**
+     * Directory where cache entries are persisted. If not set, entries are kept in memory only. The statistics of the
+     * caches are written there as well, see {@link FileLookupCacheStore}.
+     */
+    @ConfigProperty(name = "sbomer.cache.path")
+    Optional<Path> path;
+
+    @ConfigProperty(name = "sbomer.cache.ttl", defaultValue = "PT24H")
+    Duration ttl;
+
+    @ConfigProperty(name = "sbomer.cache.negative-ttl", defaultValue = "PT1H")
+    Duration negativeTtl;
+
+    /**
+     * Identifies the statistics of the current process among the ones of other pods sharing the store.
+     */
+    @ConfigProperty(name = "HOSTNAME", defaultValue = "sbomer")
+    String hostname;
+
+    LookupCacheStore store;
+
+    /**
+     * PNC artifacts keyed by purl and hashes.
+     */
+    @Getter
+    LookupCache<Artifact> pncArtifacts;
+
+    /**
+     * Brew builds keyed by the public URL and hashes of the PNC artifact.
+     */
+    @Getter
+    LookupCache<KojiBuild> brewBuildsByArtifact;
+
+    /**
+     * Brew builds keyed by RPM NVRA.
+     */
+    @Getter
+    LookupCache<KojiBuildInfo> brewBuildsByRpm;
+
+    @PostConstruct
+    void init() {
+        store = path.map(FileLookupCacheStore::new).orElse(null);
+
+        log.debug(
+                "Initializing lookup caches, enabled: {}, store: {}, TTL: {}, negative TTL: {}",
+                enabled,
+                path.map(Path::toString).orElse("memory"),
+                ttl,
+                negativeTtl);
+
+        KojiObjectMapper kojiObjectMapper = new KojiObjectMapper();
+
+        pncArtifacts = new LookupCache<>(
+                "pnc-artifacts",
+                Artifact.class,
+                ObjectMapperProvider.json(),
+                enabled,
+                ttl,
+                negativeTtl,
+                store);
+        brewBuildsByArtifact = new LookupCache<>(
+                "brew-builds-by-artifact",
+                KojiBuild.class,
+                kojiObjectMapper,
+                enabled,
+                ttl,
+                negativeTtl,
+                store);
+        brewBuildsByRpm = new LookupCache<>(
+                "brew-builds-by-rpm",
+                KojiBuildInfo.class,
+                kojiObjectMapper,
+                enabled,
+                ttl,
+                negativeTtl,
+                store);
+    }
+
+    /**
+     * Logs the statistics of the caches and records these in the store, if there is one, so that the effectiveness of
+     * the caches can be checked once the generation finished.
+     */
+    @PreDestroy
+    void reportStatistics() {
+        if (!enabled) {
+            return;
+        }
+
+        List<LookupCache<?>> caches = List.of(pncArtifacts, brewBuildsByArtifact, brewBuildsByRpm);
+
+        caches.forEach(cache -> log.info("Lookup cache statistics: {}", cache));
+
+        if (store == null) {
+            return;
+        }
+
+        Instant now = Instant.now();
+        ObjectNode statistics = ObjectMapperProvider.json().createObjectNode();
+        statistics.put("hostname", hostname);
+        statistics.put("finishedAt", now.toString());
+
+        caches.forEach(
+                cache -> statistics.putObject(cache.getName())
+                        .put("hits", cache.getHits())
+                        .put("negativeHits", cache.getNegativeHits())
+                        .put("misses", cache.getMisses()));
+
+        store.putStatistics(hostname + "-" + now.toEpochMilli(), statistics);
+    }
+}
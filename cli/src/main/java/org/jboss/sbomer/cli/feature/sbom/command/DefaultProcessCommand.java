@@ -27,6 +27,7 @@ import org.jboss.sbomer.core.features.sbom.utils.MDCUtils;
 import jakarta.inject.Inject;
 import lombok.Getter;
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
 import picocli.CommandLine.ParentCommand;
 
 @Command(
@@ -42,6 +43,12 @@ public class DefaultProcessCommand extends AbstractProcessCommand {
     @Inject
     DefaultProcessor defaultProcessor;
 
+    @Option(
+            names = { "--parallelism" },
+            defaultValue = "1",
+            description = "Maximum number of components enriched concurrently. Defaults to ${DEFAULT-VALUE}, which processes components serially.")
+    int parallelism;
+
     @Override
     public ProcessorType getImplementationType() {
         return defaultProcessor.getType();
@@ -49,6 +56,7 @@ public class DefaultProcessCommand extends AbstractProcessCommand {
 
     @Override
     public Bom doProcess(Bom bom) {
+        defaultProcessor.setParallelism(parallelism);
         return defaultProcessor.process(bom);
     }
 
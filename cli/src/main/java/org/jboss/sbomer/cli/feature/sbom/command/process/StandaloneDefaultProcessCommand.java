@@ -26,6 +26,7 @@ import org.jboss.sbomer.core.features.sbom.enums.ProcessorType;
 
 import jakarta.inject.Inject;
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
 import picocli.CommandLine.ParentCommand;
 
 @Command(
@@ -40,6 +41,12 @@ public class StandaloneDefaultProcessCommand extends AbstractProcessCommand {
     @Inject
     DefaultProcessor defaultProcessor;
 
+    @Option(
+            names = { "--parallelism" },
+            defaultValue = "1",
+            description = "Maximum number of components enriched concurrently. Defaults to ${DEFAULT-VALUE}, which processes components serially.")
+    int parallelism;
+
     @Override
     public ProcessorType getImplementationType() {
         return defaultProcessor.getType();
@@ -47,6 +54,7 @@ public class StandaloneDefaultProcessCommand extends AbstractProcessCommand {
 
     @Override
     public Bom doProcess(Bom bom) {
+        defaultProcessor.setParallelism(parallelism);
         return defaultProcessor.process(bom);
     }
 
@@ -34,13 +34,22 @@ import static org.jboss.sbomer.core.features.sbom.utils.SbomUtils.setBrewBuildMe
 import static org.jboss.sbomer.core.features.sbom.utils.SbomUtils.setPncBuildMetadata;
 import static org.jboss.sbomer.core.features.sbom.utils.SbomUtils.setPublisher;
 import static org.jboss.sbomer.core.features.sbom.utils.SbomUtils.setSupplier;
-import static org.jboss.sbomer.core.features.sbom.utils.SbomUtils.updatePurl;
+import static org.jboss.sbomer.core.features.sbom.utils.SbomUtils.updatePurls;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.cyclonedx.model.Bom;
 import org.cyclonedx.model.Component;
@@ -53,16 +62,19 @@ import org.jboss.sbomer.cli.feature.sbom.adjuster.PncBuildAdjuster;
 import org.jboss.sbomer.cli.feature.sbom.client.RemoteSource;
 import org.jboss.sbomer.cli.feature.sbom.service.KojiService;
 import org.jboss.sbomer.core.errors.ApplicationException;
+import org.jboss.sbomer.core.errors.ClientException;
 import org.jboss.sbomer.core.features.sbom.enums.ProcessorType;
 import org.jboss.sbomer.core.features.sbom.utils.RhVersionPattern;
 import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
 import org.jboss.sbomer.core.pnc.PncService;
+import org.slf4j.MDC;
 
 import com.github.packageurl.MalformedPackageURLException;
 import com.github.packageurl.PackageURL;
 import com.redhat.red.build.koji.KojiClientException;
 import com.redhat.red.build.koji.model.xmlrpc.KojiBuildInfo;
 
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
@@ -72,13 +84,109 @@ public class DefaultProcessor implements Processor {
 
     protected final KojiService kojiService;
 
+    /**
+     * Maximum number of components enriched concurrently. With the value of {@code 1} components are processed
+     * serially.
+     */
+    @Getter
+    protected int parallelism = 1;
+
     public DefaultProcessor(PncService pncService, KojiService kojiService) {
         this.pncService = pncService;
         this.kojiService = kojiService;
     }
 
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new ApplicationException("Parallelism must be a positive number, provided: {}", parallelism);
+        }
+
+        this.parallelism = parallelism;
+    }
+
     private final Map<String, String> purlRelocations = new HashMap<>();
 
+    /**
+     * Purl relocations found while processing components, recorded per component so that these can be applied in the
+     * order of components in the manifest, independently of the order in which components were processed.
+     */
+    private final Map<Component, Map.Entry<String, String>> componentRelocations = Collections
+            .synchronizedMap(new IdentityHashMap<>());
+
+    /**
+     * Artifacts resolved upfront for the whole BOM, keyed by the component purl. A {@code null} value means that the
+     * artifact was looked up, but not found.
+     */
+    private final Map<String, Artifact> resolvedArtifacts = new HashMap<>();
+
+    /**
+     * Resolves artifacts for all components of the BOM which require a PNC lookup with as few requests as possible.
+     * Components which could not be resolved in bulk are looked up individually later in
+     * {@link #processComponent(Component)}.
+     *
+     * @param bom the BOM to resolve artifacts for
+     */
+    protected void resolveArtifacts(Bom bom) {
+        resolvedArtifacts.clear();
+
+        Map<String, String> sha256ByPurl = new HashMap<>();
+        Set<String> conflicting = new HashSet<>();
+
+        if (bom.getMetadata() != null && bom.getMetadata().getComponent() != null) {
+            Component component = bom.getMetadata().getComponent();
+
+            if (Objects.requireNonNull(component.getType()) != Component.Type.CONTAINER) {
+                addArtifactLookup(component, sha256ByPurl, conflicting);
+            }
+        }
+
+        if (bom.getComponents() != null) {
+            for (Component c : bom.getComponents()) {
+                if (Objects.requireNonNull(c.getType()) != Component.Type.CONTAINER && c.getPurl() != null
+                        && !PackageURL.StandardTypes.RPM.equals(getPackageURL(c).getType())) {
+                    addArtifactLookup(c, sha256ByPurl, conflicting);
+                }
+            }
+        }
+
+        // The same purl with different hashes needs to be looked up separately for every component
+        conflicting.forEach(sha256ByPurl::remove);
+
+        if (sha256ByPurl.isEmpty()) {
+            return;
+        }
+
+        try {
+            resolvedArtifacts.putAll(pncService.getArtifacts(sha256ByPurl));
+        } catch (ClientException e) {
+            log.warn(
+                    "Unable to resolve artifacts in bulk, falling back to individual lookups: {}",
+                    e.getMessage() == null ? e.toString() : e.getMessage(),
+                    e);
+        }
+    }
+
+    private void addArtifactLookup(Component component, Map<String, String> sha256ByPurl, Set<String> conflicting) {
+        if (component.getPurl() == null || component.getVersion() == null || isEnriched(component)) {
+            return;
+        }
+
+        String sha256 = getHash(component, Hash.Algorithm.SHA_256).orElse(null);
+
+        if (sha256ByPurl.containsKey(component.getPurl())
+                && !Objects.equals(sha256ByPurl.get(component.getPurl()), sha256)) {
+            conflicting.add(component.getPurl());
+        }
+
+        sha256ByPurl.putIfAbsent(component.getPurl(), sha256);
+    }
+
+    private boolean isEnriched(Component component) {
+        return hasExternalReference(component, ExternalReference.Type.BUILD_SYSTEM, SBOM_RED_HAT_PNC_BUILD_ID)
+                || hasExternalReference(component, ExternalReference.Type.BUILD_META, SBOM_RED_HAT_ENVIRONMENT_IMAGE)
+                || hasExternalReference(component, ExternalReference.Type.BUILD_SYSTEM, SBOM_RED_HAT_BREW_BUILD_ID);
+    }
+
     /**
      * Performs processing for a given {@link Component}.
      *
@@ -98,9 +206,7 @@ public class DefaultProcessor implements Processor {
         }
 
         // If the component does not have "pnc-build-id" nor "pnc-environment-image" nor "brew-build-id", query it
-        if (!hasExternalReference(component, ExternalReference.Type.BUILD_SYSTEM, SBOM_RED_HAT_PNC_BUILD_ID)
-                && !hasExternalReference(component, ExternalReference.Type.BUILD_META, SBOM_RED_HAT_ENVIRONMENT_IMAGE)
-                && !hasExternalReference(component, ExternalReference.Type.BUILD_SYSTEM, SBOM_RED_HAT_BREW_BUILD_ID)) {
+        if (!isEnriched(component)) {
 
             Optional<String> sha256 = getHash(component, Hash.Algorithm.SHA_256);
             Optional<String> sha1 = getHash(component, Hash.Algorithm.SHA1);
@@ -109,7 +215,10 @@ public class DefaultProcessor implements Processor {
             // First, try to look up the artifact with the purl given and with optional SHA256 hash to filter out
             // results
             // Even though we may have different hashes, we specifically specify only SHA256 here.
-            Artifact artifact = pncService.getArtifact(component.getPurl(), sha256, Optional.empty(), Optional.empty());
+            // Prefer the result of the bulk lookup, if the component was part of it.
+            Artifact artifact = resolvedArtifacts.containsKey(component.getPurl())
+                    ? resolvedArtifacts.get(component.getPurl())
+                    : pncService.getArtifact(component.getPurl(), sha256, Optional.empty(), Optional.empty());
 
             // Artifact wasn't found, so we will try lookup using different methods
             if (artifact == null) {
@@ -151,7 +260,7 @@ public class DefaultProcessor implements Processor {
                     // This means that the purl most probably is incorrect in the manifest, so let's update it.
                     log.debug("Updating component's purl from '{}' to '{}'", oldPurl, newPurl);
 
-                    purlRelocations.put(oldPurl, newPurl);
+                    componentRelocations.put(component, Map.entry(oldPurl, newPurl));
                 }
             }
 
@@ -234,34 +343,45 @@ public class DefaultProcessor implements Processor {
         // TODO: this should be moved to its own workflow
         new PncBuildAdjuster().adjust(bom);
 
+        // Resolve all PNC artifacts upfront instead of querying PNC for every component separately
+        resolveArtifacts(bom);
+
+        List<Component> processed = new ArrayList<>();
+        List<Runnable> tasks = new ArrayList<>();
+
         if (bom.getMetadata() != null && bom.getMetadata().getComponent() != null) {
             Component component = bom.getMetadata().getComponent();
 
             // For container images, there is nothing to do for the metadata component.
             // All modifications are done in the main component.
             if (Objects.requireNonNull(component.getType()) != Component.Type.CONTAINER) {
-                processComponent(component);
+                processed.add(component);
+                tasks.add(() -> processComponent(component));
             }
         }
 
         if (bom.getComponents() != null) {
             for (Component c : bom.getComponents()) {
-
-                if (Objects.requireNonNull(c.getType()) == Component.Type.CONTAINER) {
-                    processContainerImageComponent(c);
-                } else {
-                    PackageURL purl = getPackageURL(c);
-                    if (PackageURL.StandardTypes.RPM.equals(purl.getType())) {
-                        processRpmComponent(c, purl);
-                    } else {
-                        processComponent(c);
-                    }
-                }
+                processed.add(c);
+                tasks.add(() -> processAnyComponent(c));
             }
         }
 
+        componentRelocations.clear();
+
+        runAll(tasks);
+
+        // Collect relocations in the order of components to make the result independent of the parallelism
+        processed.forEach(component -> {
+            Map.Entry<String, String> relocation = componentRelocations.get(component);
+
+            if (relocation != null) {
+                purlRelocations.put(relocation.getKey(), relocation.getValue());
+            }
+        });
+
         // If there are any purl relocations, process these.
-        purlRelocations.forEach((oldPurl, newPurl) -> updatePurl(bom, oldPurl, newPurl));
+        updatePurls(bom, purlRelocations);
 
         if (SbomUtils.isNotEmpty(bom.getComponents())) {
             WorkaroundMissingNpmDependencies workaround = new WorkaroundMissingNpmDependencies(pncService);
@@ -272,6 +392,71 @@ public class DefaultProcessor implements Processor {
         return bom;
     }
 
+    private void processAnyComponent(Component component) {
+        if (Objects.requireNonNull(component.getType()) == Component.Type.CONTAINER) {
+            processContainerImageComponent(component);
+        } else {
+            PackageURL purl = getPackageURL(component);
+            if (PackageURL.StandardTypes.RPM.equals(purl.getType())) {
+                processRpmComponent(component, purl);
+            } else {
+                processComponent(component);
+            }
+        }
+    }
+
+    /**
+     * Runs provided tasks. In case the parallelism is greater than one, tasks are executed concurrently, with at most
+     * {@link #parallelism} tasks running at the same time. Returns when all tasks are finished.
+     *
+     * @param tasks the tasks to run
+     */
+    private void runAll(List<Runnable> tasks) {
+        if (parallelism == 1 || tasks.size() <= 1) {
+            tasks.forEach(Runnable::run);
+            return;
+        }
+
+        log.debug("Processing {} components with parallelism of {}", tasks.size(), parallelism);
+
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, tasks.size()));
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+
+            for (Runnable task : tasks) {
+                futures.add(executor.submit(() -> {
+                    // Make sure the logging context is available in worker threads as well
+                    if (mdc != null) {
+                        MDC.setContextMap(mdc);
+                    }
+
+                    try {
+                        task.run();
+                    } finally {
+                        MDC.clear();
+                    }
+                }));
+            }
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApplicationException("Processing of components was interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+
+            throw new ApplicationException("Processing of components failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     private void processRpmComponent(Component component, PackageURL purl) {
         Map<String, String> qualifiers = purl.getQualifiers();
         String arch = null;
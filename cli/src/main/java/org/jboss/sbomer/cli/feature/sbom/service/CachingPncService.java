@@ -0,0 +1,86 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.cli.feature.sbom.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.jboss.pnc.dto.Artifact;
+import org.jboss.sbomer.cli.feature.sbom.cache.LookupCache;
+import org.jboss.sbomer.core.pnc.PncService;
+
+/**
+ * A {@link PncService} which serves artifact lookups from a {@link LookupCache}.
+ */
+public class CachingPncService extends PncService {
+
+    private final LookupCache<Artifact> artifactCache;
+
+    public CachingPncService(String apiUrl, LookupCache<Artifact> artifactCache) {
+        super(apiUrl);
+        this.artifactCache = artifactCache;
+    }
+
+    @Override
+    public Artifact getArtifact(String purl, Optional<String> sha256, Optional<String> sha1, Optional<String> md5) {
+        return artifactCache.get(
+                artifactKey(purl, sha256.orElse(null), sha1.orElse(null), md5.orElse(null)),
+                () -> super.getArtifact(purl, sha256, sha1, md5));
+    }
+
+    @Override
+    public Map<String, Artifact> getArtifacts(Map<String, String> sha256ByPurl) {
+        // The bulk lookup selects artifacts the same way as the single lookup with purl and SHA-256 hash, so the
+        // entries are shared
+        Map<String, String> purlsByKey = new HashMap<>();
+
+        sha256ByPurl.forEach((purl, sha256) -> purlsByKey.put(artifactKey(purl, sha256, null, null), purl));
+
+        Map<String, Artifact> cached = artifactCache.getAll(purlsByKey.keySet(), keys -> {
+            Map<String, String> missing = new HashMap<>();
+
+            keys.forEach(key -> {
+                String purl = purlsByKey.get(key);
+                missing.put(purl, sha256ByPurl.get(purl));
+            });
+
+            Map<String, Artifact> resolved = new HashMap<>();
+
+            super.getArtifacts(missing).forEach(
+                    (purl, artifact) -> resolved.put(artifactKey(purl, missing.get(purl), null, null), artifact));
+
+            return resolved;
+        });
+
+        Map<String, Artifact> result = new HashMap<>();
+
+        cached.forEach((key, artifact) -> result.put(purlsByKey.get(key), artifact));
+
+        return result;
+    }
+
+    private static String artifactKey(String purl, String sha256, String sha1, String md5) {
+        return String.join(
+                "|",
+                purl == null ? "" : purl,
+                sha256 == null ? "" : sha256,
+                sha1 == null ? "" : sha1,
+                md5 == null ? "" : md5);
+    }
+}
@@ -50,6 +50,7 @@ import org.jboss.pnc.build.finder.core.LocalFile;
 import org.jboss.pnc.build.finder.koji.ClientSession;
 import org.jboss.pnc.build.finder.koji.KojiBuild;
 import org.jboss.pnc.dto.Artifact;
+import org.jboss.sbomer.cli.feature.sbom.cache.LookupCaches;
 import org.jboss.sbomer.cli.feature.sbom.client.KojiDownloadClient;
 import org.jboss.sbomer.cli.feature.sbom.client.RemoteSource;
 import org.jboss.sbomer.cli.feature.sbom.utils.buildfinder.FinderStatus;
@@ -102,6 +103,10 @@ public class KojiService {
     @Setter
     KojiDownloadClient kojiDownloadClient;
 
+    @Inject
+    @Setter
+    LookupCaches lookupCaches;
+
     /**
      * Executes analysis of the provided archives identified by URLs, which must be downloadable using HTTP(S). The
      * operation is executed synchronously, but the analysis itself runs several executors in parallel.
@@ -208,34 +213,55 @@ public class KojiService {
         }
 
         try {
-            FinderStatus status = new FinderStatus();
-            log.trace("Searching for artifact '{}' in Brew...", artifact.getPublicUrl());
-            List<KojiBuild> brewBuilds = find(artifact.getPublicUrl(), status, status);
-            if (brewBuilds.size() == 1) {
-                log.trace(
-                        "Found Brew build with id {} of artifact: '{}'",
-                        brewBuilds.get(0).getId(),
-                        artifact.getPublicUrl());
-                return brewBuilds.get(0);
-            } else if (brewBuilds.size() > 1) {
-                String brewBuildIds = brewBuilds.stream().map(KojiBuild::getId).collect(Collectors.joining(", "));
-                log.warn(
-                        "Multiple builds (with ids: {}) where found in Brew of the artifact '{}', picking the first one!",
-                        brewBuildIds,
-                        artifact.getPublicUrl());
-                return brewBuilds.get(0);
-            }
-        } catch (Throwable e) {
+            return lookupCaches.getBrewBuildsByArtifact()
+                    .get(artifact.getPublicUrl() + "|" + artifact.getSha256(), () -> findBuildOfArtifact(artifact));
+        } catch (Exception e) {
             log.error("Lookup in Brew failed due to {}", e.getMessage() == null ? e.toString() : e.getMessage(), e);
         }
         return null;
     }
 
+    private KojiBuild findBuildOfArtifact(Artifact artifact) throws Exception {
+        FinderStatus status = new FinderStatus();
+        log.trace("Searching for artifact '{}' in Brew...", artifact.getPublicUrl());
+
+        List<KojiBuild> brewBuilds;
+
+        try {
+            brewBuilds = find(artifact.getPublicUrl(), status, status);
+        } catch (Exception e) {
+            throw e;
+        } catch (Throwable e) { // NOSONAR We are rethrowing it.
+            throw new ApplicationException("Lookup in Brew failed", e);
+        }
+
+        if (brewBuilds.size() == 1) {
+            log.trace(
+                    "Found Brew build with id {} of artifact: '{}'",
+                    brewBuilds.get(0).getId(),
+                    artifact.getPublicUrl());
+            return brewBuilds.get(0);
+        } else if (brewBuilds.size() > 1) {
+            String brewBuildIds = brewBuilds.stream().map(KojiBuild::getId).collect(Collectors.joining(", "));
+            log.warn(
+                    "Multiple builds (with ids: {}) where found in Brew of the artifact '{}', picking the first one!",
+                    brewBuildIds,
+                    artifact.getPublicUrl());
+            return brewBuilds.get(0);
+        }
+
+        return null;
+    }
+
     public KojiBuildInfo findBuildByRPM(String nvra) throws KojiClientException {
         if (nvra == null) {
             return null;
         }
 
+        return lookupCaches.getBrewBuildsByRpm().get(nvra, () -> findBuildOfRPM(nvra));
+    }
+
+    private KojiBuildInfo findBuildOfRPM(String nvra) throws KojiClientException {
         log.debug("Finding Brew build for RPM '{}'...", nvra);
 
         List<KojiRpmInfo> rpm = kojiSession.getRPM(List.of(new KojiIdOrName(nvra)));
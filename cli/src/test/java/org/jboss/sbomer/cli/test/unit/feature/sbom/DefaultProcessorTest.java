@@ -4,13 +4,24 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import org.cyclonedx.exception.GeneratorException;
 import org.cyclonedx.model.Ancestors;
 import org.cyclonedx.model.Bom;
 import org.cyclonedx.model.Component;
@@ -23,6 +34,8 @@ import org.jboss.pnc.build.finder.core.BuildConfig;
 import org.jboss.pnc.dto.Artifact;
 import org.jboss.pnc.dto.Build;
 import org.jboss.pnc.dto.BuildConfigurationRevisionRef;
+import org.jboss.pnc.dto.Environment;
+import org.jboss.pnc.dto.SCMRepository;
 import org.jboss.pnc.enums.BuildType;
 import org.jboss.sbomer.cli.feature.sbom.client.RemoteSource;
 import org.jboss.sbomer.cli.feature.sbom.processor.DefaultProcessor;
@@ -198,6 +211,128 @@ class DefaultProcessorTest {
         assertEquals(artifact.getPurl(), updatedDependency.getRef());
     }
 
+    @Test
+    void testResolveArtifactsInBulk() throws IOException {
+        PncService pncServiceMock = Mockito.mock(PncService.class);
+        KojiService kojiServiceMock = Mockito.mock(KojiService.class);
+
+        String purl = "pkg:maven/org.ow2.asm/asm@9.1.0.redhat-00002?type=jar";
+        Build build = Build.builder()
+                .id("APT4PH2ILMAAA")
+                .environment(
+                        Environment.builder()
+                                .systemImageId("imageid")
+                                .systemImageRepositoryUrl("systemImageRepositoryUrl")
+                                .build())
+                .scmRepository(SCMRepository.builder().externalUrl("https://github.com/gnodet/asm.git").build())
+                .scmUrl("https://git.example.com/asm.git")
+                .scmTag("9.1.0.redhat-00002")
+                .scmRevision("abcdef")
+                .buildConfigRevision(BuildConfigurationRevisionRef.refBuilder().buildType(BuildType.MVN).build())
+                .build();
+        Artifact artifact = Artifact.builder()
+                .id("7429724")
+                .purl(purl)
+                .sha1("2cdf6b457191ed82ef3a9d2e579f6d0aa495a533")
+                .build(build)
+                .build();
+
+        Map<String, Artifact> resolved = new HashMap<>();
+        resolved.put(purl, artifact);
+
+        when(pncServiceMock.getApiUrl()).thenReturn("pnc.example.com");
+        when(pncServiceMock.getArtifacts(anyMap())).thenReturn(resolved);
+
+        Bom bom = SbomUtils.fromString(TestResources.asString("boms/image-after-adjustments.json"));
+        Component component = SbomUtils
+                .createComponent(null, "asm", "9.1.0.redhat-00002", null, purl, Component.Type.LIBRARY);
+        bom.addComponent(component);
+
+        DefaultProcessor defaultProcessor = new DefaultProcessor(pncServiceMock, kojiServiceMock);
+        Bom processed = defaultProcessor.process(bom);
+
+        Component processedComponent = getComponent(processed, purl).orElseThrow();
+
+        assertEquals("Red Hat", processedComponent.getPublisher());
+        assertEquals(
+                "https://pnc.example.com/pnc-rest/v2/builds/APT4PH2ILMAAA",
+                SbomUtils.getExternalReferences(processedComponent, Type.BUILD_SYSTEM, "pnc-build-id")
+                        .get(0)
+                        .getUrl());
+
+        verify(pncServiceMock, times(1)).getArtifacts(anyMap());
+        verify(pncServiceMock, never()).getArtifact(eq(purl), any(), any(), any());
+    }
+
+    /**
+     * Adds SHA-256 hashes to the first npm components of the manifest, so that these are looked up in PNC by hashes.
+     */
+    private static Bom withHashes(Bom bom, int count) {
+        List<Component> npmComponents = bom.getComponents()
+                .stream()
+                .filter(c -> c.getPurl() != null && c.getPurl().startsWith("pkg:npm/"))
+                .limit(count)
+                .toList();
+
+        for (int i = 0; i < npmComponents.size(); i++) {
+            npmComponents.get(i).addHash(new Hash(Hash.Algorithm.SHA_256, String.format("%064x", i + 1)));
+        }
+
+        return bom;
+    }
+
+    @Test
+    void testParallelProcessingProducesSameResult() throws IOException, KojiClientException, GeneratorException {
+        PncService pncServiceMock = Mockito.mock(PncService.class);
+        KojiService kojiServiceMock = Mockito.mock(KojiService.class);
+
+        KojiBuildInfo kojiBuildInfo = new KojiBuildInfo();
+        kojiBuildInfo.setId(12345);
+        kojiBuildInfo.setSource("https://git.com/repo#hash");
+
+        BuildConfig buildConfig = new BuildConfig();
+        buildConfig.setKojiWebURL(new URL("https://koji.web"));
+
+        when(kojiServiceMock.getConfig()).thenReturn(buildConfig);
+        when(kojiServiceMock.findBuild("amqstreams-console-ui-container-2.7.0-8.1718294415")).thenReturn(kojiBuildInfo);
+        when(kojiServiceMock.findBuildByRPM(any())).thenReturn(kojiBuildInfo);
+
+        // The purl lookups of the hashed components fail, the hash-only lookups find these under different purls
+        int relocatedCount = 8;
+        Map<String, Artifact> artifactsBySha256 = new HashMap<>();
+        List<String> relocatedPurls = new ArrayList<>();
+
+        for (int i = 0; i < relocatedCount; i++) {
+            String sha256 = String.format("%064x", i + 1);
+            String purl = "pkg:npm/relocated-" + i + "@1.0." + i;
+
+            artifactsBySha256.put(sha256, Artifact.builder().id(String.valueOf(1000 + i)).purl(purl).build());
+            relocatedPurls.add(purl);
+        }
+
+        when(pncServiceMock.getArtifact(isNull(), any(), any(), any())).thenAnswer(
+                invocation -> artifactsBySha256.get(invocation.<Optional<String>> getArgument(1).orElse(null)));
+
+        DefaultProcessor serialProcessor = new DefaultProcessor(pncServiceMock, kojiServiceMock);
+        Bom serial = serialProcessor.process(
+                withHashes(
+                        SbomUtils.fromString(TestResources.asString("boms/image-after-adjustments.json")),
+                        relocatedCount));
+
+        DefaultProcessor parallelProcessor = new DefaultProcessor(pncServiceMock, kojiServiceMock);
+        parallelProcessor.setParallelism(8);
+        Bom parallel = parallelProcessor.process(
+                withHashes(
+                        SbomUtils.fromString(TestResources.asString("boms/image-after-adjustments.json")),
+                        relocatedCount));
+
+        for (String purl : relocatedPurls) {
+            assertTrue(getComponent(serial, purl).isPresent(), purl);
+        }
+
+        assertEquals(SbomUtils.toJson(serial), SbomUtils.toJson(parallel));
+    }
+
     @Test
     void testAddMissingNpmDependencies() throws IOException {
         DefaultProcessor defaultProcessor = mockForAddMissingNpmDependencies();
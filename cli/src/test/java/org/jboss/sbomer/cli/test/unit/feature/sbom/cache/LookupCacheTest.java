@@ -0,0 +1,226 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.cli.test.unit.feature.sbom.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.pnc.build.finder.koji.KojiBuild;
+import org.jboss.pnc.dto.Artifact;
+import org.jboss.sbomer.cli.feature.sbom.cache.FileLookupCacheStore;
+import org.jboss.sbomer.cli.feature.sbom.cache.LookupCache;
+import org.jboss.sbomer.core.errors.ApplicationException;
+import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.redhat.red.build.koji.model.json.util.KojiObjectMapper;
+import com.redhat.red.build.koji.model.xmlrpc.KojiBuildInfo;
+
+class LookupCacheTest {
+
+    private static final String PURL = "pkg:maven/org.ow2.asm/asm@9.1.0.redhat-00002?type=jar";
+
+    private static LookupCache<Artifact> cache(Path directory, Duration ttl) {
+        return new LookupCache<>(
+                "pnc-artifacts",
+                Artifact.class,
+                ObjectMapperProvider.json(),
+                true,
+                ttl,
+                ttl,
+                directory == null ? null : new FileLookupCacheStore(directory));
+    }
+
+    private static LookupCache<KojiBuild> kojiCache(Path directory, KojiObjectMapper mapper) {
+        return new LookupCache<>(
+                "brew-builds-by-artifact",
+                KojiBuild.class,
+                mapper,
+                true,
+                Duration.ofHours(1),
+                Duration.ofHours(1),
+                new FileLookupCacheStore(directory));
+    }
+
+    private static Artifact artifact() {
+        return Artifact.builder().id("7429724").purl(PURL).sha1("2cdf6b457191ed82ef3a9d2e579f6d0aa495a533").build();
+    }
+
+    @Test
+    void testReadThrough() {
+        LookupCache<Artifact> cache = cache(null, Duration.ofHours(1));
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals("7429724", cache.get(PURL, () -> {
+            loads.incrementAndGet();
+            return artifact();
+        }).getId());
+        assertEquals("7429724", cache.get(PURL, () -> {
+            loads.incrementAndGet();
+            return artifact();
+        }).getId());
+
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void testNegativeResultsAreCached() {
+        LookupCache<Artifact> cache = cache(null, Duration.ofHours(1));
+        AtomicInteger loads = new AtomicInteger();
+
+        assertNull(cache.get(PURL, () -> {
+            loads.incrementAndGet();
+            return null;
+        }));
+        assertNull(cache.get(PURL, () -> {
+            loads.incrementAndGet();
+            return null;
+        }));
+
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getNegativeHits());
+    }
+
+    @Test
+    void testFailuresAreNotCached() {
+        LookupCache<Artifact> cache = cache(null, Duration.ofHours(1));
+
+        assertThrows(ApplicationException.class, () -> cache.get(PURL, () -> {
+            throw new ApplicationException("PNC is down");
+        }));
+
+        assertEquals("7429724", cache.get(PURL, LookupCacheTest::artifact).getId());
+        assertEquals(0, cache.getHits());
+    }
+
+    @Test
+    void testExpiredEntriesAreReloaded() {
+        LookupCache<Artifact> cache = cache(null, Duration.ZERO);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(PURL, () -> {
+            loads.incrementAndGet();
+            return artifact();
+        });
+        cache.get(PURL, () -> {
+            loads.incrementAndGet();
+            return artifact();
+        });
+
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.getHits());
+    }
+
+    @Test
+    void testEntriesAreSharedThroughFileStore(@TempDir Path directory) {
+        cache(directory, Duration.ofHours(1)).get(PURL, LookupCacheTest::artifact);
+        cache(directory, Duration.ofHours(1)).get("missing", () -> null);
+
+        LookupCache<Artifact> other = cache(directory, Duration.ofHours(1));
+
+        Artifact artifact = other.get(PURL, () -> {
+            throw new ApplicationException("Should be served from the store");
+        });
+
+        assertEquals("7429724", artifact.getId());
+        assertEquals(PURL, artifact.getPurl());
+        assertNull(other.get("missing", () -> {
+            throw new ApplicationException("Should be served from the store");
+        }));
+        assertEquals(2, other.getHits());
+    }
+
+    @Test
+    void testKojiBuildsAreSharedThroughFileStore(@TempDir Path directory) {
+        KojiObjectMapper mapper = new KojiObjectMapper();
+
+        KojiBuildInfo buildInfo = new KojiBuildInfo();
+        buildInfo.setId(12345);
+        buildInfo.setName("asm");
+        buildInfo.setVersion("9.1.0.redhat_00002");
+        buildInfo.setRelease("1");
+        buildInfo.setNvr("asm-9.1.0.redhat_00002-1");
+        buildInfo.setSource("https://git.com/repo#hash");
+
+        KojiBuild build = new KojiBuild();
+        build.setBuildInfo(buildInfo);
+
+        kojiCache(directory, mapper).put(PURL, build);
+
+        KojiBuild cached = kojiCache(directory, mapper).get(PURL, () -> {
+            throw new ApplicationException("Should be served from the store");
+        });
+
+        assertEquals(mapper.valueToTree(build), mapper.valueToTree(cached));
+        assertEquals(12345, cached.getBuildInfo().getId());
+        assertEquals("asm-9.1.0.redhat_00002-1", cached.getBuildInfo().getNvr());
+        assertEquals(Optional.of("https://git.com/repo#hash"), cached.getSource());
+    }
+
+    @Test
+    void testStatisticsAreWrittenToFileStore(@TempDir Path directory) throws IOException {
+        LookupCache<Artifact> cache = cache(directory, Duration.ofHours(1));
+        cache.get(PURL, LookupCacheTest::artifact);
+        cache.get(PURL, LookupCacheTest::artifact);
+
+        ObjectNode statistics = ObjectMapperProvider.json().createObjectNode();
+        statistics.putObject(cache.getName()).put("hits", cache.getHits()).put("misses", cache.getMisses());
+
+        new FileLookupCacheStore(directory).putStatistics("generation-1", statistics);
+
+        JsonNode written = ObjectMapperProvider.json()
+                .readTree(directory.resolve("stats").resolve("generation-1.json").toFile());
+
+        assertEquals(1, written.path("pnc-artifacts").path("hits").asLong());
+        assertEquals(1, written.path("pnc-artifacts").path("misses").asLong());
+    }
+
+    @Test
+    void testGetAllLoadsOnlyMissingKeys() {
+        LookupCache<Artifact> cache = cache(null, Duration.ofHours(1));
+
+        cache.put(PURL, artifact());
+
+        Map<String, Artifact> result = cache.getAll(List.of(PURL, "missing"), keys -> {
+            assertEquals(1, keys.size());
+
+            Map<String, Artifact> loaded = new HashMap<>();
+            keys.forEach(key -> loaded.put(key, null));
+            return loaded;
+        });
+
+        assertEquals(2, result.size());
+        assertEquals("7429724", result.get(PURL).getId());
+        assertNull(result.get("missing"));
+    }
+}
@@ -57,6 +57,13 @@ public abstract class RequestConfig {
     @JsonIgnore
     String type;
 
+    /**
+     * The priority of the generation requests created for this request, generation requests with higher priority are
+     * scheduled first. For example an interactive generation of a single build can be scheduled ahead of the generation
+     * requests of large advisories. Defaults to {@code 0} when not set.
+     */
+    Integer priority;
+
     public abstract String getType();
 
     public String toJson() {
@@ -49,7 +49,7 @@ public class Page<T> {
     private int totalPages;
 
     /**
-     * Number of all hits (not only this page).
+     * Number of all hits (not only this page) or -1 if unknown.
      */
     private long totalHits;
 
@@ -58,7 +58,16 @@ public class Page<T> {
      */
     private Collection<T> content;
 
+    /**
+     * Cursor to retrieve the page following this one with keyset pagination or {@code null} if this is the last page.
+     */
+    private String nextCursor;
+
     public Page() {
         content = Collections.emptyList();
     }
+
+    public Page(int pageIndex, int pageSize, int totalPages, long totalHits, Collection<T> content) {
+        this(pageIndex, pageSize, totalPages, totalHits, content, null);
+    }
 }
@@ -113,7 +113,9 @@ import org.jboss.sbomer.core.features.sbom.config.runtime.RedHatProductProcessor
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.github.packageurl.MalformedPackageURLException;
 import com.github.packageurl.PackageURL;
@@ -122,6 +124,10 @@ import com.github.packageurl.PackageURLBuilder;
 public class SbomUtils {
     private static final Logger log = LoggerFactory.getLogger(SbomUtils.class);
 
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private static final String[] ROOT_PURL_PATH = { "metadata", "component", "purl" };
+
     public static final String PROTOCOL = "https://";
 
     public static final String COMPONENT_LICENSE_ACKNOWLEDGEMENT = "concluded";
@@ -596,20 +602,81 @@ public class SbomUtils {
      * @param newPurl the new purl
      */
     public static void updatePurl(Bom bom, String oldPurl, String newPurl) {
-        // Update main component's purl
-        if (updatePurl(bom.getMetadata().getComponent(), oldPurl, newPurl)) {
-            updateBomRef(bom, bom.getMetadata().getComponent(), oldPurl, newPurl);
+        updatePurls(bom, Map.of(oldPurl, newPurl));
+    }
+
+    /**
+     * <p>
+     * For a given {@link Bom} update all references for all purls found in the {@code relocations} map (old purl to
+     * new purl) within the manifest.
+     * </p>
+     *
+     * <p>
+     * Indexes of purls and dependency references are built once and components as well as the whole dependency tree
+     * (including nested dependencies and provides) are traversed only once, regardless of the number of relocations.
+     * Relocations are not chained, every purl is relocated at most once.
+     * </p>
+     *
+     * <p>
+     * The bom-ref of a relocated component is updated only if there is no dependency with the bom-ref equal to the new
+     * purl yet, see {@link #updateBomRef(Bom, Component, String, String)}.
+     * </p>
+     *
+     * @param bom the BOM
+     * @param relocations the map of old purls to new purls
+     */
+    public static void updatePurls(Bom bom, Map<String, String> relocations) {
+        if (relocations == null || relocations.isEmpty()) {
+            return;
+        }
+
+        List<Component> components = new ArrayList<>();
+
+        if (bom.getMetadata() != null && bom.getMetadata().getComponent() != null) {
+            components.add(bom.getMetadata().getComponent());
         }
 
-        // If we have any components (we really should!) then update these purls as well
         if (bom.getComponents() != null) {
-            // Update all components' purls (if needed)
-            bom.getComponents().forEach(c -> {
-                if (updatePurl(c, oldPurl, newPurl)) {
-                    updateBomRef(bom, c, oldPurl, newPurl);
+            components.addAll(bom.getComponents());
+        }
+
+        Set<String> dependencyRefs = bom.getDependencies() == null ? new HashSet<>()
+                : bom.getDependencies().stream().map(Dependency::getRef).collect(Collectors.toCollection(HashSet::new));
+        Map<String, String> refRelocations = new HashMap<>();
+
+        for (Component component : components) {
+            String oldPurl = component.getPurl();
+            String newPurl = oldPurl == null ? null : relocations.get(oldPurl);
+
+            if (newPurl == null) {
+                continue;
+            }
+
+            component.setPurl(newPurl);
+
+            // See updateBomRef for the reasoning of not updating the bom-ref in case a dependency with the new purl
+            // exists already
+            if (oldPurl.equals(component.getBomRef()) && !dependencyRefs.contains(newPurl)) {
+                component.setBomRef(newPurl);
+                refRelocations.put(oldPurl, newPurl);
+
+                if (dependencyRefs.remove(oldPurl)) {
+                    dependencyRefs.add(newPurl);
                 }
-            });
+            }
+        }
+
+        if (refRelocations.isEmpty() || bom.getDependencies() == null) {
+            return;
+        }
+
+        List<Dependency> updatedDependencies = new ArrayList<>(bom.getDependencies().size());
+
+        for (Dependency dependency : bom.getDependencies()) {
+            updatedDependencies.add(updateDependencyRefs(dependency, refRelocations));
         }
+
+        bom.setDependencies(updatedDependencies);
     }
 
     /**
@@ -693,6 +760,48 @@ public class SbomUtils {
         return dependency;
     }
 
+    /**
+     * Updates refs of the dependency and all its nested dependencies and provides according to the
+     * {@code refRelocations} map (old ref to new ref).
+     *
+     * @param dependency the dependency to update
+     * @param refRelocations the map of old refs to new refs
+     * @return the updated dependency
+     */
+    public static Dependency updateDependencyRefs(Dependency dependency, Map<String, String> refRelocations) {
+        String newRef = refRelocations.get(dependency.getRef());
+
+        // If the current dependency has one of the old refs, replace it with the new one
+        if (newRef != null) {
+            Dependency updatedDependency = new Dependency(newRef);
+            updatedDependency.setDependencies(dependency.getDependencies());
+            updatedDependency.setProvides(dependency.getProvides());
+
+            // Replace the old dependency with the updated one
+            dependency = updatedDependency;
+        }
+
+        // Recursively update sub-dependencies
+        if (dependency.getDependencies() != null) {
+            List<Dependency> subDependencies = new ArrayList<>(dependency.getDependencies().size());
+            for (Dependency subDependency : dependency.getDependencies()) {
+                subDependencies.add(updateDependencyRefs(subDependency, refRelocations));
+            }
+            dependency.setDependencies(subDependencies);
+        }
+
+        // Recursively update provided dependencies
+        if (dependency.getProvides() != null) {
+            List<Dependency> subProvides = new ArrayList<>(dependency.getProvides().size());
+            for (Dependency subProvide : dependency.getProvides()) {
+                subProvides.add(updateDependencyRefs(subProvide, refRelocations));
+            }
+            dependency.setProvides(subProvides);
+        }
+
+        return dependency;
+    }
+
     public static Dependency updateDependencyRef(Dependency dependency, Pattern pattern, String newRef) {
         // If the current dependency ref matches pattern, replace it with newRef
         if (pattern.matcher(dependency.getRef()).matches()) {
@@ -1079,7 +1188,75 @@ public class SbomUtils {
         }
     }
 
+    /**
+     * Reads the purl of the main component ({@code metadata.component.purl}) directly from the manifest, without
+     * converting it into a CycloneDX {@link Bom} object.
+     *
+     * @param jsonNode The {@link JsonNode} holding the manifest, either as an object or as a JSON string.
+     * @return The purl of the main component or <code>null</code> if it is not available.
+     */
+    public static String getRootPurl(JsonNode jsonNode) {
+        if (jsonNode == null) {
+            return null;
+        }
+
+        if (!jsonNode.isTextual()) {
+            JsonNode purl = jsonNode;
+
+            for (String field : ROOT_PURL_PATH) {
+                purl = purl.path(field);
+            }
+
+            return purl.isTextual() ? purl.textValue() : null;
+        }
+
+        try (com.fasterxml.jackson.core.JsonParser parser = JSON_FACTORY.createParser(jsonNode.textValue())) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+
+            return readStringAtPath(parser, 0);
+        } catch (IOException e) {
+            log.error(e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Streams through the object the parser is positioned at, descending only into the fields listed in
+     * {@link #ROOT_PURL_PATH} and skipping everything else.
+     */
+    private static String readStringAtPath(com.fasterxml.jackson.core.JsonParser parser, int depth)
+            throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken value = parser.nextToken();
+
+            if (!ROOT_PURL_PATH[depth].equals(name)) {
+                parser.skipChildren();
+                continue;
+            }
+
+            if (depth == ROOT_PURL_PATH.length - 1) {
+                return value == JsonToken.VALUE_STRING ? parser.getText() : null;
+            }
+
+            if (value != JsonToken.START_OBJECT) {
+                return null;
+            }
+
+            return readStringAtPath(parser, depth + 1);
+        }
+
+        return null;
+    }
+
     public static List<String> computeNVRFromContainerManifest(JsonNode jsonNode) {
+        if (jsonNode != null && jsonNode.isObject()) {
+            // Read the labels of the main component directly, without converting the whole manifest into a Bom
+            return computeNVRFromProperties(jsonNode.path("components").path(0).path("properties"));
+        }
+
         Bom bom = fromJsonNode(jsonNode);
         if (bom == null || !isNotEmpty(bom.getComponents())) {
             return List.of();
@@ -1099,6 +1276,31 @@ public class SbomUtils {
         return List.of();
     }
 
+    private static List<String> computeNVRFromProperties(JsonNode properties) {
+        String n = null;
+        String v = null;
+        String r = null;
+
+        for (JsonNode property : properties) {
+            String name = property.path("name").asText(null);
+            String value = property.path("value").asText(null);
+
+            if (n == null && Constants.CONTAINER_PROPERTY_IMAGE_LABEL_COMPONENT.equals(name)) {
+                n = value;
+            } else if (v == null && Constants.CONTAINER_PROPERTY_IMAGE_LABEL_VERSION.equals(name)) {
+                v = value;
+            } else if (r == null && Constants.CONTAINER_PROPERTY_IMAGE_LABEL_RELEASE.equals(name)) {
+                r = value;
+            }
+        }
+
+        if (n != null && v != null && r != null) {
+            return List.of(n, v, r);
+        }
+
+        return List.of();
+    }
+
     public static void setEvidenceIdentities(Component c, Set<String> concludedValues, Field field) {
         List<Identity> identities = concludedValues.stream().map(concludedValue -> {
             Identity identity = new Identity();
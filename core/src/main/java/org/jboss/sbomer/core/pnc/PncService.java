@@ -20,9 +20,15 @@ package org.jboss.sbomer.core.pnc;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.jboss.pnc.client.ArtifactClient;
 import org.jboss.pnc.client.BuildClient;
@@ -61,6 +67,14 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class PncService {
 
+    /**
+     * Maximum number of values put into a single {@code =in=} RSQL clause when resolving artifacts in bulk. Keeps the
+     * request URL at a reasonable length.
+     */
+    public static final int ARTIFACT_QUERY_CHUNK_SIZE = 50;
+
+    private static final String NPM_REDHAT_PURL_PREFIX = "pkg:npm/%40redhat/";
+
     @Getter
     final String apiUrl;
 
@@ -367,8 +381,8 @@ public class PncService {
         // artifacts returned
         if (purl != null) {
             // We need to make a small tweak to find the NPM purls because PNC does not like the % in the purl
-            if (purl.startsWith("pkg:npm/%40redhat/")) {
-                query.add("purl=like=\"" + purl.replace("pkg:npm/%40redhat/", "pkg:npm/?40redhat/") + "\"");
+            if (purl.startsWith(NPM_REDHAT_PURL_PREFIX)) {
+                query.add("purl=like=\"" + purl.replace(NPM_REDHAT_PURL_PREFIX, "pkg:npm/?40redhat/") + "\"");
             } else {
                 query.add("purl==\"" + purl + "\"");
             }
@@ -393,26 +407,146 @@ public class PncService {
             throw new ClientException("Querying artifact failed, PNC responded with an error, query: '{}'", rsql, ex);
         }
 
-        if (remoteArtifacts.size() == 0) {
+        return selectArtifact(remoteArtifacts.getAll());
+    }
+
+    /**
+     * <p>
+     * Resolves artifacts for many purls at once. Instead of querying PNC for every purl separately, purls and SHA-256
+     * hashes are sent in chunks of {@link #ARTIFACT_QUERY_CHUNK_SIZE} as {@code purl=in=(...)} and
+     * {@code sha256=in=(...)} disjunction queries.
+     * </p>
+     *
+     * <p>
+     * For every requested purl the same candidates are considered as in
+     * {@link #getArtifact(String, Optional, Optional, Optional)} (artifacts matching the purl or the SHA-256 hash) and
+     * the same selection rules apply. Purls for which nothing was found are mapped to {@code null}. Purls which cannot
+     * be expressed in a batch query (Red Hat NPM purls which require a {@code =like=} query) are not part of the
+     * returned map and need to be resolved with {@link #getArtifact(String, Optional, Optional, Optional)}.
+     * </p>
+     *
+     * @param sha256ByPurl The purls to resolve, mapped to the optional (may be {@code null}) SHA-256 hash of the
+     *        artifact
+     * @return A map of requested purl to the resolved {@link Artifact} or {@code null} if nothing was found
+     */
+    public Map<String, Artifact> getArtifacts(Map<String, String> sha256ByPurl) {
+        Map<String, Artifact> resolved = new HashMap<>();
+
+        if (sha256ByPurl == null || sha256ByPurl.isEmpty()) {
+            return resolved;
+        }
+
+        Set<String> purls = new LinkedHashSet<>();
+        Set<String> hashes = new LinkedHashSet<>();
+
+        sha256ByPurl.forEach((purl, sha256) -> {
+            if (purl == null || purl.startsWith(NPM_REDHAT_PURL_PREFIX)) {
+                return;
+            }
+
+            purls.add(purl);
+
+            if (sha256 != null) {
+                hashes.add(sha256);
+            }
+        });
+
+        log.debug("Resolving {} purls and {} SHA-256 hashes in PNC in bulk", purls.size(), hashes.size());
+
+        Map<String, List<Artifact>> artifactsByPurl = new HashMap<>();
+        Map<String, List<Artifact>> artifactsBySha256 = new HashMap<>();
+
+        for (List<String> chunk : chunked(purls)) {
+            getAllArtifacts("purl=in=(" + toRsqlValues(chunk) + ")").forEach(artifact -> {
+                if (artifact.getPurl() != null) {
+                    artifactsByPurl.computeIfAbsent(artifact.getPurl(), k -> new ArrayList<>()).add(artifact);
+                }
+            });
+        }
+
+        for (List<String> chunk : chunked(hashes)) {
+            getAllArtifacts("sha256=in=(" + toRsqlValues(chunk) + ")").forEach(artifact -> {
+                if (artifact.getSha256() != null) {
+                    artifactsBySha256.computeIfAbsent(artifact.getSha256(), k -> new ArrayList<>()).add(artifact);
+                }
+            });
+        }
+
+        purls.forEach(purl -> {
+            // Deduplicate by identifier, the same artifact can match both on purl and on hash
+            Map<String, Artifact> candidates = new LinkedHashMap<>();
+
+            artifactsByPurl.getOrDefault(purl, List.of()).forEach(a -> candidates.putIfAbsent(a.getId(), a));
+
+            String sha256 = sha256ByPurl.get(purl);
+
+            if (sha256 != null) {
+                artifactsBySha256.getOrDefault(sha256, List.of()).forEach(a -> candidates.putIfAbsent(a.getId(), a));
+            }
+
+            resolved.put(purl, selectArtifact(candidates.values()));
+        });
+
+        log.debug(
+                "Resolved {} out of {} purls in PNC in bulk",
+                resolved.values().stream().filter(Objects::nonNull).count(),
+                purls.size());
+
+        return resolved;
+    }
+
+    private Collection<Artifact> getAllArtifacts(String rsql) {
+        log.debug("Using following rsql query to search for artifacts: '{}'", rsql);
+
+        try {
+            return artifactClient.getAll(null, null, null, Optional.empty(), Optional.of(rsql)).getAll();
+        } catch (RemoteResourceException ex) {
+            throw new ClientException("Querying artifacts failed, PNC responded with an error, query: '{}'", rsql, ex);
+        }
+    }
+
+    private static List<List<String>> chunked(Collection<String> values) {
+        List<String> list = new ArrayList<>(values);
+        List<List<String>> chunks = new ArrayList<>();
+
+        for (int i = 0; i < list.size(); i += ARTIFACT_QUERY_CHUNK_SIZE) {
+            chunks.add(list.subList(i, Math.min(i + ARTIFACT_QUERY_CHUNK_SIZE, list.size())));
+        }
+
+        return chunks;
+    }
+
+    private static String toRsqlValues(Collection<String> values) {
+        return values.stream().map(v -> "\"" + v + "\"").collect(Collectors.joining(","));
+    }
+
+    /**
+     * Selects the most relevant artifact out of the artifacts returned by PNC for a single query.
+     *
+     * @param artifacts The candidate artifacts
+     * @return The artifact associated with a build, if any, otherwise the newest one or {@code null} if there are no
+     *         candidates
+     */
+    private Artifact selectArtifact(Collection<Artifact> artifacts) {
+        if (artifacts.isEmpty()) {
             log.debug("No artifact found, returning nothing");
             return null;
         }
 
-        if (remoteArtifacts.size() == 1) {
+        if (artifacts.size() == 1) {
             log.debug("Single artifact found, returning it!");
-            return remoteArtifacts.iterator().next();
+            return artifacts.iterator().next();
         }
 
         // First try to select artifacts with an associated build
-        Collection<Artifact> allArtifacts = remoteArtifacts.getAll();
-        Optional<Artifact> artifact = allArtifacts.stream().filter(a -> a.getBuild() != null).findFirst();
+        Optional<Artifact> artifact = artifacts.stream().filter(a -> a.getBuild() != null).findFirst();
         if (artifact.isPresent()) {
-            log.debug("Found {} results, returning the artifact associated with a build", remoteArtifacts.size());
+            log.debug("Found {} results, returning the artifact associated with a build", artifacts.size());
             return artifact.get();
         }
         // If no artifact has a build, return the newest one
-        log.debug("Found {} results, returning newest one", remoteArtifacts.size());
-        return allArtifacts.stream().skip(allArtifacts.size() - 1L).findFirst().orElse(null);
+        log.debug("Found {} results, returning newest one", artifacts.size());
+        return artifacts.stream().skip(artifacts.size() - 1L).findFirst().orElse(null);
     }
 
     /**
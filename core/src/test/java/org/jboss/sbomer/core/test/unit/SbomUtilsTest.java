@@ -37,6 +37,7 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.cyclonedx.Version;
@@ -82,6 +83,7 @@ import org.junit.jupiter.params.provider.ValueSource;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.JsonNodeType;
+import com.fasterxml.jackson.databind.node.TextNode;
 import com.github.packageurl.MalformedPackageURLException;
 import com.github.packageurl.PackageURL;
 
@@ -113,6 +115,42 @@ class SbomUtilsTest {
             assertEquals("Apache-2.0", bom.getMetadata().getComponent().getLicenses().getLicenses().get(0).getId());
         }
 
+        @Test
+        void shouldReadRootPurlWithoutConvertingToBom() throws Exception {
+            Bom bom = SbomUtils.fromPath(sbomPath("base.json"));
+            String expected = bom.getMetadata().getComponent().getPurl();
+            assertNotNull(expected);
+
+            assertEquals(expected, SbomUtils.getRootPurl(SbomUtils.toJsonNode(bom)));
+            assertEquals(
+                    expected,
+                    SbomUtils.getRootPurl(TextNode.valueOf(TestResources.asString(sbomPath("base.json")))));
+
+            assertNull(SbomUtils.getRootPurl(null));
+            assertNull(SbomUtils.getRootPurl(TextNode.valueOf("{\"metadata\":{\"component\":{}}}")));
+            assertNull(SbomUtils.getRootPurl(TextNode.valueOf("{\"metadata\":[{\"purl\":\"pkg:generic/a\"}]}")));
+            assertEquals(
+                    "pkg:generic/a",
+                    SbomUtils.getRootPurl(
+                            TextNode.valueOf(
+                                    "{\"components\":[{\"purl\":\"pkg:generic/b\"}],\"metadata\":{\"tools\":{\"purl\":\"x\"},\"component\":{\"purl\":\"pkg:generic/a\"}}}")));
+        }
+
+        @Test
+        void shouldComputeNVRFromContainerManifestLabels() {
+            String manifest = "{\"components\":[{\"name\":\"image\",\"properties\":["
+                    + "{\"name\":\"sbomer:image:labels:com.redhat.component\",\"value\":\"ubi9-container\"},"
+                    + "{\"name\":\"sbomer:image:labels:version\",\"value\":\"9.4\"},"
+                    + "{\"name\":\"sbomer:image:labels:release\",\"value\":\"1214\"}]}]}";
+
+            JsonNode jsonNode = SbomUtils.toJsonNode(manifest);
+
+            assertEquals(List.of("ubi9-container", "9.4", "1214"), SbomUtils.computeNVRFromContainerManifest(jsonNode));
+            assertEquals(
+                    List.of(),
+                    SbomUtils.computeNVRFromContainerManifest(SbomUtils.toJsonNode("{\"components\":[]}")));
+        }
+
         @Test
         @Disabled("Doesn't work in Temurin JDK, needs investigation")
         // SbomUtilsTest$SbomUtilsTestNested.shouldReadFromFileAndConvertToJsonNode:92 expected:
@@ -542,6 +580,67 @@ class SbomUtilsTest {
         assertEquals("pkg:maven/custom@1.1.0.redhat-00002?type=jar", productDeps.get(2).getRef());
     }
 
+    @Test
+    void testUpdatePurlsInBulk() {
+        String mainPurl = "pkg:maven/main-product/asm@9.1.0.redhat-00002?type=jar";
+        String oldPurl = "pkg:maven/org.objectweb.asm/asm@9.1.0.redhat-00002?type=jar";
+        String newPurl = "pkg:maven/org.ow2.asm/asm@9.1.0.redhat-00002?type=jar";
+        String otherOldPurl = "pkg:maven/custom@1.1.0.redhat-00002?type=jar";
+        String otherNewPurl = "pkg:maven/org.custom/custom@1.1.0.redhat-00002?type=jar";
+
+        Bom bom = new Bom();
+        Metadata metadata = new Metadata();
+        metadata.setComponent(createComponent(null, "main", "1.0", null, mainPurl, Type.LIBRARY));
+        bom.setMetadata(metadata);
+
+        Component old = createComponent(null, "asm", "9.1.0.redhat-00002", null, oldPurl, Type.LIBRARY);
+        Component other = createComponent(null, "custom", "1.1.0.redhat-00002", null, otherOldPurl, Type.LIBRARY);
+        bom.setComponents(new ArrayList<>(List.of(old, other)));
+
+        Dependency mainDependency = new Dependency(mainPurl);
+        mainDependency.addDependency(new Dependency(oldPurl));
+        Dependency provides = new Dependency(otherOldPurl);
+        mainDependency.setProvides(new ArrayList<>(List.of(provides)));
+
+        bom.setDependencies(
+                new ArrayList<>(List.of(mainDependency, new Dependency(oldPurl), new Dependency(otherOldPurl))));
+
+        SbomUtils.updatePurls(bom, Map.of(oldPurl, newPurl, otherOldPurl, otherNewPurl));
+
+        assertEquals(mainPurl, bom.getMetadata().getComponent().getPurl());
+        assertEquals(newPurl, old.getPurl());
+        assertEquals(newPurl, old.getBomRef());
+        assertEquals(otherNewPurl, other.getPurl());
+        assertEquals(otherNewPurl, other.getBomRef());
+
+        assertEquals(3, bom.getDependencies().size());
+        assertEquals(mainPurl, bom.getDependencies().get(0).getRef());
+        assertEquals(newPurl, bom.getDependencies().get(0).getDependencies().get(0).getRef());
+        assertEquals(otherNewPurl, bom.getDependencies().get(0).getProvides().get(0).getRef());
+        assertEquals(newPurl, bom.getDependencies().get(1).getRef());
+        assertEquals(otherNewPurl, bom.getDependencies().get(2).getRef());
+    }
+
+    @Test
+    void testUpdatePurlsDoesNotDuplicateBomRefs() {
+        String oldPurl = "pkg:maven/org.objectweb.asm/asm@9.1.0.redhat-00002?type=jar";
+        String newPurl = "pkg:maven/org.ow2.asm/asm@9.1.0.redhat-00002?type=jar";
+
+        Bom bom = new Bom();
+        Component old = createComponent(null, "asm", "9.1.0.redhat-00002", null, oldPurl, Type.LIBRARY);
+        Component existing = createComponent(null, "asm", "9.1.0.redhat-00002", null, newPurl, Type.LIBRARY);
+        bom.setComponents(new ArrayList<>(List.of(old, existing)));
+        bom.setDependencies(new ArrayList<>(List.of(new Dependency(oldPurl), new Dependency(newPurl))));
+
+        SbomUtils.updatePurls(bom, Map.of(oldPurl, newPurl));
+
+        // The purl is updated, but the bom-ref cannot be, because there is a dependency with the new purl already
+        assertEquals(newPurl, old.getPurl());
+        assertEquals(oldPurl, old.getBomRef());
+        assertEquals(oldPurl, bom.getDependencies().get(0).getRef());
+        assertEquals(newPurl, bom.getDependencies().get(1).getRef());
+    }
+
     @Test
     void shouldMapHashesWithGetDistroHashes() {
         // Hashes are all generated on "" (empty)
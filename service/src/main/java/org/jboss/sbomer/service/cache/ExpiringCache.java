@@ -0,0 +1,173 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.cache;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>
+ * An in-memory cache of values loaded from a remote service, where entries expire after the configured time-to-live.
+ * </p>
+ *
+ * <p>
+ * Concurrent lookups of the same missing key are coalesced: the value is loaded once and all callers wait for the
+ * result. Failed loads are not cached. Hits and misses are exposed as the {@code sbomer.cache.requests} counter, tagged
+ * with the cache name.
+ * </p>
+ *
+ * @param <K> the type of the key
+ * @param <V> the type of the value
+ */
+@Slf4j
+public class ExpiringCache<K, V> {
+
+    private record Entry<V>(CompletableFuture<V> value, long expiresAt) {
+        boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+
+    private final String name;
+
+    private final long ttlNanos;
+
+    private final int maxSize;
+
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+
+    private final Counter misses;
+
+    public ExpiringCache(String name, Duration ttl, int maxSize, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.ttlNanos = ttl.toNanos();
+        this.maxSize = maxSize;
+
+        if (meterRegistry != null) {
+            this.hits = Counter.builder("sbomer.cache.requests")
+                    .tags("cache", name, "result", "hit")
+                    .register(meterRegistry);
+            this.misses = Counter.builder("sbomer.cache.requests")
+                    .tags("cache", name, "result", "miss")
+                    .register(meterRegistry);
+            Gauge.builder("sbomer.cache.size", entries, Map::size).tags("cache", name).register(meterRegistry);
+        } else {
+            this.hits = null;
+            this.misses = null;
+        }
+    }
+
+    /**
+     * Returns the cached value for the {@code key}, loading it with the {@code loader} if it is missing or expired.
+     *
+     * @param key the key
+     * @param loader the function loading the value
+     * @return the value
+     */
+    public V get(K key, Function<K, V> loader) {
+        long now = System.nanoTime();
+        Entry<V> entry = entries.get(key);
+
+        if (entry == null || entry.isExpired(now)) {
+            Entry<V> loading = new Entry<>(new CompletableFuture<>(), now + ttlNanos);
+            entry = entries
+                    .compute(key, (k, current) -> current != null && !current.isExpired(now) ? current : loading);
+
+            if (entry == loading) {
+                increment(misses);
+                return load(key, loading, loader);
+            }
+        }
+
+        increment(hits);
+        return await(entry.value());
+    }
+
+    /**
+     * Returns {@code true} if there is a non-expired value (or a load in progress) for the {@code key}.
+     */
+    public boolean contains(K key) {
+        Entry<V> entry = entries.get(key);
+        return entry != null && !entry.isExpired(System.nanoTime());
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    private V load(K key, Entry<V> entry, Function<K, V> loader) {
+        try {
+            V value = loader.apply(key);
+            entry.value().complete(value);
+            evictIfNeeded();
+            return value;
+        } catch (RuntimeException e) {
+            entries.remove(key, entry);
+            entry.value().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private void evictIfNeeded() {
+        if (entries.size() <= maxSize) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        entries.values().removeIf(entry -> entry.isExpired(now));
+
+        Iterator<K> keys = entries.keySet().iterator();
+
+        while (entries.size() > maxSize && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+
+        log.debug("Evicted entries from the '{}' cache, {} entries left", name, entries.size());
+    }
+
+    private V await(CompletableFuture<V> value) {
+        try {
+            return value.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+
+            throw e;
+        }
+    }
+
+    private static void increment(Counter counter) {
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+}
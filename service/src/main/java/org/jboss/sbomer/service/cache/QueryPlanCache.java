@@ -0,0 +1,170 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.cache;
+
+import java.util.List;
+import java.util.function.Function;
+
+import org.jboss.sbomer.service.nextgen.query.EventsQuery;
+import org.jboss.sbomer.service.nextgen.query.EventsQueryProcessor;
+import org.jboss.sbomer.service.rest.criteria.AbstractCriteriaAwareRepository;
+
+import cz.jirutka.rsql.parser.ast.Node;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>
+ * Cache of parsed search queries, keyed by the normalized query text. Clients (the UI in particular) send the same
+ * queries over and over, parsing these is skipped for all but the first request.
+ * </p>
+ *
+ * <p>
+ * RSQL queries and sort expressions are cached as the parsed (immutable) tree, from which the criteria query of the
+ * searched entity is built. Events queries are cached compiled to JPQL together with the parameter values. Invalid
+ * queries are not cached. Hits and misses are exposed as the {@code sbomer.cache.requests} counter, tagged with the
+ * {@code query.rsql}, {@code query.sort} and {@code query.events} cache names.
+ * </p>
+ */
+@ApplicationScoped
+@Slf4j
+public class QueryPlanCache {
+
+    @Inject
+    @Setter
+    QueryPlanCacheConfig config;
+
+    @Inject
+    @Setter
+    EventsQueryProcessor eventsQueryProcessor;
+
+    @Inject
+    @Setter
+    MeterRegistry meterRegistry;
+
+    private ExpiringCache<String, Node> rsqlQueries;
+
+    private ExpiringCache<String, Node> sorts;
+
+    private ExpiringCache<String, EventsQuery> eventsQueries;
+
+    @PostConstruct
+    public void init() {
+        rsqlQueries = new ExpiringCache<>("query.rsql", config.ttl(), config.maxSize(), meterRegistry);
+        sorts = new ExpiringCache<>("query.sort", config.ttl(), config.maxSize(), meterRegistry);
+        eventsQueries = new ExpiringCache<>("query.events", config.ttl(), config.maxSize(), meterRegistry);
+    }
+
+    public void warmUp(@Observes StartupEvent event) {
+        QueryPlanCacheConfig.WarmUp warmUp = config.warmUp();
+
+        int count = warmUp(warmUp.sorts(), this::sort) + warmUp(warmUp.rsqlQueries(), this::rsql)
+                + warmUp(warmUp.eventsQueries(), this::events);
+
+        log.info("Parsed {} queries to warm up the query cache", count);
+    }
+
+    /**
+     * Returns the parsed RSQL query.
+     *
+     * @param rsqlQuery the RSQL query
+     * @return the root node of the parsed query
+     */
+    public Node rsql(String rsqlQuery) {
+        return rsqlQueries.get(rsqlQuery.strip(), AbstractCriteriaAwareRepository::parseRsql);
+    }
+
+    /**
+     * Returns the parsed RSQL sort expression.
+     *
+     * @param sort the sort expression
+     * @return the root node of the parsed sort expression
+     */
+    public Node sort(String sort) {
+        return sorts.get(sort.strip(), AbstractCriteriaAwareRepository::parseSort);
+    }
+
+    /**
+     * Returns the events query compiled to JPQL.
+     *
+     * @param query the events query
+     * @return the compiled query
+     */
+    public EventsQuery events(String query) {
+        return eventsQueries.get(normalizeWhitespace(query), eventsQueryProcessor::compile);
+    }
+
+    /**
+     * Strips the query and collapses the whitespace separating the terms into a single space. The whitespace within
+     * quoted values is kept as-is.
+     *
+     * @param query the query
+     * @return the normalized query
+     */
+    public static String normalizeWhitespace(String query) {
+        StringBuilder normalized = new StringBuilder(query.length());
+        boolean quoted = false;
+        boolean escaped = false;
+        boolean pendingSpace = false;
+
+        for (char c : query.strip().toCharArray()) {
+            if (!quoted && Character.isWhitespace(c)) {
+                pendingSpace = true;
+                continue;
+            }
+
+            if (pendingSpace) {
+                normalized.append(' ');
+                pendingSpace = false;
+            }
+
+            if (escaped) {
+                escaped = false;
+            } else if (quoted && c == '\\') {
+                escaped = true;
+            } else if (c == '"') {
+                quoted = !quoted;
+            }
+
+            normalized.append(c);
+        }
+
+        return normalized.toString();
+    }
+
+    private static <P> int warmUp(List<String> queries, Function<String, P> parser) {
+        int count = 0;
+
+        for (String query : queries) {
+            try {
+                parser.apply(query);
+                count++;
+            } catch (RuntimeException e) {
+                log.warn("Unable to parse query '{}' to warm up the query cache", query, e);
+            }
+        }
+
+        return count;
+    }
+}
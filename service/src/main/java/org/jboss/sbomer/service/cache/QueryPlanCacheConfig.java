@@ -0,0 +1,84 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.cache;
+
+import java.time.Duration;
+import java.util.List;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+/**
+ * Configuration of the {@link QueryPlanCache}.
+ */
+@ConfigMapping(prefix = "sbomer.service.query-cache")
+public interface QueryPlanCacheConfig {
+
+    /**
+     * How long a parsed query is kept in the cache after it was parsed.
+     *
+     * @return the time-to-live of cache entries
+     */
+    @WithDefault("24h")
+    Duration ttl();
+
+    /**
+     * Maximum number of parsed queries kept in each of the caches (RSQL queries, RSQL sort expressions and events
+     * queries).
+     *
+     * @return the maximum number of entries
+     */
+    @WithDefault("1000")
+    int maxSize();
+
+    /**
+     * Queries parsed when the service starts.
+     *
+     * @return the warm-up configuration
+     */
+    WarmUp warmUp();
+
+    interface WarmUp {
+        /**
+         * RSQL sort expressions to parse at startup, defaults to the default sorts of the REST API.
+         *
+         * @return the sort expressions
+         */
+        @WithDefault("creationTime=desc=,receivalTime=desc=")
+        List<String> sorts();
+
+        /**
+         * RSQL queries to parse at startup. Commas (the RSQL "or" operator) must be escaped with a backslash. Defaults
+         * to the status filters of the generations and manifests views.
+         *
+         * @return the RSQL queries
+         */
+        @WithDefault("status=eq=FAILED,status=eq=GENERATING,status=eq=FINISHED;result=eq=SUCCESS")
+        List<String> rsqlQueries();
+
+        /**
+         * Events queries to parse at startup. Commas must be escaped with a backslash. Defaults to the listing of the
+         * latest events, all of them and by status.
+         *
+         * @return the events queries
+         */
+        @WithDefault("sort:created:desc,status:NEW sort:created:desc,status:ERROR sort:created:desc,"
+                + "status:PROCESSED sort:created:desc")
+        List<String> eventsQueries();
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.db;
+
+import java.math.BigDecimal;
+import java.util.regex.Pattern;
+
+/**
+ * Conversions of the query values to the JSON scalars they could be stored as in the JSONB columns. The containment
+ * ({@code @>}) predicates are type-sensitive, a value given as a string has to be looked up as the number or boolean
+ * as well.
+ */
+public class JsonScalars {
+
+    private static final Pattern JSON_NUMBER = Pattern.compile("-?(0|[1-9]\\d*)(\\.\\d+)?([eE][+-]?\\d+)?");
+
+    private JsonScalars() {
+        // This is a utility class
+    }
+
+    /**
+     * Converts the value to the number or boolean it would be stored as in a JSON document.
+     *
+     * @return the converted value or {@code null} if the value can only be stored as a JSON string
+     */
+    public static Object toJsonScalar(String value) {
+        if ("true".equals(value) || "false".equals(value)) {
+            return Boolean.valueOf(value);
+        }
+
+        if (JSON_NUMBER.matcher(value).matches()) {
+            return new BigDecimal(value);
+        }
+
+        return null;
+    }
+}
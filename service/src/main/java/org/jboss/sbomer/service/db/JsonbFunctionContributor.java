@@ -0,0 +1,47 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.db;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registers HQL functions for querying JSONB columns in a way which can be served by their GIN indexes.
+ */
+public class JsonbFunctionContributor implements FunctionContributor {
+
+    /**
+     * {@code jsonb_has_entry(column, key, value)} checks whether the JSON object in the {@code column} has the
+     * {@code key} with the {@code value}. Rendered as a {@code @>} containment predicate, a function call (like
+     * {@code jsonb_extract_path_text}) cannot use the GIN index of the column. Unlike the text extraction, the
+     * containment is type-sensitive: a string value does not match the same number or boolean stored in the column.
+     */
+    public static final String JSONB_HAS_ENTRY = "jsonb_has_entry";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        functionContributions.getFunctionRegistry()
+                .registerPattern(
+                        JSONB_HAS_ENTRY,
+                        "(?1 @> jsonb_build_object(?2, ?3))",
+                        functionContributions.getTypeConfiguration()
+                                .getBasicTypeRegistry()
+                                .resolve(StandardBasicTypes.BOOLEAN));
+    }
+}
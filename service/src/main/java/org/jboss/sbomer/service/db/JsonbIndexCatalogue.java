@@ -0,0 +1,290 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.jboss.sbomer.service.leader.LeadershipChangedEvent;
+
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import io.quarkus.scheduler.Scheduled.ConcurrentExecution;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>
+ * Catalogue of the hot keys of JSONB columns (see {@link JsonbIndexConfig#keys()}), each backed by a B-tree index on
+ * the {@code column ->> 'key'} expression.
+ * </p>
+ *
+ * <p>
+ * The indexes are created by the leader with {@code CREATE INDEX CONCURRENTLY}, so that writes to the tables are not
+ * blocked while these are built. Indexes left invalid by an interrupted build are dropped and built again. Every
+ * instance periodically refreshes the keys having a valid index: only lookups of these keys should be done with the
+ * {@code ->>} operator, lookups of any other key should use the {@code @>} containment operator, which is served by
+ * the GIN index of the column.
+ * </p>
+ *
+ * <p>
+ * Indexes are managed on PostgreSQL only, the catalogue is empty on any other database.
+ * </p>
+ */
+@ApplicationScoped
+@Slf4j
+public class JsonbIndexCatalogue {
+
+    private static final Pattern IDENTIFIER = Pattern.compile("[a-z_][a-z0-9_]*");
+
+    private static final Pattern KEY = Pattern.compile("[A-Za-z0-9_.:-]+");
+
+    private static final int MAX_IDENTIFIER_LENGTH = 63;
+
+    private static final String INDEX_VALIDITY_QUERY = "SELECT i.indisvalid FROM pg_index i "
+            + "JOIN pg_class c ON c.oid = i.indexrelid WHERE c.relname = ?";
+
+    /**
+     * A catalogued key of a JSONB column.
+     *
+     * @param table the table
+     * @param column the JSONB column
+     * @param key the top-level key in the JSON document
+     */
+    public record JsonbKey(String table, String column, String key) {
+
+        /**
+         * Parses the key from the {@code table.column.key} format.
+         *
+         * @param value the value to parse
+         * @return the key
+         */
+        public static JsonbKey parse(String value) {
+            String[] parts = value.strip().split("\\.", 3);
+
+            if (parts.length != 3 || !IDENTIFIER.matcher(parts[0]).matches()
+                    || !IDENTIFIER.matcher(parts[1]).matches() || !KEY.matcher(parts[2]).matches()) {
+                throw new IllegalArgumentException(
+                        "Invalid JSONB key '" + value + "', expected format is 'table.column.key'");
+            }
+
+            return new JsonbKey(parts[0], parts[1], parts[2]);
+        }
+
+        public String indexName() {
+            String name = String.join(
+                    "_",
+                    "idx",
+                    table,
+                    column,
+                    key.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9_]", "_"));
+
+            return name.length() > MAX_IDENTIFIER_LENGTH ? name.substring(0, MAX_IDENTIFIER_LENGTH) : name;
+        }
+
+        String createIndexStatement() {
+            return "CREATE INDEX CONCURRENTLY IF NOT EXISTS " + indexName() + " ON " + table + " ((" + column
+                    + " ->> '" + key + "'))";
+        }
+
+        String dropIndexStatement() {
+            return "DROP INDEX CONCURRENTLY IF EXISTS " + indexName();
+        }
+
+        @Override
+        public String toString() {
+            return table + "." + column + "." + key;
+        }
+    }
+
+    @Inject
+    JsonbIndexConfig config;
+
+    @Inject
+    AgroalDataSource dataSource;
+
+    private List<JsonbKey> keys = List.of();
+
+    private volatile Set<JsonbKey> indexed = Set.of();
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "jsonb-index-catalogue");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    void init() {
+        List<JsonbKey> parsed = new ArrayList<>();
+
+        for (String value : config.keys()) {
+            try {
+                parsed.add(JsonbKey.parse(value));
+            } catch (IllegalArgumentException e) {
+                log.warn("Skipping catalogued JSONB key: {}", e.getMessage());
+            }
+        }
+
+        keys = List.copyOf(parsed);
+    }
+
+    void onStartup(@Observes StartupEvent event) {
+        refresh();
+    }
+
+    /**
+     * Builds the missing (or invalid) indexes as soon as the current instance becomes the leader.
+     *
+     * @param event the event
+     */
+    void onLeadershipChanged(@Observes LeadershipChangedEvent event) {
+        if (event.leader() && config.enabled()) {
+            executor.execute(this::createIndexes);
+        }
+    }
+
+    /**
+     * Returns whether equality lookups of the {@code key} in the {@code column} of the {@code table} are served by a
+     * valid expression index.
+     *
+     * @param table the table
+     * @param column the JSONB column
+     * @param key the top-level key
+     * @return {@code true} if the key is catalogued and its index is valid
+     */
+    public boolean isIndexed(String table, String column, String key) {
+        return indexed.contains(new JsonbKey(table, column, key));
+    }
+
+    /**
+     * Refreshes the keys having a valid index.
+     */
+    @Scheduled(
+            every = "${sbomer.service.jsonb-indexes.refresh-interval:10m}",
+            delay = 1,
+            delayUnit = TimeUnit.MINUTES,
+            concurrentExecution = ConcurrentExecution.SKIP)
+    public void refresh() {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!isPostgreSQL(connection)) {
+                return;
+            }
+
+            Set<JsonbKey> valid = new HashSet<>();
+
+            for (JsonbKey key : keys) {
+                if (Boolean.TRUE.equals(indexValidity(connection, key))) {
+                    valid.add(key);
+                }
+            }
+
+            if (!valid.equals(indexed)) {
+                log.info("JSONB keys with a valid expression index: {}", valid);
+            }
+
+            indexed = Set.copyOf(valid);
+        } catch (SQLException e) {
+            log.warn("Unable to refresh the catalogue of JSONB expression indexes", e);
+        }
+    }
+
+    void createIndexes() {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!isPostgreSQL(connection)) {
+                return;
+            }
+
+            // Concurrent index builds cannot run inside a transaction block
+            connection.setAutoCommit(true);
+
+            for (JsonbKey key : keys) {
+                createIndex(connection, key);
+            }
+        } catch (SQLException e) {
+            log.warn("Unable to create the JSONB expression indexes", e);
+        }
+
+        refresh();
+    }
+
+    private void createIndex(Connection connection, JsonbKey key) {
+        try (Statement statement = connection.createStatement()) {
+            Boolean validity = indexValidity(connection, key);
+
+            if (Boolean.TRUE.equals(validity)) {
+                return;
+            }
+
+            if (Boolean.FALSE.equals(validity)) {
+                log.warn("Index '{}' is invalid, building it again", key.indexName());
+                statement.execute(key.dropIndexStatement());
+            }
+
+            log.info("Creating index '{}' for the JSONB key '{}'", key.indexName(), key);
+
+            long start = System.nanoTime();
+            statement.execute(key.createIndexStatement());
+
+            log.info(
+                    "Index '{}' created in {} ms",
+                    key.indexName(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (SQLException e) {
+            log.warn("Unable to create index '{}' for the JSONB key '{}'", key.indexName(), key, e);
+        }
+    }
+
+    /**
+     * Returns whether the index of the {@code key} is valid, or {@code null} if it does not exist.
+     */
+    private static Boolean indexValidity(Connection connection, JsonbKey key) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(INDEX_VALIDITY_QUERY)) {
+            statement.setString(1, key.indexName());
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? resultSet.getBoolean(1) : null;
+            }
+        }
+    }
+
+    private static boolean isPostgreSQL(Connection connection) throws SQLException {
+        return "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
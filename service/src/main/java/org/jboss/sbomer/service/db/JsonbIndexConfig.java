@@ -0,0 +1,57 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.db;
+
+import java.util.List;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+/**
+ * Configuration of the {@link JsonbIndexCatalogue}.
+ */
+@ConfigMapping(prefix = "sbomer.service.jsonb-indexes")
+public interface JsonbIndexConfig {
+
+    /**
+     * Whether the expression indexes of the catalogued keys are created (and repaired) by the leader.
+     *
+     * @return {@code true} if the indexes are managed
+     */
+    @WithDefault("true")
+    boolean enabled();
+
+    /**
+     * The hot keys, each in the {@code table.column.key} format, for example {@code request.request_config.buildId}.
+     * Equality lookups of these keys are served by a B-tree index on the {@code column ->> 'key'} expression, all
+     * other keys by the GIN index of the column.
+     *
+     * @return the catalogued keys
+     */
+    @WithDefault("request.request_config.advisoryId,request.request_config.buildId,"
+            + "request.request_config.operationId,request.request_config.milestoneId,sbom.release_metadata.errata_id")
+    List<String> keys();
+
+    /**
+     * How often the instances refresh the list of catalogued keys having a valid index.
+     *
+     * @return the refresh interval
+     */
+    @WithDefault("10m")
+    String refreshInterval();
+}
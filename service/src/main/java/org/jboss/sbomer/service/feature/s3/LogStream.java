@@ -0,0 +1,42 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.feature.s3;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Content of a log file stored in S3, to be streamed to the client. The {@link #content()} stream must be closed by
+ * the consumer.
+ *
+ * @param content the (possibly partial) content of the log file
+ * @param contentLength the number of bytes in the {@code content} or {@code null} if unknown
+ * @param contentRange the {@code Content-Range} of the {@code content} in case a range was requested, {@code null}
+ *        otherwise
+ */
+public record LogStream(InputStream content, Long contentLength, String contentRange) implements AutoCloseable {
+
+    public boolean isPartial() {
+        return contentRange != null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        content.close();
+    }
+}
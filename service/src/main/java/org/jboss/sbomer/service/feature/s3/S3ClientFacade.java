@@ -28,6 +28,8 @@ import java.util.Set;
 
 import org.eclipse.microprofile.config.ConfigProvider;
 import org.jboss.sbomer.core.errors.ApplicationException;
+import org.jboss.sbomer.core.errors.ClientException;
+import org.jboss.sbomer.core.errors.NotFoundException;
 import org.jboss.sbomer.core.features.sbom.utils.OtelHelper;
 import org.jboss.sbomer.service.feature.FeatureFlags;
 import org.jboss.sbomer.service.feature.sbom.features.umb.producer.model.Sbom.GenerationRequest;
@@ -39,13 +41,14 @@ import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.event.Observes;
 import jakarta.inject.Inject;
 import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.core.ResponseInputStream;
 import software.amazon.awssdk.core.exception.SdkException;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
 import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
 import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
-import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 import software.amazon.awssdk.services.s3.model.S3Exception;
 import software.amazon.awssdk.services.s3.model.S3Object;
@@ -190,7 +193,8 @@ public class S3ClientFacade {
     }
 
     /**
-     * Returns list of paths within the S3 bucket to log files for a given {@link GenerationRequest} identifier.
+     * Returns list of paths within the S3 bucket to log files for a given {@link GenerationRequest} identifier. All
+     * pages of the listing are read.
      *
      * @param generationRequestId the generation request identifier
      * @return the list of paths
@@ -201,11 +205,10 @@ public class S3ClientFacade {
                 .prefix(generationRequestId)
                 .build();
 
-        ListObjectsV2Response objects = client.listObjectsV2(req);
-
         List<String> paths = new ArrayList<>();
 
-        for (S3Object object : objects.contents()) {
+        // The paginator follows continuation tokens lazily, one page at a time
+        for (S3Object object : client.listObjectsV2Paginator(req).contents()) {
             log.debug("Found: '{}'", object.key());
 
             if (object.key().contains("/logs/")) {
@@ -217,12 +220,27 @@ public class S3ClientFacade {
     }
 
     /**
-     * Returns list of paths within the S3 bucket to log files for a given {@link GenerationRequest} identifier.
+     * Opens the log file for a given {@link GenerationRequest} identifier and path for streaming.
      *
      * @param generationRequestId the generation request identifier
-     * @return the path
+     * @param path the path to the log file
+     * @return the log file content stream
      */
-    public String log(String generationRequestId, String path) {
+    public LogStream log(String generationRequestId, String path) {
+        return log(generationRequestId, path, null);
+    }
+
+    /**
+     * Opens the log file (or part of it) for a given {@link GenerationRequest} identifier and path for streaming. The
+     * content is not buffered, the returned stream reads directly from S3.
+     *
+     * @param generationRequestId the generation request identifier
+     * @param path the path to the log file
+     * @param range the HTTP {@code Range} to fetch, for example {@code bytes=0-1023} or {@code bytes=-1024} for the
+     *        last 1024 bytes; {@code null} to fetch the whole file
+     * @return the log file content stream
+     */
+    public LogStream log(String generationRequestId, String path, String range) {
 
         String bucketName = bucketName();
         String key = generationRequestId + "/" + path;
@@ -235,12 +253,32 @@ public class S3ClientFacade {
                 "params.path",
                 path,
                 "params.key",
-                key);
+                key,
+                "params.range",
+                range != null ? range : "");
 
         return OtelHelper.withSpan(this.getClass(), ".log", attributes, MDC.getCopyOfContextMap(), () -> {
-            GetObjectRequest req = GetObjectRequest.builder().bucket(bucketName).key(key).build();
-
-            return client.getObjectAsBytes(req).asUtf8String();
+            GetObjectRequest req = GetObjectRequest.builder().bucket(bucketName).key(key).range(range).build();
+
+            try {
+                ResponseInputStream<GetObjectResponse> stream = client.getObject(req);
+                GetObjectResponse response = stream.response();
+
+                return new LogStream(stream, response.contentLength(), response.contentRange());
+            } catch (S3Exception e) {
+                if (e.statusCode() == 404) {
+                    throw new NotFoundException("Log file '{}' could not be found", path);
+                }
+
+                if (e.statusCode() == 416) {
+                    throw new ClientException(
+                            "Requested range '{}' cannot be satisfied for log file '{}'",
+                            range,
+                            path);
+                }
+
+                throw e;
+            }
         });
     }
 }
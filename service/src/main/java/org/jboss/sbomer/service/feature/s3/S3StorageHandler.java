@@ -169,9 +169,11 @@ public class S3StorageHandler {
      * Gets the log file for a given {@link GenerationRequest} and the requested path.
      *
      * @param generationRequestId the generation request identifier
-     * @return the log file content
+     * @param path the path to the log file
+     * @param range the HTTP {@code Range} to fetch or {@code null} to fetch the whole log file
+     * @return the log file content stream, must be closed by the caller
      */
-    public String getLog(String generationRequestId, String path) {
+    public LogStream getLog(String generationRequestId, String path, String range) {
         SbomGenerationRequest generationRequest = SbomGenerationRequest.findById(generationRequestId); // NOSONAR
 
         if (generationRequest == null) {
@@ -184,6 +186,6 @@ public class S3StorageHandler {
                     generationRequestId);
         }
 
-        return client.log(generationRequestId, path);
+        return client.log(generationRequestId, path, range);
     }
 }
@@ -31,4 +31,10 @@ public interface GenerationRequestControllerConfig {
 
     @WithDefault("false")
     boolean cleanup();
+
+    /**
+     * Maximum number of generated manifests read and parsed concurrently.
+     */
+    @WithDefault("4")
+    int manifestReadConcurrency();
 }
@@ -17,6 +17,8 @@
  */
 package org.jboss.sbomer.service.feature.sbom.config.features;
 
+import java.time.Duration;
+
 import io.smallrye.config.ConfigMapping;
 import io.smallrye.config.WithDefault;
 import io.smallrye.config.WithName;
@@ -33,6 +35,18 @@ public interface KerberosServiceConfig {
     @WithName("enabled")
     boolean isEnabled();
 
+    /**
+     * Whether the TGT should be obtained at startup, instead of on the first request.
+     */
+    @WithDefault("true")
+    boolean prewarm();
+
+    /**
+     * How long before its expiration the TGT is renewed in the background.
+     */
+    @WithDefault("15m")
+    Duration renewBefore();
+
     ErrataServiceConfig errata();
 
     PyxisServiceConfig pyxis();
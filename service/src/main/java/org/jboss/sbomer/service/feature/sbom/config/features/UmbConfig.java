@@ -17,6 +17,8 @@
  */
 package org.jboss.sbomer.service.feature.sbom.config.features;
 
+import java.time.Duration;
+
 import io.smallrye.config.ConfigMapping;
 import io.smallrye.config.WithDefault;
 import io.smallrye.config.WithName;
@@ -44,5 +46,24 @@ public interface UmbConfig {
     @WithName("enabled")
     boolean isEnabled();
 
+    /**
+     * Number of recently received UMB message ids kept in memory to skip redelivered messages without querying the
+     * database. Set to {@code 0} to always check the database.
+     *
+     * @return the maximum number of cached message ids
+     */
+    @WithDefault("10000")
+    int receivedMessagesCacheSize();
+
+    /**
+     * Time after which a claim on a UMB message which was not acknowledged is considered abandoned (the service stopped
+     * while processing the message) and is taken over by a redelivery of the message. Redeliveries of a message with a
+     * more recent claim are skipped, the message is being processed.
+     *
+     * @return the age of abandoned claims
+     */
+    @WithDefault("10m")
+    Duration claimStaleAfter();
+
     UmbProducerConfig producer();
 }
@@ -0,0 +1,161 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.feature.sbom.errata;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import org.jboss.sbomer.service.cache.ExpiringCache;
+import org.jboss.sbomer.service.feature.sbom.errata.dto.ErrataCDNRepoNormalized;
+import org.jboss.sbomer.service.feature.sbom.errata.dto.ErrataProduct;
+import org.jboss.sbomer.service.feature.sbom.errata.dto.ErrataVariant;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>
+ * Dynamic proxy wrapper around {@link ErrataClient} which caches the variant, product and CDN repository metadata.
+ * Large advisories reference the same handful of variants for hundreds of builds, without the cache each of these
+ * lookups is a separate request to Errata.
+ * </p>
+ *
+ * <p>
+ * Default methods of the {@link ErrataClient} are invoked on the proxy, so that the lookups done by these are cached
+ * as well. All other calls are propagated to the delegate.
+ * </p>
+ */
+@Slf4j
+public class CachingErrataInvocationHandler implements InvocationHandler {
+
+    private final ErrataClient delegate;
+
+    private final Executor executor;
+
+    private final ExpiringCache<String, ErrataVariant> variants;
+
+    private final ExpiringCache<String, ErrataProduct> products;
+
+    private final ExpiringCache<List<String>, Collection<ErrataCDNRepoNormalized>> cdnRepos;
+
+    public CachingErrataInvocationHandler(
+            ErrataClient delegate,
+            ErrataClientCacheConfig config,
+            Executor executor,
+            MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.variants = new ExpiringCache<>("errata.variants", config.ttl(), config.maxSize(), meterRegistry);
+        this.products = new ExpiringCache<>("errata.products", config.ttl(), config.maxSize(), meterRegistry);
+        this.cdnRepos = new ExpiringCache<>("errata.cdn_repos", config.ttl(), config.maxSize(), meterRegistry);
+    }
+
+    public static ErrataClient createProxy(
+            ErrataClient delegate,
+            ErrataClientCacheConfig config,
+            Executor executor,
+            MeterRegistry meterRegistry) {
+        InvocationHandler handler = new CachingErrataInvocationHandler(delegate, config, executor, meterRegistry);
+        return (ErrataClient) Proxy
+                .newProxyInstance(ErrataClient.class.getClassLoader(), new Class<?>[] { ErrataClient.class }, handler);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == Object.class) {
+            return invokeDelegate(method, args);
+        }
+
+        Class<?>[] parameterTypes = method.getParameterTypes();
+
+        switch (method.getName()) {
+            case "getVariant":
+                return variants.get((String) args[0], delegate::getVariant);
+            case "getProduct":
+                return products.get((String) args[0], delegate::getProduct);
+            case "getCDNReposOfVariant":
+                if (parameterTypes[0] == String.class) {
+                    return cdnRepos.get(
+                            Arrays.asList((String) args[0], (String) args[1]),
+                            key -> delegate.getCDNReposOfVariant(key.get(0), key.get(1)));
+                }
+                break;
+            case "prefetchVariants":
+                prefetchVariants((Collection<String>) args[0]);
+                return null;
+            default:
+                break;
+        }
+
+        if (method.isDefault()) {
+            return InvocationHandler.invokeDefault(proxy, method, args);
+        }
+
+        return invokeDelegate(method, args);
+    }
+
+    /**
+     * Resolves the variants which are not cached yet in parallel. Failures are ignored here, these will be reported
+     * by the subsequent {@link ErrataClient#getVariant(String)} call.
+     */
+    private void prefetchVariants(Collection<String> variantIds) {
+        List<String> missing = variantIds.stream().distinct().filter(id -> !variants.contains(id)).toList();
+
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        log.debug("Prefetching {} Errata variants: {}", missing.size(), missing);
+
+        if (executor == null) {
+            missing.forEach(this::prefetchVariant);
+            return;
+        }
+
+        CompletableFuture
+                .allOf(
+                        missing.stream()
+                                .map(id -> CompletableFuture.runAsync(() -> prefetchVariant(id), executor))
+                                .toArray(CompletableFuture[]::new))
+                .join();
+    }
+
+    private void prefetchVariant(String variantId) {
+        try {
+            variants.get(variantId, delegate::getVariant);
+        } catch (RuntimeException e) {
+            log.debug("Unable to prefetch Errata variant '{}'", variantId, e);
+        }
+    }
+
+    private Object invokeDelegate(Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(delegate, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause() != null ? e.getCause() : e;
+        }
+    }
+}
@@ -238,6 +238,17 @@ public interface ErrataClient {
                 .toList();
     }
 
+    /**
+     * Resolves the provided variants up front, so that subsequent {@link #getVariant(String)} calls for these can be
+     * served without a round-trip to Errata. Does nothing unless the client is wrapped with the
+     * {@link CachingErrataInvocationHandler}.
+     *
+     * @param variantIds the names or ids of the variants
+     */
+    default void prefetchVariants(Collection<String> variantIds) {
+        // Nothing to prefetch into without a cache
+    }
+
     default Map<String, Collection<ErrataCDNRepoNormalized>> getCDNReposOfVariant(
             Set<String> variantNames,
             String shortProductName) {
@@ -0,0 +1,57 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.feature.sbom.errata;
+
+import java.time.Duration;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+import io.smallrye.config.WithName;
+
+/**
+ * Configuration of the cache in front of the {@link ErrataClient} for the variant, product and CDN repository
+ * metadata.
+ */
+@ConfigMapping(prefix = "sbomer.errata.cache")
+public interface ErrataClientCacheConfig {
+
+    /**
+     * Enables caching of the Errata metadata.
+     *
+     * @return {@code true} if enabled, {@code false} otherwise
+     */
+    @WithDefault("true")
+    @WithName("enabled")
+    boolean isEnabled();
+
+    /**
+     * How long the metadata retrieved from Errata is kept in the cache.
+     *
+     * @return the time-to-live of cache entries
+     */
+    @WithDefault("1h")
+    Duration ttl();
+
+    /**
+     * Maximum number of entries kept in each of the caches.
+     *
+     * @return the maximum number of entries
+     */
+    @WithDefault("2000")
+    int maxSize();
+}
@@ -0,0 +1,55 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.feature.sbom.errata.event.release;
+
+import java.time.Duration;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+/**
+ * Configuration of the rewrite of the build manifests which are part of a shipped advisory.
+ */
+@ConfigMapping(prefix = "sbomer.release.manifests")
+public interface ReleaseManifestConfig {
+
+    /**
+     * Number of build manifests rewritten and committed together. The manifests of a chunk are rewritten in parallel.
+     *
+     * @return the chunk size
+     */
+    @WithDefault("20")
+    int chunkSize();
+
+    /**
+     * Timeout of the transaction storing a single chunk of rewritten manifests.
+     *
+     * @return the chunk transaction timeout
+     */
+    @WithDefault("2m")
+    Duration chunkTimeout();
+
+    /**
+     * Time without any new checkpoint after which the rewrite of a release generation which is still generating is
+     * considered interrupted and is resumed by {@link ReleaseManifestRecovery}.
+     *
+     * @return the time after which an unfinished rewrite is resumed
+     */
+    @WithDefault("30m")
+    Duration staleAfter();
+}
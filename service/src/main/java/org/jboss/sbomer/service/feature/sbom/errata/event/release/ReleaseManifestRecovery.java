@@ -0,0 +1,192 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.feature.sbom.errata.event.release;
+
+import static org.jboss.sbomer.service.feature.sbom.errata.event.EventNotificationFiringUtil.notifyAdvisoryRelease;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.sbomer.service.feature.sbom.k8s.model.SbomGenerationStatus;
+import org.jboss.sbomer.service.feature.sbom.model.ReleaseManifestCheckpoint;
+import org.jboss.sbomer.service.feature.sbom.model.SbomGenerationRequest;
+import org.jboss.sbomer.service.leader.LeaderManager;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import io.quarkus.scheduler.Scheduled.ConcurrentExecution;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>
+ * Picks up the releases of standard advisories whose build manifests rewrite (see {@link ReleaseManifestRewriter}) did
+ * not complete.
+ * </p>
+ *
+ * <p>
+ * Release generations which are still generating, but for which no checkpoint was stored for
+ * {@link ReleaseManifestConfig#staleAfter()}, were interrupted (for example by a restart of the service). The release
+ * event is fired again for all the release generations of the request, and the rewrite resumes from the checkpoints.
+ * The checkpoints of failed release generations are left only when the rollback of the build manifests failed, the
+ * rollback is retried.
+ * </p>
+ *
+ * <p>
+ * Runs on the leader only.
+ * </p>
+ */
+@ApplicationScoped
+@Slf4j
+public class ReleaseManifestRecovery {
+
+    @Inject
+    ReleaseManifestConfig config;
+
+    @Inject
+    ReleaseManifestRewriter releaseManifestRewriter;
+
+    @Inject
+    LeaderManager leaderManager;
+
+    /**
+     * Request events re-driven recently, with the time these were re-driven, so that these are not fired again while
+     * the resumed rewrite did not store its first checkpoint yet.
+     */
+    private final Map<String, Instant> resumed = new ConcurrentHashMap<>();
+
+    @Scheduled(
+            every = "${sbomer.release.manifests.recovery-interval:10m}",
+            delay = 2,
+            delayUnit = TimeUnit.MINUTES,
+            concurrentExecution = ConcurrentExecution.SKIP)
+    void recover() {
+        if (!leaderManager.isLeader()) {
+            return;
+        }
+
+        rollbackFailed();
+        resumeInterrupted(Instant.now());
+    }
+
+    /**
+     * Rolls back the build manifests rewritten for release generations which failed.
+     */
+    public void rollbackFailed() {
+        for (String generationId : findFailedGenerationsWithCheckpoints()) {
+            try {
+                releaseManifestRewriter.rollback(generationId);
+            } catch (RuntimeException e) {
+                log.warn("Unable to roll back the build manifests of generation '{}'", generationId, e);
+            }
+        }
+    }
+
+    /**
+     * Fires again the release event of the requests whose release generations are generating, but did not store any
+     * checkpoint since {@link ReleaseManifestConfig#staleAfter()}.
+     *
+     * @param now the current time
+     * @return the number of release events fired
+     */
+    public int resumeInterrupted(Instant now) {
+        Instant staleBefore = now.minus(config.staleAfter());
+        resumed.values().removeIf(time -> time.isBefore(staleBefore));
+
+        int fired = 0;
+        for (String requestEventId : findInterruptedRequests(staleBefore)) {
+            if (resumed.containsKey(requestEventId)) {
+                continue;
+            }
+
+            Map<String, SbomGenerationRequest> releaseGenerations = findReleaseGenerations(requestEventId);
+            if (releaseGenerations.isEmpty()) {
+                continue;
+            }
+
+            log.info(
+                    "Resuming interrupted release of request event '{}' ({} release generations)",
+                    requestEventId,
+                    releaseGenerations.size());
+
+            resumed.put(requestEventId, now);
+            notifyAdvisoryRelease(
+                    StandardAdvisoryReleaseEvent.builder()
+                            .withRequestEventId(requestEventId)
+                            .withReleaseGenerations(releaseGenerations)
+                            .build());
+            fired++;
+        }
+
+        return fired;
+    }
+
+    private List<String> findFailedGenerationsWithCheckpoints() {
+        return QuarkusTransaction.requiringNew()
+                .call(
+                        () -> ReleaseManifestCheckpoint.getEntityManager()
+                                .createQuery(
+                                        "SELECT DISTINCT c.generationId FROM ReleaseManifestCheckpoint c, "
+                                                + "SbomGenerationRequest g WHERE g.id = c.generationId "
+                                                + "AND g.status = :status",
+                                        String.class)
+                                .setParameter("status", SbomGenerationStatus.FAILED)
+                                .getResultList());
+    }
+
+    private List<String> findInterruptedRequests(Instant staleBefore) {
+        return QuarkusTransaction.requiringNew()
+                .call(
+                        () -> ReleaseManifestCheckpoint.getEntityManager()
+                                .createQuery(
+                                        "SELECT g.request.id FROM ReleaseManifestCheckpoint c, "
+                                                + "SbomGenerationRequest g WHERE g.id = c.generationId "
+                                                + "AND g.status = :status GROUP BY g.request.id "
+                                                + "HAVING MAX(c.creationTime) < :staleBefore",
+                                        String.class)
+                                .setParameter("status", SbomGenerationStatus.GENERATING)
+                                .setParameter("staleBefore", staleBefore)
+                                .getResultList());
+    }
+
+    /**
+     * Returns the release generations of the request which are still generating, mapped by the product version name
+     * as done when the release event is fired first (the identifier of the generations is
+     * {@code <advisory>#<product version>}).
+     */
+    private Map<String, SbomGenerationRequest> findReleaseGenerations(String requestEventId) {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            Map<String, SbomGenerationRequest> releaseGenerations = new HashMap<>();
+            SbomGenerationRequest
+                    .<SbomGenerationRequest> stream(
+                            "request.id = ?1 AND status = ?2 AND identifier LIKE '%#%'",
+                            requestEventId,
+                            SbomGenerationStatus.GENERATING)
+                    .forEach(
+                            generation -> releaseGenerations.put(
+                                    generation.getIdentifier().substring(generation.getIdentifier().indexOf('#') + 1),
+                                    generation));
+            return releaseGenerations;
+        });
+    }
+}
@@ -0,0 +1,421 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.feature.sbom.errata.event.release;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.microprofile.context.ManagedExecutor;
+import org.jboss.sbomer.core.dto.v1beta1.V1Beta1RequestManifestRecord;
+import org.jboss.sbomer.core.errors.ApplicationException;
+import org.jboss.sbomer.core.features.sbom.enums.GenerationResult;
+import org.jboss.sbomer.core.features.sbom.enums.RequestEventStatus;
+import org.jboss.sbomer.service.feature.sbom.k8s.model.SbomGenerationStatus;
+import org.jboss.sbomer.service.feature.sbom.model.ManifestBlob;
+import org.jboss.sbomer.service.feature.sbom.model.RandomStringIdGenerator;
+import org.jboss.sbomer.service.feature.sbom.model.ReleaseManifestCheckpoint;
+import org.jboss.sbomer.service.feature.sbom.model.RequestEvent;
+import org.jboss.sbomer.service.feature.sbom.model.Sbom;
+import org.jboss.sbomer.service.feature.sbom.model.SbomGenerationRequest;
+import org.jboss.sbomer.service.feature.sbom.service.RequestEventRepository;
+import org.jboss.sbomer.service.feature.sbom.service.SbomGenerationRequestRepository;
+import org.jboss.sbomer.service.feature.sbom.service.SbomService;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>
+ * Rewrites the build manifests of a shipped advisory with the release information and stores the release manifest.
+ * </p>
+ *
+ * <p>
+ * The build manifests are processed in chunks of {@link ReleaseManifestConfig#chunkSize()} manifests. For every chunk
+ * the manifests are loaded, rewritten in parallel outside of any transaction and stored in a short transaction
+ * together with a {@link ReleaseManifestCheckpoint} for every manifest. When the rewrite is interrupted, the manifests
+ * with a checkpoint are skipped on the next attempt. The release manifest is stored, and the release generation and
+ * the request event are marked as successful, only once all the build manifests were rewritten.
+ * </p>
+ *
+ * <p>
+ * The checkpoints keep the original content (as a {@link ManifestBlob}) and release metadata of the build manifests,
+ * so that a failed release can be rolled back with {@link #rollback(String)}. Interrupted and failed releases are
+ * picked up by {@link ReleaseManifestRecovery}.
+ * </p>
+ */
+@ApplicationScoped
+@Slf4j
+public class ReleaseManifestRewriter {
+
+    /**
+     * The new content of a rewritten build manifest.
+     *
+     * @param sbom the rewritten manifest
+     * @param releaseMetadata the release metadata of the manifest
+     * @param rootPurl the new root purl of the manifest, or {@code null} to keep the current one
+     */
+    public record RewrittenManifest(JsonNode sbom, ObjectNode releaseMetadata, String rootPurl) {
+    }
+
+    @FunctionalInterface
+    public interface ManifestRewrite {
+
+        /**
+         * Rewrites a build manifest. Invoked concurrently for the manifests of a chunk and without an active
+         * transaction, implementations must not access the database.
+         *
+         * @param manifestRecord the build manifest record
+         * @param manifest the current content of the manifest
+         * @return the rewritten manifest
+         */
+        RewrittenManifest rewrite(V1Beta1RequestManifestRecord manifestRecord, JsonNode manifest);
+    }
+
+    /**
+     * The current state of a build manifest, read before the rewrite.
+     *
+     * @param manifestRecord the build manifest record
+     * @param manifest the current content of the manifest
+     * @param sbomHash the digest of the blob holding the current content, or {@code null} if the content is stored
+     *        inline
+     * @param releaseMetadata the current release metadata
+     */
+    private record ManifestInput(
+            V1Beta1RequestManifestRecord manifestRecord,
+            JsonNode manifest,
+            String sbomHash,
+            JsonNode releaseMetadata) {
+    }
+
+    /**
+     * A rewritten build manifest.
+     *
+     * @param input the state of the manifest before the rewrite
+     * @param rewritten the new content of the manifest
+     * @param originalBlob the blob to store the original content in, or {@code null} if it is stored in a blob
+     *        already
+     */
+    private record ManifestOutput(ManifestInput input, RewrittenManifest rewritten, ManifestBlob originalBlob) {
+    }
+
+    @Inject
+    ReleaseManifestConfig config;
+
+    @Inject
+    SbomService sbomService;
+
+    @Inject
+    SbomGenerationRequestRepository generationRequestRepository;
+
+    @Inject
+    RequestEventRepository requestEventRepository;
+
+    @Inject
+    ManagedExecutor managedExecutor;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    /**
+     * Returns the build manifests which were already rewritten for the given release generation.
+     *
+     * @param releaseGenerationId the release generation identifier
+     * @return map of the build manifest identifier to its root purl before the release
+     */
+    public Map<String, String> getRewrittenManifests(String releaseGenerationId) {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            Map<String, String> rewritten = new HashMap<>();
+            ReleaseManifestCheckpoint.<ReleaseManifestCheckpoint> stream("generationId", releaseGenerationId)
+                    .forEach(checkpoint -> rewritten.put(checkpoint.getSbomId(), checkpoint.getOriginalRootPurl()));
+            return rewritten;
+        });
+    }
+
+    /**
+     * Rewrites the build manifests not rewritten yet for the release generation and stores the release manifest.
+     *
+     * @param requestEvent the release request event
+     * @param advisory the full name of the advisory, used for logging
+     * @param contentType the content type of the advisory builds, used as metric tag
+     * @param releaseGeneration the release generation
+     * @param releaseManifest the release manifest to store
+     * @param buildManifests the build manifests to rewrite
+     * @param rewrite the rewrite of a single build manifest
+     * @return the rewritten build manifests followed by the stored release manifest
+     */
+    public List<Sbom> rewrite(
+            RequestEvent requestEvent,
+            String advisory,
+            String contentType,
+            SbomGenerationRequest releaseGeneration,
+            Sbom releaseManifest,
+            Collection<V1Beta1RequestManifestRecord> buildManifests,
+            ManifestRewrite rewrite) {
+
+        long start = System.nanoTime();
+        Map<String, String> rewritten = getRewrittenManifests(releaseGeneration.getId());
+        List<V1Beta1RequestManifestRecord> pending = buildManifests.stream()
+                .filter(manifestRecord -> !rewritten.containsKey(manifestRecord.id()))
+                .toList();
+
+        if (!rewritten.isEmpty()) {
+            log.info(
+                    "Resuming release of advisory '{}' for generation '{}', {} of {} build manifests already done",
+                    advisory,
+                    releaseGeneration.getId(),
+                    buildManifests.size() - pending.size(),
+                    buildManifests.size());
+        }
+
+        int chunkSize = Math.max(1, config.chunkSize());
+        for (int i = 0; i < pending.size(); i += chunkSize) {
+            List<V1Beta1RequestManifestRecord> chunk = pending.subList(i, Math.min(i + chunkSize, pending.size()));
+            Timer.Sample sample = Timer.start(meterRegistry);
+
+            rewriteChunk(releaseGeneration, chunk, rewrite);
+
+            sample.stop(meterRegistry.timer("sbomer.release.manifests.chunk", "type", contentType));
+            meterRegistry.counter("sbomer.release.manifests.rewritten", "type", contentType).increment(chunk.size());
+            log.debug(
+                    "Rewrote {} of {} pending build manifests of advisory '{}'",
+                    Math.min(i + chunkSize, pending.size()),
+                    pending.size(),
+                    advisory);
+        }
+
+        List<Sbom> sboms = complete(requestEvent, releaseGeneration, releaseManifest, buildManifests);
+
+        long elapsed = System.nanoTime() - start;
+        meterRegistry.timer("sbomer.release.manifests.duration", "type", contentType)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        log.info(
+                "Rewrote {} build manifests of advisory '{}' for generation '{}' in {} ms ({} already done)",
+                pending.size(),
+                advisory,
+                releaseGeneration.getId(),
+                TimeUnit.NANOSECONDS.toMillis(elapsed),
+                rewritten.size());
+
+        return sboms;
+    }
+
+    private void rewriteChunk(
+            SbomGenerationRequest releaseGeneration,
+            List<V1Beta1RequestManifestRecord> chunk,
+            ManifestRewrite rewrite) {
+
+        int timeout = (int) config.chunkTimeout().toSeconds();
+
+        // 1 - Read the current content of the manifests
+        List<ManifestInput> inputs = QuarkusTransaction.requiringNew().timeout(timeout).call(() -> {
+            List<ManifestInput> current = new ArrayList<>(chunk.size());
+            for (V1Beta1RequestManifestRecord manifestRecord : chunk) {
+                Sbom buildManifest = load(manifestRecord);
+                current.add(
+                        new ManifestInput(
+                                manifestRecord,
+                                buildManifest.getSbom(),
+                                buildManifest.getSbomHash(),
+                                buildManifest.getReleaseMetadata()));
+            }
+            return current;
+        });
+
+        // 2 - Rewrite them in parallel, this is where most of the time is spent
+        List<CompletableFuture<ManifestOutput>> futures = new ArrayList<>(inputs.size());
+        for (ManifestInput input : inputs) {
+            futures.add(
+                    CompletableFuture.supplyAsync(
+                            () -> new ManifestOutput(
+                                    input,
+                                    rewrite.rewrite(input.manifestRecord(), input.manifest()),
+                                    // Manifests stored before the blobs were introduced need one to be rolled back
+                                    input.sbomHash() == null && input.manifest() != null
+                                            ? ManifestBlob.of(input.manifest())
+                                            : null),
+                            managedExecutor));
+        }
+
+        List<ManifestOutput> outputs;
+        try {
+            outputs = futures.stream().map(CompletableFuture::join).toList();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException runtimeException ? runtimeException : e;
+        }
+
+        // 3 - Store the rewritten manifests together with the checkpoints
+        QuarkusTransaction.requiringNew().timeout(timeout).run(() -> {
+            Instant now = Instant.now();
+
+            for (ManifestOutput output : outputs) {
+                V1Beta1RequestManifestRecord manifestRecord = output.input().manifestRecord();
+                String originalSbomHash = output.input().sbomHash();
+
+                if (output.originalBlob() != null) {
+                    ManifestBlob.storeIfAbsent(output.originalBlob());
+                    originalSbomHash = output.originalBlob().getDigest();
+                }
+
+                // The content was read in the first step, only a reference is needed to replace it
+                Sbom buildManifest = Sbom.getEntityManager().getReference(Sbom.class, manifestRecord.id());
+
+                if (output.rewritten().rootPurl() != null) {
+                    buildManifest.setRootPurl(output.rewritten().rootPurl());
+                }
+                buildManifest.setSbom(output.rewritten().sbom());
+                buildManifest.setReleaseMetadata(output.rewritten().releaseMetadata());
+
+                ReleaseManifestCheckpoint.builder()
+                        .withId(RandomStringIdGenerator.generate())
+                        .withGenerationId(releaseGeneration.getId())
+                        .withSbomId(manifestRecord.id())
+                        .withOriginalRootPurl(manifestRecord.rootPurl())
+                        .withOriginalSbomHash(originalSbomHash)
+                        .withOriginalReleaseMetadata(output.input().releaseMetadata())
+                        .withCreationTime(now)
+                        .build()
+                        .persist();
+            }
+        });
+    }
+
+    private List<Sbom> complete(
+            RequestEvent requestEvent,
+            SbomGenerationRequest releaseGeneration,
+            Sbom releaseManifest,
+            Collection<V1Beta1RequestManifestRecord> buildManifests) {
+
+        int timeout = (int) config.chunkTimeout().toSeconds();
+        int chunkSize = Math.max(1, config.chunkSize());
+        List<V1Beta1RequestManifestRecord> manifestRecords = List.copyOf(buildManifests);
+        List<Sbom> sboms = new ArrayList<>(manifestRecords.size() + 1);
+
+        // Read the rewritten build manifests in chunks too, these are returned with their content
+        for (int i = 0; i < manifestRecords.size(); i += chunkSize) {
+            List<V1Beta1RequestManifestRecord> chunk = manifestRecords
+                    .subList(i, Math.min(i + chunkSize, manifestRecords.size()));
+
+            sboms.addAll(QuarkusTransaction.requiringNew().timeout(timeout).call(() -> {
+                List<Sbom> loaded = new ArrayList<>(chunk.size());
+                for (V1Beta1RequestManifestRecord manifestRecord : chunk) {
+                    Sbom sbom = load(manifestRecord);
+                    sbom.getSbom(); // Read the content while the transaction is active
+                    loaded.add(sbom);
+                }
+                return loaded;
+            }));
+        }
+
+        return QuarkusTransaction.requiringNew().timeout(timeout).call(() -> {
+            SbomGenerationRequest generation = generationRequestRepository.findById(releaseGeneration.getId());
+            generation.setStatus(SbomGenerationStatus.FINISHED);
+            generation.setResult(GenerationResult.SUCCESS);
+
+            releaseManifest.setGenerationRequest(generation);
+            Sbom sbom = sbomService.save(releaseManifest);
+
+            RequestEvent event = requestEventRepository.findById(requestEvent.getId());
+            event.setEventStatus(RequestEventStatus.SUCCESS);
+
+            ReleaseManifestCheckpoint.delete("generationId", releaseGeneration.getId());
+
+            sboms.add(sbom); // For consistency upload release after build SBOMs
+            return sboms;
+        });
+    }
+
+    /**
+     * Restores the original content and release metadata of the build manifests which were rewritten for the release
+     * generation, and removes the checkpoints. Done in chunks, each in its own transaction, so that an interrupted
+     * rollback can be retried.
+     *
+     * @param releaseGenerationId the release generation identifier
+     * @return the number of build manifests rolled back
+     */
+    public int rollback(String releaseGenerationId) {
+        int chunkSize = Math.max(1, config.chunkSize());
+        int total = 0;
+        int restored;
+
+        do {
+            restored = QuarkusTransaction.requiringNew().timeout((int) config.chunkTimeout().toSeconds()).call(() -> {
+                List<ReleaseManifestCheckpoint> checkpoints = ReleaseManifestCheckpoint
+                        .<ReleaseManifestCheckpoint> find("generationId", releaseGenerationId)
+                        .page(0, chunkSize)
+                        .list();
+
+                for (ReleaseManifestCheckpoint checkpoint : checkpoints) {
+                    restore(checkpoint);
+                    checkpoint.delete();
+                }
+
+                return checkpoints.size();
+            });
+            total += restored;
+        } while (restored >= chunkSize);
+
+        if (total > 0) {
+            log.info("Rolled back {} build manifests rewritten for generation '{}'", total, releaseGenerationId);
+        }
+
+        return total;
+    }
+
+    private void restore(ReleaseManifestCheckpoint checkpoint) {
+        Sbom buildManifest = Sbom.findById(checkpoint.getSbomId());
+        if (buildManifest == null) {
+            // Removed in the meantime, nothing to restore
+            return;
+        }
+
+        if (checkpoint.getOriginalSbomHash() != null) {
+            ManifestBlob original = ManifestBlob.findById(checkpoint.getOriginalSbomHash());
+            if (original == null) {
+                throw new ApplicationException(
+                        "Original content blob '{}' of build manifest '{}' does not exist",
+                        checkpoint.getOriginalSbomHash(),
+                        checkpoint.getSbomId());
+            }
+            buildManifest.setSbom(original.toJsonNode());
+        }
+
+        buildManifest.setReleaseMetadata(checkpoint.getOriginalReleaseMetadata());
+    }
+
+    private Sbom load(V1Beta1RequestManifestRecord manifestRecord) {
+        Sbom sbom = sbomService.get(manifestRecord.id());
+        if (sbom == null) {
+            throw new ApplicationException("Build manifest '{}' not found", manifestRecord.id());
+        }
+        return sbom;
+    }
+}
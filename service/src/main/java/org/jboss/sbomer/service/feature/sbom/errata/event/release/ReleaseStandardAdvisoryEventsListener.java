@@ -47,8 +47,6 @@ import org.jboss.sbomer.core.dto.v1beta1.V1Beta1RequestRecord;
 import org.jboss.sbomer.core.errors.ApplicationException;
 import org.jboss.sbomer.core.features.sbom.Constants;
 import org.jboss.sbomer.core.features.sbom.enums.GenerationRequestType;
-import org.jboss.sbomer.core.features.sbom.enums.GenerationResult;
-import org.jboss.sbomer.core.features.sbom.enums.RequestEventStatus;
 import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
 import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
 import org.jboss.sbomer.core.rest.faulttolerance.RetryLogger;
@@ -58,11 +56,12 @@ import org.jboss.sbomer.service.feature.sbom.errata.dto.ErrataBuildList.BuildIte
 import org.jboss.sbomer.service.feature.sbom.errata.dto.ErrataBuildList.ProductVersionEntry;
 import org.jboss.sbomer.service.feature.sbom.errata.dto.ErrataCDNRepoNormalized;
 import org.jboss.sbomer.service.feature.sbom.errata.event.AdvisoryEventUtils;
+import org.jboss.sbomer.service.feature.sbom.errata.event.release.ReleaseManifestRewriter.RewrittenManifest;
 import org.jboss.sbomer.service.feature.sbom.errata.event.util.MdcEventWrapper;
-import org.jboss.sbomer.service.feature.sbom.k8s.model.SbomGenerationStatus;
 import org.jboss.sbomer.service.feature.sbom.model.RequestEvent;
 import org.jboss.sbomer.service.feature.sbom.model.Sbom;
 import org.jboss.sbomer.service.feature.sbom.model.SbomGenerationRequest;
+import org.jboss.sbomer.service.feature.sbom.model.SbomRoutingKeys;
 import org.jboss.sbomer.service.feature.sbom.pyxis.PyxisValidatingClient;
 import org.jboss.sbomer.service.feature.sbom.pyxis.dto.PyxisRepository;
 import org.jboss.sbomer.service.feature.sbom.pyxis.dto.PyxisRepositoryDetails;
@@ -74,7 +73,6 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.github.packageurl.MalformedPackageURLException;
 import com.github.packageurl.PackageURL;
 
-import io.quarkus.narayana.jta.QuarkusTransaction;
 import io.smallrye.faulttolerance.api.BeforeRetry;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.event.ObservesAsync;
@@ -90,6 +88,10 @@ public class ReleaseStandardAdvisoryEventsListener extends AbstractEventsListene
     @Setter
     PyxisValidatingClient pyxisClient;
 
+    @Inject
+    @Setter
+    ReleaseManifestRewriter releaseManifestRewriter;
+
     private static final String NVR_STANDARD_SEPARATOR = "-";
 
     public void onReleaseAdvisoryEvent(@ObservesAsync MdcEventWrapper wrapper) {
@@ -177,6 +179,7 @@ public class ReleaseStandardAdvisoryEventsListener extends AbstractEventsListene
                         e);
                 String reason = (e instanceof ApplicationException) ? e.getMessage()
                         : "An error occurred during the creation of the release manifest";
+                rollbackBuildManifests(event.getReleaseGenerations().values());
                 markRequestFailed(requestEvent, event.getReleaseGenerations().values(), reason);
             }
 
@@ -187,6 +190,23 @@ public class ReleaseStandardAdvisoryEventsListener extends AbstractEventsListene
         }
     }
 
+    /**
+     * Restores the build manifests already rewritten for the failed release generations. When the rollback fails,
+     * it is retried by {@link ReleaseManifestRecovery}, the checkpoints of the failed generations are kept until then.
+     */
+    private void rollbackBuildManifests(Collection<SbomGenerationRequest> releaseGenerations) {
+        for (SbomGenerationRequest generation : releaseGenerations) {
+            try {
+                releaseManifestRewriter.rollback(generation.getId());
+            } catch (RuntimeException e) {
+                log.warn(
+                        "Unable to roll back the build manifests of generation '{}', will be retried",
+                        generation.getId(),
+                        e);
+            }
+        }
+    }
+
     protected void releaseManifestsForRPMBuilds(
             RequestEvent requestEvent,
             Errata erratum,
@@ -271,6 +291,17 @@ public class ReleaseStandardAdvisoryEventsListener extends AbstractEventsListene
             Map<ProductVersionEntry, Set<String>> productVersionToCPEs,
             Map<String, V1Beta1GenerationRecord> nvrToBuildGeneration) {
 
+        // Find where all the builds (NVRs) with a generation have been published to at once, builds are often attached
+        // to multiple ProductVersions
+        Set<String> nvrs = advisoryBuildDetails.values()
+                .stream()
+                .flatMap(List::stream)
+                .map(BuildItem::getNvr)
+                .filter(nvrToBuildGeneration::containsKey)
+                .collect(Collectors.toSet());
+        Map<String, PyxisRepositoryDetails> nvrToRepositoriesDetails = pyxisClient
+                .getAllRepositoriesDetails(nvrs, REPOSITORIES_DETAILS_INCLUDES);
+
         advisoryBuildDetails.forEach((productVersion, buildItems) -> {
 
             // Create the release manifest for this ProductVersion
@@ -293,6 +324,7 @@ public class ReleaseStandardAdvisoryEventsListener extends AbstractEventsListene
                             buildItem.getNvr(),
                             buildGeneration,
                             advisoryManifestsRecord,
+                            nvrToRepositoriesDetails,
                             generationToRepositories);
 
                     // Add the component to the release manifest components and add the purl to the "provides" list
@@ -411,6 +443,7 @@ public class ReleaseStandardAdvisoryEventsListener extends AbstractEventsListene
             String generationNVR,
             V1Beta1GenerationRecord generation,
             V1Beta1RequestRecord advisoryManifestsRecord,
+            Map<String, PyxisRepositoryDetails> nvrToRepositoriesDetails,
             Map<String, List<RepositoryCoordinates>> generationToRepositories) {
 
         // From the generation triggered from this build (NVR), find the image-index manifest and get the manifest
@@ -420,7 +453,10 @@ public class ReleaseStandardAdvisoryEventsListener extends AbstractEventsListene
         Component imageIndexMainComponent = SbomUtils.fromJsonNode(imageIndexSbom.getSbom()).getComponents().get(0);
 
         // Find where this build (NVR) has been published to
-        List<RepositoryCoordinates> repositories = getRepositoriesDetails(generationNVR);
+        PyxisRepositoryDetails repositoriesDetails = nvrToRepositoriesDetails.get(generationNVR);
+        List<RepositoryCoordinates> repositories = repositoriesDetails != null
+                ? getRepositoryCoordinates(repositoriesDetails)
+                : getRepositoriesDetails(generationNVR);
         generationToRepositories.put(generation.id(), repositories);
 
         // Create summary (pick the longest value) and evidence purl
@@ -452,7 +488,7 @@ public class ReleaseStandardAdvisoryEventsListener extends AbstractEventsListene
         return nvrRootComponent;
     }
 
-    // Add a very long timeout because this method could potentially need to update hundreds of manifests
+    // The build manifests are rewritten in checkpointed chunks, a retry resumes where the previous attempt stopped
     @Retry(maxRetries = 10)
     @BeforeRetry(RetryLogger.class)
     protected List<Sbom> saveReleaseManifestForRPMGeneration(
@@ -466,103 +502,68 @@ public class ReleaseStandardAdvisoryEventsListener extends AbstractEventsListene
             Map<String, List<ErrataCDNRepoNormalized>> generationToCDNs) {
 
         try {
-            List<Sbom> sboms = new ArrayList<>();
-            QuarkusTransaction.begin(QuarkusTransaction.beginOptions().timeout(INCREASED_TIMEOUT_SEC));
-
-            // 1 - Save the release generation with the release manifest
-            releaseGeneration = generationRequestRepository.findById(releaseGeneration.getId());
-            releaseGeneration.setStatus(SbomGenerationStatus.FINISHED);
-            releaseGeneration.setResult(GenerationResult.SUCCESS);
-
-            // 1.1 - Create the Sbom entity
-            Sbom sbom = Sbom.builder()
-                    .withIdentifier(releaseGeneration.getIdentifier())
-                    .withSbom(SbomUtils.toJsonNode(productVersionBom))
-                    .withGenerationRequest(releaseGeneration)
-                    .withConfigIndex(0)
-                    .build();
-
-            // Add more information for this release so to find manifests more easily
-            ObjectNode metadataNode = collectReleaseInfo(
-                    requestEvent.getId(),
+            Sbom sbom = createReleaseManifest(
+                    requestEvent,
                     erratum,
                     productVersion,
+                    releaseGeneration,
                     productVersionBom);
-            sbom.setReleaseMetadata(metadataNode);
-            sbom = sbomService.save(sbom);
 
-            // 2 - For every generation, find all the existing manifests and update them with release repo
-            // data
+            // For every generation, find all the existing manifests and update them with release repo data
             log.debug("Processing {} generations for RPMs...", generationToCDNs.size());
-            for (Map.Entry<String, List<ErrataCDNRepoNormalized>> entry : generationToCDNs.entrySet()) {
-                String generationId = entry.getKey();
-                // 2.1 Get all the CDNs associated with this request
-                List<ErrataCDNRepoNormalized> generationCDNs = entry.getValue();
-
-                // 2.2 - For every manifest previously generated from this generation
-                Collection<V1Beta1RequestManifestRecord> buildManifests = advisoryManifestsRecord.manifests()
-                        .stream()
-                        .filter(manifest -> manifest.generation().id().equals(generationId))
-                        .toList();
+            Collection<V1Beta1RequestManifestRecord> buildManifests = advisoryManifestsRecord.manifests()
+                    .stream()
+                    .filter(manifest -> generationToCDNs.containsKey(manifest.generation().id()))
+                    .toList();
 
-                for (V1Beta1RequestManifestRecord buildManifestRecord : buildManifests) {
-                    log.debug(
-                            "Updating build manifest '{}' for release event {}...",
-                            buildManifestRecord.id(),
-                            requestEvent.getId());
-
-                    Sbom buildManifest = sbomService.get(buildManifestRecord.id());
-                    Bom manifestBom = SbomUtils.fromJsonNode(buildManifest.getSbom());
-                    SbomUtils.addMissingMetadataSupplier(manifestBom);
-
-                    // Add the AdvisoryId property
-                    SbomUtils.addPropertyIfMissing(
-                            manifestBom.getMetadata(),
-                            Constants.CONTAINER_PROPERTY_ADVISORY_ID,
-                            String.valueOf(erratum.getDetails().get().getId()));
-
-                    // For each component, I need to find the matching CDNs repo, selecting the longest one to update
-                    // the purl.
-                    // And getting them all to create the evidence
-                    Set<String> manifestArches = getAllArchitectures(manifestBom);
-                    log.debug("Archs detected in the manifest: {}", manifestArches);
-
-                    Component metadataComponent = manifestBom.getMetadata() != null
-                            ? manifestBom.getMetadata().getComponent()
-                            : null;
-                    if (metadataComponent != null) {
-                        adjustComponent(metadataComponent, generationCDNs, manifestArches);
-                    }
-                    for (Component component : manifestBom.getComponents()) {
-                        adjustComponent(component, generationCDNs, manifestArches);
-                    }
-
-                    // 2.7 - Update the original Sbom
-                    buildManifest.setSbom(SbomUtils.toJsonNode(manifestBom));
-
-                    // 2.8 - Add more information for this release so to find manifests more easily
-                    ObjectNode buildManifestMetadataNode = collectReleaseInfo(
-                            requestEvent.getId(),
-                            erratum,
-                            productVersion,
-                            manifestBom);
-                    buildManifest.setReleaseMetadata(buildManifestMetadataNode);
-                    sboms.add(buildManifest);
-                }
-            }
-
-            requestEvent = requestEventRepository.findById(requestEvent.getId());
-            requestEvent.setEventStatus(RequestEventStatus.SUCCESS);
-            QuarkusTransaction.commit();
-            sboms.add(sbom); // For consistency upload release after build SBOMs
+            return releaseManifestRewriter.rewrite(
+                    requestEvent,
+                    erratum.getDetails().get().getFulladvisory(),
+                    "rpm",
+                    releaseGeneration,
+                    sbom,
+                    buildManifests,
+                    (buildManifestRecord, manifest) -> {
+                        log.debug(
+                                "Updating build manifest '{}' for release event {}...",
+                                buildManifestRecord.id(),
+                                requestEvent.getId());
+
+                        // Get all the CDNs associated with the generation of the manifest
+                        List<ErrataCDNRepoNormalized> generationCDNs = generationToCDNs
+                                .get(buildManifestRecord.generation().id());
+
+                        Bom manifestBom = SbomUtils.fromJsonNode(manifest);
+                        SbomUtils.addMissingMetadataSupplier(manifestBom);
+
+                        // Add the AdvisoryId property
+                        SbomUtils.addPropertyIfMissing(
+                                manifestBom.getMetadata(),
+                                Constants.CONTAINER_PROPERTY_ADVISORY_ID,
+                                String.valueOf(erratum.getDetails().get().getId()));
+
+                        // For each component, I need to find the matching CDNs repo, selecting the longest one to
+                        // update the purl. And getting them all to create the evidence
+                        Set<String> manifestArches = getAllArchitectures(manifestBom);
+                        log.debug("Archs detected in the manifest: {}", manifestArches);
+
+                        Component metadataComponent = manifestBom.getMetadata() != null
+                                ? manifestBom.getMetadata().getComponent()
+                                : null;
+                        if (metadataComponent != null) {
+                            adjustComponent(metadataComponent, generationCDNs, manifestArches);
+                        }
+                        for (Component component : manifestBom.getComponents()) {
+                            adjustComponent(component, generationCDNs, manifestArches);
+                        }
 
-            return sboms;
+                        // Add more information for this release so to find manifests more easily
+                        return new RewrittenManifest(
+                                SbomUtils.toJsonNode(manifestBom),
+                                collectReleaseInfo(requestEvent.getId(), erratum, productVersion, manifestBom),
+                                null);
+                    });
         } catch (Exception e) {
-            try {
-                QuarkusTransaction.rollback();
-            } catch (Exception rollbackException) {
-                log.error("Transaction was rolled back!!", rollbackException);
-            }
             throw new ApplicationException(
                     "Could not save the release and build manifests for release generation {}",
                     releaseGeneration.getIdentifier(),
@@ -570,8 +571,7 @@ public class ReleaseStandardAdvisoryEventsListener extends AbstractEventsListene
         }
     }
 
-    // TODO: Refactor
-    // Add a very long timeout because this method could potentially need to update hundreds of manifests
+    // The build manifests are rewritten in checkpointed chunks, a retry resumes where the previous attempt stopped
     @Retry(maxRetries = 10)
     @BeforeRetry(RetryLogger.class)
     protected List<Sbom> saveReleaseManifestForDockerGeneration(
@@ -585,140 +585,107 @@ public class ReleaseStandardAdvisoryEventsListener extends AbstractEventsListene
             Map<String, List<RepositoryCoordinates>> generationToRepositories) {
 
         try {
-            List<Sbom> sboms = new ArrayList<>();
-            QuarkusTransaction.begin(QuarkusTransaction.beginOptions().timeout(INCREASED_TIMEOUT_SEC));
-
-            // 1 - Save the release generation with the release manifest
-            releaseGeneration = generationRequestRepository.findById(releaseGeneration.getId());
-            releaseGeneration.setStatus(SbomGenerationStatus.FINISHED);
-            releaseGeneration.setResult(GenerationResult.SUCCESS);
-
-            // 1.1 - Create the Sbom entity
-            Sbom sbom = Sbom.builder()
-                    .withIdentifier(releaseGeneration.getIdentifier())
-                    .withSbom(SbomUtils.toJsonNode(productVersionBom))
-                    .withGenerationRequest(releaseGeneration)
-                    .withConfigIndex(0)
-                    .build();
-
-            // Add more information for this release so to find manifests more easily
-            ObjectNode metadataNode = collectReleaseInfo(
-                    requestEvent.getId(),
+            Sbom sbom = createReleaseManifest(
+                    requestEvent,
                     erratum,
                     productVersion,
+                    releaseGeneration,
                     productVersionBom);
-            sbom.setReleaseMetadata(metadataNode);
-            sbom = sbomService.save(sbom);
 
-            // 2 - For every generation, find all the existing manifests and update them with release repo
-            // data
+            // Root purls of the manifests already rewritten by a previous attempt, before they were rewritten
+            Map<String, String> rewrittenManifests = releaseManifestRewriter
+                    .getRewrittenManifests(releaseGeneration.getId());
+
+            // For every generation, find all the existing manifests and update them with release repo data
             log.debug("Processing {} generations for Docker...", generationToRepositories.size());
+            List<V1Beta1RequestManifestRecord> buildManifests = new ArrayList<>();
+            Map<String, List<RepositoryCoordinates>> generationRepositories = new HashMap<>();
+            Map<String, String> originalToRebuiltPurl = new HashMap<>();
             for (Map.Entry<String, List<RepositoryCoordinates>> entry : generationToRepositories.entrySet()) {
                 String generationId = entry.getKey();
-                // 2.1 - Select the repository with longest repoFragment + tag
+                // Select the repository with longest repoFragment + tag
                 List<RepositoryCoordinates> repositories = entry.getValue();
                 Optional<RepositoryCoordinates> preferredRepo = AdvisoryEventUtils.findPreferredRepo(repositories);
                 if (preferredRepo.isEmpty()) {
                     throw new ApplicationException("No published repositories found in Pyxis");
                 }
 
-                // 2.2 - Regenerate the manifest purls using the preferredRepo and keep track of the updates.
+                // Regenerate the manifest purls using the preferredRepo and keep track of the updates.
                 // We need them to update the index manifest variants
-                Collection<V1Beta1RequestManifestRecord> buildManifests = advisoryManifestsRecord.manifests()
+                advisoryManifestsRecord.manifests()
                         .stream()
                         .filter(manifest -> manifest.generation().id().equals(generationId))
-                        .toList();
-                Map<String, String> originalToRebuiltPurl = new HashMap<>();
-                buildManifests.forEach(manifestRecord -> {
-                    String rebuiltPurl = AdvisoryEventUtils.rebuildPurl(manifestRecord.rootPurl(), preferredRepo.get());
-                    originalToRebuiltPurl.put(manifestRecord.rootPurl(), rebuiltPurl);
-                    log.debug("Regenerated rootPurl '{}' to '{}'", manifestRecord.rootPurl(), rebuiltPurl);
-                });
-
-                // 2.3 - For every manifest previously generated from this generation
-                for (V1Beta1RequestManifestRecord buildManifestRecord : buildManifests) {
-
-                    Sbom buildManifest = sbomService.get(buildManifestRecord.id());
-                    Bom manifestBom = SbomUtils.fromJsonNode(buildManifest.getSbom());
-                    SbomUtils.addMissingMetadataSupplier(manifestBom);
-
-                    // 2.4 Update rootPurl, metadata.component.purl, bom.component[0].purl with the rebuiltPurl
-                    String rebuiltPurl = originalToRebuiltPurl.get(buildManifestRecord.rootPurl());
-                    buildManifest.setRootPurl(rebuiltPurl);
-                    log.debug("Updated manifest '{}' to rootPurl '{}'", buildManifestRecord.id(), rebuiltPurl);
-
-                    SbomUtils.addPropertyIfMissing(
-                            manifestBom.getMetadata(),
-                            Constants.CONTAINER_PROPERTY_ADVISORY_ID,
-                            String.valueOf(erratum.getDetails().get().getId()));
-
-                    if (manifestBom.getMetadata() != null && manifestBom.getMetadata().getComponent() != null) {
-
-                        manifestBom.getMetadata().getComponent().setPurl(rebuiltPurl);
-                        String desc = manifestBom.getMetadata().getComponent().getDescription();
-                        if (desc != null && desc.contains(buildManifest.getRootPurl())) {
-                            manifestBom.getMetadata()
-                                    .getComponent()
-                                    .setDescription(desc.replace(buildManifest.getRootPurl(), rebuiltPurl));
+                        .forEach(manifestRecord -> {
+                            String originalPurl = getOriginalRootPurl(manifestRecord, rewrittenManifests);
+                            String rebuiltPurl = AdvisoryEventUtils.rebuildPurl(originalPurl, preferredRepo.get());
+                            originalToRebuiltPurl.put(originalPurl, rebuiltPurl);
+                            log.debug("Regenerated rootPurl '{}' to '{}'", originalPurl, rebuiltPurl);
+                            buildManifests.add(manifestRecord);
+                        });
+                generationRepositories.put(generationId, repositories);
+            }
+
+            return releaseManifestRewriter.rewrite(
+                    requestEvent,
+                    erratum.getDetails().get().getFulladvisory(),
+                    "docker",
+                    releaseGeneration,
+                    sbom,
+                    buildManifests,
+                    (buildManifestRecord, manifest) -> {
+                        Bom manifestBom = SbomUtils.fromJsonNode(manifest);
+                        SbomUtils.addMissingMetadataSupplier(manifestBom);
+
+                        // Update rootPurl, metadata.component.purl, bom.component[0].purl with the rebuiltPurl
+                        String originalPurl = getOriginalRootPurl(buildManifestRecord, rewrittenManifests);
+                        String rebuiltPurl = originalToRebuiltPurl.get(originalPurl);
+                        log.debug("Updated manifest '{}' to rootPurl '{}'", buildManifestRecord.id(), rebuiltPurl);
+
+                        SbomUtils.addPropertyIfMissing(
+                                manifestBom.getMetadata(),
+                                Constants.CONTAINER_PROPERTY_ADVISORY_ID,
+                                String.valueOf(erratum.getDetails().get().getId()));
+
+                        if (manifestBom.getMetadata() != null && manifestBom.getMetadata().getComponent() != null) {
+                            manifestBom.getMetadata().getComponent().setPurl(rebuiltPurl);
+                            String desc = manifestBom.getMetadata().getComponent().getDescription();
+                            if (desc != null && originalPurl != null && desc.contains(originalPurl)) {
+                                manifestBom.getMetadata()
+                                        .getComponent()
+                                        .setDescription(desc.replace(originalPurl, rebuiltPurl));
+                            }
                         }
-                    }
-                    if (SbomUtils.isNotEmpty(manifestBom.getComponents())) {
-                        manifestBom.getComponents().get(0).setPurl(rebuiltPurl);
-
-                        // 2.5 - If there are variants (this is an index image) update also the purls with the rebuilt
-                        // ones
-                        if (manifestBom.getComponents().get(0).getPedigree() != null
-                                && manifestBom.getComponents().get(0).getPedigree().getVariants() != null
-                                && manifestBom.getComponents()
-                                        .get(0)
-                                        .getPedigree()
-                                        .getVariants()
-                                        .getComponents() != null) {
-
-                            for (Component variant : manifestBom.getComponents()
-                                    .get(0)
-                                    .getPedigree()
-                                    .getVariants()
-                                    .getComponents()) {
-                                if (originalToRebuiltPurl.containsKey(variant.getPurl())) {
-                                    variant.setPurl(originalToRebuiltPurl.get(variant.getPurl()));
+                        if (SbomUtils.isNotEmpty(manifestBom.getComponents())) {
+                            Component mainComponent = manifestBom.getComponents().get(0);
+                            mainComponent.setPurl(rebuiltPurl);
+
+                            // If there are variants (this is an index image) update also the purls with the rebuilt
+                            // ones
+                            if (mainComponent.getPedigree() != null && mainComponent.getPedigree().getVariants() != null
+                                    && mainComponent.getPedigree().getVariants().getComponents() != null) {
+
+                                for (Component variant : mainComponent.getPedigree().getVariants().getComponents()) {
+                                    if (originalToRebuiltPurl.containsKey(variant.getPurl())) {
+                                        variant.setPurl(originalToRebuiltPurl.get(variant.getPurl()));
+                                    }
                                 }
                             }
-                        }
 
-                        // 2.6 - Add an evidence.identity list with all the rebuilt purls
-                        Set<String> evidencePurls = AdvisoryEventUtils
-                                .rebuildPurls(buildManifest.getRootPurl(), repositories);
-                        log.debug("Rebuilt evidence purl '{}'", String.join(", ", evidencePurls));
-                        SbomUtils.setEvidenceIdentities(manifestBom.getComponents().get(0), evidencePurls, Field.PURL);
-                    }
-
-                    // 2.7 - Update the original Sbom
-                    buildManifest.setSbom(SbomUtils.toJsonNode(manifestBom));
-
-                    // 2.8 - Add more information for this release so to find manifests more easily
-                    ObjectNode buildManifestMetadataNode = collectReleaseInfo(
-                            requestEvent.getId(),
-                            erratum,
-                            productVersion,
-                            manifestBom);
-                    buildManifest.setReleaseMetadata(buildManifestMetadataNode);
-                    sboms.add(buildManifest);
-                }
-            }
-
-            requestEvent = requestEventRepository.findById(requestEvent.getId());
-            requestEvent.setEventStatus(RequestEventStatus.SUCCESS);
-            QuarkusTransaction.commit();
-            sboms.add(sbom); // For consistency upload release after build SBOMs
+                            // Add an evidence.identity list with all the rebuilt purls
+                            Set<String> evidencePurls = AdvisoryEventUtils.rebuildPurls(
+                                    rebuiltPurl,
+                                    generationRepositories.get(buildManifestRecord.generation().id()));
+                            log.debug("Rebuilt evidence purl '{}'", String.join(", ", evidencePurls));
+                            SbomUtils.setEvidenceIdentities(mainComponent, evidencePurls, Field.PURL);
+                        }
 
-            return sboms;
+                        // Add more information for this release so to find manifests more easily
+                        return new RewrittenManifest(
+                                SbomUtils.toJsonNode(manifestBom),
+                                collectReleaseInfo(requestEvent.getId(), erratum, productVersion, manifestBom),
+                                rebuiltPurl);
+                    });
         } catch (Exception e) {
-            try {
-                QuarkusTransaction.rollback();
-            } catch (Exception rollbackException) {
-                log.error("Transaction was rolled back!!", rollbackException);
-            }
             throw new ApplicationException(
                     "Could not save the release and build manifests for release generation {}",
                     releaseGeneration.getIdentifier(),
@@ -726,6 +693,34 @@ public class ReleaseStandardAdvisoryEventsListener extends AbstractEventsListene
         }
     }
 
+    private Sbom createReleaseManifest(
+            RequestEvent requestEvent,
+            Errata erratum,
+            ProductVersionEntry productVersion,
+            SbomGenerationRequest releaseGeneration,
+            Bom productVersionBom) {
+
+        Sbom sbom = Sbom.builder()
+                .withIdentifier(releaseGeneration.getIdentifier())
+                .withSbom(SbomUtils.toJsonNode(productVersionBom))
+                .withGenerationRequest(releaseGeneration)
+                .withConfigIndex(0)
+                .build();
+
+        // Add more information for this release so to find manifests more easily
+        ObjectNode metadataNode = collectReleaseInfo(requestEvent.getId(), erratum, productVersion, productVersionBom);
+        sbom.setReleaseMetadata(metadataNode);
+        return sbom;
+    }
+
+    private static String getOriginalRootPurl(
+            V1Beta1RequestManifestRecord manifestRecord,
+            Map<String, String> rewrittenManifests) {
+        // The manifests rewritten by a previous attempt already have the rebuilt root purl
+        String originalPurl = rewrittenManifests.get(manifestRecord.id());
+        return originalPurl != null ? originalPurl : manifestRecord.rootPurl();
+    }
+
     protected Map<ProductVersionEntry, List<BuildItem>> getAdvisoryBuildDetails(String advisoryId) {
         ErrataBuildList erratumBuildList = errataClient.getBuildsList(advisoryId);
         return erratumBuildList.getProductVersions()
@@ -743,11 +738,20 @@ public class ReleaseStandardAdvisoryEventsListener extends AbstractEventsListene
     protected Map<ProductVersionEntry, Set<String>> mapProductVersionToCPEs(
             Map<ProductVersionEntry, List<BuildItem>> advisoryBuildDetails) {
 
+        // Resolve all variants of the advisory at once, these are repeated across the builds
+        errataClient.prefetchVariants(
+                advisoryBuildDetails.values()
+                        .stream()
+                        .flatMap(List::stream)
+                        .flatMap(buildItem -> buildItem.getVariantArch().keySet().stream())
+                        .collect(Collectors.toSet()));
+
         Map<ProductVersionEntry, Set<String>> productVersionToCPEs = new HashMap<>();
         advisoryBuildDetails.forEach((productVersionEntry, buildItems) -> {
             // Map all VariantArch to ErrataVariant and collect distinct ErrataVariant objects
             Set<String> productVersionCPEs = buildItems.stream()
                     .flatMap(buildItem -> buildItem.getVariantArch().keySet().stream())
+                    .distinct()
                     .map(variantArch -> errataClient.getVariant(variantArch))
                     .filter(Objects::nonNull)
                     .map(errataVariant -> errataVariant.getData().getAttributes().getCpe())
@@ -766,6 +770,10 @@ public class ReleaseStandardAdvisoryEventsListener extends AbstractEventsListene
 
         PyxisRepositoryDetails repositoriesDetails = pyxisClient
                 .getRepositoriesDetails(nvr, REPOSITORIES_DETAILS_INCLUDES);
+        return getRepositoryCoordinates(repositoriesDetails);
+    }
+
+    private List<RepositoryCoordinates> getRepositoryCoordinates(PyxisRepositoryDetails repositoriesDetails) {
         return repositoriesDetails.getData()
                 .stream()
                 .flatMap(dataSection -> dataSection.getRepositories().stream())
@@ -869,7 +877,9 @@ public class ReleaseStandardAdvisoryEventsListener extends AbstractEventsListene
                                 generation.identifier()));
     }
 
-    private String getGenerationNVRFromManifest(V1Beta1RequestManifestRecord manifestRecord) {
+    private String getGenerationNVRFromManifest(
+            V1Beta1RequestManifestRecord manifestRecord,
+            Map<String, SbomRoutingKeys> routingKeys) {
         GenerationRequestType generationRequestType = GenerationRequestType
                 .fromName(manifestRecord.generation().type());
 
@@ -879,8 +889,13 @@ public class ReleaseStandardAdvisoryEventsListener extends AbstractEventsListene
         }
 
         if (GenerationRequestType.CONTAINERIMAGE.equals(generationRequestType)) {
-            // The NVR is not stored inside the generation, we need to get it from the manifest. Might be optimized in
-            // the future.
+            // The NVR is extracted from the manifest when it is stored
+            SbomRoutingKeys keys = routingKeys.get(manifestRecord.id());
+            if (keys != null && keys.nvr() != null) {
+                return keys.nvr();
+            }
+
+            // Manifests stored before the NVR was extracted need to be read
             Sbom sbom = sbomService.get(manifestRecord.id());
             List<String> nvr = SbomUtils.computeNVRFromContainerManifest(sbom.getSbom());
             if (!nvr.isEmpty()) {
@@ -896,11 +911,21 @@ public class ReleaseStandardAdvisoryEventsListener extends AbstractEventsListene
     private Map<String, V1Beta1GenerationRecord> mapNVRToBuildGeneration(V1Beta1RequestRecord advisoryManifestsRecord) {
         Set<String> processedGenerationsIds = new HashSet<>();
 
+        // Fetch the NVRs of all container image manifests at once, without loading the manifests
+        Map<String, SbomRoutingKeys> routingKeys = sbomService.getRoutingKeys(
+                advisoryManifestsRecord.manifests()
+                        .stream()
+                        .filter(
+                                manifest -> GenerationRequestType.CONTAINERIMAGE
+                                        .equals(GenerationRequestType.fromName(manifest.generation().type())))
+                        .map(V1Beta1RequestManifestRecord::id)
+                        .toList());
+
         return advisoryManifestsRecord.manifests()
                 .stream()
                 .filter(manifest -> !processedGenerationsIds.contains(manifest.generation().id()))
                 .map(manifest -> {
-                    String nvr = getGenerationNVRFromManifest(manifest);
+                    String nvr = getGenerationNVRFromManifest(manifest, routingKeys);
                     if (nvr != null) {
                         processedGenerationsIds.add(manifest.generation().id());
                     }
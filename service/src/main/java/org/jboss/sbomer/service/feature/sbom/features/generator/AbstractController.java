@@ -28,9 +28,11 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.temporal.ChronoUnit;
-import java.util.ArrayList;
+import java.util.ArrayDeque;
 import java.util.Comparator;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -39,10 +41,16 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import org.cyclonedx.exception.ParseException;
 import org.cyclonedx.model.Bom;
+import org.cyclonedx.parsers.JsonParser;
+import org.eclipse.microprofile.context.ManagedExecutor;
 import org.eclipse.microprofile.faulttolerance.Bulkhead;
 import org.eclipse.microprofile.faulttolerance.Retry;
 import org.eclipse.microprofile.faulttolerance.exceptions.BulkheadException;
@@ -93,6 +101,7 @@ import io.smallrye.faulttolerance.api.ExponentialBackoff;
 import jakarta.enterprise.context.control.ActivateRequestContext;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
+import jakarta.validation.ValidationException;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
@@ -121,6 +130,10 @@ public abstract class AbstractController implements Reconciler<GenerationRequest
     @Setter
     AtlasHandler atlasHandler;
 
+    @Inject
+    @Setter
+    ManagedExecutor managedExecutor;
+
     protected abstract GenerationRequestType generationRequestType();
 
     protected String labelSelector() {
@@ -211,7 +224,15 @@ public abstract class AbstractController implements Reconciler<GenerationRequest
 
     /**
      * <p>
-     * Stores the generated manifests in the database which results in creation of new {@link Sbom}s entities.
+     * Reads the generated manifests and stores them in the database which results in creation of new {@link Sbom}s
+     * entities.
+     * </p>
+     *
+     * <p>
+     * Every manifest is converted to a {@link Sbom} and handed over to the repository as soon as it is read (see
+     * {@link #readManifests(List, Consumer)}), the parsed {@link Bom}s are not collected. Reading the manifests does
+     * not run within a transaction, the manifests are committed in batches (see
+     * {@link SbomRepository#saveSboms(Consumer)}).
      * </p>
      *
      * <p>
@@ -219,8 +240,10 @@ public abstract class AbstractController implements Reconciler<GenerationRequest
      * </p>
      *
      * @param generationRequest the generation request
-     * @param boms the BOMs to store
+     * @param manifestPaths List of {@link Path}s to manifests in JSON format.
      * @return the list of stored {@link Sbom}s
+     * @throws ApplicationException if a manifest could not be read
+     * @throws ValidationException if a manifest is not a valid CycloneDX BOM
      */
     @Bulkhead(value = SBOM_IO_CONCURENCY, waitingTaskQueue = SBOM_IO_MAX_QUEUE)
     @Retry(
@@ -230,50 +253,45 @@ public abstract class AbstractController implements Reconciler<GenerationRequest
             retryOn = BulkheadException.class)
     @ExponentialBackoff
     @BeforeRetry(RetryLogger.class)
-    @Transactional
-    public List<Sbom> storeBoms(GenerationRequest generationRequest, List<Bom> boms) {
+    public List<Sbom> storeManifests(GenerationRequest generationRequest, List<Path> manifestPaths) {
         MDCUtils.removeOtelContext();
         MDCUtils.addIdentifierContext(generationRequest.getIdentifier());
         MDCUtils.addOtelContext(generationRequest.getMDCOtel());
 
-        // First, update the status of the GenerationRequest entity.
+        // First, update the status of the GenerationRequest entity, in its own transaction
         SbomGenerationRequest sbomGenerationRequest = SbomGenerationRequest.sync(generationRequest);
 
         // Verify if the request event for this generation is associated with an Errata advisory
-        RequestEvent event = sbomGenerationRequest.getRequest();
-        if (event != null && event.getRequestConfig() != null
-                && event.getRequestConfig() instanceof ErrataAdvisoryRequestConfig config) {
-
-            boms.forEach(bom -> {
-                // Add the AdvisoryId property
-                addPropertyIfMissing(
-                        bom.getMetadata(),
-                        Constants.CONTAINER_PROPERTY_ADVISORY_ID,
-                        config.getAdvisoryId());
-            });
-        }
-
-        log.info("There are {} manifests to be stored for the {} request...", boms.size(), generationRequest.getId());
-
-        List<Sbom> sboms = new ArrayList<>();
-
-        // Create Sboms entities for all manifests
-        boms.forEach(
-                bom -> sboms.add(
-                        Sbom.builder()
-                                .withId(RandomStringIdGenerator.generate())
-                                .withIdentifier(generationRequest.getIdentifier())
-                                .withSbom(SbomUtils.toJsonNode(bom))
-                                .withGenerationRequest(sbomGenerationRequest)
-                                .build()));
+        String advisoryId = advisoryId(sbomGenerationRequest.getRequest());
 
         log.info(
                 "Storing {} manifests for the GenerationRequest '{}'",
-                boms.size(),
+                manifestPaths.size(),
                 generationRequest.getMetadata().getName());
 
-        // And store it in the database
-        return sbomRepository.saveSboms(sboms);
+        // And store these in the database as these are read
+        return sbomRepository.saveSboms(store -> readManifests(manifestPaths, bom -> {
+            if (advisoryId != null) {
+                // Add the AdvisoryId property
+                addPropertyIfMissing(bom.getMetadata(), Constants.CONTAINER_PROPERTY_ADVISORY_ID, advisoryId);
+            }
+
+            store.accept(
+                    Sbom.builder()
+                            .withId(RandomStringIdGenerator.generate())
+                            .withIdentifier(generationRequest.getIdentifier())
+                            .withSbom(SbomUtils.toJsonNode(bom))
+                            .withGenerationRequest(sbomGenerationRequest)
+                            .build());
+        }));
+    }
+
+    private static String advisoryId(RequestEvent event) {
+        if (event != null && event.getRequestConfig() instanceof ErrataAdvisoryRequestConfig config) {
+            return config.getAdvisoryId();
+        }
+
+        return null;
     }
 
     /**
@@ -674,38 +692,118 @@ public abstract class AbstractController implements Reconciler<GenerationRequest
     }
 
     /**
-     * Reads manifests for given {@code manifestPaths} and converts them into {@link Bom}s.
+     * <p>
+     * Reads manifests for given {@code manifestPaths} and hands every converted {@link Bom} to the {@code consumer}
+     * as soon as it (and all manifests preceding it) were read. The {@code consumer} receives the manifests in the
+     * order of the provided paths.
+     * </p>
+     *
+     * <p>
+     * Manifests are parsed concurrently, but at most {@link GenerationRequestControllerConfig#manifestReadConcurrency()}
+     * manifests are in flight at any time, so that the number of parsed manifests held in memory and not yet consumed
+     * is bounded. Every manifest is validated against the CycloneDX schema while it is read, reading stops at the
+     * first manifest which cannot be read or is not valid.
+     * </p>
      *
      * @param manifestPaths List of {@link Path}s to manifests in JSON format.
-     * @return List of {@link Bom}s.
+     * @param consumer Receives the converted {@link Bom}s.
+     * @throws ApplicationException if a manifest could not be read
+     * @throws ValidationException if a manifest is not a valid CycloneDX BOM
      */
-    @Bulkhead(value = SBOM_IO_CONCURENCY, waitingTaskQueue = SBOM_IO_MAX_QUEUE)
-    @Retry(
-            maxRetries = SBOM_IO_MAX_RETRIES,
-            delay = SBOM_IO_DELAY,
-            delayUnit = ChronoUnit.SECONDS,
-            retryOn = BulkheadException.class)
-    @ExponentialBackoff
-    @BeforeRetry(RetryLogger.class)
-    public List<Bom> readManifests(List<Path> manifestPaths) {
-        List<Bom> boms = new ArrayList<>();
+    protected void readManifests(List<Path> manifestPaths, Consumer<Bom> consumer) {
+        int concurrency = Math.min(manifestReadConcurrency(), manifestPaths.size());
 
-        log.info("Reading {} manifests...", manifestPaths.size());
+        log.info("Reading {} manifests (concurrency: {})...", manifestPaths.size(), Math.max(concurrency, 1));
+
+        if (concurrency <= 1) {
+            manifestPaths.forEach(manifestPath -> consumer.accept(readManifest(manifestPath)));
+            return;
+        }
 
-        for (Path manifestPath : manifestPaths) {
-            log.debug("Reading manifest at path '{}'...", manifestPath);
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        Deque<Future<Bom>> inFlight = new ArrayDeque<>(concurrency);
+        Iterator<Path> paths = manifestPaths.iterator();
 
-            // Read the generated SBOM JSON file
-            Bom bom = SbomUtils.fromPath(manifestPath);
+        try {
+            while (paths.hasNext() || !inFlight.isEmpty()) {
+                while (paths.hasNext() && inFlight.size() < concurrency) {
+                    Path manifestPath = paths.next();
+
+                    // The executor is shared, the window of manifests in flight bounds what this call submits to it
+                    inFlight.add(CompletableFuture.supplyAsync(() -> {
+                        if (mdc != null) {
+                            MDC.setContextMap(mdc);
+                        }
 
-            // If we couldn't read it, this is a fatal failure for us
-            if (bom == null) {
-                throw new ApplicationException("Could not read the manifest at '{}'", manifestPath.toAbsolutePath());
+                        try {
+                            return readManifest(manifestPath);
+                        } finally {
+                            MDC.clear();
+                        }
+                    }, managedExecutor));
+                }
+
+                consumer.accept(awaitManifest(inFlight.poll()));
             }
+        } finally {
+            // Skip the manifests which were not read yet, reading stopped at a failure
+            inFlight.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private int manifestReadConcurrency() {
+        return controllerConfig != null ? controllerConfig.manifestReadConcurrency() : 1;
+    }
 
-            boms.add(bom);
+    private Bom awaitManifest(Future<Bom> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApplicationException("Interrupted while reading manifests", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+
+            throw new ApplicationException("Unable to read manifest", e.getCause());
+        }
+    }
+
+    private Bom readManifest(Path manifestPath) {
+        log.debug("Reading manifest at path '{}'...", manifestPath);
+
+        // Read the generated SBOM JSON file, it is validated and parsed from the same content
+        byte[] content;
+        List<ParseException> violations;
+        Bom bom;
+
+        try {
+            content = Files.readAllBytes(manifestPath);
+            violations = new JsonParser().validate(content, SbomUtils.schemaVersion());
+        } catch (IOException e) {
+            // If we couldn't read it, this is a fatal failure for us
+            throw new ApplicationException("Could not read the manifest at '{}'", manifestPath.toAbsolutePath(), e);
+        }
+
+        if (!violations.isEmpty()) {
+            String errors = violations.stream().map(ParseException::getMessage).collect(Collectors.joining(", "));
+
+            throw new ValidationException(
+                    MessageFormatter
+                            .format(
+                                    "Manifest at '{}' is not a valid CycloneDX BOM: {}",
+                                    manifestPath.toAbsolutePath(),
+                                    errors)
+                            .getMessage());
+        }
+
+        try {
+            bom = new JsonParser().parse(content);
+        } catch (ParseException e) {
+            throw new ApplicationException("Could not read the manifest at '{}'", manifestPath.toAbsolutePath(), e);
         }
 
-        return boms;
+        return bom;
     }
 }
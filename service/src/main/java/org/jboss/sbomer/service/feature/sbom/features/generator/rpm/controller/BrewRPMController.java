@@ -26,7 +26,6 @@ import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
-import org.cyclonedx.model.Bom;
 import org.eclipse.microprofile.faulttolerance.exceptions.BulkheadException;
 import org.jboss.sbomer.core.errors.ApplicationException;
 import org.jboss.sbomer.core.features.sbom.enums.GenerationRequestType;
@@ -190,32 +189,12 @@ public class BrewRPMController extends AbstractController {
                                 "Generation succeed, but no manifests could be found. At least one was expected. See logs for more information.");
                     }
 
-                    List<Bom> boms;
-
-                    try {
-                        boms = readManifests(manifestPaths);
-                    } catch (Exception e) {
-                        if (e instanceof BulkheadException) {
-                            log.error(
-                                    "Unable to read manifest, there is too many manifests queued concurrently and we have exceeded our retries (>= {})",
-                                    SBOM_IO_MAX_RETRIES,
-                                    e);
-                        } else {
-                            log.error("Unable to read one or more manifests", e);
-                        }
-                        return updateRequest(
-                                generationRequest,
-                                SbomGenerationStatus.FAILED,
-                                GenerationResult.ERR_SYSTEM,
-                                "Generation succeeded, but reading generated manifests failed was not successful. See logs for more information.");
-                    }
-
                     List<Sbom> sboms;
 
                     try {
-                        sboms = storeBoms(generationRequest, boms);
+                        sboms = storeManifests(generationRequest, manifestPaths);
                     } catch (ValidationException e) {
-                        // There was an error when validating the entity, most probably the SBOM is not valid
+                        // There was an error when validating the manifest, most probably the SBOM is not valid
                         log.error("Unable to validate generated SBOMs: {}", e.getMessage(), e);
 
                         return updateRequest(
@@ -224,20 +203,21 @@ public class BrewRPMController extends AbstractController {
                                 GenerationResult.ERR_GENERATION,
                                 "Generation failed. One or more generated SBOMs failed validation: {}. See logs for more information.",
                                 e.getMessage());
-
-                    } catch (BulkheadException e) {
-                        // We should never actually hit this unless storeBoms becomes async call in future
-                        log.error(
-                                "Unable to store manifest, there is too many manifests queued concurrently and we have exceeded our retries (>= {})",
-                                SBOM_IO_MAX_RETRIES,
-                                e);
+                    } catch (Exception e) {
+                        if (e instanceof BulkheadException) {
+                            log.error(
+                                    "Unable to read manifest, there is too many manifests queued concurrently and we have exceeded our retries (>= {})",
+                                    SBOM_IO_MAX_RETRIES,
+                                    e);
+                        } else {
+                            log.error("Unable to read one or more manifests", e);
+                        }
 
                         return updateRequest(
                                 generationRequest,
                                 SbomGenerationStatus.FAILED,
-                                GenerationResult.ERR_GENERATION,
-                                "Generation failed. One or more generated SBOMs failed validation: {}. See logs for more information.",
-                                e.getMessage());
+                                GenerationResult.ERR_SYSTEM,
+                                "Generation succeeded, but reading generated manifests failed was not successful. See logs for more information.");
                     }
 
                     try {
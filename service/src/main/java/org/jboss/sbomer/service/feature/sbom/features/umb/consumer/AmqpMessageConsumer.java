@@ -29,6 +29,9 @@ import static org.jboss.sbomer.service.feature.sbom.model.RequestEvent.EVENT_KEY
 import static org.jboss.sbomer.service.feature.sbom.model.RequestEvent.EVENT_VALUE_UMB_UNKNOWN_MSG_TYPE;
 
 import java.time.Instant;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
@@ -48,8 +51,12 @@ import org.jboss.sbomer.service.feature.sbom.errata.ErrataMessageHelper;
 import org.jboss.sbomer.service.feature.sbom.errata.event.umb.AdvisoryUmbStatusChangeEvent;
 import org.jboss.sbomer.service.feature.sbom.errata.event.umb.PncBuildUmbStatusChangeEvent;
 import org.jboss.sbomer.service.feature.sbom.model.RequestEvent;
+import org.jboss.sbomer.service.feature.sbom.model.UMBMessageReceipt;
 import org.jboss.sbomer.service.feature.sbom.service.RequestEventRepository;
+import org.jboss.sbomer.service.stats.StatsCounter;
+import org.jboss.sbomer.service.stats.StatsCounters;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import io.quarkus.arc.Unremovable;
@@ -57,9 +64,11 @@ import io.quarkus.runtime.StartupEvent;
 import io.smallrye.reactive.messaging.amqp.IncomingAmqpMetadata;
 import io.smallrye.reactive.messaging.annotations.Blocking;
 import io.vertx.core.json.JsonObject;
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.event.Observes;
 import jakarta.inject.Inject;
+import jakarta.persistence.PersistenceException;
 import jakarta.transaction.Transactional;
 import jakarta.transaction.Transactional.TxType;
 import lombok.extern.slf4j.Slf4j;
@@ -80,6 +89,28 @@ public class AmqpMessageConsumer {
     @Inject
     RequestEventRepository requestEventRepository;
 
+    /**
+     * Recently acknowledged message ids (in the {@code consumer:msgId} form), used to skip redeliveries without a
+     * database round-trip. The database remains the source of truth.
+     */
+    private Map<String, Boolean> receivedMessages;
+
+    @PostConstruct
+    void initReceivedMessagesCache() {
+        int maxSize = umbConfig.receivedMessagesCacheSize();
+
+        if (maxSize <= 0) {
+            return;
+        }
+
+        receivedMessages = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
+
     public void init(@Observes StartupEvent ev) {
         if (!umbConfig.isEnabled()) {
             log.info("UMB support is disabled");
@@ -112,31 +143,30 @@ public class AmqpMessageConsumer {
             return ackAndSaveUnknownMessage(message, event);
         }
 
-        // Store the requestEvent (to keep events in case of subsequent failures)
-        RequestEvent requestEvent = saveNewEvent(event);
-
-        if (hasMessageId(event)) {
-            // Verify that there aren't already ACKED UMBMessages with the same msg id
-            // There is an issue in our queues and same messages are processed multiple times which we want to avoid
-            // generating manifests for the same event
-            String msgId = event.get(EVENT_KEY_UMB_MSG_ID).asText();
-            long alreadyGenerated = getAlreadyAckedUMBEventsFor(msgId);
-            if (alreadyGenerated > 0) {
-                log.warn(
-                        "Message with id '{}' has been already received and processed {} times for errata!! Will not process it again, skipping it",
-                        msgId,
-                        alreadyGenerated);
+        // Store the requestEvent (to keep events in case of subsequent failures) and claim the message id.
+        // There is an issue in our queues and same messages are processed multiple times which we want to avoid
+        // generating manifests for the same event
+        RequestEvent requestEvent = saveNewEventIfNotReceived(event);
 
-                return skipAndSave(message, requestEvent);
-            }
+        if (requestEvent == null) {
+            log.warn(
+                    "Message with id '{}' has been already received for errata!! Will not process it again, skipping it",
+                    event.get(EVENT_KEY_UMB_MSG_ID).asText());
+
+            return ackDuplicatedMessage(message, event);
         }
 
-        // Send an async notification for the advisory status update processing
-        notifyAdvisoryUmbStatusUpdate(
-                AdvisoryUmbStatusChangeEvent.builder().withRequestEventId(requestEvent.getId()).build());
+        try {
+            // Send an async notification for the advisory status update processing
+            notifyAdvisoryUmbStatusUpdate(
+                    AdvisoryUmbStatusChangeEvent.builder().withRequestEventId(requestEvent.getId()).build());
 
-        // Ack the message
-        return ackAndSave(message, requestEvent);
+            // Ack the message
+            return ackAndSave(message, requestEvent);
+        } catch (RuntimeException e) {
+            releaseClaim(requestEvent, e);
+            throw e;
+        }
     }
 
     @Incoming("builds")
@@ -159,31 +189,30 @@ public class AmqpMessageConsumer {
             return ackAndSaveUnknownMessage(message, event);
         }
 
-        // Store the requestEvent (to keep events in case of subsequent failures)
-        RequestEvent requestEvent = saveNewEvent(event);
-
-        if (hasMessageId(event)) {
-            // Verify that there aren't already ACKED UMBMessages with the same msg id
-            // There is an issue in our queues and same messages are processed multiple times which we want to avoid
-            // generating manifests for the same event
-            String msgId = event.get(EVENT_KEY_UMB_MSG_ID).asText();
-            long alreadyGenerated = getAlreadyAckedUMBEventsFor(msgId);
-            if (alreadyGenerated > 0) {
-                log.warn(
-                        "Message with id '{}' has been already received and processed {} times!! Will not process it again, skipping it",
-                        msgId,
-                        alreadyGenerated);
+        // Store the requestEvent (to keep events in case of subsequent failures) and claim the message id.
+        // There is an issue in our queues and same messages are processed multiple times which we want to avoid
+        // generating manifests for the same event
+        RequestEvent requestEvent = saveNewEventIfNotReceived(event);
 
-                return skipAndSave(message, requestEvent);
-            }
+        if (requestEvent == null) {
+            log.warn(
+                    "Message with id '{}' has been already received!! Will not process it again, skipping it",
+                    event.get(EVENT_KEY_UMB_MSG_ID).asText());
+
+            return ackDuplicatedMessage(message, event);
         }
 
-        // Send an async notification for the pnc build status update processing
-        notifyPncBuildsUmbStatusUpdate(
-                PncBuildUmbStatusChangeEvent.builder().withRequestEventId(requestEvent.getId()).build());
+        try {
+            // Send an async notification for the pnc build status update processing
+            notifyPncBuildsUmbStatusUpdate(
+                    PncBuildUmbStatusChangeEvent.builder().withRequestEventId(requestEvent.getId()).build());
 
-        // Ack the message
-        return ackAndSave(message, requestEvent);
+            // Ack the message
+            return ackAndSave(message, requestEvent);
+        } catch (RuntimeException e) {
+            releaseClaim(requestEvent, e);
+            throw e;
+        }
     }
 
     private void identifyErrataEvent(IncomingAmqpMetadata metadata, ObjectNode event) {
@@ -235,26 +264,64 @@ public class AmqpMessageConsumer {
                 .put(EVENT_KEY_UMB_TOPIC, metadata.getAddress());
     }
 
-    @Transactional(value = TxType.REQUIRES_NEW)
+    /**
+     * Marks the event and the claimed message as acknowledged, so that redeliveries of the message are skipped from now
+     * on, and acks the message.
+     */
     protected CompletionStage<Void> ackAndSave(Message<?> message, RequestEvent requestEvent) {
+        markAcked(requestEvent);
+        rememberReceived(requestEvent.getEvent());
+        return message.ack();
+    }
+
+    @Transactional(value = TxType.REQUIRES_NEW)
+    protected void markAcked(RequestEvent requestEvent) {
         requestEventRepository.updateRequestEvent(
                 requestEvent,
                 null,
                 Map.of(EVENT_KEY_UMB_MSG_STATUS, UMBMessageStatus.ACK.toString()),
                 null);
-        return message.ack();
+        requestEventRepository.ackUMBMessage(requestEvent);
     }
 
+    /**
+     * Acks a redelivered message without storing a new event, the redelivery is only counted on the claim of the
+     * message.
+     */
     @Transactional(value = TxType.REQUIRES_NEW)
-    protected CompletionStage<Void> skipAndSave(Message<?> message, RequestEvent requestEvent) {
-        requestEventRepository.updateRequestEvent(
-                requestEvent,
-                RequestEventStatus.IGNORED,
-                Map.of(EVENT_KEY_UMB_MSG_STATUS, UMBMessageStatus.SKIPPED.toString()),
-                RequestEvent.IGNORED_DUPLICATED_REASON);
+    protected CompletionStage<Void> ackDuplicatedMessage(Message<?> message, ObjectNode event) {
+        String consumer = event.get(EVENT_KEY_UMB_CONSUMER).asText();
+
+        requestEventRepository.recordUMBMessageDuplicate(consumer, event.get(EVENT_KEY_UMB_MSG_ID).asText());
+
+        if (UMBConsumer.PNC.name().equals(consumer)) {
+            StatsCounters.track(null, EnumSet.of(StatsCounter.PNC_RECEIVED, StatsCounter.PNC_SKIPPED));
+        } else if (UMBConsumer.ERRATA.name().equals(consumer)) {
+            StatsCounters.track(null, EnumSet.of(StatsCounter.ERRATA_RECEIVED, StatsCounter.ERRATA_SKIPPED));
+        }
+
         return message.ack();
     }
 
+    /**
+     * Releases the claim on the message which could not be processed, so that its redelivery is processed again
+     * instead of being skipped as a duplicate.
+     */
+    private void releaseClaim(RequestEvent requestEvent, RuntimeException cause) {
+        try {
+            releaseClaimAndFail(requestEvent, "Unable to process the UMB message: " + cause.getMessage());
+        } catch (RuntimeException e) {
+            // The claim was not acked, it will be taken over by a redelivery once abandoned
+            log.warn("Unable to release the claim of request '{}' on the UMB message", requestEvent.getId(), e);
+        }
+    }
+
+    @Transactional(value = TxType.REQUIRES_NEW)
+    protected void releaseClaimAndFail(RequestEvent requestEvent, String reason) {
+        requestEventRepository.releaseUMBMessage(requestEvent);
+        requestEventRepository.updateWithFailure(requestEvent.getId(), reason);
+    }
+
     @Transactional(value = TxType.REQUIRES_NEW)
     protected CompletionStage<Void> ackAndSaveUnknownMessage(Message<?> message, ObjectNode event) {
         Map<String, String> extra = Map.of(
@@ -268,44 +335,96 @@ public class AmqpMessageConsumer {
         return message.ack();
     }
 
+    /**
+     * Stores the new event. If the event carries a message id, the message is claimed in the same transaction, so that
+     * only one of concurrently redelivered messages is stored as a new event.
+     *
+     * @return the stored {@link RequestEvent} or {@code null} if the message was already acknowledged or is being
+     *         processed by a concurrent delivery (see {@link UmbConfig#claimStaleAfter()})
+     */
+    private RequestEvent saveNewEventIfNotReceived(ObjectNode event) {
+        if (!hasMessageId(event)) {
+            return saveNewEvent(event);
+        }
+
+        String consumer = event.get(EVENT_KEY_UMB_CONSUMER).asText();
+        String msgId = event.get(EVENT_KEY_UMB_MSG_ID).asText();
+
+        if (receivedMessages != null && receivedMessages.containsKey(consumer + ":" + msgId)) {
+            return null;
+        }
+
+        try {
+            return saveNewEvent(event);
+        } catch (PersistenceException e) {
+            // Most probably the unique constraint on the message id was violated by a concurrent redelivery, make sure
+            // this is the case before skipping the message. The concurrent redelivery releases its claim if it fails,
+            // so the message is not lost.
+            if (!isAlreadyReceived(consumer, msgId)) {
+                throw e;
+            }
+
+            return null;
+        }
+    }
+
     @Transactional(value = TxType.REQUIRES_NEW)
     protected RequestEvent saveNewEvent(ObjectNode event) {
-        return requestEventRepository.createRequestEvent(null, event, null);
-    }
+        if (!hasMessageId(event)) {
+            return requestEventRepository.createRequestEvent(null, event, null);
+        }
 
-    @Transactional
-    public long getAlreadyAckedUMBEventsFor(String msgId) {
-        return requestEventRepository.countAlreadyAckedUMBEventsFor(msgId);
-    }
+        String consumer = event.get(EVENT_KEY_UMB_CONSUMER).asText();
+        String msgId = event.get(EVENT_KEY_UMB_MSG_ID).asText();
+        UMBMessageReceipt receipt = requestEventRepository.findUMBMessageReceipt(consumer, msgId);
 
-    @Transactional
-    public long getPncProcessedMessages() {
-        return requestEventRepository.countPncProcessedMessages();
-    }
+        if (receipt != null) {
+            if (receipt.getStatus() == UMBMessageReceipt.Status.ACK) {
+                rememberReceived(event);
+                return null;
+            }
 
-    @Transactional
-    public long getPncReceivedMessages() {
-        return requestEventRepository.countPncReceivedMessages();
-    }
+            // The message was claimed, but not acknowledged. Take the claim over only if it is old enough to be
+            // abandoned (the service stopped while processing it), otherwise the message is being processed right
+            // now. The removal is conditional, so that out of concurrent redeliveries only one takes the claim over.
+            Instant claimedBefore = Instant.now().minus(umbConfig.claimStaleAfter());
 
-    @Transactional
-    public long getErrataProcessedMessages() {
-        return requestEventRepository.countErrataProcessedMessages();
-    }
+            if (!requestEventRepository.takeOverUMBMessage(receipt, claimedBefore)) {
+                log.info(
+                        "Message with id '{}' is being processed by request '{}', skipping the redelivery",
+                        msgId,
+                        receipt.getRequestId());
+                return null;
+            }
 
-    @Transactional
-    public long getErrataReceivedMessages() {
-        return requestEventRepository.countErrataReceivedMessages();
+            log.warn(
+                    "Message with id '{}' was claimed by request '{}' which did not ack it since {}, processing it "
+                            + "again",
+                    msgId,
+                    receipt.getRequestId(),
+                    receipt.getCreationTime());
+        }
+
+        RequestEvent requestEvent = requestEventRepository.createRequestEvent(null, event, null);
+        requestEventRepository.claimUMBMessage(requestEvent, consumer, msgId);
+
+        return requestEvent;
     }
 
-    @Transactional
-    public long getPncSkippedMessages() {
-        return requestEventRepository.countPncSkippedMessages();
+    /**
+     * Remembers the acknowledged message, so that its redeliveries are skipped without a database round-trip.
+     */
+    private void rememberReceived(JsonNode event) {
+        if (receivedMessages == null || event == null || !event.has(EVENT_KEY_UMB_MSG_ID)) {
+            return;
+        }
+
+        receivedMessages
+                .put(event.get(EVENT_KEY_UMB_CONSUMER).asText() + ":" + event.get(EVENT_KEY_UMB_MSG_ID).asText(), true);
     }
 
     @Transactional
-    public long getErrataSkippedMessages() {
-        return requestEventRepository.countErrataSkippedMessages();
+    public boolean isAlreadyReceived(String consumer, String msgId) {
+        return requestEventRepository.isUMBMessageClaimed(consumer, msgId);
     }
-
 }
@@ -36,17 +36,21 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.security.PrivilegedActionException;
 import java.security.PrivilegedExceptionAction;
+import java.time.Duration;
 import java.util.Base64;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.ietf.jgss.GSSContext;
 import org.ietf.jgss.GSSException;
 import org.ietf.jgss.GSSManager;
 import org.ietf.jgss.GSSName;
 import org.ietf.jgss.Oid;
-import org.jboss.sbomer.service.feature.sbom.config.features.KerberosServiceConfig;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.quarkiverse.kerberos.client.KerberosCallbackHandler;
 import io.quarkiverse.kerberos.client.KerberosClientConfig;
 import io.quarkiverse.kerberos.client.UserPrincipalSubjectFactory;
@@ -56,9 +60,23 @@ import jakarta.enterprise.inject.Instance;
 import jakarta.inject.Inject;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * <p>
+ * Issues SPNEGO tokens for the Kerberos authenticated clients (Errata and Pyxis), sharing a single cached
+ * {@link Subject} (and its TGT) per user principal.
+ * </p>
+ *
+ * <p>
+ * Concurrent logins for the same user principal are coalesced, only one caller performs the login while the others
+ * wait for its result. The TGTs are renewed in the background by the {@link KerberosCredentialRenewer} before they
+ * expire, so that callers are not blocked by a login. The service tickets are obtained once per service principal and
+ * kept in the cached {@link Subject}; the tokens themselves are created for every request because SPNEGO tokens are
+ * single use.
+ * </p>
+ */
 @ApplicationScoped
 @Slf4j
-public class ErrataCachingKerberosClientSupport {
+public class CachingKerberosClientSupport {
 
     private static final String KRB5_LOGIN_MODULE = "com.sun.security.auth.module.Krb5LoginModule";
 
@@ -75,24 +93,28 @@ public class ErrataCachingKerberosClientSupport {
 
     private final KerberosClientConfig kerberosConfig;
 
-    private final KerberosServiceConfig kerberosServiceConfig;
-
     private final String realKeytabPath;
 
+    // Locks used to single-flight the logins of every user principal
+    private final ConcurrentMap<String, Object> loginLocks = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, GSSName> serviceNames = new ConcurrentHashMap<>();
+
     @Inject
-    ErrataTicketCache ticketCache;
+    KerberosTicketCache ticketCache;
+
+    @Inject
+    MeterRegistry meterRegistry;
 
     // FIXME: 'Optional.get()' without 'isPresent()' check
     @Inject
-    public ErrataCachingKerberosClientSupport(
+    public CachingKerberosClientSupport(
             Instance<KerberosCallbackHandler> callbackHandler,
             Instance<UserPrincipalSubjectFactory> userPrincipalSubjectFactory,
-            KerberosClientConfig kerberosConfig,
-            KerberosServiceConfig kerberosServiceConfig) {
+            KerberosClientConfig kerberosConfig) {
         this.callbackHandler = callbackHandler;
         this.userPrincipalSubjectFactory = userPrincipalSubjectFactory;
         this.kerberosConfig = kerberosConfig;
-        this.kerberosServiceConfig = kerberosServiceConfig;
         if (callbackHandler.isResolvable() && callbackHandler.isAmbiguous()) {
             throw new IllegalStateException("Multiple " + KerberosCallbackHandler.class + " beans registered");
         }
@@ -120,14 +142,15 @@ public class ErrataCachingKerberosClientSupport {
         this.realKeytabPath = keytabPath;
     }
 
-    public String getServiceTicket() {
-        log.debug("Getting a new service ticket...");
-        return getServiceTicket(getCompleteUserPrincipalName());
+    public String getServiceTicket(String servicePrincipalName) {
+        log.debug("Getting a new service ticket for service principal name '{}'...", servicePrincipalName);
+        return getServiceTicket(servicePrincipalName, getCompleteUserPrincipalName());
     }
 
     // TODO: Exception
-    public String getServiceTicket(String completeUserPrincipalName) {
+    public String getServiceTicket(String servicePrincipalName, String completeUserPrincipalName) {
         log.debug("Getting a new service ticket for user principal name '{}'...", completeUserPrincipalName);
+        Timer.Sample sample = meterRegistry != null ? Timer.start(meterRegistry) : null;
         try {
             Subject userPrincipalSubject = getUserPrincipalSubject(completeUserPrincipalName);
             if (userPrincipalSubject == null) {
@@ -135,15 +158,24 @@ public class ErrataCachingKerberosClientSupport {
                 throw new RuntimeException();
             }
 
-            return getServiceTicket(userPrincipalSubject);
+            return getServiceTicket(servicePrincipalName, userPrincipalSubject);
         } catch (LoginException ex) {
             log.debug("Login exception: {}", ex.getMessage());
             throw new RuntimeException(ex);
+        } finally {
+            if (sample != null) {
+                sample.stop(
+                        Timer.builder("sbomer.kerberos.tokens")
+                                .description("Time needed to issue a SPNEGO token, including the login if needed")
+                                .tag("service", servicePrincipalName)
+                                .publishPercentileHistogram()
+                                .register(meterRegistry));
+            }
         }
     }
 
     // TODO: Exception
-    public String getServiceTicket(Subject userPrincipalSubject) {
+    public String getServiceTicket(String servicePrincipalName, Subject userPrincipalSubject) {
         log.debug("Getting a new service ticket for user principal subject ...");
 
         try {
@@ -152,10 +184,10 @@ public class ErrataCachingKerberosClientSupport {
                  * The getNegotiateToken method calls context.initSecContext, which uses the stored KerberosTicket to
                  * create a token suitable for the Kerberos or SPNEGO negotiation protocol. The initSecContext does not
                  * necessarily contact the Kerberos server; it simply builds the token based on the cached ticket.
-                 * context.initSecContext will reach out to the Kerberos server only if the ticket is missing or if a
-                 * renewal is required. This means we don't need any further caching here.
+                 * context.initSecContext will reach out to the Kerberos server only if the service ticket is missing
+                 * from the Subject or expired. This means we don't need any further caching here.
                  */
-                GSSContext context = createServiceContext();
+                GSSContext context = createServiceContext(servicePrincipalName);
                 return getNegotiateToken(context, new byte[0]);
             });
         } catch (PrivilegedActionException ex) {
@@ -181,25 +213,70 @@ public class ErrataCachingKerberosClientSupport {
                 return subject;
             }
         }
-        SubjectTgtPair cachedSubjectTgtPair = ticketCache.getTgt(completeUserPrincipalName);
-        if (cachedSubjectTgtPair != null) {
-            if (!cachedSubjectTgtPair.isExpired()) {
-                log.info(
-                        "Subject for user principal name '{}' was found in the cache, reusing it!",
-                        completeUserPrincipalName);
-                return cachedSubjectTgtPair.getSubject();
-            } else {
-                log.info(
-                        "Subject for user principal name '{}' was found in the cache but is expired, need to create a new one.",
-                        completeUserPrincipalName);
-                ticketCache.invalidateTgt(completeUserPrincipalName);
+        Subject cachedSubject = getCachedSubject(completeUserPrincipalName);
+        if (cachedSubject != null) {
+            return cachedSubject;
+        }
+
+        // Only one caller performs the login, the others get the Subject cached by it
+        synchronized (loginLocks.computeIfAbsent(completeUserPrincipalName, k -> new Object())) {
+            cachedSubject = getCachedSubject(completeUserPrincipalName);
+            if (cachedSubject != null) {
+                return cachedSubject;
+            }
+
+            return login(completeUserPrincipalName, "on-demand");
+        }
+    }
+
+    /**
+     * Logs in again the user principals with a cached TGT which expires within the provided duration. The expiring
+     * TGT stays in use until the new one is available.
+     *
+     * @param renewBefore how long before the expiration the TGTs are renewed
+     */
+    public void renewExpiringTgts(Duration renewBefore) {
+        for (String completeUserPrincipalName : ticketCache.getUserPrincipals()) {
+            SubjectTgtPair cachedSubjectTgtPair = ticketCache.getTgt(completeUserPrincipalName);
+            if (cachedSubjectTgtPair == null || !cachedSubjectTgtPair.expiresWithin(renewBefore)) {
+                continue;
             }
-        } else {
+
+            log.info("TGT for user principal name '{}' is about to expire, renewing it", completeUserPrincipalName);
+            synchronized (loginLocks.computeIfAbsent(completeUserPrincipalName, k -> new Object())) {
+                try {
+                    login(completeUserPrincipalName, "renewal");
+                } catch (LoginException | RuntimeException e) {
+                    log.warn("Unable to renew the TGT for user principal name '{}'", completeUserPrincipalName, e);
+                }
+            }
+        }
+    }
+
+    private Subject getCachedSubject(String completeUserPrincipalName) {
+        SubjectTgtPair cachedSubjectTgtPair = ticketCache.getTgt(completeUserPrincipalName);
+        if (cachedSubjectTgtPair == null) {
             log.info(
                     "Subject for user principal name '{}' was NOT found in the cache, creating a new one.",
                     completeUserPrincipalName);
+            return null;
+        }
+
+        if (cachedSubjectTgtPair.isExpired()) {
+            log.info(
+                    "Subject for user principal name '{}' was found in the cache but is expired, need to create a new one.",
+                    completeUserPrincipalName);
+            ticketCache.invalidateTgt(completeUserPrincipalName);
+            return null;
         }
 
+        log.debug(
+                "Subject for user principal name '{}' was found in the cache, reusing it!",
+                completeUserPrincipalName);
+        return cachedSubjectTgtPair.getSubject();
+    }
+
+    private Subject login(String completeUserPrincipalName, String reason) throws LoginException {
         String loginContextName = kerberosConfig.loginContextName().orElse(DEFAULT_LOGIN_CONTEXT_NAME);
         Configuration config = DEFAULT_LOGIN_CONTEXT_NAME.equals(loginContextName)
                 ? new DefaultJAASConfiguration(completeUserPrincipalName)
@@ -212,15 +289,23 @@ public class ErrataCachingKerberosClientSupport {
                 config);
         lc.login();
 
+        if (meterRegistry != null) {
+            meterRegistry.counter("sbomer.kerberos.logins", "reason", reason).increment();
+        }
+
         Subject subject = lc.getSubject();
         ticketCache.cacheTgt(completeUserPrincipalName, subject);
         return subject;
     }
 
-    public GSSContext createServiceContext() throws GSSException {
+    public GSSContext createServiceContext(String servicePrincipalName) throws GSSException {
         Oid oid = new Oid(kerberosConfig.useSpnegoOid() ? SPNEGO_OID : KERBEROS_OID);
         GSSManager gssManager = GSSManager.getInstance();
-        GSSName serverName = gssManager.createName(kerberosServiceConfig.errata().servicePrincipalName(), null);
+        GSSName serverName = serviceNames.get(servicePrincipalName);
+        if (serverName == null) {
+            serverName = gssManager.createName(servicePrincipalName, null);
+            serviceNames.put(servicePrincipalName, serverName);
+        }
         return gssManager.createContext(serverName, oid, null, GSSContext.DEFAULT_LIFETIME);
     }
 
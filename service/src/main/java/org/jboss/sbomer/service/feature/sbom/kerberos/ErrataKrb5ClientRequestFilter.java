@@ -20,6 +20,7 @@ package org.jboss.sbomer.service.feature.sbom.kerberos;
 import java.io.IOException;
 
 import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.sbomer.service.feature.sbom.config.features.KerberosServiceConfig;
 
 import jakarta.inject.Inject;
 import jakarta.ws.rs.client.ClientRequestContext;
@@ -33,7 +34,10 @@ public class ErrataKrb5ClientRequestFilter implements ClientRequestFilter {
     private static final String NEGOTIATE = "Negotiate";
 
     @Inject
-    ErrataCachingKerberosClientSupport kerberosClientSupport;
+    CachingKerberosClientSupport kerberosClientSupport;
+
+    @Inject
+    KerberosServiceConfig kerberosServiceConfig;
 
     @ConfigProperty(name = "sbomer.features.kerberos.enabled", defaultValue = "false")
     private boolean enabled;
@@ -43,7 +47,8 @@ public class ErrataKrb5ClientRequestFilter implements ClientRequestFilter {
         if (!enabled)
             return;
 
-        String serviceTicket = kerberosClientSupport.getServiceTicket();
+        String serviceTicket = kerberosClientSupport
+                .getServiceTicket(kerberosServiceConfig.errata().servicePrincipalName());
         requestContext.getHeaders().add(AUTHORIZATION, NEGOTIATE + " " + serviceTicket);
     }
 
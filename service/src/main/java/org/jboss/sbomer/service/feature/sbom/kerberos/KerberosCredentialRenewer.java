@@ -0,0 +1,78 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.feature.sbom.kerberos;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.microprofile.context.ManagedExecutor;
+import org.jboss.sbomer.service.feature.sbom.config.features.KerberosServiceConfig;
+
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import io.quarkus.scheduler.Scheduled.ConcurrentExecution;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Obtains the TGT at startup and renews it before it expires, so that the requests to the Kerberos authenticated
+ * services do not need to wait for a login.
+ */
+@ApplicationScoped
+@Slf4j
+public class KerberosCredentialRenewer {
+
+    @Inject
+    KerberosServiceConfig config;
+
+    @Inject
+    CachingKerberosClientSupport kerberosClientSupport;
+
+    @Inject
+    ManagedExecutor managedExecutor;
+
+    void onStart(@Observes StartupEvent event) {
+        if (!config.isEnabled() || !config.prewarm()) {
+            return;
+        }
+
+        // Do not delay the startup in case the KDC is slow or unavailable
+        managedExecutor.runAsync(() -> {
+            try {
+                kerberosClientSupport.getUserPrincipalSubject();
+                log.info("Kerberos credentials obtained at startup");
+            } catch (Exception e) {
+                log.warn("Unable to obtain the Kerberos credentials at startup, these will be obtained on demand", e);
+            }
+        });
+    }
+
+    @Scheduled(
+            every = "${sbomer.features.kerberos.renewal-check-interval:1m}",
+            delay = 1,
+            delayUnit = TimeUnit.MINUTES,
+            concurrentExecution = ConcurrentExecution.SKIP)
+    void renew() {
+        if (!config.isEnabled()) {
+            return;
+        }
+
+        kerberosClientSupport.renewExpiringTgts(config.renewBefore());
+    }
+}
@@ -20,15 +20,21 @@ package org.jboss.sbomer.service.feature.sbom.kerberos;
 import javax.security.auth.Subject;
 import javax.security.auth.kerberos.KerberosTicket;
 
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
 import jakarta.enterprise.context.ApplicationScoped;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Ticket-Granting Ticket (TGT) cache shared by all the Kerberos authenticated clients. The service tickets obtained
+ * with a TGT are stored by the JDK in the private credentials of the same {@link Subject}, so these are cached per
+ * service principal as well.
+ */
 @ApplicationScoped
 @Slf4j
-public class ErrataTicketCache {
+public class KerberosTicketCache {
 
     // Ticket-Granting Ticket (TGT) Cache
     private final ConcurrentMap<String, SubjectTgtPair> tgtCache = new ConcurrentHashMap<>();
@@ -41,6 +47,10 @@ public class ErrataTicketCache {
         return cached;
     }
 
+    public Set<String> getUserPrincipals() {
+        return Set.copyOf(tgtCache.keySet());
+    }
+
     public void invalidateTgt(String userPrincipal) {
         tgtCache.remove(userPrincipal);
     }
@@ -22,6 +22,8 @@ import javax.security.auth.kerberos.KerberosKey;
 import javax.security.auth.kerberos.KerberosTicket;
 import javax.security.auth.kerberos.KeyTab;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
 import java.util.Set;
 
@@ -49,6 +51,21 @@ public class SubjectTgtPair {
         }
     }
 
+    /*
+     * Checks if the endTime of the TGT is within the provided duration from now, so that it can be renewed before it
+     * expires
+     */
+    public boolean expiresWithin(Duration duration) {
+        try {
+            synchronized (tgt) {
+                return tgt.getEndTime().toInstant().isBefore(Instant.now().plus(duration));
+            }
+        } catch (Exception e) {
+            log.error("Failed to get Kerberos ticket end time", e);
+            return true;
+        }
+    }
+
     public String printDetails() {
         StringBuilder sb = new StringBuilder();
         sb.append("\n==> KerberosTicket <==");
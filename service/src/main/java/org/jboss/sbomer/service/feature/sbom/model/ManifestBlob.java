@@ -0,0 +1,273 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.feature.sbom.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.hibernate.Session;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.proxy.HibernateProxy;
+import org.hibernate.type.SqlTypes;
+import org.jboss.sbomer.core.errors.ApplicationException;
+import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.cfg.JsonNodeFeature;
+
+import io.quarkus.arc.Arc;
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * <p>
+ * The content of a manifest, stored once for every distinct BOM and referenced by its digest from the {@link Sbom}
+ * (and the nextgen {@code Manifest}) rows. Re-generating a manifest for the same build or advisory produces the same
+ * BOM most of the time, only the first copy is stored.
+ * </p>
+ *
+ * <p>
+ * The digest is the SHA-256 hash of the canonical JSON serialization of the BOM (with the object properties sorted),
+ * the content is that serialization compressed with gzip.
+ * </p>
+ *
+ * <p>
+ * Blobs are shared by manifests and therefore not removed together with these. Blobs which are no longer referenced
+ * (their manifests were removed or got a different content) are collected by the
+ * {@link org.jboss.sbomer.service.feature.sbom.service.ManifestBlobCollector}.
+ * </p>
+ */
+@Getter
+@Entity
+@Immutable
+@ToString
+@Table(name = "manifest_blob")
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@RegisterForReflection
+public class ManifestBlob extends PanacheEntityBase {
+
+    private static final ObjectWriter CANONICAL_WRITER = ObjectMapperProvider.json()
+            .copy()
+            .configure(JsonNodeFeature.WRITE_PROPERTIES_SORTED, true)
+            .writer();
+
+    /**
+     * Stores the blob or, if it is stored already, marks it as used. Either way the row stays locked until the
+     * transaction is committed, so that the {@link #DELETE_UNREFERENCED} sweep cannot remove it in the meantime.
+     */
+    private static final String UPSERT = "INSERT INTO manifest_blob (digest, content, size, creation_time, last_used) "
+            + "VALUES (?, ?, ?, ?, ?) ON CONFLICT (digest) DO UPDATE SET last_used = EXCLUDED.last_used";
+
+    /**
+     * Used together with the {@link #INSERT} on databases not supporting {@code ON CONFLICT} (tests), where the blobs
+     * are not stored concurrently.
+     */
+    private static final String TOUCH = "UPDATE manifest_blob SET last_used = ? WHERE digest = ?";
+
+    private static final String INSERT = "INSERT INTO manifest_blob (digest, content, size, creation_time, last_used) "
+            + "VALUES (?, ?, ?, ?, ?)";
+
+    /**
+     * Deletes a batch of blobs which are not referenced by any manifest (or kept for the rollback of a release, see
+     * {@link ReleaseManifestCheckpoint}) and were not used since the cutoff. The
+     * {@code last_used} condition is evaluated again on the blobs which are locked by a concurrent
+     * {@link #storeIfAbsent(ManifestBlob)} once it is committed, these are skipped then.
+     */
+    public static final String DELETE_UNREFERENCED = "DELETE FROM manifest_blob WHERE last_used < :cutoff "
+            + "AND digest IN (SELECT b.digest FROM manifest_blob b WHERE b.last_used < :cutoff "
+            + "AND NOT EXISTS (SELECT 1 FROM sbom s WHERE s.sbom_hash = b.digest) "
+            + "AND NOT EXISTS (SELECT 1 FROM manifest m WHERE m.bom_hash = b.digest) "
+            + "AND NOT EXISTS (SELECT 1 FROM release_manifest_checkpoint c WHERE c.original_sbom_hash = b.digest) "
+            + "LIMIT :limit)";
+
+    @Id
+    @Column(name = "digest", nullable = false, updatable = false, length = 64)
+    private String digest;
+
+    /**
+     * The gzip compressed canonical JSON serialization of the BOM.
+     */
+    @JdbcTypeCode(SqlTypes.LONG32VARBINARY)
+    @Column(name = "content", nullable = false, updatable = false)
+    @ToString.Exclude
+    private byte[] content;
+
+    /**
+     * Size of the uncompressed content, in bytes.
+     */
+    @Column(name = "size", nullable = false, updatable = false)
+    private long size;
+
+    @Column(name = "creation_time", nullable = false, updatable = false)
+    private Instant creationTime;
+
+    /**
+     * Last time the blob was stored or reused by a manifest, unreferenced blobs are collected only after a grace
+     * period.
+     */
+    @Column(name = "last_used", nullable = false, updatable = false)
+    private Instant lastUsed;
+
+    /**
+     * Prepares the blob for the provided BOM, without storing it.
+     *
+     * @param bom the BOM content
+     * @return the blob
+     */
+    public static ManifestBlob of(JsonNode bom) {
+        byte[] canonical;
+
+        try {
+            canonical = CANONICAL_WRITER.writeValueAsBytes(bom);
+        } catch (IOException e) {
+            throw new ApplicationException("Unable to serialize the manifest content", e);
+        }
+
+        Instant now = Instant.now();
+
+        return new ManifestBlob(digest(canonical), compress(canonical), canonical.length, now, now);
+    }
+
+    /**
+     * Stores the blob in the database, unless a blob with the same digest is stored already, in which case it is marked
+     * as used. The statement is executed directly on the connection of the current session, so that it can be used
+     * from the entity lifecycle callbacks of the entities referencing the blob, and is part of the current
+     * transaction.
+     *
+     * @param blob the blob to store
+     */
+    public static void storeIfAbsent(ManifestBlob blob) {
+        if (Arc.container() == null) {
+            // Not running within the application, there is no database to store the blob into
+            return;
+        }
+
+        Timestamp now = Timestamp.from(Instant.now());
+
+        getEntityManager().unwrap(Session.class).doWork(connection -> {
+            boolean postgreSQL = "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+
+            if (!postgreSQL) {
+                try (PreparedStatement statement = connection.prepareStatement(TOUCH)) {
+                    statement.setTimestamp(1, now);
+                    statement.setString(2, blob.digest);
+
+                    if (statement.executeUpdate() > 0) {
+                        return;
+                    }
+                }
+            }
+
+            // A concurrent transaction storing the same content makes the upsert wait for it, instead of failing
+            try (PreparedStatement statement = connection.prepareStatement(postgreSQL ? UPSERT : INSERT)) {
+                statement.setString(1, blob.digest);
+                statement.setBytes(2, blob.content);
+                statement.setLong(3, blob.size);
+                statement.setTimestamp(4, Timestamp.from(blob.creationTime));
+                statement.setTimestamp(5, now);
+                statement.executeUpdate();
+            }
+        });
+    }
+
+    /**
+     * Decompresses and parses the content of the blob.
+     *
+     * @return the BOM content
+     */
+    public JsonNode toJsonNode() {
+        try (InputStream input = new GZIPInputStream(new ByteArrayInputStream(content))) {
+            return ObjectMapperProvider.json().readTree(input);
+        } catch (IOException e) {
+            throw new ApplicationException("Unable to read the content of manifest blob '{}'", digest, e);
+        }
+    }
+
+    private static String digest(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new ApplicationException("Unable to find digest algorithm", e);
+        }
+    }
+
+    private static byte[] compress(byte[] content) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(content.length / 4);
+
+        try (GZIPOutputStream gzip = new GZIPOutputStream(output)) {
+            gzip.write(content);
+        } catch (IOException e) {
+            throw new ApplicationException("Unable to compress the manifest content", e);
+        }
+
+        return output.toByteArray();
+    }
+
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (o == null) {
+            return false;
+        }
+
+        Class<?> oEffectiveClass = (o instanceof HibernateProxy proxy)
+                ? proxy.getHibernateLazyInitializer().getPersistentClass()
+                : o.getClass();
+        Class<?> thisEffectiveClass = (this instanceof HibernateProxy proxy)
+                ? proxy.getHibernateLazyInitializer().getPersistentClass()
+                : this.getClass();
+
+        if (thisEffectiveClass != oEffectiveClass) {
+            return false;
+        }
+
+        ManifestBlob blob = (ManifestBlob) o;
+        return Objects.equals(digest, blob.digest);
+    }
+
+    @Override
+    public final int hashCode() {
+        return Objects.hash(digest);
+    }
+}
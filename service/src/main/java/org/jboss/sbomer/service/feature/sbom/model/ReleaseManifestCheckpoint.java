@@ -0,0 +1,133 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.feature.sbom.model;
+
+import java.time.Instant;
+import java.util.Objects;
+
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.proxy.HibernateProxy;
+import org.hibernate.type.SqlTypes;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Records that a build manifest was already rewritten with the release information of a given release generation.
+ * Rows are committed together with every chunk of rewritten manifests, so that an interrupted release can resume
+ * where it stopped instead of starting over, or, if the release fails, the manifest can be rolled back to its original
+ * content.
+ */
+@Getter
+@Setter
+@Entity
+@ToString
+@Table(
+        name = "release_manifest_checkpoint",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uq_release_manifest_checkpoint_generation_sbom",
+                columnNames = { "generation_id", "sbom_id" }))
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(setterPrefix = "with")
+@RegisterForReflection
+public class ReleaseManifestCheckpoint extends PanacheEntityBase {
+
+    @Id
+    @Column(name = "id", nullable = false, updatable = false)
+    private String id;
+
+    /**
+     * Identifier of the release {@link SbomGenerationRequest}.
+     */
+    @Column(name = "generation_id", nullable = false, updatable = false)
+    private String generationId;
+
+    /**
+     * Identifier of the rewritten build {@link Sbom}.
+     */
+    @Column(name = "sbom_id", nullable = false, updatable = false)
+    private String sbomId;
+
+    /**
+     * The root purl of the build manifest before it was rewritten.
+     */
+    @Column(name = "original_root_purl", updatable = false)
+    private String originalRootPurl;
+
+    /**
+     * Digest of the {@link ManifestBlob} holding the content of the build manifest before it was rewritten, used to
+     * roll the manifest back if the release fails.
+     */
+    @Column(name = "original_sbom_hash", length = 64, updatable = false)
+    private String originalSbomHash;
+
+    /**
+     * The release metadata of the build manifest before it was rewritten.
+     */
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "original_release_metadata", updatable = false)
+    @ToString.Exclude
+    private JsonNode originalReleaseMetadata;
+
+    @Column(name = "creation_time", nullable = false, updatable = false)
+    private Instant creationTime;
+
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (o == null) {
+            return false;
+        }
+
+        Class<?> oEffectiveClass = (o instanceof HibernateProxy proxy)
+                ? proxy.getHibernateLazyInitializer().getPersistentClass()
+                : o.getClass();
+        Class<?> thisEffectiveClass = (this instanceof HibernateProxy proxy)
+                ? proxy.getHibernateLazyInitializer().getPersistentClass()
+                : this.getClass();
+
+        if (thisEffectiveClass != oEffectiveClass) {
+            return false;
+        }
+
+        ReleaseManifestCheckpoint checkpoint = (ReleaseManifestCheckpoint) o;
+        return Objects.equals(id, checkpoint.id);
+    }
+
+    @Override
+    public final int hashCode() {
+        return Objects.hash(id);
+    }
+}
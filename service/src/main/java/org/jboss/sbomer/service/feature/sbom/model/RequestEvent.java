@@ -20,6 +20,7 @@ package org.jboss.sbomer.service.feature.sbom.model;
 import java.time.Instant;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
 import org.hibernate.annotations.DynamicUpdate;
@@ -30,7 +31,10 @@ import org.jboss.sbomer.core.config.request.RequestConfig;
 import org.jboss.sbomer.core.features.sbom.enums.RequestEventStatus;
 import org.jboss.sbomer.core.features.sbom.enums.RequestEventType;
 import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
+import org.jboss.sbomer.service.stats.StatsCounter;
+import org.jboss.sbomer.service.stats.StatsCounters;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -43,8 +47,14 @@ import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.Id;
 import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import jakarta.transaction.Transactional;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -129,6 +139,16 @@ public class RequestEvent extends PanacheEntityBase {
     @JdbcTypeCode(SqlTypes.LONGVARCHAR)
     String reason;
 
+    /**
+     * The statistics counters this request event is currently accounted in.
+     */
+    @Transient
+    @JsonIgnore
+    @ToString.Exclude
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private Set<StatsCounter> statsCounters;
+
     public static RequestEvent createNew(RequestConfig requestConfig, RequestEventType eventType, Object event) {
         JsonNode eventNode = (event instanceof Map) ? ObjectMapperProvider.json().valueToTree(event) : (JsonNode) event;
 
@@ -142,6 +162,22 @@ public class RequestEvent extends PanacheEntityBase {
                 .build();
     }
 
+    @PostPersist
+    @PostUpdate
+    public void postWrite() {
+        statsCounters = StatsCounters.track(statsCounters, StatsCounters.countersOf(this));
+    }
+
+    @PostLoad
+    public void postLoad() {
+        statsCounters = StatsCounters.countersOf(this);
+    }
+
+    @PostRemove
+    public void postRemove() {
+        statsCounters = StatsCounters.track(statsCounters, null);
+    }
+
     @Transactional
     public RequestEvent save() {
         persistAndFlush();
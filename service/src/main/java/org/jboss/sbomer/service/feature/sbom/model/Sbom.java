@@ -18,26 +18,35 @@
 package org.jboss.sbomer.service.feature.sbom.model;
 
 import java.time.Instant;
+import java.util.EnumSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 
-import org.cyclonedx.model.Bom;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.hibernate.ObjectNotFoundException;
 import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.proxy.HibernateProxy;
 import org.hibernate.type.SqlTypes;
+import org.jboss.sbomer.core.errors.ApplicationException;
 import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
 import org.jboss.sbomer.core.features.sbom.validation.CycloneDxBom;
+import org.jboss.sbomer.service.stats.StatsCounter;
+import org.jboss.sbomer.service.stats.StatsCounters;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.github.packageurl.MalformedPackageURLException;
+import com.github.packageurl.PackageURL;
 
 import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
 import io.quarkus.runtime.annotations.RegisterForReflection;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
+import jakarta.persistence.ConstraintMode;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityNotFoundException;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.ForeignKey;
 import jakarta.persistence.Id;
@@ -46,15 +55,20 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.Lob;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import jakarta.validation.constraints.NotBlank;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
 
 @DynamicUpdate
 @Getter
@@ -64,11 +78,15 @@ import lombok.ToString;
 @Table(
         name = "sbom",
         indexes = { @Index(name = "idx_sbom_identifier", columnList = "identifier"),
-                @Index(name = "idx_sbom_rootpurl", columnList = "root_purl") })
+                @Index(name = "idx_sbom_rootpurl", columnList = "root_purl"),
+                @Index(name = "idx_sbom_nvr", columnList = "nvr"),
+                @Index(name = "idx_sbom_image_digest", columnList = "image_digest"),
+                @Index(name = "idx_sbom_sbom_hash", columnList = "sbom_hash") })
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder(setterPrefix = "with")
 @RegisterForReflection
+@Slf4j
 public class Sbom extends PanacheEntityBase {
 
     @Id
@@ -82,17 +100,72 @@ public class Sbom extends PanacheEntityBase {
     @Column(name = "root_purl")
     private String rootPurl;
 
+    /**
+     * The NVR of the container image, extracted from the image labels of the main component, if available.
+     */
+    @Column(name = "nvr")
+    private String nvr;
+
+    /**
+     * The architecture of the container image, extracted from the {@link #rootPurl}, if available.
+     */
+    @Column(name = "arch")
+    private String arch;
+
+    /**
+     * The digest of the container image, extracted from the {@link #rootPurl}, if available.
+     */
+    @Column(name = "image_digest")
+    private String imageDigest;
+
     @Column(name = "creation_time", nullable = false, updatable = false)
     private Instant creationTime;
 
-    @JdbcTypeCode(SqlTypes.JSON)
-    @Column(name = "sbom")
+    /**
+     * The BOM content, stored in the {@link ManifestBlob} referenced by {@link #sbomHash} (or in the
+     * {@link #inlineSbom} column for manifests stored before the blobs were introduced).
+     */
+    @Transient
     @CycloneDxBom
     @ToString.Exclude
     @Schema(implementation = Map.class) // Workaround for swagger limitation of not being able to digest through a very
                                         // big schema which is the case if we use the Bom.class
     private JsonNode sbom;
 
+    /**
+     * The BOM content of manifests stored before the content was moved to {@link ManifestBlob}s. Cleared when the
+     * content of the manifest is replaced.
+     */
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "sbom")
+    @JsonIgnore
+    @ToString.Exclude
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private JsonNode inlineSbom;
+
+    /**
+     * Digest of the {@link ManifestBlob} holding the {@link #sbom} content, used as the entity tag when serving the
+     * BOM.
+     */
+    @JsonIgnore
+    @Column(name = "sbom_hash")
+    @Setter(AccessLevel.NONE)
+    private String sbomHash;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(
+            name = "sbom_hash",
+            referencedColumnName = "digest",
+            insertable = false,
+            updatable = false,
+            foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    @JsonIgnore
+    @ToString.Exclude
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private ManifestBlob blob;
+
     @Column(name = "config_index")
     private Integer configIndex;
 
@@ -112,29 +185,173 @@ public class Sbom extends PanacheEntityBase {
     @Schema(implementation = Map.class)
     private JsonNode releaseMetadata;
 
+    /**
+     * The blob prepared for the content set with {@link #setSbom(JsonNode)}, stored when the entity is flushed.
+     */
+    @Transient
+    @JsonIgnore
+    @ToString.Exclude
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private ManifestBlob pendingBlob;
+
+    /**
+     * Size of the serialized content, in bytes, known once the content was stored (see {@link ManifestBlob#getSize()}).
+     * Used for metrics, without serializing the content again.
+     */
+    @Transient
+    @JsonIgnore
+    @ToString.Exclude
+    @Setter(AccessLevel.NONE)
+    private long storedSize;
+
+    /**
+     * Whether the content was replaced with {@link #setSbom(JsonNode)} since the entity was loaded. Used to avoid
+     * re-reading the manifest when other columns of the entity are updated.
+     */
+    @Transient
+    @JsonIgnore
+    @ToString.Exclude
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean contentChanged;
+
+    /**
+     * Returns the BOM content, read from the {@link ManifestBlob} on first access.
+     *
+     * @return the BOM content
+     */
+    public JsonNode getSbom() {
+        if (sbom == null) {
+            sbom = inlineSbom != null ? inlineSbom : readBlob();
+        }
+
+        return sbom;
+    }
+
+    /**
+     * Reads the content from the referenced {@link ManifestBlob}, the blob is loaded only now.
+     *
+     * @throws ApplicationException if the referenced blob does not exist
+     */
+    private JsonNode readBlob() {
+        if (sbomHash == null) {
+            return null;
+        }
+
+        try {
+            return blob.toJsonNode();
+        } catch (EntityNotFoundException | ObjectNotFoundException e) {
+            throw new ApplicationException("Content blob '{}' of manifest '{}' does not exist", sbomHash, id, e);
+        }
+    }
+
+    /**
+     * Replaces the BOM content. The digest of the content is computed right away, so that the entity is updated when
+     * flushed only if the content is different.
+     *
+     * @param sbom the BOM content
+     */
+    public void setSbom(JsonNode sbom) {
+        this.sbom = sbom;
+        this.pendingBlob = sbom != null ? ManifestBlob.of(sbom) : null;
+        this.sbomHash = pendingBlob != null ? pendingBlob.getDigest() : null;
+        this.inlineSbom = null;
+        this.contentChanged = true;
+    }
+
+    /**
+     * Moves the content of a manifest stored before the {@link ManifestBlob}s were introduced from the inline column to
+     * a blob, stored when the entity is flushed.
+     *
+     * @return {@code true} if the manifest had inline content
+     */
+    public boolean moveInlineSbomToBlob() {
+        if (inlineSbom == null) {
+            return false;
+        }
+
+        setSbom(inlineSbom);
+        return true;
+    }
+
     /**
      * Updates the purl for the object based on the SBOM content, if provided.
      *
      */
     private void setupRootPurl() {
-        Bom bom = SbomUtils.fromJsonNode(getSbom());
+        rootPurl = SbomUtils.getRootPurl(getSbom());
+        setupContainerKeys();
+    }
+
+    /**
+     * Extracts the keys used to route container image manifests during the release processing, so that these can be
+     * queried without reading the manifest.
+     */
+    private void setupContainerKeys() {
+        List<String> nvrParts = SbomUtils.computeNVRFromContainerManifest(getSbom());
+        nvr = nvrParts.isEmpty() ? null : String.join("-", nvrParts);
+        arch = null;
+        imageDigest = null;
+
+        if (rootPurl == null || !rootPurl.startsWith("pkg:oci/")) {
+            return;
+        }
+
+        try {
+            PackageURL purl = new PackageURL(rootPurl);
+            imageDigest = purl.getVersion();
+            arch = purl.getQualifiers() != null ? purl.getQualifiers().get("arch") : null;
+        } catch (MalformedPackageURLException e) {
+            log.debug("Unable to parse the root purl '{}' of manifest '{}'", rootPurl, id, e);
+        }
+    }
 
-        rootPurl = null;
+    /**
+     * Stores the content in the {@link ManifestBlob} (unless stored already) and references it.
+     */
+    private void storeSbom() {
+        JsonNode content = getSbom();
 
-        if (bom != null && bom.getMetadata() != null && bom.getMetadata().getComponent() != null) {
-            rootPurl = bom.getMetadata().getComponent().getPurl();
+        if (content != null) {
+            ManifestBlob contentBlob = pendingBlob != null ? pendingBlob : ManifestBlob.of(content);
+            ManifestBlob.storeIfAbsent(contentBlob);
+            sbomHash = contentBlob.getDigest();
+            storedSize = contentBlob.getSize();
+        } else {
+            sbomHash = null;
+            storedSize = 0;
         }
+
+        inlineSbom = null;
+        pendingBlob = null;
+        contentChanged = false;
     }
 
     @PrePersist
     public void prePersist() {
         creationTime = Instant.now();
         setupRootPurl();
+        storeSbom();
     }
 
     @PreUpdate
     public void preUpdate() {
-        setupRootPurl();
+        // Only the manifest content determines the root purl, skip it when the manifest was not replaced
+        if (contentChanged) {
+            setupRootPurl();
+            storeSbom();
+        }
+    }
+
+    @PostPersist
+    public void postPersist() {
+        StatsCounters.track(null, EnumSet.of(StatsCounter.SBOMS));
+    }
+
+    @PostRemove
+    public void postRemove() {
+        StatsCounters.track(EnumSet.of(StatsCounter.SBOMS), null);
     }
 
     @Override
@@ -26,13 +26,16 @@ import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.proxy.HibernateProxy;
 import org.hibernate.type.SqlTypes;
+import org.jboss.sbomer.core.config.request.RequestConfig;
 import org.jboss.sbomer.core.features.sbom.config.Config;
 import org.jboss.sbomer.core.features.sbom.enums.GenerationRequestType;
 import org.jboss.sbomer.core.features.sbom.enums.GenerationResult;
@@ -41,12 +44,18 @@ import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
 import org.jboss.sbomer.service.feature.sbom.errata.event.comment.RequestEventStatusUpdateEvent;
 import org.jboss.sbomer.service.feature.sbom.k8s.model.GenerationRequest;
 import org.jboss.sbomer.service.feature.sbom.k8s.model.SbomGenerationStatus;
+import org.jboss.sbomer.service.scheduler.GenerationRequestSource;
+import org.jboss.sbomer.service.scheduler.NewGenerationRequestEvent;
+import org.jboss.sbomer.service.stats.StatsCounter;
+import org.jboss.sbomer.service.stats.StatsCounters;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
+import io.quarkus.arc.Arc;
 import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
 import io.quarkus.runtime.annotations.RegisterForReflection;
 import jakarta.persistence.Column;
@@ -59,9 +68,15 @@ import jakarta.persistence.Id;
 import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import jakarta.transaction.Transactional;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -80,7 +95,8 @@ import lombok.extern.slf4j.Slf4j;
         name = "sbom_generation_request",
         indexes = { @Index(name = "idx_request_identifier", columnList = "identifier"),
                 @Index(name = "idx_request_type", columnList = "type"),
-                @Index(name = "idx_request_status", columnList = "status") })
+                @Index(name = "idx_request_status", columnList = "status"),
+                @Index(name = "idx_request_scheduling", columnList = "status, priority DESC, creation_time") })
 @Slf4j
 @NoArgsConstructor
 @AllArgsConstructor
@@ -124,6 +140,30 @@ public class SbomGenerationRequest extends PanacheEntityBase {
     @JoinColumn(foreignKey = @ForeignKey(name = "fk_generationrequest_request"))
     private RequestEvent request;
 
+    /**
+     * Generation requests with higher priority are scheduled first, see {@link RequestConfig#getPriority()}.
+     */
+    @Column(name = "priority", nullable = false)
+    @ColumnDefault("0")
+    int priority;
+
+    /**
+     * Where the generation request originates from, used to share the scheduling capacity between sources.
+     */
+    @Column(name = "source")
+    @Enumerated(EnumType.STRING)
+    GenerationRequestSource source;
+
+    /**
+     * The statistics counters this generation request is currently accounted in.
+     */
+    @Transient
+    @JsonIgnore
+    @ToString.Exclude
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private Set<StatsCounter> statsCounters;
+
     @JdbcTypeCode(SqlTypes.JSON)
     @Column(name = "otel_metadata")
     @ToString.Exclude
@@ -314,6 +354,44 @@ public class SbomGenerationRequest extends PanacheEntityBase {
     @PrePersist
     public void prePersist() {
         creationTime = Instant.now();
+
+        if (source == null) {
+            source = GenerationRequestSource.of(request);
+        }
+
+        RequestConfig requestConfig = request != null ? request.getRequestConfig() : null;
+
+        if (requestConfig != null && requestConfig.getPriority() != null) {
+            priority = requestConfig.getPriority();
+        }
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void postWrite() {
+        notifyScheduler();
+        statsCounters = StatsCounters.track(statsCounters, StatsCounters.countersOf(this));
+    }
+
+    @PostLoad
+    public void postLoad() {
+        statsCounters = StatsCounters.countersOf(this);
+    }
+
+    @PostRemove
+    public void postRemove() {
+        statsCounters = StatsCounters.track(statsCounters, null);
+    }
+
+    /**
+     * Notifies the scheduler of the current instance that there is a generation waiting to be scheduled. The leader
+     * learns about the generation requests stored by other instances from the database, see
+     * {@link org.jboss.sbomer.service.scheduler.GenerationRequestNotificationListener}.
+     */
+    public void notifyScheduler() {
+        if (status == SbomGenerationStatus.NEW && Arc.container() != null) {
+            Arc.container().beanManager().getEvent().fire(new NewGenerationRequestEvent(id));
+        }
     }
 
     @Override
@@ -0,0 +1,30 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.feature.sbom.model;
+
+/**
+ * Projection of the keys extracted from a manifest when it is stored, allowing to route the manifests without loading
+ * the manifest content.
+ *
+ * @param id the manifest identifier
+ * @param nvr the NVR of the container image
+ * @param arch the architecture of the container image
+ * @param imageDigest the digest of the container image
+ */
+public record SbomRoutingKeys(String id, String nvr, String arch, String imageDigest) {
+}
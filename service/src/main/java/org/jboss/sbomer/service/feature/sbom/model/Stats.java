@@ -17,6 +17,8 @@
  */
 package org.jboss.sbomer.service.feature.sbom.model;
 
+import java.util.Map;
+
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
 
@@ -86,6 +88,13 @@ public class Stats {
     public static class GenerationRequestStats {
         long total;
         long inProgress;
+
+        /**
+         * Number of generation requests in the cluster by their status. Available only on the instance scheduling the
+         * generations.
+         */
+        @JsonInclude(Include.NON_EMPTY)
+        Map<String, Integer> inCluster;
     }
 
     @Data
@@ -0,0 +1,132 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.feature.sbom.model;
+
+import java.time.Instant;
+import java.util.Objects;
+
+import org.hibernate.proxy.HibernateProxy;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Records that a UMB message (identified by the consumer and the message id) was received. The unique constraint on
+ * the {@code consumer} and {@code msg_id} columns makes sure that only one {@link RequestEvent} can claim a given
+ * message, even when redeliveries are processed concurrently. Only messages with the {@link Status#ACK} status are
+ * considered as already processed. A claim which failed is released, a claim which was not acknowledged for too long
+ * (because the service stopped) is taken over by the next redelivery, see
+ * {@link org.jboss.sbomer.service.feature.sbom.config.features.UmbConfig#claimStaleAfter()}. The
+ * {@link #creationTime} is the time the message was claimed.
+ */
+@Getter
+@Setter
+@Entity
+@ToString
+@Table(
+        name = "umb_message_receipt",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uq_umb_message_receipt_consumer_msgid",
+                columnNames = { "consumer", "msg_id" }))
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(setterPrefix = "with")
+@RegisterForReflection
+public class UMBMessageReceipt extends PanacheEntityBase {
+
+    /**
+     * Identifier of the {@link RequestEvent} which claimed the message.
+     */
+    @Id
+    @Column(name = "request_id", nullable = false, updatable = false)
+    private String requestId;
+
+    @Column(name = "consumer", nullable = false, updatable = false)
+    private String consumer;
+
+    @Column(name = "msg_id", nullable = false, updatable = false)
+    private String msgId;
+
+    @Column(name = "creation_time", nullable = false, updatable = false)
+    private Instant creationTime;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private Status status;
+
+    /**
+     * Number of redeliveries of the message skipped after it was acknowledged.
+     */
+    @Column(name = "duplicates", nullable = false)
+    private int duplicates;
+
+    public enum Status {
+        /**
+         * The message is being processed.
+         */
+        CLAIMED,
+
+        /**
+         * The message was processed and acknowledged.
+         */
+        ACK
+    }
+
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (o == null) {
+            return false;
+        }
+
+        Class<?> oEffectiveClass = (o instanceof HibernateProxy proxy)
+                ? proxy.getHibernateLazyInitializer().getPersistentClass()
+                : o.getClass();
+        Class<?> thisEffectiveClass = (this instanceof HibernateProxy proxy)
+                ? proxy.getHibernateLazyInitializer().getPersistentClass()
+                : this.getClass();
+
+        if (thisEffectiveClass != oEffectiveClass) {
+            return false;
+        }
+
+        UMBMessageReceipt receipt = (UMBMessageReceipt) o;
+        return Objects.equals(requestId, receipt.requestId);
+    }
+
+    @Override
+    public final int hashCode() {
+        return Objects.hash(requestId);
+    }
+}
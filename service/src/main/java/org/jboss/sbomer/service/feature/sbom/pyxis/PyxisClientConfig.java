@@ -0,0 +1,54 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.feature.sbom.pyxis;
+
+import java.time.Duration;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+/**
+ * Configuration of the bulk lookups and of the repository cache of the {@link PyxisValidatingClient}.
+ */
+@ConfigMapping(prefix = "sbomer.pyxis.client")
+public interface PyxisClientConfig {
+
+    /**
+     * Maximum number of concurrent requests to Pyxis when resolving the repositories of multiple NVRs.
+     *
+     * @return the maximum number of concurrent requests
+     */
+    @WithDefault("8")
+    int concurrency();
+
+    /**
+     * How long the repositories retrieved from Pyxis are kept in the cache.
+     *
+     * @return the time-to-live of cache entries
+     */
+    @WithDefault("1h")
+    Duration cacheTtl();
+
+    /**
+     * Maximum number of repositories kept in the cache.
+     *
+     * @return the maximum number of entries
+     */
+    @WithDefault("1000")
+    int cacheMaxSize();
+}
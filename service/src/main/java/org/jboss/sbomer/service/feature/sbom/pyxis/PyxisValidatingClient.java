@@ -22,18 +22,32 @@ import static org.jboss.sbomer.core.rest.faulttolerance.Constants.PYXIS_UNPUBLIS
 import static org.jboss.sbomer.core.rest.faulttolerance.Constants.PYXIS_UNPUBLISHED_MAX_DURATION;
 import static org.jboss.sbomer.core.rest.faulttolerance.Constants.PYXIS_UNPUBLISHED_MAX_RETRIES;
 
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+import org.eclipse.microprofile.context.ManagedExecutor;
 import org.eclipse.microprofile.faulttolerance.Retry;
 import org.jboss.sbomer.core.rest.faulttolerance.RetryLogger;
+import org.jboss.sbomer.service.cache.ExpiringCache;
 import org.jboss.sbomer.service.feature.sbom.pyxis.dto.PyxisRepository;
 import org.jboss.sbomer.service.feature.sbom.pyxis.dto.PyxisRepositoryDetails;
 import org.jboss.sbomer.service.rest.otel.TracingRestClient;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.smallrye.faulttolerance.api.BeforeRetry;
 import io.smallrye.faulttolerance.api.FibonacciBackoff;
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.validation.ConstraintViolation;
@@ -41,6 +55,7 @@ import jakarta.validation.ConstraintViolationException;
 import jakarta.validation.Validator;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.QueryParam;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
 @ApplicationScoped
@@ -48,11 +63,40 @@ import lombok.extern.slf4j.Slf4j;
 public class PyxisValidatingClient {
 
     @TracingRestClient
-    PyxisClient p;
+    @Setter
+    PyxisClient pyxisClient;
 
     @Inject
+    @Setter
     Validator validator;
 
+    @Inject
+    @Setter
+    PyxisClientConfig config;
+
+    @Inject
+    @Setter
+    ManagedExecutor managedExecutor;
+
+    @Inject
+    @Setter
+    MeterRegistry meterRegistry;
+
+    /**
+     * Repositories keyed by registry, repository and the requested includes. Many images of an advisory are published
+     * to the same repositories.
+     */
+    private ExpiringCache<List<Object>, PyxisRepository> repositories;
+
+    @PostConstruct
+    public void init() {
+        repositories = new ExpiringCache<>(
+                "pyxis.repositories",
+                config.cacheTtl(),
+                config.cacheMaxSize(),
+                meterRegistry);
+    }
+
     @Retry(
             maxRetries = PYXIS_UNPUBLISHED_MAX_RETRIES,
             delay = PYXIS_UNPUBLISHED_INITIAL_DELAY,
@@ -64,7 +108,9 @@ public class PyxisValidatingClient {
             @PathParam("nvr") String nvr,
             @QueryParam("include") List<String> includes) {
 
-        PyxisRepositoryDetails prd = p.getRepositoriesDetails(nvr, includes);
+        PyxisRepositoryDetails prd = timed(
+                "repositories_details",
+                () -> pyxisClient.getRepositoriesDetails(nvr, includes));
         log.debug("Pyxis response for NVR '{}': {}", nvr, prd);
 
         Set<ConstraintViolation<PyxisRepositoryDetails>> violations = validator.validate(prd);
@@ -80,10 +126,89 @@ public class PyxisValidatingClient {
         throw new ConstraintViolationException("Pyxis Repository constraint failure", violations);
     }
 
+    /**
+     * Retrieves the repositories details of all the provided NVRs, running at most
+     * {@link PyxisClientConfig#concurrency()} requests at the same time. Every request is retried in the same way as
+     * {@link #getRepositoriesDetails(String, List)}, the first failure is rethrown and the NVRs not requested yet are
+     * skipped.
+     *
+     * @param nvrs the NVRs of the images
+     * @param includes the fields to include in the response
+     * @return map of the NVR to its repositories details
+     */
+    public Map<String, PyxisRepositoryDetails> getAllRepositoriesDetails(
+            Collection<String> nvrs,
+            List<String> includes) {
+        List<String> distinctNvrs = nvrs.stream().distinct().toList();
+        Map<String, PyxisRepositoryDetails> details = new ConcurrentHashMap<>();
+        int lanes = Math.min(Math.max(1, config.concurrency()), distinctNvrs.size());
+
+        log.debug("Getting repositories details from Pyxis for {} NVRs with {} lanes", distinctNvrs.size(), lanes);
+
+        // Every lane resolves its share of the NVRs sequentially, which bounds the number of concurrent requests
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[lanes];
+        for (int lane = 0; lane < lanes; lane++) {
+            int first = lane;
+            futures[lane] = CompletableFuture.runAsync(() -> {
+                for (int i = first; i < distinctNvrs.size() && failure.get() == null; i += lanes) {
+                    String nvr = distinctNvrs.get(i);
+                    try {
+                        PyxisRepositoryDetails prd = getRepositoriesDetails(nvr, includes);
+                        if (prd != null) {
+                            details.put(nvr, prd);
+                        }
+                    } catch (RuntimeException e) {
+                        // Stop the other lanes, the lanes not started yet are not run at all
+                        if (failure.compareAndSet(null, e)) {
+                            cancel(futures);
+                        }
+                        throw e;
+                    }
+                }
+            }, managedExecutor);
+        }
+
+        try {
+            CompletableFuture.allOf(futures).join();
+        } catch (CompletionException | CancellationException e) {
+            if (failure.get() != null) {
+                throw failure.get();
+            }
+
+            throw e.getCause() instanceof RuntimeException runtimeException ? runtimeException : e;
+        }
+
+        return details;
+    }
+
+    private static void cancel(CompletableFuture<?>[] futures) {
+        for (CompletableFuture<?> future : futures) {
+            if (future != null) {
+                future.cancel(false);
+            }
+        }
+    }
+
     public PyxisRepository getRepository(
             @PathParam("registry") String registry,
             @PathParam("repository") String repository,
             @QueryParam("include") List<String> includes) {
-        return p.getRepository(registry, repository, includes);
+        return repositories.get(
+                Arrays.asList(registry, repository, includes),
+                key -> timed("repository", () -> pyxisClient.getRepository(registry, repository, includes)));
+    }
+
+    private <T> T timed(String operation, Supplier<T> call) {
+        if (meterRegistry == null) {
+            return call.get();
+        }
+
+        return Timer.builder("sbomer.pyxis.requests")
+                .description("Latency of the requests to Pyxis")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(call);
     }
 }
@@ -687,11 +687,20 @@ public class AdvisoryService {
     }
 
     private Set<String> getAllCPEsOfBuilds(Map<ProductVersionEntry, List<BuildItem>> buildDetails) {
+        // Resolve all variants of the advisory at once, these are repeated across the builds
+        errataClient.prefetchVariants(
+                buildDetails.values()
+                        .stream()
+                        .flatMap(List::stream)
+                        .flatMap(buildItem -> buildItem.getVariantArch().keySet().stream())
+                        .collect(Collectors.toSet()));
+
         Set<String> allCPEs = new HashSet<>();
         buildDetails.forEach((productVersionEntry, buildItems) -> {
             // Map all VariantArch to ErrataVariant and collect distinct ErrataVariant objects
             Set<String> productVersionCPEs = buildItems.stream()
                     .flatMap(buildItem -> buildItem.getVariantArch().keySet().stream())
+                    .distinct()
                     .map(variantArch -> errataClient.getVariant(variantArch))
                     .filter(Objects::nonNull)
                     .map(errataVariant -> errataVariant.getData().getAttributes().getCpe())
@@ -0,0 +1,135 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.feature.sbom.service;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.sbomer.service.feature.sbom.model.ManifestBlob;
+import org.jboss.sbomer.service.feature.sbom.model.Sbom;
+import org.jboss.sbomer.service.leader.LeaderManager;
+import org.jboss.sbomer.service.nextgen.service.model.Manifest;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import io.quarkus.scheduler.Scheduled.ConcurrentExecution;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.LockModeType;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>
+ * Moves the content of the manifests stored before the {@link ManifestBlob}s were introduced from the inline JSONB
+ * columns ({@code sbom.sbom} and {@code manifest.bom}) to blobs: the blob is stored, referenced by the digest column of
+ * the manifest and the inline content is cleared.
+ * </p>
+ *
+ * <p>
+ * The migration runs on the leader only, in small batches (the inline content is large), each in its own transaction
+ * with the migrated rows locked, so that a concurrent replacement of the content is not overwritten. Nothing stores
+ * inline content anymore, so the migration is not run again by this instance once there is nothing left to migrate.
+ * </p>
+ */
+@ApplicationScoped
+@Slf4j
+public class InlineManifestMigrator {
+
+    @Inject
+    LeaderManager leaderManager;
+
+    @ConfigProperty(name = "sbomer.service.manifest-blobs.migration-batch-size", defaultValue = "50")
+    int batchSize;
+
+    private volatile boolean finished;
+
+    @Scheduled(
+            every = "${sbomer.service.manifest-blobs.migration-interval:10m}",
+            delay = 2,
+            delayUnit = TimeUnit.MINUTES,
+            concurrentExecution = ConcurrentExecution.SKIP)
+    void migrate() {
+        if (finished || !leaderManager.isLeader()) {
+            return;
+        }
+
+        try {
+            int migrated = migrateAll();
+
+            if (migrated > 0) {
+                log.info("Moved the inline content of {} manifests to manifest blobs", migrated);
+            } else {
+                log.info("No inline manifest content left to move to manifest blobs");
+                finished = true;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Unable to move the inline manifest content to manifest blobs, will retry in the next run", e);
+        }
+    }
+
+    /**
+     * Moves the inline content of all the manifests to blobs, as long as the current instance is the leader.
+     *
+     * @return the number of migrated manifests
+     */
+    public int migrateAll() {
+        return migrate(this::migrateSboms) + migrate(this::migrateManifests);
+    }
+
+    private int migrate(IntSupplier batch) {
+        int total = 0;
+        int migrated;
+
+        do {
+            if (!leaderManager.isLeader()) {
+                break;
+            }
+
+            migrated = batch.getAsInt();
+            total += migrated;
+        } while (migrated >= batchSize);
+
+        return total;
+    }
+
+    private int migrateSboms() {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            List<Sbom> sboms = Sbom.<Sbom> find("inlineSbom is not null")
+                    .withLock(LockModeType.PESSIMISTIC_WRITE)
+                    .page(0, batchSize)
+                    .list();
+
+            sboms.forEach(Sbom::moveInlineSbomToBlob);
+            return sboms.size();
+        });
+    }
+
+    private int migrateManifests() {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            List<Manifest> manifests = Manifest.<Manifest> find("inlineBom is not null")
+                    .withLock(LockModeType.PESSIMISTIC_WRITE)
+                    .page(0, batchSize)
+                    .list();
+
+            manifests.forEach(Manifest::moveInlineBomToBlob);
+            return manifests.size();
+        });
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.feature.sbom.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.sbomer.service.feature.sbom.model.ManifestBlob;
+import org.jboss.sbomer.service.leader.LeaderManager;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import io.quarkus.scheduler.Scheduled.ConcurrentExecution;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>
+ * Removes the {@link ManifestBlob}s which are no longer referenced by any manifest: the manifests were removed or their
+ * content was replaced.
+ * </p>
+ *
+ * <p>
+ * Blobs are collected only when these were not stored or reused for the grace period (see
+ * {@link ManifestBlob#getLastUsed()}), so that a blob which is just being referenced by a manifest in a transaction
+ * that is not committed yet is kept. The sweep runs on the leader only, in batches, each in its own transaction.
+ * </p>
+ */
+@ApplicationScoped
+@Slf4j
+public class ManifestBlobCollector {
+
+    @Inject
+    LeaderManager leaderManager;
+
+    @ConfigProperty(name = "sbomer.service.manifest-blobs.grace-period", defaultValue = "6h")
+    Duration gracePeriod;
+
+    @ConfigProperty(name = "sbomer.service.manifest-blobs.batch-size", defaultValue = "500")
+    int batchSize;
+
+    @Scheduled(
+            every = "${sbomer.service.manifest-blobs.collect-interval:1h}",
+            delay = 5,
+            delayUnit = TimeUnit.MINUTES,
+            concurrentExecution = ConcurrentExecution.SKIP)
+    void collect() {
+        if (!leaderManager.isLeader()) {
+            return;
+        }
+
+        int deleted = collect(Instant.now().minus(gracePeriod));
+
+        if (deleted > 0) {
+            log.info("Deleted {} manifest blobs no longer referenced by any manifest", deleted);
+        }
+    }
+
+    /**
+     * Deletes the blobs which are not referenced by any manifest and were last used before the {@code cutoff}.
+     *
+     * @param cutoff the time the collected blobs were last used before
+     * @return the number of deleted blobs
+     */
+    public int collect(Instant cutoff) {
+        int total = 0;
+        int deleted;
+
+        do {
+            deleted = QuarkusTransaction.requiringNew()
+                    .call(
+                            () -> ManifestBlob.getEntityManager()
+                                    .createNativeQuery(ManifestBlob.DELETE_UNREFERENCED)
+                                    .setParameter("cutoff", cutoff)
+                                    .setParameter("limit", batchSize)
+                                    .executeUpdate());
+            total += deleted;
+        } while (deleted >= batchSize);
+
+        return total;
+    }
+}
@@ -22,8 +22,8 @@ import static org.jboss.sbomer.core.features.sbom.enums.UMBConsumer.ERRATA;
 import static org.jboss.sbomer.core.features.sbom.enums.UMBConsumer.PNC;
 import static org.jboss.sbomer.core.features.sbom.enums.UMBMessageStatus.ACK;
 import static org.jboss.sbomer.core.features.sbom.enums.UMBMessageStatus.SKIPPED;
+import static org.jboss.sbomer.service.db.JsonScalars.toJsonScalar;
 import static org.jboss.sbomer.service.feature.sbom.model.RequestEvent.EVENT_KEY_UMB_CONSUMER;
-import static org.jboss.sbomer.service.feature.sbom.model.RequestEvent.EVENT_KEY_UMB_MSG_ID;
 import static org.jboss.sbomer.service.feature.sbom.model.RequestEvent.EVENT_KEY_UMB_MSG_STATUS;
 import static org.jboss.sbomer.service.feature.sbom.model.RequestEvent.EVENT_KEY_UMB_MSG_TYPE;
 import static org.jboss.sbomer.service.feature.sbom.model.RequestEvent.EVENT_VALUE_UMB_UNKNOWN_MSG_TYPE;
@@ -31,6 +31,7 @@ import static org.jboss.sbomer.service.feature.sbom.model.RequestEvent.REQUEST_C
 import static org.jboss.sbomer.service.feature.sbom.model.RequestEvent.REQUEST_EVENT_TYPE;
 
 import java.lang.reflect.Field;
+import java.math.BigDecimal;
 import java.sql.Timestamp;
 import java.time.Instant;
 import java.util.ArrayList;
@@ -38,7 +39,9 @@ import java.util.Comparator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.jboss.sbomer.core.config.request.ErrataAdvisoryRequestConfig;
 import org.jboss.sbomer.core.config.request.ImageRequestConfig;
@@ -50,6 +53,7 @@ import org.jboss.sbomer.core.dto.v1beta1.V1BaseBeta1RequestRecord;
 import org.jboss.sbomer.core.dto.v1beta1.V1Beta1GenerationRecord;
 import org.jboss.sbomer.core.dto.v1beta1.V1Beta1RequestManifestRecord;
 import org.jboss.sbomer.core.dto.v1beta1.V1Beta1RequestRecord;
+import org.jboss.sbomer.core.errors.ApplicationException;
 import org.jboss.sbomer.core.errors.ClientException;
 import org.jboss.sbomer.core.features.sbom.config.Config;
 import org.jboss.sbomer.core.features.sbom.enums.RequestEventStatus;
@@ -57,13 +61,18 @@ import org.jboss.sbomer.core.features.sbom.enums.RequestEventType;
 import org.jboss.sbomer.core.features.sbom.enums.UMBConsumer;
 import org.jboss.sbomer.core.features.sbom.enums.UMBMessageStatus;
 import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
+import org.jboss.sbomer.service.db.JsonbIndexCatalogue;
 import org.jboss.sbomer.service.feature.sbom.model.RequestEvent;
+import org.jboss.sbomer.service.feature.sbom.model.UMBMessageReceipt;
 import org.jboss.sbomer.service.rest.QueryParameters;
 import org.jboss.sbomer.service.rest.criteria.CriteriaAwareRepository;
 
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.Parameter;
 import jakarta.persistence.Query;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
@@ -104,6 +113,15 @@ public class RequestEventRepository extends CriteriaAwareRepository<RequestEvent
             + "FROM request re LEFT JOIN sbom_generation_request sgr ON re.id = sgr.request_id "
             + "LEFT JOIN sbom s ON sgr.id = s.generationrequest_id ";
 
+    /**
+     * Suffix of the parameter holding the JSON object with the typed value of a containment condition, see
+     * {@link #addJsonbCondition(StringBuilder, String, String, String, String, String, String)}.
+     */
+    static final String TYPED_PARAMETER_SUFFIX = "_typed";
+
+    @Inject
+    JsonbIndexCatalogue jsonbIndexCatalogue;
+
     public RequestEventRepository() {
         super(RequestEvent.class);
     }
@@ -146,16 +164,103 @@ public class RequestEventRepository extends CriteriaAwareRepository<RequestEvent
         return executeCountQuery(query.toString(), params);
     }
 
-    public long countAlreadyAckedUMBEventsFor(String msgId) {
-        StringBuilder query = initCountRequestQuery();
-        addCondition(query, WHERE, REQUEST_EVENT_TYPE, EQUAL);
-        addEventCondition(query, AND, EVENT_KEY_UMB_MSG_STATUS, EQUAL);
-        addEventCondition(query, AND, EVENT_KEY_UMB_MSG_ID, EQUAL);
+    /**
+     * Records that the UMB message identified by the {@code consumer} and {@code msgId} was received as the provided
+     * {@link RequestEvent}. Fails with a constraint violation if the message was already claimed by another event.
+     */
+    public UMBMessageReceipt claimUMBMessage(RequestEvent requestEvent, String consumer, String msgId) {
+        UMBMessageReceipt receipt = UMBMessageReceipt.builder()
+                .withRequestId(requestEvent.getId())
+                .withConsumer(consumer)
+                .withMsgId(msgId)
+                .withCreationTime(Instant.now())
+                .withStatus(UMBMessageReceipt.Status.CLAIMED)
+                .build();
+        receipt.persistAndFlush();
+        return receipt;
+    }
+
+    public UMBMessageReceipt findUMBMessageReceipt(String consumer, String msgId) {
+        return UMBMessageReceipt.<UMBMessageReceipt> find("consumer = ?1 and msgId = ?2", consumer, msgId)
+                .firstResult();
+    }
+
+    public boolean isUMBMessageClaimed(String consumer, String msgId) {
+        return UMBMessageReceipt.count("consumer = ?1 and msgId = ?2", consumer, msgId) > 0;
+    }
+
+    public boolean isUMBMessageAcked(String consumer, String msgId) {
+        return UMBMessageReceipt.count(
+                "consumer = ?1 and msgId = ?2 and status = ?3",
+                consumer,
+                msgId,
+                UMBMessageReceipt.Status.ACK) > 0;
+    }
+
+    /**
+     * Marks the UMB message claimed by the {@link RequestEvent} as processed, its redeliveries will be skipped.
+     *
+     * @throws ApplicationException if the {@link RequestEvent} does not hold the claim on the message anymore (the
+     *         claim was taken over by a redelivery, see {@link #takeOverUMBMessage(UMBMessageReceipt, Instant)})
+     */
+    public void ackUMBMessage(RequestEvent requestEvent) {
+        int updated = UMBMessageReceipt.update(
+                "status = ?1 where requestId = ?2 and status = ?3",
+                UMBMessageReceipt.Status.ACK,
+                requestEvent.getId(),
+                UMBMessageReceipt.Status.CLAIMED);
+
+        if (updated == 0) {
+            throw new ApplicationException(
+                    "Request '{}' does not hold the claim on its UMB message anymore, it was taken over by a "
+                            + "redelivery",
+                    requestEvent.getId());
+        }
+    }
 
-        Map<String, Object> params = Map
-                .of(REQUEST_EVENT_TYPE, UMB.name(), EVENT_KEY_UMB_MSG_STATUS, ACK.name(), EVENT_KEY_UMB_MSG_ID, msgId);
+    /**
+     * Takes over the claim on the UMB message which was not acknowledged since {@code claimedBefore}, by removing it.
+     * The claim is removed only if it is still held by the same {@link RequestEvent} and was not acknowledged in the
+     * meantime, out of concurrent redeliveries only one takes the claim over.
+     *
+     * @param receipt the receipt of the claimed message
+     * @param claimedBefore the claims older than this time are considered abandoned
+     * @return {@code true} if the claim was taken over, {@code false} if it is still alive or was taken over already
+     */
+    public boolean takeOverUMBMessage(UMBMessageReceipt receipt, Instant claimedBefore) {
+        return UMBMessageReceipt.delete(
+                "requestId = ?1 and status = ?2 and creationTime < ?3",
+                receipt.getRequestId(),
+                UMBMessageReceipt.Status.CLAIMED,
+                claimedBefore) > 0;
+    }
 
-        return executeCountQuery(query.toString(), params);
+    /**
+     * Releases the claim of the {@link RequestEvent} on the UMB message, so that its redelivery is processed again.
+     */
+    public void releaseUMBMessage(RequestEvent requestEvent) {
+        UMBMessageReceipt.delete("requestId", requestEvent.getId());
+    }
+
+    /**
+     * Counts a skipped redelivery of the acknowledged UMB message.
+     */
+    public void recordUMBMessageDuplicate(String consumer, String msgId) {
+        UMBMessageReceipt.update("duplicates = duplicates + 1 where consumer = ?1 and msgId = ?2", consumer, msgId);
+    }
+
+    /**
+     * Counts the skipped redeliveries of the messages received by the {@code consumer}.
+     */
+    public long countUMBMessageDuplicatesFrom(UMBConsumer consumer) {
+        Long duplicates = getEntityManager()
+                .createQuery(
+                        "SELECT SUM(r.duplicates) FROM UMBMessageReceipt r WHERE r.consumer = :consumer",
+                        Long.class)
+                .setParameter("consumer", consumer.name())
+                .getSingleResult();
+
+        return duplicates != null ? duplicates : 0;
     }
 
     public long countEventsForTypeAndIdentifier(String typeValue, String identifierKey, String identifierValue) {
@@ -220,7 +325,7 @@ public class RequestEventRepository extends CriteriaAwareRepository<RequestEvent
     }
 
     public long countErrataSkippedMessages() {
-        return countUMBEventsWithStatusFrom(SKIPPED, ERRATA);
+        return countUMBEventsWithStatusFrom(SKIPPED, ERRATA) + countUMBMessageDuplicatesFrom(ERRATA);
     }
 
     public long countPncProcessedMessages() {
@@ -228,15 +333,15 @@ public class RequestEventRepository extends CriteriaAwareRepository<RequestEvent
     }
 
     public long countPncSkippedMessages() {
-        return countUMBEventsWithStatusFrom(SKIPPED, PNC);
+        return countUMBEventsWithStatusFrom(SKIPPED, PNC) + countUMBMessageDuplicatesFrom(PNC);
     }
 
     public long countPncReceivedMessages() {
-        return countAllUMBEventsFrom(PNC);
+        return countAllUMBEventsFrom(PNC) + countUMBMessageDuplicatesFrom(PNC);
     }
 
     public long countErrataReceivedMessages() {
-        return countAllUMBEventsFrom(ERRATA);
+        return countAllUMBEventsFrom(ERRATA) + countUMBMessageDuplicatesFrom(ERRATA);
     }
 
     protected StringBuilder initCountRequestQuery() {
@@ -260,15 +365,7 @@ public class RequestEventRepository extends CriteriaAwareRepository<RequestEvent
     }
 
     protected StringBuilder addEventCondition(StringBuilder query, String condition, String property, String operator) {
-        query.append(" ")
-                .append(condition)
-                .append(" event ->> '")
-                .append(property)
-                .append("' ")
-                .append(operator)
-                .append(" :")
-                .append(property);
-        return query;
+        return addJsonbCondition(query, condition, null, "request", "event", property, operator);
     }
 
     protected StringBuilder addConfigCondition(
@@ -276,15 +373,7 @@ public class RequestEventRepository extends CriteriaAwareRepository<RequestEvent
             String condition,
             String property,
             String operator) {
-        query.append(" ")
-                .append(condition)
-                .append(" request_config ->> '")
-                .append(property)
-                .append("' ")
-                .append(operator)
-                .append(" :")
-                .append(property);
-        return query;
+        return addJsonbCondition(query, condition, null, "request", "request_config", property, operator);
     }
 
     protected StringBuilder addReleaseMetadataCondition(
@@ -293,23 +382,98 @@ public class RequestEventRepository extends CriteriaAwareRepository<RequestEvent
             String sbomAlias,
             String property,
             String operator) {
-        query.append(" ")
-                .append(condition)
-                .append(sbomAlias != null && !sbomAlias.isEmpty() ? " " + sbomAlias + "." : " ")
-                .append("release_metadata ->> '")
-                .append(property)
-                .append("' ")
-                .append(operator)
-                .append(" :")
-                .append(property);
+        return addJsonbCondition(query, condition, sbomAlias, "sbom", "release_metadata", property, operator);
+    }
+
+    /**
+     * Adds the condition on the top-level {@code property} of the JSONB {@code column}. Equality is expressed with the
+     * {@code @>} containment operator, served by the GIN index of the column, unless the property has a valid
+     * expression index in the {@link JsonbIndexCatalogue}. The containment is type-sensitive, so the value is looked
+     * up as a string and as the number or boolean it could be stored as, bound by
+     * {@link #setParameters(Query, Map)} to the parameter with the {@link #TYPED_PARAMETER_SUFFIX}.
+     */
+    protected StringBuilder addJsonbCondition(
+            StringBuilder query,
+            String condition,
+            String alias,
+            String table,
+            String column,
+            String property,
+            String operator) {
+        String qualifiedColumn = (alias != null && !alias.isEmpty() ? alias + "." : "") + column;
+
+        query.append(" ").append(condition).append(" ");
+
+        if (EQUAL.equals(operator)
+                && (jsonbIndexCatalogue == null || !jsonbIndexCatalogue.isIndexed(table, column, property))) {
+            query.append("(")
+                    .append(qualifiedColumn)
+                    .append(" @> jsonb_build_object('")
+                    .append(property)
+                    .append("', CAST(:")
+                    .append(property)
+                    .append(" AS text)) OR ")
+                    .append(qualifiedColumn)
+                    .append(" @> CAST(:")
+                    .append(property)
+                    .append(TYPED_PARAMETER_SUFFIX)
+                    .append(" AS jsonb))");
+        } else {
+            query.append(qualifiedColumn)
+                    .append(" ->> '")
+                    .append(property)
+                    .append("' ")
+                    .append(operator)
+                    .append(" :")
+                    .append(property);
+        }
+
         return query;
     }
 
+    /**
+     * Binds the parameters to the query. The parameters compared with the containment operator get the JSON object
+     * with their typed value bound as well.
+     */
+    protected void setParameters(Query query, Map<String, Object> params) {
+        Set<String> names = query.getParameters()
+                .stream()
+                .map(Parameter::getName)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        params.forEach((name, value) -> {
+            query.setParameter(name, value);
+
+            if (names.contains(name + TYPED_PARAMETER_SUFFIX)) {
+                query.setParameter(name + TYPED_PARAMETER_SUFFIX, typedEntry(name, value));
+            }
+        });
+    }
+
+    /**
+     * Creates the JSON object with the {@code property} set to the number or boolean the {@code value} could be stored
+     * as. Values which can only be stored as strings are kept as strings, matching the same rows as the plain
+     * containment.
+     */
+    static String typedEntry(String property, Object value) {
+        ObjectNode entry = JsonNodeFactory.withExactBigDecimals(true).objectNode();
+        Object scalar = value instanceof String string ? toJsonScalar(string) : null;
+
+        if (scalar instanceof Boolean bool) {
+            entry.put(property, bool);
+        } else if (scalar instanceof BigDecimal number) {
+            entry.put(property, number);
+        } else {
+            entry.put(property, String.valueOf(value));
+        }
+
+        return entry.toString();
+    }
+
     protected long executeCountQuery(String query, Map<String, Object> params) {
         Query q = getEntityManager().createNativeQuery(query);
-        for (Map.Entry<String, Object> entry : params.entrySet()) {
-            q.setParameter(entry.getKey(), entry.getValue());
-        }
+        setParameters(q, params);
         return ((Number) q.getSingleResult()).longValue();
     }
 
@@ -394,7 +558,7 @@ public class RequestEventRepository extends CriteriaAwareRepository<RequestEvent
 
         Map<String, Object> params = filterAndBuildQueryParams(sb, typeKey, typeValue);
         Query query = getEntityManager().createNativeQuery(sb.toString());
-        params.forEach(query::setParameter);
+        setParameters(query, params);
 
         // Execute the query and fetch results
         return aggregateResults(query.getResultList(), minimized);
@@ -49,6 +49,8 @@ public class SbomGenerationRequestRepository extends CriteriaAwareRepository<Sbo
         long sbomsDeletedCount = Sbom.delete("generationRequest.id = :id", Parameters.with("id", id)); // NOSONAR
         log.info("Deleted {} SBOMs associated with the Generation Request with id: '{}'", sbomsDeletedCount, id);
 
+        // The content of the deleted manifests can be shared with other manifests, blobs no longer referenced are
+        // removed by the ManifestBlobCollector
         SbomGenerationRequest.delete("id = :id", Parameters.with("id", id)); // NOSONAR
         log.info("Deleted the SBOM Generation Request with id: '{}'", id);
 
@@ -17,25 +17,58 @@
  */
 package org.jboss.sbomer.service.feature.sbom.service;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.sbomer.core.dto.BaseSbomRecord;
 import org.jboss.sbomer.core.features.sbom.config.Config;
 import org.jboss.sbomer.core.features.sbom.enums.GenerationRequestType;
 import org.jboss.sbomer.service.feature.sbom.k8s.model.GenerationRequest;
 import org.jboss.sbomer.service.feature.sbom.model.Sbom;
 import org.jboss.sbomer.service.feature.sbom.model.SbomGenerationRequest;
+import org.jboss.sbomer.service.feature.sbom.model.SbomRoutingKeys;
 import org.jboss.sbomer.service.rest.QueryParameters;
+import org.jboss.sbomer.service.rest.RawBom;
 import org.jboss.sbomer.service.rest.criteria.CriteriaAwareRepository;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.Query;
 import jakarta.persistence.criteria.Join;
 import jakarta.transaction.Transactional;
+import jakarta.transaction.Transactional.TxType;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
 
 @ApplicationScoped
+@Slf4j
 public class SbomRepository extends CriteriaAwareRepository<Sbom> {
 
+    private static final String RAW_BOM_SELECT = "SELECT s.id, CAST(s.sbom AS VARCHAR), s.sbom_hash, b.content "
+            + "FROM sbom s LEFT JOIN manifest_blob b ON b.digest = s.sbom_hash";
+
+    /**
+     * Number of manifests persisted before the persistence context is flushed. Should be aligned with the
+     * {@code quarkus.hibernate-orm.jdbc.statement-batch-size} setting so that every flush results in a single JDBC
+     * batch.
+     */
+    @ConfigProperty(name = "quarkus.hibernate-orm.jdbc.statement-batch-size", defaultValue = "25")
+    @Setter
+    int batchSize;
+
+    @Inject
+    @Setter
+    MeterRegistry meterRegistry;
+
     public SbomRepository() {
         super(Sbom.class);
     }
@@ -72,6 +105,61 @@ public class SbomRepository extends CriteriaAwareRepository<Sbom> {
         return find("generationRequest.id = ?1", generationRequestId).list();
     }
 
+    /**
+     * Returns the routing keys of the manifests with the provided identifiers, without loading the manifest content.
+     *
+     * @param sbomIds the manifest identifiers
+     * @return the list of routing keys
+     */
+    public List<SbomRoutingKeys> findRoutingKeys(Collection<String> sbomIds) {
+        if (sbomIds.isEmpty()) {
+            return List.of();
+        }
+
+        return getEntityManager()
+                .createQuery(
+                        "SELECT new " + SbomRoutingKeys.class.getName()
+                                + "(s.id, s.nvr, s.arch, s.imageDigest) FROM Sbom s WHERE s.id IN :ids",
+                        SbomRoutingKeys.class)
+                .setParameter("ids", sbomIds)
+                .getResultList();
+    }
+
+    /**
+     * Returns the BOM content of the specified manifest as the JSON text stored in the database, without loading the
+     * {@link Sbom} entity (and its generation request).
+     *
+     * @param sbomId the manifest identifier
+     * @return the raw BOM or {@code null} if the manifest could not be found or has no BOM content
+     */
+    public RawBom findRawBom(String sbomId) {
+        return findRawBom(
+                getEntityManager().createNativeQuery(RAW_BOM_SELECT + " WHERE s.id = :id", Object[].class)
+                        .setParameter("id", sbomId));
+    }
+
+    /**
+     * Returns the BOM content of the latest manifest with the specified root purl as the JSON text stored in the
+     * database, without loading the {@link Sbom} entity (and its generation request).
+     *
+     * @param rootPurl the root purl of the manifest
+     * @return the raw BOM or {@code null} if no manifest could be found or it has no BOM content
+     */
+    public RawBom findLatestRawBomByRootPurl(String rootPurl) {
+        return findRawBom(
+                getEntityManager()
+                        .createNativeQuery(
+                                RAW_BOM_SELECT + " WHERE s.root_purl = :rootPurl ORDER BY s.creation_time DESC",
+                                Object[].class)
+                        .setParameter("rootPurl", rootPurl)
+                        .setMaxResults(1));
+    }
+
+    @SuppressWarnings("unchecked")
+    private RawBom findRawBom(Query query) {
+        return ((List<Object[]>) query.getResultList()).stream().findFirst().map(RawBom::fromRow).orElse(null);
+    }
+
     @Transactional
     public Sbom saveSbom(Sbom sbom) {
         persistAndFlush(sbom);
@@ -79,15 +167,139 @@ public class SbomRepository extends CriteriaAwareRepository<Sbom> {
     }
 
     /**
+     * <p>
      * Stores in all provided {@link Sbom}s in the database.
+     * </p>
+     *
+     * <p>
+     * Manifests are expected to have their identifiers already assigned (see
+     * {@link org.jboss.sbomer.service.feature.sbom.model.RandomStringIdGenerator}) and to reference an already synced
+     * {@link SbomGenerationRequest} so that the inserts can be grouped into JDBC batches. The persistence context is
+     * flushed every {@code batchSize} manifests.
+     * </p>
      *
      * @param sboms Manifests to store
      * @return Stored manifests
      */
     @Transactional
     public List<Sbom> saveSboms(List<Sbom> sboms) {
-        persist(sboms);
+        return saveSboms(sboms::forEach);
+    }
+
+    /**
+     * <p>
+     * Stores the manifests handed over by the {@code source}, one by one as these are produced, so that the manifests
+     * do not need to be collected before these are stored. Same as {@link #saveSboms(List)} otherwise.
+     * </p>
+     *
+     * <p>
+     * When called outside a transaction the {@code source} runs outside a transaction too and every batch of
+     * {@code batchSize} manifests is committed in its own transaction, so that reading the manifests does not keep a
+     * transaction (and all the stored manifests in the persistence context) open. If the {@code source} or storing a
+     * batch fails, the batches committed already are removed before the failure is rethrown.
+     * </p>
+     *
+     * @param source Hands over the manifests to store to the provided consumer
+     * @return Stored manifests, in the order these were handed over
+     */
+    @Transactional(value = TxType.SUPPORTS)
+    public List<Sbom> saveSboms(Consumer<Consumer<Sbom>> source) {
+        long start = System.nanoTime();
+        AtomicLong bytes = new AtomicLong();
+        List<Sbom> stored = new ArrayList<>();
+        List<Sbom> batch = new ArrayList<>();
+
+        try {
+            source.accept(sbom -> {
+                batch.add(sbom);
+
+                if (batchSize > 0 && batch.size() >= batchSize) {
+                    storeBatch(batch, stored, bytes);
+                }
+            });
+
+            storeBatch(batch, stored, bytes);
+        } catch (RuntimeException e) {
+            try {
+                removeSboms(stored);
+            } catch (RuntimeException removalFailure) {
+                e.addSuppressed(removalFailure);
+            }
+
+            throw e;
+        }
+
+        recordStored(stored.size(), bytes.get(), Duration.ofNanos(System.nanoTime() - start));
+
+        return stored;
+    }
+
+    /**
+     * Persists and flushes the {@code batch} of manifests, within the transaction of the caller if there is one,
+     * otherwise in a new transaction.
+     */
+    @Transactional
+    protected void storeBatch(List<Sbom> batch, List<Sbom> stored, AtomicLong bytes) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        Map<String, SbomGenerationRequest> generationRequests = new HashMap<>();
+
+        batch.forEach(sbom -> {
+            // The generation request could be synced in another transaction, the manifests need the managed one
+            SbomGenerationRequest generationRequest = sbom.getGenerationRequest();
+
+            if (generationRequest != null && !getEntityManager().contains(generationRequest)) {
+                sbom.setGenerationRequest(
+                        generationRequests.computeIfAbsent(
+                                generationRequest.getId(),
+                                id -> getEntityManager().find(SbomGenerationRequest.class, id)));
+            }
+
+            persist(sbom);
+            // The content was serialized when it was stored, see Sbom#getStoredSize()
+            bytes.addAndGet(sbom.getStoredSize());
+        });
+
         flush();
-        return sboms;
+
+        stored.addAll(batch);
+        batch.clear();
+    }
+
+    /**
+     * Removes the provided manifests, for example the manifests of a generation whose remaining manifests could not be
+     * stored.
+     *
+     * @param sboms Manifests to remove
+     */
+    @Transactional
+    public void removeSboms(List<Sbom> sboms) {
+        if (sboms.isEmpty()) {
+            return;
+        }
+
+        log.warn("Removing {} stored manifests", sboms.size());
+
+        delete("id in ?1", sboms.stream().map(Sbom::getId).toList());
+    }
+
+    private void recordStored(int rows, long bytes, Duration duration) {
+        if (meterRegistry != null) {
+            meterRegistry.timer("sbomer.sbom.store.duration").record(duration);
+            meterRegistry.counter("sbomer.sbom.store.rows").increment(rows);
+            meterRegistry.counter("sbomer.sbom.store.bytes").increment(bytes);
+        }
+
+        double seconds = Math.max(duration.toNanos(), 1) / 1_000_000_000d;
+
+        log.info(
+                "Stored {} manifests ({} bytes) in {} ms ({} rows/s, {} bytes/s)",
+                rows,
+                bytes,
+                duration.toMillis(),
+                Math.round(rows / seconds),
+                Math.round(bytes / seconds));
     }
 }
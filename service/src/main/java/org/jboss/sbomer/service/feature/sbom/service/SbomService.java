@@ -17,9 +17,15 @@
  */
 package org.jboss.sbomer.service.feature.sbom.service;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import org.eclipse.microprofile.rest.client.inject.RestClient;
 import org.jboss.pnc.dto.DeliverableAnalyzerOperation;
@@ -60,9 +66,12 @@ import org.jboss.sbomer.service.feature.sbom.model.RandomStringIdGenerator;
 import org.jboss.sbomer.service.feature.sbom.model.RequestEvent;
 import org.jboss.sbomer.service.feature.sbom.model.Sbom;
 import org.jboss.sbomer.service.feature.sbom.model.SbomGenerationRequest;
+import org.jboss.sbomer.service.feature.sbom.model.SbomRoutingKeys;
 import org.jboss.sbomer.service.pnc.PncClient;
 import org.jboss.sbomer.service.rest.QueryParameters;
+import org.jboss.sbomer.service.rest.RawBom;
 import org.jboss.sbomer.service.rest.RestUtils;
+import org.jboss.sbomer.service.rest.criteria.KeysetSort;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 
@@ -144,10 +153,43 @@ public class SbomService {
                 .pageIndex(pageIndex)
                 .build();
 
+        return searchSbomRecordsByQueryPaginated(parameters);
+    }
+
+    @WithSpan
+    public Page<BaseSbomRecord> searchSbomRecordsByQueryPaginated(
+            @SpanAttribute(value = "pageIndex") int pageIndex,
+            @SpanAttribute(value = "pageSize") int pageSize,
+            @SpanAttribute(value = "rsqlQuery") String rsqlQuery,
+            @SpanAttribute(value = "sort") String sort,
+            @SpanAttribute(value = "cursor") String cursor,
+            @SpanAttribute(value = "countTotal") boolean countTotal) {
+
+        if ((cursor == null || cursor.isBlank()) && countTotal) {
+            return searchSbomRecordsByQueryPaginated(pageIndex, pageSize, rsqlQuery, sort);
+        }
+
+        QueryParameters parameters = QueryParameters.builder()
+                .rsqlQuery(rsqlQuery)
+                .sort(sort)
+                .pageSize(pageSize)
+                .pageIndex(pageIndex)
+                .cursor(cursor)
+                .countTotal(countTotal)
+                .build();
+
+        return searchSbomRecordsByQueryPaginated(parameters);
+    }
+
+    @WithSpan
+    public Page<BaseSbomRecord> searchSbomRecordsByQueryPaginated(QueryParameters parameters) {
         List<BaseSbomRecord> content = sbomRepository.searchSbomRecords(parameters);
-        Long count = sbomRepository.countByRsqlQuery(parameters.getRsqlQuery());
 
-        return toPage(content, parameters, count);
+        return toPage(
+                content,
+                parameters,
+                BaseSbomRecord::id,
+                () -> sbomRepository.countByRsqlQuery(parameters.getRsqlQuery()));
     }
 
     @WithSpan
@@ -164,11 +206,43 @@ public class SbomService {
                 .pageIndex(pageIndex)
                 .build();
 
-        List<SbomGenerationRequest> content = sbomRequestRepository.search(parameters);
+        return searchSbomRequestsByQueryPaginated(parameters);
+    }
 
-        Long count = sbomRequestRepository.countByRsqlQuery(parameters.getRsqlQuery());
+    @WithSpan
+    public Page<SbomGenerationRequest> searchSbomRequestsByQueryPaginated(
+            @SpanAttribute(value = "pageIndex") int pageIndex,
+            @SpanAttribute(value = "pageSize") int pageSize,
+            @SpanAttribute(value = "rsqlQuery") String rsqlQuery,
+            @SpanAttribute(value = "sort") String sort,
+            @SpanAttribute(value = "cursor") String cursor,
+            @SpanAttribute(value = "countTotal") boolean countTotal) {
+
+        if ((cursor == null || cursor.isBlank()) && countTotal) {
+            return searchSbomRequestsByQueryPaginated(pageIndex, pageSize, rsqlQuery, sort);
+        }
+
+        QueryParameters parameters = QueryParameters.builder()
+                .rsqlQuery(rsqlQuery)
+                .sort(sort)
+                .pageSize(pageSize)
+                .pageIndex(pageIndex)
+                .cursor(cursor)
+                .countTotal(countTotal)
+                .build();
 
-        return toPage(content, parameters, count);
+        return searchSbomRequestsByQueryPaginated(parameters);
+    }
+
+    @WithSpan
+    public Page<SbomGenerationRequest> searchSbomRequestsByQueryPaginated(QueryParameters parameters) {
+        List<SbomGenerationRequest> content = sbomRequestRepository.search(parameters);
+
+        return toPage(
+                content,
+                parameters,
+                SbomGenerationRequest::getId,
+                () -> sbomRequestRepository.countByRsqlQuery(parameters.getRsqlQuery()));
     }
 
     @WithSpan
@@ -185,10 +259,43 @@ public class SbomService {
                 .pageIndex(pageIndex)
                 .build();
 
+        return searchRequestRecordsByQueryPaginated(parameters);
+    }
+
+    @WithSpan
+    public Page<V1BaseBeta1RequestRecord> searchRequestRecordsByQueryPaginated(
+            @SpanAttribute(value = "pageIndex") int pageIndex,
+            @SpanAttribute(value = "pageSize") int pageSize,
+            @SpanAttribute(value = "rsqlQuery") String rsqlQuery,
+            @SpanAttribute(value = "sort") String sort,
+            @SpanAttribute(value = "cursor") String cursor,
+            @SpanAttribute(value = "countTotal") boolean countTotal) {
+
+        if ((cursor == null || cursor.isBlank()) && countTotal) {
+            return searchRequestRecordsByQueryPaginated(pageIndex, pageSize, rsqlQuery, sort);
+        }
+
+        QueryParameters parameters = QueryParameters.builder()
+                .rsqlQuery(rsqlQuery)
+                .sort(sort)
+                .pageSize(pageSize)
+                .pageIndex(pageIndex)
+                .cursor(cursor)
+                .countTotal(countTotal)
+                .build();
+
+        return searchRequestRecordsByQueryPaginated(parameters);
+    }
+
+    @WithSpan
+    public Page<V1BaseBeta1RequestRecord> searchRequestRecordsByQueryPaginated(QueryParameters parameters) {
         List<V1BaseBeta1RequestRecord> content = requestEventRepository.searchRequestRecords(parameters);
-        Long count = requestEventRepository.countByRsqlQuery(parameters.getRsqlQuery());
 
-        return toPage(content, parameters, count);
+        return toPage(
+                content,
+                parameters,
+                V1BaseBeta1RequestRecord::id,
+                () -> requestEventRepository.countByRsqlQuery(parameters.getRsqlQuery()));
     }
 
     @WithSpan
@@ -221,6 +328,45 @@ public class SbomService {
         return new Page<>(parameters.getPageIndex(), parameters.getPageSize(), totalPages, count, content);
     }
 
+    /**
+     * Prepares a {@link Page} object with the result of the search, counting the total number of hits only when
+     * requested and providing the cursor of the following page when the sort supports keyset pagination.
+     *
+     * @param fetched The content to populate the page with, possibly with one look-ahead element.
+     * @param parameters Query parameters passed to the search.
+     * @param idExtractor Function returning the identifier of an element of the content.
+     * @param counter Supplier of the total number of hits.
+     * @return A {@link Page} element with content.
+     */
+    protected <X> Page<X> toPage(
+            List<X> fetched,
+            QueryParameters parameters,
+            Function<X, String> idExtractor,
+            Supplier<Long> counter) {
+        // The look-ahead element (if fetched) only tells whether there is a following page
+        boolean hasNext = fetched.size() > parameters.maxResults();
+        List<X> content = hasNext ? new ArrayList<>(fetched.subList(0, parameters.maxResults())) : fetched;
+        Page<X> page;
+
+        if (parameters.isCountTotal()) {
+            Long count = counter.get();
+
+            page = toPage(content, parameters, count);
+
+            if (!parameters.isKeyset()) {
+                hasNext = parameters.firstResult() + content.size() < count;
+            }
+        } else {
+            page = new Page<>(parameters.getPageIndex(), parameters.getPageSize(), -1, -1, content);
+        }
+
+        if (hasNext && !content.isEmpty() && KeysetSort.of(parameters.getSort()).isPresent()) {
+            page.setNextCursor(idExtractor.apply(content.get(content.size() - 1)));
+        }
+
+        return page;
+    }
+
     @WithSpan
     public SbomGenerationRequest generateSyftImage(RequestEvent requestEvent, SyftImageConfig config) {
 
@@ -439,6 +585,20 @@ public class SbomService {
         return sbomRepository.findById(sbomId);
     }
 
+    /**
+     * Returns the routing keys (NVR, architecture, image digest) of the specified manifests, without loading the
+     * manifest content.
+     *
+     * @param sbomIds The manifest identifiers.
+     * @return Map of the manifest identifier to its routing keys.
+     */
+    @WithSpan
+    public Map<String, SbomRoutingKeys> getRoutingKeys(Collection<String> sbomIds) {
+        return sbomRepository.findRoutingKeys(sbomIds)
+                .stream()
+                .collect(Collectors.toMap(SbomRoutingKeys::id, Function.identity()));
+    }
+
     /**
      * Delete the SBOM Generation Request and all its associated SBOMs from the database.
      *
@@ -524,6 +684,27 @@ public class SbomService {
 
     }
 
+    /**
+     * Returns the BOM content of the manifest with the specified identifier or, if not found, of the latest manifest
+     * generated for the specified purl, as the JSON text stored in the database.
+     *
+     * @param identifier The manifest identifier or purl.
+     * @return The raw BOM or {@code null} if no manifest (with BOM content) could be found.
+     */
+    @WithSpan
+    public RawBom getRawBom(@SpanAttribute(value = "identifier") String identifier) {
+        RawBom bom = sbomRepository.findRawBom(identifier);
+
+        if (bom != null) {
+            return bom;
+        }
+
+        String polishedPurl = UrlUtils.removeQualifiersFromPurl(identifier, sbomerConfig.purlQualifiersAllowList());
+        log.debug("Trying to find latest generated BOM for purl: '{}' (polished to '{}')", identifier, polishedPurl);
+
+        return sbomRepository.findLatestRawBomByRootPurl(polishedPurl);
+    }
+
     public SbomGenerationRequest findRequestByIdentifier(GenerationRequestType type, String identifier) {
         QueryParameters parameters = QueryParameters.builder()
                 .rsqlQuery("identifier=eq='" + identifier + "' and type=eq=" + type)
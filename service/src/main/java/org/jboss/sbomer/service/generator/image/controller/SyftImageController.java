@@ -26,7 +26,6 @@ import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
-import org.cyclonedx.model.Bom;
 import org.eclipse.microprofile.faulttolerance.exceptions.BulkheadException;
 import org.jboss.sbomer.core.errors.ApplicationException;
 import org.jboss.sbomer.core.features.sbom.enums.GenerationRequestType;
@@ -175,10 +174,20 @@ public class SyftImageController extends AbstractController {
                                 "Generation succeed, but no manifests could be found. At least one was expected. See logs for more information.");
                     }
 
-                    List<Bom> boms;
+                    List<Sbom> sboms;
 
                     try {
-                        boms = readManifests(manifestPaths);
+                        sboms = storeManifests(generationRequest, manifestPaths);
+                    } catch (ValidationException e) {
+                        // There was an error when validating the manifest, most probably the SBOM is not valid
+                        log.error("Unable to validate generated SBOMs: {}", e.getMessage(), e);
+
+                        return updateRequest(
+                                generationRequest,
+                                SbomGenerationStatus.FAILED,
+                                GenerationResult.ERR_GENERATION,
+                                "Generation failed. One or more generated SBOMs failed validation: {}. See logs for more information.",
+                                e.getMessage());
                     } catch (Exception e) {
                         if (e instanceof BulkheadException) {
                             log.error(
@@ -196,29 +205,6 @@ public class SyftImageController extends AbstractController {
                                 "Generation succeeded, but reading generated manifests failed was not successful. See logs for more information.");
                     }
 
-                    List<Sbom> sboms;
-
-                    try {
-                        sboms = storeBoms(generationRequest, boms);
-                    } catch (ValidationException e) {
-                        // There was an error when validating the entity, most probably the SBOM is not valid
-                        log.error("Unable to validate generated SBOMs: {}", e.getMessage(), e);
-
-                        return updateRequest(
-                                generationRequest,
-                                SbomGenerationStatus.FAILED,
-                                GenerationResult.ERR_GENERATION,
-                                "Generation failed. One or more generated SBOMs failed validation: {}. See logs for more information.",
-                                e.getMessage());
-                    } catch (BulkheadException e) {
-                        return updateRequest(
-                                generationRequest,
-                                SbomGenerationStatus.FAILED,
-                                GenerationResult.ERR_GENERATION,
-                                "Generation failed. One or more generated SBOMs failed validation: {}. See logs for more information.",
-                                e.getMessage());
-                    }
-
                     try {
                         performPost(sboms);
                     } catch (ApplicationException e) {
@@ -17,9 +17,12 @@
  */
 package org.jboss.sbomer.service.leader;
 
+import java.net.HttpURLConnection;
+import java.time.Clock;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 
 import org.eclipse.microprofile.config.inject.ConfigProperty;
@@ -28,19 +31,46 @@ import io.fabric8.kubernetes.api.model.coordination.v1.Lease;
 import io.fabric8.kubernetes.api.model.coordination.v1.LeaseBuilder;
 import io.fabric8.kubernetes.api.model.coordination.v1.LeaseSpec;
 import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.quarkus.arc.Arc;
+import io.quarkus.arc.ArcContainer;
+import io.quarkus.runtime.ShutdownEvent;
 import io.quarkus.scheduler.Scheduled;
 import io.quarkus.scheduler.Scheduled.ConcurrentExecution;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
 import jakarta.inject.Inject;
-import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * <p>
+ * Elects a single leader among the instances of the service using a Kubernetes coordination {@link Lease}.
+ * </p>
+ *
+ * <p>
+ * All updates of the lease are done with optimistic concurrency (the resource version of the read lease is sent with
+ * the update), so that when two instances try to acquire the lease at the same time only one of them succeeds. The
+ * leader stops acting as such when it cannot renew the lease within the {@link LeaseConfig#renewDeadline()}, which is
+ * shorter than the {@link LeaseConfig#leaseDuration()} other instances wait before taking over.
+ * </p>
+ *
+ * <p>
+ * Every acquisition of the lease increments its {@code leaseTransitions}, which is used as a fencing token: work
+ * claimed under a given token must be abandoned as soon as {@link #isFenced(long)} returns {@code true}. Leadership
+ * changes are announced with the {@link LeadershipChangedEvent}.
+ * </p>
+ */
 @ApplicationScoped
 @Slf4j
 public class LeaderManager {
 
+    private static final ZoneId UTC = ZoneId.of("UTC");
+
+    private static final long NO_FENCING_TOKEN = -1;
+
     private LeaseConfig leaseConfig;
     private KubernetesClient kubernetesClient;
+    private Clock clock;
 
     @ConfigProperty(name = "SBOMER_RELEASE", defaultValue = "sbomer")
     String release = "sbomer";
@@ -48,71 +78,270 @@ public class LeaderManager {
     @ConfigProperty(name = "HOSTNAME", defaultValue = "sbomer")
     String hostname = "sbomer";
 
-    @Getter
-    boolean isLeader = false;
+    /**
+     * The leadership of the current instance, valid until the renew deadline.
+     */
+    private volatile Leadership leadership = Leadership.NONE;
+
+    /**
+     * The leadership announced with the last {@link LeadershipChangedEvent}.
+     */
+    private Leadership announced = Leadership.NONE;
+
+    /**
+     * The last observed lease record and the local time it was observed at. Used to detect leases held by other
+     * instances which are not renewed anymore without relying on the clocks of the instances being in sync.
+     */
+    private String observedRecord;
+    private Instant observedAt;
+
+    private record Leadership(long fencingToken, Instant renewDeadline) {
+        static final Leadership NONE = new Leadership(NO_FENCING_TOKEN, Instant.MIN);
+
+        boolean isValid(Instant now) {
+            return fencingToken != NO_FENCING_TOKEN && now.isBefore(renewDeadline);
+        }
+    }
 
     @Inject
     public LeaderManager(LeaseConfig leaseConfig, KubernetesClient kubernetesClient) {
+        this(leaseConfig, kubernetesClient, Clock.systemUTC());
+    }
+
+    public LeaderManager(LeaseConfig leaseConfig, KubernetesClient kubernetesClient, Clock clock) {
         this.leaseConfig = leaseConfig;
         this.kubernetesClient = kubernetesClient;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns whether the current instance is the leader.
+     *
+     * @return {@code true} if the current instance holds the lease and renewed it within the renew deadline
+     */
+    public boolean isLeader() {
+        return leadership.isValid(clock.instant());
+    }
+
+    /**
+     * Returns the fencing token of the current leadership, to be checked with {@link #isFenced(long)} before claiming
+     * work.
+     *
+     * @return the fencing token or {@code -1} if the current instance is not the leader
+     */
+    public long getFencingToken() {
+        Leadership current = leadership;
+
+        return current.isValid(clock.instant()) ? current.fencingToken() : NO_FENCING_TOKEN;
+    }
+
+    /**
+     * Returns whether the leadership identified by the provided fencing token is not valid anymore, meaning that the
+     * current instance lost the leadership since the token was obtained (even if it regained it later).
+     *
+     * @param fencingToken the fencing token obtained with {@link #getFencingToken()}
+     * @return {@code true} if work must not be claimed under the provided token
+     */
+    public boolean isFenced(long fencingToken) {
+        Leadership current = leadership;
+
+        return !current.isValid(clock.instant()) || current.fencingToken() != fencingToken;
     }
 
     @Scheduled(
-            every = "${sbomer.service.leader.check-interval:10s}",
-            delay = 30,
+            every = "${sbomer.service.leader.check-interval:2s}",
+            delay = 1,
             delayUnit = TimeUnit.SECONDS,
             concurrentExecution = ConcurrentExecution.SKIP)
-    public void lease() {
-        String leaseName = release + "-generation-scheduler";
+    public synchronized void lease() {
+        String leaseName = leaseName();
+        Instant now = clock.instant();
 
-        log.info("Reading '{}' lease information...", leaseName);
+        log.debug("Reading '{}' lease information...", leaseName);
 
-        Lease lease = kubernetesClient.leases().withName(leaseName).get();
+        try {
+            Lease lease = kubernetesClient.leases().withName(leaseName).get();
 
-        ZonedDateTime now = ZonedDateTime.now(ZoneId.of("UTC"));
+            if (lease == null) {
+                create(leaseName, now);
+            } else if (lease.getSpec() == null) {
+                lease.setSpec(new LeaseSpec());
+                acquire(lease, now);
+            } else if (hostname.equals(lease.getSpec().getHolderIdentity())) {
+                renew(lease, now);
+            } else if (isFree(lease, now)) {
+                acquire(lease, now);
+            } else {
+                log.debug(
+                        "I'm not the leader nor it's time to take over the lead, current leader: {}",
+                        lease.getSpec().getHolderIdentity());
 
-        if (lease != null && lease.getSpec() != null) {
-            log.debug("Lease exists");
+                leadership = Leadership.NONE;
+            }
+        } catch (KubernetesClientException e) {
+            if (e.getCode() == HttpURLConnection.HTTP_CONFLICT) {
+                log.info("The '{}' lease was updated by another instance in the meantime, not the leader", leaseName);
 
-            LeaseSpec leaseSpec = lease.getSpec();
+                leadership = Leadership.NONE;
+            } else {
+                // The leadership expires on its own once the renew deadline passes
+                log.warn("Unable to update the '{}' lease", leaseName, e);
+            }
+        }
 
-            String holder = leaseSpec.getHolderIdentity();
-            ZonedDateTime renewTime = leaseSpec.getRenewTime();
-            Instant expiration = null;
+        announceChanges();
+    }
 
-            if (renewTime != null) {
-                expiration = renewTime.toInstant().plusSeconds(leaseSpec.getLeaseDurationSeconds());
-            }
+    /**
+     * Gives up the leadership when the application is stopping so that another instance can take over right away
+     * instead of waiting for the lease to expire.
+     */
+    synchronized void release(@Observes ShutdownEvent event) {
+        if (!isLeader()) {
+            return;
+        }
 
-            if (holder != null && !holder.equals(hostname) && expiration != null
-                    && now.toInstant().isBefore(expiration)) {
+        leadership = Leadership.NONE;
+        announceChanges();
 
-                log.info("I'm not the leader nor it's time to take over the lead, current leader: {}", holder);
+        String leaseName = leaseName();
 
-                isLeader = false;
+        try {
+            Lease lease = kubernetesClient.leases().withName(leaseName).get();
 
+            if (lease == null || lease.getSpec() == null || !hostname.equals(lease.getSpec().getHolderIdentity())) {
                 return;
             }
+
+            log.info("Releasing the '{}' lease", leaseName);
+
+            lease.getSpec().setHolderIdentity(null);
+            kubernetesClient.leases().resource(lease).update();
+        } catch (KubernetesClientException e) {
+            log.warn("Unable to release the '{}' lease, it will expire on its own", leaseName, e);
         }
+    }
+
+    private String leaseName() {
+        return release + "-generation-scheduler";
+    }
 
-        log.info("Ensuring I'm the leader by updating lease information in the cluster...");
+    private void create(String leaseName, Instant now) {
+        log.info("Creating the '{}' lease to become the leader...", leaseName);
 
-        lease = new LeaseBuilder().withNewMetadata()
+        Lease lease = new LeaseBuilder().withNewMetadata()
                 .withName(leaseName)
                 .endMetadata()
                 .withNewSpec()
                 .withHolderIdentity(hostname)
                 .withLeaseDurationSeconds(leaseConfig.leaseDuration())
-                .withRenewTime(now)
-                .withAcquireTime(now)
+                .withRenewTime(ZonedDateTime.ofInstant(now, UTC))
+                .withAcquireTime(ZonedDateTime.ofInstant(now, UTC))
+                .withLeaseTransitions(0)
                 .endSpec()
                 .build();
 
-        kubernetesClient.leases().resource(lease).createOrReplace();
+        // Fails with a conflict if another instance created the lease in the meantime
+        kubernetesClient.leases().resource(lease).create();
+
+        lead(0, now);
+    }
+
+    private void acquire(Lease lease, Instant now) {
+        LeaseSpec spec = lease.getSpec();
+        int transitions = spec.getLeaseTransitions() == null ? 0 : spec.getLeaseTransitions() + 1;
 
-        isLeader = true;
+        log.info("Taking over the lead from '{}'...", spec.getHolderIdentity());
 
-        return;
+        spec.setHolderIdentity(hostname);
+        spec.setLeaseDurationSeconds(leaseConfig.leaseDuration());
+        spec.setAcquireTime(ZonedDateTime.ofInstant(now, UTC));
+        spec.setRenewTime(ZonedDateTime.ofInstant(now, UTC));
+        spec.setLeaseTransitions(transitions);
+
+        // The resource version of the read lease is kept, the update fails with a conflict if someone else was faster
+        kubernetesClient.leases().resource(lease).update();
+
+        lead(transitions, now);
+    }
+
+    private void renew(Lease lease, Instant now) {
+        LeaseSpec spec = lease.getSpec();
+        long fencingToken = spec.getLeaseTransitions() == null ? 0 : spec.getLeaseTransitions();
+
+        log.debug("Renewing the lease, fencing token: {}", fencingToken);
+
+        spec.setLeaseDurationSeconds(leaseConfig.leaseDuration());
+        spec.setRenewTime(ZonedDateTime.ofInstant(now, UTC));
+
+        kubernetesClient.leases().resource(lease).update();
+
+        lead(fencingToken, now);
+    }
+
+    private void lead(long fencingToken, Instant now) {
+        // The deadline is computed from the time before the update was sent, so it is never later than what the
+        // other instances see
+        leadership = new Leadership(fencingToken, now.plusSeconds(leaseConfig.renewDeadline()));
     }
 
+    /**
+     * Checks whether the lease held by another instance can be taken over: it was released, its renew time is older
+     * than the lease duration, or it was not renewed for the lease duration since this instance observed it.
+     */
+    private boolean isFree(Lease lease, Instant now) {
+        LeaseSpec spec = lease.getSpec();
+
+        if (spec.getHolderIdentity() == null || spec.getHolderIdentity().isBlank()) {
+            return true;
+        }
+
+        int leaseDuration = spec.getLeaseDurationSeconds() == null ? leaseConfig.leaseDuration()
+                : spec.getLeaseDurationSeconds();
+
+        ZonedDateTime renewTime = spec.getRenewTime();
+
+        if (renewTime != null && now.isAfter(renewTime.toInstant().plusSeconds(leaseDuration))) {
+            return true;
+        }
+
+        String leaseRecord = spec.getHolderIdentity() + "/" + renewTime + "/" + spec.getLeaseTransitions();
+
+        if (!Objects.equals(leaseRecord, observedRecord)) {
+            observedRecord = leaseRecord;
+            observedAt = now;
+
+            return false;
+        }
+
+        return now.isAfter(observedAt.plusSeconds(leaseDuration));
+    }
+
+    private void announceChanges() {
+        Leadership current = leadership.isValid(clock.instant()) ? leadership : Leadership.NONE;
+
+        if (current.fencingToken() == announced.fencingToken()) {
+            return;
+        }
+
+        if (announced != Leadership.NONE) {
+            log.info("I'm not the leader anymore, fencing token: {}", announced.fencingToken());
+            fire(new LeadershipChangedEvent(false, announced.fencingToken()));
+        }
+
+        if (current != Leadership.NONE) {
+            log.info("I'm the leader now, fencing token: {}", current.fencingToken());
+            fire(new LeadershipChangedEvent(true, current.fencingToken()));
+        }
+
+        announced = current;
+    }
+
+    private void fire(LeadershipChangedEvent event) {
+        ArcContainer container = Arc.container();
+
+        if (container != null) {
+            container.beanManager().getEvent().fire(event);
+        }
+    }
 }
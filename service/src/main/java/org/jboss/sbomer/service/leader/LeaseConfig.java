@@ -27,12 +27,20 @@ public interface LeaseConfig {
     /**
      * Duration in seconds that non-leaders will wait before trying to acquire leadership if no renewal occurs.
      */
-    @WithDefault("30")
+    @WithDefault("15")
     int leaseDuration();
 
+    /**
+     * Duration in seconds within which the leader must successfully renew the lease, otherwise it stops acting as the
+     * leader. Must be shorter than the {@link #leaseDuration()} so that the previous leader steps down before another
+     * instance can take over.
+     */
+    @WithDefault("10")
+    int renewDeadline();
+
     /**
      * The interval on which the lease will be checked
      */
-    @WithDefault("10s")
+    @WithDefault("2s")
     String checkInterval();
 }
@@ -24,21 +24,16 @@ import java.util.List;
 import org.eclipse.microprofile.context.ManagedExecutor;
 import org.eclipse.microprofile.faulttolerance.Retry;
 import org.jboss.sbomer.core.features.sbom.utils.MDCUtils;
-import org.jboss.sbomer.service.nextgen.core.dto.api.GenerationRequest;
 import org.jboss.sbomer.service.nextgen.core.dto.model.GenerationRecord;
 import org.jboss.sbomer.service.nextgen.core.dto.model.ManifestRecord;
 import org.jboss.sbomer.service.nextgen.core.enums.GenerationResult;
 import org.jboss.sbomer.service.nextgen.core.enums.GenerationStatus;
-import org.jboss.sbomer.service.nextgen.core.events.GenerationStatusChangeEvent;
 import org.jboss.sbomer.service.nextgen.core.payloads.generation.GenerationStatusUpdatePayload;
 import org.jboss.sbomer.service.nextgen.core.rest.SBOMerClient;
-import org.jboss.sbomer.service.nextgen.core.utils.JacksonUtils;
 import org.jboss.sbomer.service.nextgen.service.model.Manifest;
 
 import com.fasterxml.jackson.databind.JsonNode;
 
-import jakarta.enterprise.event.Observes;
-import jakarta.enterprise.event.TransactionPhase;
 import jakarta.ws.rs.ServerErrorException;
 import lombok.extern.slf4j.Slf4j;
 
@@ -53,101 +48,34 @@ public abstract class AbstractGenerator implements Generator {
         this.managedExecutor = managedExecutor;
     }
 
-    private boolean isSupportedType(GenerationRequest generationRequest) {
-        for (String type : getSupportedTypes()) {
-
-            if (generationRequest.target().type().equals(type)) {
-                return true;
-            }
-        }
-
-        return false;
-    }
-
     /**
-     * Method that handles notification for generations. It will receive many events. We need to react only to the ones
-     * that we can handle by filtering supported types.
+     * Marks the generation as in progress and runs the generation on the current thread. The generation is marked as
+     * failed if it cannot be run.
      *
-     * TODO: when properly switching to Kafka we need to ensure we filter messages we are able to handle
+     * The generations are routed to the generator handling them by the {@link GeneratorDispatcher}.
      *
-     * @param event
+     * @param generation the generation
      */
-    public void onEvent(@Observes(during = TransactionPhase.AFTER_SUCCESS) GenerationStatusChangeEvent event) {
-        log.debug(
-                "Received generation status change event for generation '{}' and status '{}'",
-                event.generation().id(),
-                event.generation().status());
-
-        if (event.generation().status() != GenerationStatus.SCHEDULED) {
-            log.info(
-                    "Generation status is '{}', but expected status is '{}', skipping",
-                    event.generation().status(),
-                    GenerationStatus.SCHEDULED);
-            return;
-        }
-
-        if (event.generation().request() == null) {
-            log.warn(
-                    "Generation status change event for generation '{}' does not have a request, skipping",
-                    event.generation().id());
-
-            return;
-        }
-
-        GenerationRequest generationRequest = JacksonUtils.parse(GenerationRequest.class, event.generation().request());
-
-        if (!isSupportedType(generationRequest)) {
-            log.info(
-                    "Event type: {} is not supported by the {} generator",
-                    generationRequest.target().type(),
+    public void process(GenerationRecord generation) {
+        try {
+            updateStatus(
+                    generation.id(),
+                    GenerationStatus.GENERATING,
+                    null,
+                    "Generation in progress, handled by {}",
                     getGeneratorName());
-            return;
-        }
-
-        if (generationRequest.generator() == null) {
-            log.warn("Event does not have generator specified, skipping");
-            return;
-        }
 
-        if (!getGeneratorName().equals(generationRequest.generator().name())) {
-            log.debug(
-                    "Requested generator name: '{}' is different from requested: '{}', skipping",
-                    getGeneratorName(),
-                    generationRequest.generator().name());
-            return;
-        }
+            generate(generation);
+        } catch (Exception e) {
+            log.error("Unable to generate", e);
 
-        if (!getGeneratorVersion().equals(generationRequest.generator().version())) {
-            log.debug(
-                    "Requested generator version: '{}' is different from this generator's version: '{}', skipping",
-                    getGeneratorVersion(),
-                    generationRequest.generator().version());
-            return;
+            updateStatus(
+                    generation.id(),
+                    GenerationStatus.FAILED,
+                    null, // TODO
+                    "Generation failed, reason: {}",
+                    e.getMessage());
         }
-
-        log.info("Handling new generation with data: {}", event.generation());
-
-        managedExecutor.runAsync(() -> {
-            try {
-                updateStatus(
-                        event.generation().id(),
-                        GenerationStatus.GENERATING,
-                        null,
-                        "Generation in progress, handled by {}",
-                        getGeneratorName());
-
-                generate(event.generation());
-            } catch (Exception e) {
-                log.error("Unable to generate", e);
-
-                updateStatus(
-                        event.generation().id(),
-                        GenerationStatus.FAILED,
-                        null, // TODO
-                        "Generation failed, reason: {}",
-                        e.getMessage());
-            }
-        });
     }
 
     /**
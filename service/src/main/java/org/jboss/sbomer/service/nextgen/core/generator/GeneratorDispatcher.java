@@ -0,0 +1,208 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.nextgen.core.generator;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.microprofile.context.ManagedExecutor;
+import org.jboss.sbomer.service.nextgen.core.dto.api.GenerationRequest;
+import org.jboss.sbomer.service.nextgen.core.dto.model.GenerationRecord;
+import org.jboss.sbomer.service.nextgen.core.enums.GenerationStatus;
+import org.jboss.sbomer.service.nextgen.core.events.GenerationStatusChangeEvent;
+import org.jboss.sbomer.service.nextgen.core.utils.JacksonUtils;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.enterprise.inject.Any;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>
+ * Routes scheduled generations to the generator handling them.
+ * </p>
+ *
+ * <p>
+ * The registry of generators, keyed by the supported target type and the generator name and version, is built at
+ * startup. The request of every scheduled generation is parsed once and the generation is handed over to the single
+ * matching generator, instead of notifying all generators which would parse the request each. The generation runs on
+ * the {@link ManagedExecutor}, so that nothing but the routing happens within the transaction completion.
+ * </p>
+ *
+ * <p>
+ * The number of dispatched generations waiting to be run is exposed per generator as the
+ * {@code sbomer.generator.queue.depth} gauge, the time these waited as the {@code sbomer.generator.dispatch.latency}
+ * timer.
+ * </p>
+ */
+@ApplicationScoped
+@Slf4j
+public class GeneratorDispatcher {
+
+    /**
+     * Identifies the generator handling a generation request.
+     *
+     * @param type the target type
+     * @param name the generator name
+     * @param version the generator version
+     */
+    record DispatchKey(String type, String name, String version) {
+    }
+
+    /**
+     * A generator with its dispatch metrics.
+     *
+     * @param generator the generator
+     * @param queued number of dispatched generations not yet running
+     * @param latency time between the dispatch and the start of the generation, {@code null} if metrics are disabled
+     */
+    record Route(AbstractGenerator generator, AtomicInteger queued, Timer latency) {
+    }
+
+    private final Map<DispatchKey, Route> registry = new HashMap<>();
+
+    private final ManagedExecutor managedExecutor;
+
+    @Inject
+    public GeneratorDispatcher(
+            @Any Instance<AbstractGenerator> generators,
+            ManagedExecutor managedExecutor,
+            MeterRegistry meterRegistry) {
+        this(generators.stream().toList(), managedExecutor, meterRegistry);
+    }
+
+    public GeneratorDispatcher(
+            List<AbstractGenerator> generators,
+            ManagedExecutor managedExecutor,
+            MeterRegistry meterRegistry) {
+        this.managedExecutor = managedExecutor;
+
+        generators.forEach(generator -> register(generator, meterRegistry));
+    }
+
+    private void register(AbstractGenerator generator, MeterRegistry meterRegistry) {
+        String name = generator.getGeneratorName();
+        String version = generator.getGeneratorVersion();
+
+        AtomicInteger queued = new AtomicInteger();
+        Timer latency = null;
+
+        if (meterRegistry != null) {
+            Gauge.builder("sbomer.generator.queue.depth", queued, AtomicInteger::get)
+                    .description("Generations dispatched to the generator and waiting to be run")
+                    .tags("generator", name, "version", version)
+                    .register(meterRegistry);
+            latency = Timer.builder("sbomer.generator.dispatch.latency")
+                    .description("Time between dispatching a generation to the generator and running it")
+                    .tags("generator", name, "version", version)
+                    .register(meterRegistry);
+        }
+
+        Route route = new Route(generator, queued, latency);
+
+        for (String type : generator.getSupportedTypes()) {
+            Route existing = registry.putIfAbsent(new DispatchKey(type, name, version), route);
+
+            if (existing != null) {
+                log.warn(
+                        "Generator '{}' in version '{}' is registered twice for the '{}' type, keeping the first one",
+                        name,
+                        version,
+                        type);
+            }
+        }
+    }
+
+    void onStartup(@Observes StartupEvent event) {
+        log.info("Generations will be dispatched to generators: {}", registry.keySet());
+    }
+
+    /**
+     * Dispatches the generation, once scheduled, to the generator handling it.
+     *
+     * @param event the event
+     */
+    public void onEvent(@Observes(during = TransactionPhase.AFTER_SUCCESS) GenerationStatusChangeEvent event) {
+        GenerationRecord generation = event.generation();
+
+        if (generation.status() != GenerationStatus.SCHEDULED) {
+            log.debug("Generation '{}' has status '{}', not dispatching", generation.id(), generation.status());
+            return;
+        }
+
+        if (generation.request() == null) {
+            log.warn("Scheduled generation '{}' does not have a request, skipping", generation.id());
+            return;
+        }
+
+        dispatch(generation, JacksonUtils.parse(GenerationRequest.class, generation.request()));
+    }
+
+    /**
+     * Hands the generation over to the generator handling its (already parsed) request.
+     *
+     * @param generation the generation
+     * @param request the request of the generation
+     * @return {@code true} if a generator handles the request, {@code false} otherwise
+     */
+    public boolean dispatch(GenerationRecord generation, GenerationRequest request) {
+        if (request.target() == null || request.generator() == null) {
+            log.warn("Generation '{}' does not specify the target or the generator, skipping", generation.id());
+            return false;
+        }
+
+        DispatchKey key = new DispatchKey(
+                request.target().type(),
+                request.generator().name(),
+                request.generator().version());
+
+        Route route = registry.get(key);
+
+        if (route == null) {
+            log.warn("No generator is registered for generation '{}' ({}), skipping", generation.id(), key);
+            return false;
+        }
+
+        log.info("Dispatching generation '{}' to the '{}' generator", generation.id(), key.name());
+
+        long dispatchedAt = System.nanoTime();
+        route.queued().incrementAndGet();
+
+        managedExecutor.runAsync(() -> {
+            route.queued().decrementAndGet();
+
+            if (route.latency() != null) {
+                route.latency().record(System.nanoTime() - dispatchedAt, TimeUnit.NANOSECONDS);
+            }
+
+            route.generator().process(generation);
+        });
+
+        return true;
+    }
+}
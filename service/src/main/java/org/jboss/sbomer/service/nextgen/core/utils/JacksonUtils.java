@@ -18,6 +18,7 @@
 package org.jboss.sbomer.service.nextgen.core.utils;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
@@ -135,6 +136,20 @@ public class JacksonUtils {
             throw new ApplicationException("Unable to convert content to bytes", e);
         }
 
+        return hash(value);
+    }
+
+    /**
+     * Computes the SHA-256 hash of the provided JSON text, as-is, without parsing it.
+     *
+     * @param content the JSON text
+     * @return the hex encoded hash
+     */
+    public static String hash(String content) {
+        return hash(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String hash(byte[] value) {
         MessageDigest digest;
         try {
             digest = MessageDigest.getInstance("SHA-256");
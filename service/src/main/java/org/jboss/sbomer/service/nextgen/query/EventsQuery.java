@@ -0,0 +1,59 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.nextgen.query;
+
+import java.util.Map;
+
+/**
+ * The JPQL query (and its parameters) compiled from an events query. Does not keep any reference to the parse tree, so
+ * it can be cached and reused for any number of searches.
+ *
+ * @param jpql the JPQL query (without the {@code SELECT} and {@code FROM} clauses), empty if all events should be
+ *        returned
+ * @param parameters the named parameters of the JPQL query
+ */
+public record EventsQuery(String jpql, Map<String, Object> parameters) {
+
+    public EventsQuery {
+        parameters = Map.copyOf(parameters);
+    }
+
+    /**
+     * Creates the query from the listener which walked the parse tree of the events query.
+     *
+     * @param listener the listener
+     * @return the compiled query
+     */
+    public static EventsQuery from(EventsQueryListener listener) {
+        String whereClause = listener.getJpqlWhereClause();
+        String orderByClause = listener.getJpqlOrderByClause();
+
+        StringBuilder jpql = new StringBuilder(whereClause);
+
+        if (!orderByClause.isEmpty()) {
+            // Always true condition to not keep WHERE empty
+            jpql.append(whereClause.isEmpty() ? "1=1 " : " ").append(orderByClause);
+        }
+
+        return new EventsQuery(jpql.toString(), listener.getParameters());
+    }
+
+    public boolean isEmpty() {
+        return jpql.isEmpty();
+    }
+}
@@ -17,6 +17,9 @@
  */
 package org.jboss.sbomer.service.nextgen.query;
 
+import static org.jboss.sbomer.service.db.JsonScalars.toJsonScalar;
+import static org.jboss.sbomer.service.db.JsonbFunctionContributor.JSONB_HAS_ENTRY;
+
 import java.time.Instant;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeFormatterBuilder;
@@ -150,19 +153,31 @@ public class EventsQueryListener extends QueryBaseListener {
         String baseField = parts[0];
         String key = parts[1];
 
-        // is platform dependent - works for PostgreSQL
-        String functionCall = String.format("FUNCTION('jsonb_extract_path_text', %s, '%s')", baseField, key);
+        // Containment predicates are served by the GIN index of the column
+        String keyParamName = nextParamName();
+        parameters.put(keyParamName, key);
 
         List<String> orClauses = new ArrayList<>();
 
         for (String value : values) {
-            String paramName = nextParamName();
-            parameters.put(paramName, value);
-            orClauses.add(String.format("%s = :%s", functionCall, paramName));
+            orClauses.add(hasEntryClause(baseField, keyParamName, value));
+
+            // Containment is type-sensitive, the value could be stored as a JSON number or boolean as well
+            Object scalar = toJsonScalar(value);
+
+            if (scalar != null) {
+                orClauses.add(hasEntryClause(baseField, keyParamName, scalar));
+            }
         }
         queryParts.push("(" + String.join(" OR ", orClauses) + ")");
     }
 
+    private String hasEntryClause(String baseField, String keyParamName, Object value) {
+        String paramName = nextParamName();
+        parameters.put(paramName, value);
+        return String.format("%s(%s, :%s, :%s) = true", JSONB_HAS_ENTRY, baseField, keyParamName, paramName);
+    }
+
     private void handleStandardFieldSearch(String field, List<String> values, String operator) {
         validateFieldAndOperator(field, operator);
 
@@ -36,6 +36,20 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class EventsQueryProcessor {
 
+    /**
+     * Parses the events query and compiles it into a JPQL query.
+     *
+     * @param query the events query
+     * @return the compiled query
+     */
+    public EventsQuery compile(String query) {
+        EventsQuery compiled = EventsQuery.from(process(query));
+
+        log.debug("Using JPQL query: '{}' with parameters: {}", compiled.jpql(), compiled.parameters());
+
+        return compiled;
+    }
+
     public EventsQueryListener process(String query) {
         QueryLexer lexer = new QueryLexer(CharStreams.fromString(query));
         CommonTokenStream tokens = new CommonTokenStream(lexer);
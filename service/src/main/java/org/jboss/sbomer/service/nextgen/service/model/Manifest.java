@@ -22,27 +22,37 @@ import java.util.Map;
 import java.util.Objects;
 
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.hibernate.ObjectNotFoundException;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.proxy.HibernateProxy;
 import org.hibernate.type.SqlTypes;
+import org.jboss.sbomer.core.errors.ApplicationException;
+import org.jboss.sbomer.service.feature.sbom.model.ManifestBlob;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.github.f4b6a3.tsid.TsidCreator;
 
 import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
 import io.quarkus.runtime.annotations.RegisterForReflection;
 import jakarta.persistence.Column;
+import jakarta.persistence.ConstraintMode;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityNotFoundException;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.ForeignKey;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import jakarta.transaction.Transactional;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -73,12 +83,59 @@ public class Manifest extends PanacheEntityBase {
     @Column(name = "created", nullable = false, updatable = false)
     private Instant created;
 
-    @JdbcTypeCode(SqlTypes.JSON)
-    @Column(name = "bom")
+    /**
+     * The BOM content, stored in the {@link ManifestBlob} referenced by {@link #bomHash} (or in the {@link #inlineBom}
+     * column for manifests stored before the blobs were introduced).
+     */
+    @Transient
     @ToString.Exclude
     @Schema(implementation = Map.class)
     private JsonNode bom;
 
+    /**
+     * The BOM content of manifests stored before the content was moved to {@link ManifestBlob}s.
+     */
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "bom")
+    @JsonIgnore
+    @ToString.Exclude
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private JsonNode inlineBom;
+
+    /**
+     * Digest of the {@link ManifestBlob} holding the {@link #bom} content, used as the entity tag when serving the
+     * BOM.
+     */
+    @JsonIgnore
+    @Column(name = "bom_hash")
+    @ToString.Exclude
+    @Setter(AccessLevel.NONE)
+    private String bomHash;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(
+            name = "bom_hash",
+            referencedColumnName = "digest",
+            insertable = false,
+            updatable = false,
+            foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    @JsonIgnore
+    @ToString.Exclude
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private ManifestBlob blob;
+
+    /**
+     * The blob prepared for the content set with {@link #setBom(JsonNode)}, stored when the entity is flushed.
+     */
+    @Transient
+    @JsonIgnore
+    @ToString.Exclude
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private ManifestBlob pendingBlob;
+
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "generation_id", nullable = false, updatable = false)
     @JsonBackReference
@@ -94,6 +151,87 @@ public class Manifest extends PanacheEntityBase {
         if (this.id == null) {
             this.id = "M" + TsidCreator.getTsid1024().toString();
         }
+
+        if (bom != null) {
+            storeBom(pendingBlob != null ? pendingBlob : ManifestBlob.of(bom));
+        }
+    }
+
+    @PreUpdate
+    protected void onPreUpdate() {
+        // Only store the content when it was replaced
+        if (pendingBlob != null) {
+            storeBom(pendingBlob);
+        }
+    }
+
+    /**
+     * Returns the BOM content, read from the {@link ManifestBlob} on first access.
+     *
+     * @return the BOM content
+     */
+    public JsonNode getBom() {
+        if (bom == null) {
+            bom = inlineBom != null ? inlineBom : readBlob();
+        }
+
+        return bom;
+    }
+
+    /**
+     * Reads the content from the referenced {@link ManifestBlob}, the blob is loaded only now.
+     *
+     * @throws ApplicationException if the referenced blob does not exist
+     */
+    private JsonNode readBlob() {
+        if (bomHash == null) {
+            return null;
+        }
+
+        try {
+            return blob.toJsonNode();
+        } catch (EntityNotFoundException | ObjectNotFoundException e) {
+            throw new ApplicationException("Content blob '{}' of manifest '{}' does not exist", bomHash, id, e);
+        }
+    }
+
+    /**
+     * Replaces the BOM content. The digest of the content is computed right away, so that the entity is updated when
+     * flushed only if the content is different.
+     *
+     * @param bom the BOM content
+     */
+    public void setBom(JsonNode bom) {
+        this.bom = bom;
+        this.pendingBlob = bom != null ? ManifestBlob.of(bom) : null;
+        this.bomHash = pendingBlob != null ? pendingBlob.getDigest() : null;
+        this.inlineBom = null;
+    }
+
+    /**
+     * Moves the content of a manifest stored before the {@link ManifestBlob}s were introduced from the inline column to
+     * a blob, stored when the entity is flushed.
+     *
+     * @return {@code true} if the manifest had inline content
+     */
+    public boolean moveInlineBomToBlob() {
+        if (inlineBom == null) {
+            return false;
+        }
+
+        setBom(inlineBom);
+        return true;
+    }
+
+    /**
+     * Stores the content in the {@link ManifestBlob} (unless stored already) and references it.
+     */
+    private void storeBom(ManifestBlob contentBlob) {
+        ManifestBlob.storeIfAbsent(contentBlob);
+
+        this.bomHash = contentBlob.getDigest();
+        this.inlineBom = null;
+        this.pendingBlob = null;
     }
 
     @Transactional
@@ -36,14 +36,14 @@ import org.jboss.sbomer.core.errors.ErrorResponse;
 import org.jboss.sbomer.core.errors.NotFoundException;
 import org.jboss.sbomer.core.features.sbom.rest.Page;
 import org.jboss.sbomer.core.utils.PaginationParameters;
+import org.jboss.sbomer.service.cache.QueryPlanCache;
 import org.jboss.sbomer.service.nextgen.core.dto.model.EventRecord;
 import org.jboss.sbomer.service.nextgen.core.dto.model.EventStatusRecord;
 import org.jboss.sbomer.service.nextgen.core.dto.model.GenerationRecord;
 import org.jboss.sbomer.service.nextgen.core.enums.GenerationStatus;
 import org.jboss.sbomer.service.nextgen.core.events.EventStatusChangeEvent;
 import org.jboss.sbomer.service.nextgen.core.payloads.generation.EventStatusUpdatePayload;
-import org.jboss.sbomer.service.nextgen.query.EventsQueryListener;
-import org.jboss.sbomer.service.nextgen.query.EventsQueryProcessor;
+import org.jboss.sbomer.service.nextgen.query.EventsQuery;
 import org.jboss.sbomer.service.nextgen.service.EntityMapper;
 import org.jboss.sbomer.service.nextgen.service.model.Event;
 import org.jboss.sbomer.service.nextgen.service.model.Generation;
@@ -91,7 +91,7 @@ public class EventsApi {
     EventBus eventBus;
 
     @Inject
-    EventsQueryProcessor queryProcessor;
+    QueryPlanCache queryPlanCache;
 
     @GET
     @Operation(
@@ -115,39 +115,10 @@ public class EventsApi {
             panacheQuery = Event.findAll();
         } else {
             try {
-                EventsQueryListener listener = queryProcessor.process(query);
-
-                String whereClause = listener.getJpqlWhereClause();
-                String orderByClause = listener.getJpqlOrderByClause();
-                Map<String, Object> parameters = listener.getParameters();
-
-                log.debug("Using JPQL WHERE clause: '{}'", whereClause);
-                log.debug("Using JPQL ORDER BY clause: '{}'", orderByClause);
-                log.debug("Using parameters: {}", parameters);
-
-                // Build the complete query with both WHERE and ORDER BY
-                StringBuilder jpqlQuery = new StringBuilder();
-
-                if (!whereClause.isEmpty()) {
-                    jpqlQuery.append(whereClause);
-                }
-
-                if (!orderByClause.isEmpty()) {
-                    if (!whereClause.isEmpty()) {
-                        jpqlQuery.append(" ").append(orderByClause);
-                    } else {
-                        // todo thing of another way to structure this
-                        // setting always true condition to not keep WHERE empty
-                        jpqlQuery.append("1=1 ").append(orderByClause);
-                    }
-                }
-
-                if (jpqlQuery.length() > 0) {
-                    panacheQuery = Event.find(jpqlQuery.toString(), parameters);
-                } else {
-                    panacheQuery = Event.findAll();
-                }
+                EventsQuery eventsQuery = queryPlanCache.events(query);
 
+                panacheQuery = eventsQuery.isEmpty() ? Event.findAll()
+                        : Event.find(eventsQuery.jpql(), eventsQuery.parameters());
             } catch (ClientException e) {
                 Map<String, Object> errorResponse = new HashMap<>();
                 errorResponse.put("message", "The provided query is not valid. Please check the syntax and values.");
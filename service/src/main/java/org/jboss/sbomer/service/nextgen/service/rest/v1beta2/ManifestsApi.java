@@ -17,10 +17,13 @@
  */
 package org.jboss.sbomer.service.nextgen.service.rest.v1beta2;
 
+import static org.jboss.sbomer.service.rest.RestUtils.toBomResponse;
+
 import java.util.List;
 import java.util.Map;
 
 import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.enums.ParameterIn;
 import org.eclipse.microprofile.openapi.annotations.enums.SchemaType;
 import org.eclipse.microprofile.openapi.annotations.media.Content;
 import org.eclipse.microprofile.openapi.annotations.media.ExampleObject;
@@ -36,8 +39,7 @@ import org.jboss.sbomer.service.nextgen.core.dto.model.ManifestRecord;
 import org.jboss.sbomer.service.nextgen.service.EntityMapper;
 import org.jboss.sbomer.service.nextgen.service.model.Manifest;
 import org.jboss.sbomer.service.nextgen.service.rest.RestUtils;
-
-import com.fasterxml.jackson.databind.JsonNode;
+import org.jboss.sbomer.service.rest.RawBom;
 
 import io.vertx.core.eventbus.EventBus;
 import jakarta.annotation.security.PermitAll;
@@ -50,6 +52,8 @@ import jakarta.ws.rs.GET;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import lombok.extern.slf4j.Slf4j;
@@ -150,12 +154,17 @@ public class ManifestsApi {
             description = "Manifest identifier",
             examples = { @ExampleObject(value = "88CA2291D4014C6", name = "Manifest identifier") },
             schema = @Schema(implementation = Map.class))
+    @Parameter(
+            name = "If-None-Match",
+            in = ParameterIn.HEADER,
+            description = "Entity tag of the manifest content already held by the client")
     @APIResponse(
             responseCode = "200",
-            description = "Event content",
+            description = "Event content, compressed with gzip if accepted by the client",
             content = @Content(
                     mediaType = MediaType.APPLICATION_JSON,
                     schema = @Schema(implementation = ManifestRecord.class)))
+    @APIResponse(responseCode = "304", description = "Manifest content was not modified")
     @APIResponse(
             responseCode = "400",
             description = "Malformed request",
@@ -174,13 +183,21 @@ public class ManifestsApi {
             content = @Content(
                     mediaType = MediaType.APPLICATION_JSON,
                     schema = @Schema(implementation = ErrorResponse.class)))
-    public JsonNode getContentById(@PathParam("id") String manifestId) {
-        Manifest manifest = Manifest.findById(manifestId); // NOSONAR
-
-        if (manifest == null) {
+    public Response getContentById(@PathParam("id") String manifestId, @Context HttpHeaders headers) {
+        // Read the stored JSON text, there is no need to parse the BOM only to serialize it back
+        @SuppressWarnings("unchecked")
+        RawBom bom = ((List<Object[]>) Manifest.getEntityManager()
+                .createNativeQuery(
+                        "SELECT m.id, CAST(m.bom AS VARCHAR), m.bom_hash, b.content FROM manifest m "
+                                + "LEFT JOIN manifest_blob b ON b.digest = m.bom_hash WHERE m.id = :id",
+                        Object[].class)
+                .setParameter("id", manifestId)
+                .getResultList()).stream().findFirst().map(RawBom::fromRow).orElse(null);
+
+        if (bom == null) {
             throw new NotFoundException("Manifest with id '{}' could not be found", manifestId);
         }
 
-        return manifest.getBom();
+        return toBomResponse(bom, headers);
     }
 }
@@ -38,11 +38,36 @@ public class QueryParameters {
     @Builder.Default
     int pageSize = 50;
 
+    /**
+     * Identifier of the last entity of the previous page. When set, the page is retrieved with keyset pagination
+     * (entities sorted after the cursor) instead of skipping {@link #firstResult()} entities.
+     */
+    String cursor;
+
+    /**
+     * Whether the total number of hits should be counted. Counting requires running the query twice; when disabled,
+     * only whether there is a following page is determined.
+     */
+    @Builder.Default
+    boolean countTotal = true;
+
+    public boolean isKeyset() {
+        return cursor != null && !cursor.isBlank();
+    }
+
     public int firstResult() {
-        return pageIndex * pageSize;
+        return isKeyset() ? 0 : pageIndex * pageSize;
     }
 
     public int maxResults() {
         return pageSize;
     }
+
+    /**
+     * Number of entities to fetch. When the total is not counted one more entity than the page size is fetched to find
+     * out whether there is a following page.
+     */
+    public int fetchSize() {
+        return isKeyset() || !countTotal ? pageSize + 1 : pageSize;
+    }
 }
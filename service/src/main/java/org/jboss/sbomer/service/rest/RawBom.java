@@ -0,0 +1,81 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.rest;
+
+import java.sql.Blob;
+import java.sql.SQLException;
+
+import org.jboss.sbomer.core.errors.ApplicationException;
+import org.jboss.sbomer.service.nextgen.core.utils.JacksonUtils;
+
+/**
+ * The BOM content of a manifest as stored in the database, served to clients without being parsed. The content is
+ * either the gzip compressed JSON text read from the {@code manifest_blob} table or, for manifests stored before the
+ * blobs were introduced, the JSON text read from the manifest row itself.
+ *
+ * @param id the manifest identifier
+ * @param content the JSON text of the BOM, {@code null} if the {@code compressedContent} is provided
+ * @param compressedContent the gzip compressed JSON text of the BOM, {@code null} if the {@code content} is provided
+ * @param hash the SHA-256 hash of the BOM content, used as the entity tag
+ */
+public record RawBom(String id, String content, byte[] compressedContent, String hash) {
+
+    /**
+     * Creates the {@link RawBom} from a row read from the database. Manifests stored before the content hash was
+     * recorded get the hash computed from the returned JSON text.
+     *
+     * @param row the identifier, the inline JSON text, the stored hash (can be {@code null}) and the compressed blob
+     *        content of the manifest
+     * @return the raw BOM or {@code null} if the manifest does not have any BOM content
+     * @throws ApplicationException if the content blob referenced by the manifest does not exist
+     */
+    public static RawBom fromRow(Object[] row) {
+        String id = (String) row[0];
+        String hash = (String) row[2];
+        byte[] compressedContent = toBytes(row[3]);
+
+        if (compressedContent != null) {
+            return new RawBom(id, null, compressedContent, hash);
+        }
+
+        String content = (String) row[1];
+
+        if (content == null) {
+            if (hash != null) {
+                throw new ApplicationException("Content blob '{}' of manifest '{}' does not exist", hash, id);
+            }
+
+            return null;
+        }
+
+        return new RawBom(id, content, null, hash != null ? hash : JacksonUtils.hash(content));
+    }
+
+    private static byte[] toBytes(Object value) {
+        if (value instanceof Blob blob) {
+            // Some drivers return binary large objects instead of byte arrays
+            try {
+                return blob.getBytes(1, (int) blob.length());
+            } catch (SQLException e) {
+                throw new ApplicationException("Unable to read the manifest content", e);
+            }
+        }
+
+        return (byte[]) value;
+    }
+}
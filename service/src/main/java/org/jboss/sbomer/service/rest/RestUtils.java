@@ -24,16 +24,24 @@ import static org.jboss.sbomer.service.feature.sbom.model.RequestEvent.EVENT_KEY
 import static org.jboss.sbomer.service.feature.sbom.model.RequestEvent.EVENT_KEY_REST_URI_PATH;
 import static org.jboss.sbomer.service.feature.sbom.model.RequestEvent.EVENT_KEY_REST_USERNAME;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.security.Principal;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import org.hibernate.validator.engine.HibernateConstraintViolation;
 import org.jboss.sbomer.core.config.request.RequestConfig;
+import org.jboss.sbomer.core.errors.ClientException;
 import org.jboss.sbomer.core.features.sbom.enums.RequestEventType;
+import org.jboss.sbomer.service.feature.s3.LogStream;
 import org.jboss.sbomer.service.feature.sbom.model.RequestEvent;
 import org.yaml.snakeyaml.parser.ParserException;
 
@@ -42,12 +50,24 @@ import jakarta.transaction.Transactional;
 import jakarta.transaction.Transactional.TxType;
 import jakarta.validation.ConstraintViolation;
 import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.SecurityContext;
+import jakarta.ws.rs.core.StreamingOutput;
 import jakarta.ws.rs.core.UriInfo;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 public class RestUtils {
+    /**
+     * Suffix of the entity tag of the gzip compressed representation of a BOM, strong entity tags must differ between
+     * the representations.
+     */
+    private static final String GZIP_ETAG_SUFFIX = "-gzip";
+
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
     private RestUtils() {
         // This is a utility class
     }
@@ -139,4 +159,180 @@ public class RestUtils {
 
         return RequestEvent.createNew(requestConfig, RequestEventType.REST, event).save();
     }
+
+    /**
+     * Returns the HTTP {@code Range} to fetch for a log file. An explicit {@code Range} header takes precedence over
+     * the {@code tail} parameter, which is translated into a suffix range of the last {@code tail} bytes.
+     *
+     * @param rangeHeader the value of the {@code Range} header, can be {@code null}
+     * @param tail the number of bytes from the end of the log file to return, can be {@code null}
+     * @return the range or {@code null} if the whole log file should be returned
+     */
+    public static String logRange(String rangeHeader, Long tail) {
+        if (rangeHeader != null && !rangeHeader.isBlank()) {
+            return rangeHeader;
+        }
+
+        if (tail != null) {
+            if (tail <= 0) {
+                throw new ClientException("The 'tail' parameter must be a positive number of bytes, got: {}", tail);
+            }
+
+            return "bytes=-" + tail;
+        }
+
+        return null;
+    }
+
+    /**
+     * Creates a response streaming the log file content to the client without buffering it in memory. Partial content
+     * is returned with the {@code 206} status code and the {@code Content-Range} header.
+     *
+     * @param logStream the log file content
+     * @return the response
+     */
+    public static Response toLogResponse(LogStream logStream) {
+        StreamingOutput body = output -> {
+            try (logStream) {
+                logStream.content().transferTo(output);
+            }
+        };
+
+        Response.ResponseBuilder builder = Response
+                .status(logStream.isPartial() ? Response.Status.PARTIAL_CONTENT : Response.Status.OK)
+                .entity(body)
+                .type(MediaType.TEXT_PLAIN_TYPE.withCharset(StandardCharsets.UTF_8.name()))
+                .header("Accept-Ranges", "bytes");
+
+        if (logStream.contentLength() != null) {
+            builder.header(HttpHeaders.CONTENT_LENGTH, logStream.contentLength());
+        }
+
+        if (logStream.isPartial()) {
+            builder.header("Content-Range", logStream.contentRange());
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Creates a response serving the stored JSON text of a BOM without parsing it. The strong entity tag is derived
+     * from the BOM content hash, so that clients can revalidate their copy with the {@code If-None-Match} header and
+     * get a {@code 304} response when the BOM was not changed. The content is served compressed with gzip if the client
+     * accepts it, content stored compressed is sent without being recompressed.
+     *
+     * @param bom the BOM content
+     * @param headers the request headers
+     * @return the response
+     */
+    public static Response toBomResponse(RawBom bom, HttpHeaders headers) {
+        boolean gzip = acceptsGzip(headers.getHeaderString(HttpHeaders.ACCEPT_ENCODING));
+        String etag = "\"" + bom.hash() + (gzip ? GZIP_ETAG_SUFFIX : "") + "\"";
+
+        if (matchesEtag(headers.getHeaderString(HttpHeaders.IF_NONE_MATCH), bom.hash())) {
+            return Response.notModified()
+                    .header(HttpHeaders.ETAG, etag)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        Response.ResponseBuilder builder = Response.ok()
+                .type(MediaType.APPLICATION_JSON_TYPE)
+                .header(HttpHeaders.ETAG, etag)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        if (bom.compressedContent() != null) {
+            if (gzip) {
+                // Stored compressed already
+                return builder.entity(bom.compressedContent())
+                        .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                        .header(HttpHeaders.CONTENT_LENGTH, bom.compressedContent().length)
+                        .build();
+            }
+
+            StreamingOutput body = output -> {
+                try (InputStream input = new GZIPInputStream(
+                        new ByteArrayInputStream(bom.compressedContent()),
+                        GZIP_BUFFER_SIZE)) {
+                    input.transferTo(output);
+                }
+            };
+
+            return builder.entity(body).build();
+        }
+
+        byte[] content = bom.content().getBytes(StandardCharsets.UTF_8);
+
+        if (!gzip) {
+            return builder.entity(content).header(HttpHeaders.CONTENT_LENGTH, content.length).build();
+        }
+
+        StreamingOutput body = output -> {
+            GZIPOutputStream gzipOutput = new GZIPOutputStream(output, GZIP_BUFFER_SIZE);
+            gzipOutput.write(content);
+            gzipOutput.finish();
+        };
+
+        return builder.entity(body).header(HttpHeaders.CONTENT_ENCODING, "gzip").build();
+    }
+
+    /**
+     * Checks whether the {@code Accept-Encoding} header value lists gzip (or any encoding) as acceptable.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return false;
+        }
+
+        for (String encoding : acceptEncoding.split(",")) {
+            String[] parts = encoding.trim().split(";");
+            String name = parts[0].trim().toLowerCase();
+
+            if (!"gzip".equals(name) && !"*".equals(name)) {
+                continue;
+            }
+
+            return Arrays.stream(parts)
+                    .skip(1)
+                    .map(String::trim)
+                    .filter(parameter -> parameter.startsWith("q="))
+                    .noneMatch(parameter -> parameter.matches("q=0(\\.0{0,3})?"));
+        }
+
+        return false;
+    }
+
+    /**
+     * Checks whether any of the entity tags in the {@code If-None-Match} header value matches the BOM content hash,
+     * regardless of the content encoding the entity tag was issued for.
+     */
+    static boolean matchesEtag(String ifNoneMatch, String hash) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+
+        for (String tag : ifNoneMatch.split(",")) {
+            String value = tag.trim();
+
+            if ("*".equals(value)) {
+                return true;
+            }
+
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+
+            value = value.replace("\"", "");
+
+            if (value.endsWith(GZIP_ETAG_SUFFIX)) {
+                value = value.substring(0, value.length() - GZIP_ETAG_SUFFIX.length());
+            }
+
+            if (value.equals(hash)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
 }
@@ -22,12 +22,14 @@ import java.util.List;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.media.Content;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 import org.jboss.sbomer.core.errors.ErrorResponse;
 import org.jboss.sbomer.core.errors.ServiceUnavailableException;
 import org.jboss.sbomer.service.feature.FeatureFlags;
 import org.jboss.sbomer.service.feature.s3.S3StorageHandler;
+import org.jboss.sbomer.service.rest.RestUtils;
 
 import com.fasterxml.jackson.jakarta.rs.yaml.YAMLMediaTypes;
 
@@ -36,9 +38,11 @@ import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import lombok.extern.slf4j.Slf4j;
@@ -102,19 +106,29 @@ public class S3ApiV1Alpha3 {
             responseCode = "200",
             description = "Requests manifest generation for a given container image.",
             content = @Content(mediaType = MediaType.TEXT_PLAIN))
+    @Parameter(
+            name = "tail",
+            description = "Number of bytes from the end of the log file to return. Ignored if the Range header is provided")
+    @APIResponse(
+            responseCode = "206",
+            description = "Requested range of the log file content",
+            content = @Content(mediaType = MediaType.TEXT_PLAIN))
     @APIResponse(
             responseCode = "500",
             description = "Internal server error",
             content = @Content(mediaType = MediaType.APPLICATION_JSON))
-    public Response getLog(@PathParam("id") String generationRequestId, @PathParam("path") String path) {
+    public Response getLog(
+            @PathParam("id") String generationRequestId,
+            @PathParam("path") String path,
+            @HeaderParam("Range") String range,
+            @QueryParam("tail") Long tail) {
         if (!featureFlags.s3Storage()) {
             throw new ServiceUnavailableException("S3 feature is disabled currently, try again later");
         }
 
         log.info("Fetching log for GenerationRequest '{}' on path '{}'", generationRequestId, path);
 
-        String log = s3StorageHandler.getLog(generationRequestId, path);
-
-        return Response.ok(log).build();
+        return RestUtils.toLogResponse(
+                s3StorageHandler.getLog(generationRequestId, path, RestUtils.logRange(range, tail)));
     }
 }
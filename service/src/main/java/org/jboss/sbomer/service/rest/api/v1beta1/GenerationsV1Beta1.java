@@ -74,6 +74,7 @@ import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
 import jakarta.ws.rs.DefaultValue;
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
@@ -332,6 +333,15 @@ public class GenerationsV1Beta1 {
                     @ExampleObject(
                             name = "Order generation requests by creation time in descending order",
                             value = "creationTime=desc=") })
+    @Parameter(
+            name = "cursor",
+            description = "Optional cursor returned as 'nextCursor' with the previous page. When provided, the page "
+                    + "following the cursor is returned without skipping the entries of the previous pages. "
+                    + "Supported only when sorting by a single attribute.")
+    @Parameter(
+            name = "total",
+            description = "Whether the total number of hits should be computed. When disabled, 'totalHits' and "
+                    + "'totalPages' are set to -1 and only 'nextCursor' tells whether there is a following page.")
     @APIResponse(
             responseCode = "200",
             description = "Paginated list of generation requests in the system for a specified RSQL query.",
@@ -347,12 +357,16 @@ public class GenerationsV1Beta1 {
     public Page<V1Beta1GenerationRecord> searchGenerationRequests(
             @Valid @BeanParam PaginationParameters paginationParams,
             @QueryParam("query") String rsqlQuery,
-            @DefaultValue("creationTime=desc=") @QueryParam("sort") String sort) {
+            @DefaultValue("creationTime=desc=") @QueryParam("sort") String sort,
+            @QueryParam("cursor") String cursor,
+            @DefaultValue("true") @QueryParam("total") boolean total) {
         Page<SbomGenerationRequest> requests = sbomService.searchSbomRequestsByQueryPaginated(
                 paginationParams.getPageIndex(),
                 paginationParams.getPageSize(),
                 rsqlQuery,
-                sort);
+                sort,
+                cursor,
+                total);
 
         return mapper.generationsToRecordPage(requests);
     }
@@ -418,19 +432,29 @@ public class GenerationsV1Beta1 {
             responseCode = "200",
             description = "Log file content",
             content = @Content(mediaType = MediaType.TEXT_PLAIN))
+    @Parameter(
+            name = "tail",
+            description = "Number of bytes from the end of the log file to return. Ignored if the Range header is provided")
+    @APIResponse(
+            responseCode = "206",
+            description = "Requested range of the log file content",
+            content = @Content(mediaType = MediaType.TEXT_PLAIN))
     @APIResponse(
             responseCode = "500",
             description = "Internal server error",
             content = @Content(mediaType = MediaType.APPLICATION_JSON))
-    public Response getLog(@PathParam("id") String generationRequestId, @PathParam("path") String path) {
+    public Response getLog(
+            @PathParam("id") String generationRequestId,
+            @PathParam("path") String path,
+            @HeaderParam("Range") String range,
+            @QueryParam("tail") Long tail) {
         if (!featureFlags.s3Storage()) {
             throw new ServiceUnavailableException("S3 feature is disabled currently, try again later");
         }
 
         log.info("Fetching log for GenerationRequest '{}' on path '{}'", generationRequestId, path);
 
-        String log = s3StorageHandler.getLog(generationRequestId, path);
-
-        return Response.ok(log).build();
+        return RestUtils.toLogResponse(
+                s3StorageHandler.getLog(generationRequestId, path, RestUtils.logRange(range, tail)));
     }
 }
@@ -20,6 +20,7 @@ package org.jboss.sbomer.service.rest.api.v1beta1;
 import java.util.Map;
 
 import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.enums.ParameterIn;
 import org.eclipse.microprofile.openapi.annotations.media.Content;
 import org.eclipse.microprofile.openapi.annotations.media.ExampleObject;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
@@ -36,10 +37,10 @@ import org.jboss.sbomer.core.utils.PaginationParameters;
 import org.jboss.sbomer.service.feature.FeatureFlags;
 import org.jboss.sbomer.service.feature.sbom.model.Sbom;
 import org.jboss.sbomer.service.feature.sbom.service.SbomService;
+import org.jboss.sbomer.service.rest.RawBom;
+import org.jboss.sbomer.service.rest.RestUtils;
 import org.jboss.sbomer.service.rest.mapper.V1Beta1Mapper;
 
-import com.fasterxml.jackson.databind.JsonNode;
-
 import jakarta.annotation.security.PermitAll;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
@@ -53,6 +54,8 @@ import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.Response.Status;
@@ -90,6 +93,15 @@ public class ManifestsV1Beta1 {
                     @ExampleObject(
                             name = "Order manifests by creation time in descending order",
                             value = "creationTime=desc=") })
+    @Parameter(
+            name = "cursor",
+            description = "Optional cursor returned as 'nextCursor' with the previous page. When provided, the page "
+                    + "following the cursor is returned without skipping the entries of the previous pages. "
+                    + "Supported only when sorting by a single attribute.")
+    @Parameter(
+            name = "total",
+            description = "Whether the total number of hits should be computed. When disabled, 'totalHits' and "
+                    + "'totalPages' are set to -1 and only 'nextCursor' tells whether there is a following page.")
     @APIResponse(
             responseCode = "200",
             description = "Paginated list of manifests in the system for a specified RSQL query.")
@@ -104,13 +116,17 @@ public class ManifestsV1Beta1 {
     public Page<V1Beta1BaseManifestRecord> searchSboms(
             @Valid @BeanParam PaginationParameters paginationParams,
             @QueryParam("query") String rsqlQuery,
-            @DefaultValue("creationTime=desc=") @QueryParam("sort") String sort) {
+            @DefaultValue("creationTime=desc=") @QueryParam("sort") String sort,
+            @QueryParam("cursor") String cursor,
+            @DefaultValue("true") @QueryParam("total") boolean total) {
 
         Page<BaseSbomRecord> sboms = sbomService.searchSbomRecordsByQueryPaginated(
                 paginationParams.getPageIndex(),
                 paginationParams.getPageSize(),
                 rsqlQuery,
-                sort);
+                sort,
+                cursor,
+                total);
 
         return mapper.toRecord(sboms);
     }
@@ -169,10 +185,15 @@ public class ManifestsV1Beta1 {
                     @ExampleObject(
                             value = "pkg:maven/com.github.michalszynkiewicz.test/empty@1.0.0.redhat-00270?type=jar",
                             name = "Package URL") })
+    @Parameter(
+            name = "If-None-Match",
+            in = ParameterIn.HEADER,
+            description = "Entity tag of the BOM content already held by the client")
     @APIResponse(
             responseCode = "200",
-            description = "The BOM in CycloneDX format",
+            description = "The BOM in CycloneDX format, compressed with gzip if accepted by the client",
             content = @Content(schema = @Schema(implementation = Map.class)))
+    @APIResponse(responseCode = "304", description = "The BOM content was not modified")
     @APIResponse(
             responseCode = "400",
             description = "Could not parse provided arguments",
@@ -185,20 +206,16 @@ public class ManifestsV1Beta1 {
             responseCode = "500",
             description = "Internal server error",
             content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
-    public JsonNode getBomById(@PathParam("id") String identifier) {
-        Sbom sbom = sbomService.get(identifier);
+    public Response getBomById(@PathParam("id") String identifier, @Context HttpHeaders headers) {
+        // Serve the stored JSON text as-is, there is no need to parse the BOM only to serialize it back
+        RawBom bom = sbomService.getRawBom(identifier);
 
-        if (sbom == null) {
-            sbom = sbomService.findByPurl(identifier);
-        }
-
-        if (sbom == null) {
+        if (bom == null) {
             throw new NotFoundException(
                     "Manifest with could not be found for provided identifier: '" + identifier + "'");
         }
 
-        // TODO: We probably should ensure proper formatting (ordering of keys)
-        return sbom.getSbom();
+        return RestUtils.toBomResponse(bom, headers);
     }
 
     @POST
@@ -138,6 +138,15 @@ public class RequestsV1Beta1 {
                     @ExampleObject(
                             name = "Order request events by receival time in descending order",
                             value = "receivalTime=desc=") })
+    @Parameter(
+            name = "cursor",
+            description = "Optional cursor returned as 'nextCursor' with the previous page. When provided, the page "
+                    + "following the cursor is returned without skipping the entries of the previous pages. "
+                    + "Supported only when sorting by a single attribute.")
+    @Parameter(
+            name = "total",
+            description = "Whether the total number of hits should be computed. When disabled, 'totalHits' and "
+                    + "'totalPages' are set to -1 and only 'nextCursor' tells whether there is a following page.")
     @APIResponse(
             responseCode = "200",
             description = "Paginated list of request events in the system for a specified RSQL query.",
@@ -153,13 +162,17 @@ public class RequestsV1Beta1 {
     public Page<V1BaseBeta1RequestRecord> searchRequestEvents(
             @Valid @BeanParam PaginationParameters paginationParams,
             @QueryParam("query") String rsqlQuery,
-            @DefaultValue("receivalTime=desc=") @QueryParam("sort") String sort) {
+            @DefaultValue("receivalTime=desc=") @QueryParam("sort") String sort,
+            @QueryParam("cursor") String cursor,
+            @DefaultValue("true") @QueryParam("total") boolean total) {
 
         return sbomService.searchRequestRecordsByQueryPaginated(
                 paginationParams.getPageIndex(),
                 paginationParams.getPageSize(),
                 rsqlQuery,
-                sort);
+                sort,
+                cursor,
+                total);
     }
 
 }
@@ -19,13 +19,19 @@ package org.jboss.sbomer.service.rest.criteria;
 
 import static org.jboss.sbomer.service.rest.criteria.predicate.CustomizedPredicateBuilderStrategy.WILDCARD_CHAR;
 
-import java.util.Collection;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import org.hibernate.Session;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
 import org.jboss.pnc.common.Strings;
+import org.jboss.sbomer.core.errors.ClientException;
+import org.jboss.sbomer.service.cache.QueryPlanCache;
 import org.jboss.sbomer.service.rest.criteria.predicate.CustomPredicateSortBuilder;
 import org.jboss.sbomer.service.rest.criteria.predicate.CustomizedJpaPredicateSortVisitor;
 import org.jboss.sbomer.service.rest.criteria.predicate.CustomizedJpaPredicateVisitor;
@@ -40,9 +46,11 @@ import cz.jirutka.rsql.parser.ast.RSQLOperators;
 import cz.jirutka.rsql.parser.ast.RSQLVisitor;
 import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
 import jakarta.annotation.PostConstruct;
+import jakarta.inject.Inject;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 import jakarta.transaction.Transactional;
@@ -68,6 +76,9 @@ public abstract class AbstractCriteriaAwareRepository<T> implements PanacheRepos
     EntityManagerAdapter entityManagerAdapter;
     Class<T> entityType;
 
+    @Inject
+    QueryPlanCache queryPlanCache;
+
     static {
         Set<ComparisonOperator> predicateOperators = RSQLOperators.defaultOperators();
         predicateOperators.add(IS_NULL);
@@ -109,7 +120,32 @@ public abstract class AbstractCriteriaAwareRepository<T> implements PanacheRepos
         criteriaBuilder = entityManagerAdapter.getCriteriaBuilder();
     }
 
-    private String preprocessRSQL(String rsql) {
+    /**
+     * Parses the RSQL query. The resulting tree is immutable and does not depend on the entity type, so it can be
+     * reused for any number of searches.
+     *
+     * @param rsqlQuery the RSQL query
+     * @return the root node of the parsed query
+     */
+    public static Node parseRsql(String rsqlQuery) {
+        return predicateParser.parse(preprocessRSQL(rsqlQuery));
+    }
+
+    /**
+     * Parses the RSQL sort expression. The resulting tree is immutable and does not depend on the entity type, so it
+     * can be reused for any number of searches.
+     *
+     * @param sort the sort expression
+     * @return the root node of the parsed sort expression
+     */
+    public static Node parseSort(String sort) {
+        String compliantSort = CustomPredicateSortBuilder.rsqlParserCompliantSort(sort);
+        log.debug("Modified RSQL sort string from: '{}' to a RSQL parser compliant format: '{}'", sort, compliantSort);
+
+        return sortParser.parse(compliantSort);
+    }
+
+    private static String preprocessRSQL(String rsql) {
         String result = rsql;
         Matcher matcher = likePattern.matcher(rsql);
         while (matcher.find()) {
@@ -131,8 +167,8 @@ public abstract class AbstractCriteriaAwareRepository<T> implements PanacheRepos
         RSQLVisitor<Predicate, EntityManagerAdapter> visitor = new CustomizedJpaPredicateVisitor<X>().withRoot(root)
                 .withPredicateBuilderStrategy(new CustomizedPredicateBuilderStrategy());
 
-        // create RSQLParser with default and custom operators
-        Node rootNode = predicateParser.parse(preprocessRSQL(rsqlQuery));
+        // The parsed query is shared by all searches with the same query
+        Node rootNode = queryPlanCache != null ? queryPlanCache.rsql(rsqlQuery) : parseRsql(rsqlQuery);
         Predicate predicate = rootNode.accept(visitor, entityManagerAdapter);
 
         return query.where(predicate);
@@ -140,19 +176,133 @@ public abstract class AbstractCriteriaAwareRepository<T> implements PanacheRepos
 
     protected <X> CriteriaQuery<X> handleSort(CriteriaQuery<X> query, Root<T> root, String sort) {
         if (Strings.isEmpty(sort)) {
-            return query;
+            if (!query.getOrderList().isEmpty()) {
+                return query;
+            }
+
+            return query.orderBy(criteriaBuilder.asc(root.get(KeysetSort.ID_ATTRIBUTE)));
         }
 
-        String compliantSort = CustomPredicateSortBuilder.rsqlParserCompliantSort(sort);
-        log.debug("Modified RSQL sort string from: '{}' to a RSQL parser compliant format: '{}'", sort, compliantSort);
+        Optional<KeysetSort> keysetSort = KeysetSort.of(sort).filter(s -> !s.isIdentifier());
+
+        if (keysetSort.isPresent()) {
+            // Make the order stable (and usable for keyset pagination) by using the identifier as a tie-breaker
+            Path<String> id = root.get(KeysetSort.ID_ATTRIBUTE);
+            boolean descending = keysetSort.get().descending();
+
+            return query.orderBy(
+                    keysetOrder(findSortPath(root, keysetSort.get()), descending),
+                    descending ? criteriaBuilder.desc(id) : criteriaBuilder.asc(id));
+        }
 
         CustomizedJpaPredicateSortVisitor<?> sortVisitor = new CustomizedJpaPredicateSortVisitor<>(entityType)
                 .withRoot(root);
 
-        Node sortRootNode = sortParser.parse(compliantSort);
-        Collection<Order> orders = sortVisitor.accept(sortRootNode, entityManagerAdapter);
+        Node sortRootNode = queryPlanCache != null ? queryPlanCache.sort(sort) : parseSort(sort);
+        List<Order> orders = new ArrayList<>(sortVisitor.accept(sortRootNode, entityManagerAdapter));
 
         return query.orderBy(orders.toArray(new Order[0]));
     }
 
+    /**
+     * Orders by the keyset attribute with the position of the {@code NULL} values made explicit, so that it does not
+     * depend on the database. The {@code NULL} values are sorted as the highest values, the same way PostgreSQL does by
+     * default, which keeps the indexes usable: these are last in ascending order and first in descending order.
+     */
+    private Order keysetOrder(Path<?> path, boolean descending) {
+        HibernateCriteriaBuilder builder = getEntityManager().unwrap(Session.class).getCriteriaBuilder();
+
+        return descending ? builder.desc(path, true) : builder.asc(path, false);
+    }
+
+    /**
+     * Restricts the query to entities which are sorted after the entity identified by the cursor, so that the page can
+     * be read directly from the index instead of skipping all entities of the previous pages. The sort attribute can
+     * be nullable, the {@code NULL} values are sorted as described in {@link #keysetOrder(Path, boolean)}.
+     *
+     * @param query the query to restrict
+     * @param root the root of the query
+     * @param sort the sort of the query
+     * @param cursor the identifier of the last entity of the previous page
+     * @return the restricted query
+     */
+    protected <X> CriteriaQuery<X> handleKeyset(CriteriaQuery<X> query, Root<T> root, KeysetSort sort, String cursor) {
+        Path<String> id = root.get(KeysetSort.ID_ATTRIBUTE);
+        Predicate keyset;
+
+        if (sort.isIdentifier()) {
+            keyset = after(id, cursor, sort.descending());
+        } else {
+            Path<?> path = findSortPath(root, sort);
+            Comparable<?> anchor = findCursorValue(sort, cursor);
+            // NULL values are last in ascending order and first in descending order
+            boolean nullsLast = !sort.descending();
+
+            if (anchor == null) {
+                // Comparisons with NULL are never true, only the identifier orders the entities with NULL values
+                Predicate sameValue = criteriaBuilder.and(
+                        criteriaBuilder.isNull(path),
+                        after(id, cursor, sort.descending()));
+
+                keyset = nullsLast ? sameValue : criteriaBuilder.or(sameValue, criteriaBuilder.isNotNull(path));
+            } else {
+                Predicate sameOrAfter = criteriaBuilder.or(
+                        after(path, anchor, sort.descending()),
+                        criteriaBuilder
+                                .and(criteriaBuilder.equal(path, anchor), after(id, cursor, sort.descending())));
+
+                keyset = nullsLast ? criteriaBuilder.or(sameOrAfter, criteriaBuilder.isNull(path)) : sameOrAfter;
+            }
+        }
+
+        Predicate restriction = query.getRestriction();
+
+        return query.where(restriction == null ? keyset : criteriaBuilder.and(restriction, keyset));
+    }
+
+    private Path<?> findSortPath(Root<T> root, KeysetSort sort) {
+        try {
+            return root.get(sort.attribute());
+        } catch (IllegalArgumentException e) {
+            throw new ClientException("Unknown sort attribute: '{}'", sort.attribute());
+        }
+    }
+
+    /**
+     * Finds the value of the sort attribute of the entity identified by the cursor.
+     *
+     * @return the value or {@code null} if the entity has no value
+     */
+    private Comparable<?> findCursorValue(KeysetSort sort, String cursor) {
+        CriteriaQuery<Object> criteriaQuery = criteriaBuilder.createQuery(Object.class);
+        Root<T> root = criteriaQuery.from(entityType);
+
+        criteriaQuery.select(findSortPath(root, sort))
+                .where(criteriaBuilder.equal(root.get(KeysetSort.ID_ATTRIBUTE), cursor));
+
+        List<Object> values = getEntityManager().createQuery(criteriaQuery).setMaxResults(1).getResultList();
+
+        if (values.isEmpty()) {
+            throw new ClientException("Invalid cursor: '{}'", cursor);
+        }
+
+        if (values.get(0) == null) {
+            return null;
+        }
+
+        if (!(values.get(0) instanceof Comparable<?> value)) {
+            throw new ClientException(
+                    "Cursor pagination is not supported when sorting by attribute '{}' with cursor '{}'",
+                    sort.attribute(),
+                    cursor);
+        }
+
+        return value;
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private Predicate after(Path path, Comparable value, boolean descending) {
+        return descending ? criteriaBuilder.lessThan(path, value) : criteriaBuilder.greaterThan(path, value);
+    }
+
 }
@@ -20,6 +20,7 @@ package org.jboss.sbomer.service.rest.criteria;
 import java.util.List;
 
 import org.jboss.sbomer.core.TriFunction;
+import org.jboss.sbomer.core.errors.ClientException;
 import org.jboss.sbomer.service.rest.QueryParameters;
 
 import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
@@ -53,12 +54,23 @@ public class CriteriaAwareRepository<T extends PanacheEntityBase> extends Abstra
         }
 
         criteriaQuery = handleRsql(criteriaQuery, root, parameters.getRsqlQuery());
+
+        if (parameters.isKeyset()) {
+            KeysetSort keysetSort = KeysetSort.of(parameters.getSort())
+                    .orElseThrow(
+                            () -> new ClientException(
+                                    "Cursor pagination is supported only when sorting by a single attribute, got: '{}'",
+                                    parameters.getSort()));
+
+            criteriaQuery = handleKeyset(criteriaQuery, root, keysetSort, parameters.getCursor());
+        }
+
         criteriaQuery = handleSort(criteriaQuery, root, parameters.getSort());
 
         TypedQuery<X> typedQuery = getEntityManager().createQuery(criteriaQuery);
 
         typedQuery.setFirstResult(parameters.firstResult());
-        typedQuery.setMaxResults(parameters.maxResults());
+        typedQuery.setMaxResults(parameters.fetchSize());
 
         return typedQuery.getResultList();
     }
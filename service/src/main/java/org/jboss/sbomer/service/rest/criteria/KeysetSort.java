@@ -0,0 +1,62 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.rest.criteria;
+
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.jboss.pnc.common.Strings;
+
+/**
+ * A sort which can be used with keyset pagination: a single attribute of the entity, with the entity identifier used
+ * as a tie-breaker so that the order is stable.
+ *
+ * @param attribute the attribute of the entity to sort by
+ * @param descending whether the entities are sorted in descending order
+ */
+public record KeysetSort(String attribute, boolean descending) {
+
+    public static final String ID_ATTRIBUTE = "id";
+
+    private static final Pattern SORT_PATTERN = Pattern.compile("^\\s*([a-zA-Z][a-zA-Z0-9]*)=(asc|desc)=\\s*$");
+
+    /**
+     * Parses the RSQL sort. An empty sort results in sorting by the identifier in ascending order.
+     *
+     * @param sort the RSQL sort, for example {@code creationTime=desc=}
+     * @return the parsed sort or empty if the sort cannot be used with keyset pagination
+     */
+    public static Optional<KeysetSort> of(String sort) {
+        if (Strings.isEmpty(sort)) {
+            return Optional.of(new KeysetSort(ID_ATTRIBUTE, false));
+        }
+
+        Matcher matcher = SORT_PATTERN.matcher(sort);
+
+        if (!matcher.matches()) {
+            return Optional.empty();
+        }
+
+        return Optional.of(new KeysetSort(matcher.group(1), "desc".equals(matcher.group(2))));
+    }
+
+    public boolean isIdentifier() {
+        return ID_ATTRIBUTE.equals(attribute);
+    }
+}
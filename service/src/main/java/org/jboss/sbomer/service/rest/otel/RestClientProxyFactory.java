@@ -20,23 +20,38 @@ package org.jboss.sbomer.service.rest.otel;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Proxy;
 
+import org.eclipse.microprofile.context.ManagedExecutor;
 import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.jboss.sbomer.service.feature.sbom.errata.CachingErrataInvocationHandler;
 import org.jboss.sbomer.service.feature.sbom.errata.ErrataClient;
+import org.jboss.sbomer.service.feature.sbom.errata.ErrataClientCacheConfig;
 import org.jboss.sbomer.service.feature.sbom.pyxis.PyxisClient;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.inject.Produces;
 
 /**
  * Dynamic proxy wrapper around RestClient. This will intercept all calls and propagate them to TracingInvocationHandler
+ * (and to the CachingErrataInvocationHandler for the Errata client, if caching is enabled)
  */
 public class RestClientProxyFactory {
 
     @Produces
     @TracingRestClient
     @ApplicationScoped
-    public ErrataClient tracingErrataClient(@RestClient ErrataClient delegate) {
-        return createProxy(delegate, ErrataClient.class);
+    public ErrataClient tracingErrataClient(
+            @RestClient ErrataClient delegate,
+            ErrataClientCacheConfig cacheConfig,
+            ManagedExecutor executor,
+            MeterRegistry meterRegistry) {
+        ErrataClient tracingClient = createProxy(delegate, ErrataClient.class);
+
+        if (!cacheConfig.isEnabled()) {
+            return tracingClient;
+        }
+
+        return CachingErrataInvocationHandler.createProxy(tracingClient, cacheConfig, executor, meterRegistry);
     }
 
     @Produces
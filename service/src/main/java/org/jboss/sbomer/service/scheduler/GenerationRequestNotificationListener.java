@@ -0,0 +1,174 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.scheduler;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.jboss.sbomer.service.leader.LeadershipChangedEvent;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+import io.agroal.api.AgroalDataSource;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>
+ * Wakes the {@link GenerationSchedulingTrigger} up when any instance of the service stores a generation request
+ * waiting to be scheduled. The {@link NewGenerationRequestEvent} is fired only within the instance which stored the
+ * generation request, while only the leader schedules generations.
+ * </p>
+ *
+ * <p>
+ * The database notifies the {@value #CHANNEL} channel when a generation request with the {@code NEW} status is
+ * committed, the leader listens on the channel for as long as it holds the leadership. A pooled connection is held for
+ * that time. Databases without notifications (like the one in tests) are not listened on, the generation requests
+ * stored by other instances are then picked by the periodic run.
+ * </p>
+ */
+@ApplicationScoped
+@Slf4j
+public class GenerationRequestNotificationListener {
+
+    static final String CHANNEL = "sbomer_generation_requests";
+
+    /**
+     * How long to wait for notifications before checking whether to stop listening. Lower than the socket timeout of
+     * the connections.
+     */
+    private static final int POLL_TIMEOUT_MILLIS = 5000;
+
+    private static final long RECONNECT_DELAY_MILLIS = 5000;
+
+    AgroalDataSource dataSource;
+
+    GenerationSchedulingTrigger trigger;
+
+    GenerationSchedulerConfig generationSchedulerConfig;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "generation-request-listener");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private Future<?> listening;
+
+    @Inject
+    public GenerationRequestNotificationListener(
+            AgroalDataSource dataSource,
+            GenerationSchedulingTrigger trigger,
+            GenerationSchedulerConfig generationSchedulerConfig) {
+        this.dataSource = dataSource;
+        this.trigger = trigger;
+        this.generationSchedulerConfig = generationSchedulerConfig;
+    }
+
+    /**
+     * Listens on the channel while the current instance is the leader.
+     *
+     * @param event the event
+     */
+    public synchronized void onLeadershipChanged(@Observes LeadershipChangedEvent event) {
+        if (!event.leader()) {
+            stop();
+            return;
+        }
+
+        if (!generationSchedulerConfig.eventDriven() || (listening != null && !listening.isDone())) {
+            return;
+        }
+
+        listening = executor.submit(this::listen);
+    }
+
+    private void stop() {
+        if (listening != null) {
+            listening.cancel(true);
+            listening = null;
+        }
+    }
+
+    void listen() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try (Connection connection = dataSource.getConnection()) {
+                if (!connection.isWrapperFor(PGConnection.class)) {
+                    log.info(
+                            "The database does not support notifications, generation requests stored by other "
+                                    + "instances will be picked by the periodic run");
+                    return;
+                }
+
+                try {
+                    listen(connection);
+                } finally {
+                    // The connection goes back to the pool, it must not stay subscribed
+                    execute(connection, "UNLISTEN " + CHANNEL);
+                }
+            } catch (SQLException e) {
+                log.warn("Unable to listen on the '{}' channel, retrying in {} ms", CHANNEL, RECONNECT_DELAY_MILLIS, e);
+
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MILLIS);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        log.debug("Stopped listening on the '{}' channel", CHANNEL);
+    }
+
+    private void listen(Connection connection) throws SQLException {
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+
+        execute(connection, "LISTEN " + CHANNEL);
+        log.info("Listening on the '{}' channel for new generation requests", CHANNEL);
+
+        // Generation requests could have been stored while not listening
+        trigger.wakeUp();
+
+        while (!Thread.currentThread().isInterrupted()) {
+            PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+
+            if (notifications != null && notifications.length > 0) {
+                log.debug("Notified about {} new generation requests, triggering scheduling", notifications.length);
+                trigger.wakeUp();
+            }
+        }
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
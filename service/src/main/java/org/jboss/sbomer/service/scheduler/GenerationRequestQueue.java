@@ -0,0 +1,304 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.scheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToIntFunction;
+
+import org.jboss.sbomer.core.features.sbom.enums.GenerationRequestType;
+import org.jboss.sbomer.service.feature.sbom.k8s.model.SbomGenerationStatus;
+import org.jboss.sbomer.service.feature.sbom.model.SbomGenerationRequest;
+import org.jboss.sbomer.service.feature.sbom.service.SbomGenerationRequestRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import io.quarkus.scheduler.Scheduled.ConcurrentExecution;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>
+ * Selects the generation requests waiting in the database ({@link SbomGenerationStatus#NEW}) that should be scheduled
+ * next, according to the configured {@link SchedulingPolicy}.
+ * </p>
+ *
+ * <p>
+ * Generation requests are grouped into classes by their {@link GenerationRequestSource} and
+ * {@link GenerationRequestType}. For every class the time the requests waited to be scheduled is recorded when these
+ * are selected, and the queue depth is sampled on its own interval
+ * ({@link GenerationSchedulerConfig#queueMetricsInterval()}), so that the scheduling runs do not count the waiting
+ * requests.
+ * </p>
+ */
+@ApplicationScoped
+@Slf4j
+public class GenerationRequestQueue {
+
+    SbomGenerationRequestRepository requestRepository;
+
+    GenerationSchedulerConfig generationSchedulerConfig;
+
+    MeterRegistry meterRegistry;
+
+    private final Map<Tags, AtomicLong> queueDepths = new ConcurrentHashMap<>();
+
+    @Inject
+    public GenerationRequestQueue(
+            SbomGenerationRequestRepository requestRepository,
+            GenerationSchedulerConfig generationSchedulerConfig,
+            MeterRegistry meterRegistry) {
+        this.requestRepository = requestRepository;
+        this.generationSchedulerConfig = generationSchedulerConfig;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Fetches and locks up to {@code limit} generation requests to be scheduled next. Must be called within a
+     * transaction, the returned generation requests are locked until the transaction ends.
+     *
+     * @param limit the maximum number of generation requests to return
+     * @return the generation requests to schedule, in the order they should be scheduled
+     */
+    public List<SbomGenerationRequest> nextBatch(int limit) {
+        List<SbomGenerationRequest> batch = generationSchedulerConfig.policy() == SchedulingPolicy.FAIR
+                ? fairBatch(limit)
+                : fifoBatch(limit);
+
+        recordWaitTimes(batch);
+
+        return batch;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<SbomGenerationRequest> fifoBatch(int limit) {
+        return requestRepository.getEntityManager()
+                .createNativeQuery(
+                        String.format(
+                                "SELECT * FROM sbom_generation_request WHERE status = '%s' ORDER BY creation_time ASC FOR UPDATE SKIP LOCKED LIMIT %s",
+                                SbomGenerationStatus.NEW,
+                                limit),
+                        SbomGenerationRequest.class)
+                .getResultList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<SbomGenerationRequest> fairBatch(int limit) {
+        // Take the head of every class, so that a large number of requests within one class cannot hide the others
+        List<String> candidateIds = requestRepository.getEntityManager()
+                .createNativeQuery(
+                        String.format(
+                                "SELECT id FROM (SELECT id, ROW_NUMBER() OVER (PARTITION BY source, type ORDER BY priority DESC, creation_time ASC) AS rn FROM sbom_generation_request WHERE status = '%s') candidates WHERE rn <= %s",
+                                SbomGenerationStatus.NEW,
+                                limit))
+                .getResultList();
+
+        if (candidateIds.isEmpty()) {
+            return List.of();
+        }
+
+        List<SbomGenerationRequest> candidates = requestRepository.getEntityManager()
+                .createNativeQuery(
+                        String.format(
+                                "SELECT * FROM sbom_generation_request WHERE id IN (:ids) AND status = '%s' FOR UPDATE SKIP LOCKED",
+                                SbomGenerationStatus.NEW),
+                        SbomGenerationRequest.class)
+                .setParameter("ids", candidateIds)
+                .getResultList();
+
+        log.debug("Selecting up to {} generations out of {} candidates", limit, candidates.size());
+
+        return select(candidates, limit, this::weight);
+    }
+
+    private int weight(SbomGenerationRequest request) {
+        int sourceWeight = generationSchedulerConfig.sourceWeights()
+                .getOrDefault(sourceOf(request).toName(), 1);
+        int typeWeight = request.getType() != null
+                ? generationSchedulerConfig.typeWeights().getOrDefault(request.getType().toName(), 1)
+                : 1;
+
+        return Math.max(sourceWeight * typeWeight, 1);
+    }
+
+    /**
+     * <p>
+     * Selects up to {@code limit} generation requests from the {@code candidates}.
+     * </p>
+     *
+     * <p>
+     * Generation requests with higher priority always go first. Generation requests with the same priority are taken
+     * from their classes (source and type) using weighted round-robin: a class with weight 3 gets three generation
+     * requests scheduled for every generation request of a class with weight 1. Within a class the oldest generation
+     * requests go first.
+     * </p>
+     *
+     * @param candidates the generation requests to select from
+     * @param limit the maximum number of generation requests to select
+     * @param weight the weight of the class of a given generation request
+     * @return the selected generation requests, in the order they should be scheduled
+     */
+    public static List<SbomGenerationRequest> select(
+            List<SbomGenerationRequest> candidates,
+            int limit,
+            ToIntFunction<SbomGenerationRequest> weight) {
+        Map<String, Deque<SbomGenerationRequest>> queues = new LinkedHashMap<>();
+
+        candidates.stream()
+                .sorted(
+                        Comparator.comparingInt(SbomGenerationRequest::getPriority)
+                                .reversed()
+                                .thenComparing(
+                                        SbomGenerationRequest::getCreationTime,
+                                        Comparator.nullsLast(Comparator.naturalOrder())))
+                .forEach(r -> queues.computeIfAbsent(classOf(r), k -> new ArrayDeque<>()).add(r));
+
+        // Virtual time of every class, advanced by 1/weight whenever a generation request from the class is selected
+        Map<String, Double> pass = new HashMap<>();
+        List<SbomGenerationRequest> selected = new ArrayList<>();
+
+        while (selected.size() < limit) {
+            String next = null;
+
+            for (Map.Entry<String, Deque<SbomGenerationRequest>> queue : queues.entrySet()) {
+                if (queue.getValue().isEmpty()) {
+                    continue;
+                }
+
+                if (next == null || isBefore(queue.getKey(), next, queues, pass)) {
+                    next = queue.getKey();
+                }
+            }
+
+            if (next == null) {
+                break;
+            }
+
+            SbomGenerationRequest request = queues.get(next).poll();
+
+            selected.add(request);
+            pass.merge(next, 1.0 / Math.max(weight.applyAsInt(request), 1), Double::sum);
+        }
+
+        return selected;
+    }
+
+    private static boolean isBefore(
+            String candidate,
+            String current,
+            Map<String, Deque<SbomGenerationRequest>> queues,
+            Map<String, Double> pass) {
+        SbomGenerationRequest candidateHead = queues.get(candidate).peek();
+        SbomGenerationRequest currentHead = queues.get(current).peek();
+
+        if (candidateHead.getPriority() != currentHead.getPriority()) {
+            return candidateHead.getPriority() > currentHead.getPriority();
+        }
+
+        int byPass = Double.compare(pass.getOrDefault(candidate, 0.0), pass.getOrDefault(current, 0.0));
+
+        if (byPass != 0) {
+            return byPass < 0;
+        }
+
+        return candidateHead.getCreationTime() != null && currentHead.getCreationTime() != null
+                && candidateHead.getCreationTime().isBefore(currentHead.getCreationTime());
+    }
+
+    private static GenerationRequestSource sourceOf(SbomGenerationRequest request) {
+        return Optional.ofNullable(request.getSource()).orElse(GenerationRequestSource.REST);
+    }
+
+    private static String classOf(SbomGenerationRequest request) {
+        return sourceOf(request) + "/" + request.getType();
+    }
+
+    private void recordWaitTimes(List<SbomGenerationRequest> batch) {
+        if (meterRegistry == null) {
+            return;
+        }
+
+        Instant now = Instant.now();
+
+        batch.stream().filter(r -> r.getCreationTime() != null).forEach(r -> {
+            Timer.builder("sbomer.generation.queue.wait")
+                    .description("Time generation requests waited to be scheduled")
+                    .tags(tagsOf(sourceOf(r).toName(), r.getType() != null ? r.getType().toName() : null))
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(Duration.between(r.getCreationTime(), now));
+        });
+    }
+
+    /**
+     * Samples the number of generation requests waiting to be scheduled in every class.
+     */
+    @Scheduled(
+            every = "${sbomer.service.generation-scheduler.queue-metrics-interval:1m}",
+            delay = 1,
+            delayUnit = TimeUnit.MINUTES,
+            concurrentExecution = ConcurrentExecution.SKIP)
+    void sampleQueueDepths() {
+        if (meterRegistry == null) {
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> depths = QuarkusTransaction.requiringNew()
+                .call(
+                        () -> requestRepository.getEntityManager()
+                                .createNativeQuery(
+                                        String.format(
+                                                "SELECT source, type, COUNT(*) FROM sbom_generation_request WHERE status = '%s' GROUP BY source, type",
+                                                SbomGenerationStatus.NEW))
+                                .getResultList());
+
+        // Classes which are not in the result anymore have empty queues
+        queueDepths.values().forEach(depth -> depth.set(0));
+
+        depths.forEach(row -> {
+            String source = row[0] != null ? GenerationRequestSource.fromName(row[0].toString()).toName() : null;
+            String type = row[1] != null ? GenerationRequestType.fromName(row[1].toString()).toName() : null;
+
+            queueDepths.computeIfAbsent(
+                    tagsOf(source, type),
+                    tags -> meterRegistry.gauge("sbomer.generation.queue.depth", tags, new AtomicLong()))
+                    .set(((Number) row[2]).longValue());
+        });
+    }
+
+    private static Tags tagsOf(String source, String type) {
+        return Tags.of("source", source != null ? source : "unknown", "type", type != null ? type : "unknown");
+    }
+}
@@ -22,9 +22,13 @@ import static org.jboss.sbomer.core.features.sbom.utils.MDCUtils.MDC_TRACE_FLAGS
 import static org.jboss.sbomer.core.features.sbom.utils.MDCUtils.MDC_TRACE_ID_KEY;
 import static org.jboss.sbomer.core.features.sbom.utils.MDCUtils.MDC_TRACE_STATE_KEY;
 
+import java.net.HttpURLConnection;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.jboss.pnc.common.otel.OtelUtils;
 import org.jboss.sbomer.core.features.sbom.utils.OtelHelper;
@@ -38,6 +42,7 @@ import org.slf4j.MDC;
 
 import io.fabric8.kubernetes.api.model.ConfigMap;
 import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
 import io.opentelemetry.api.GlobalOpenTelemetry;
 import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.SpanBuilder;
@@ -63,16 +68,40 @@ public class GenerationRequestScheduler {
 
     LeaderManager leaderManager;
 
-    @Inject
+    GenerationRequestTracker generationRequestTracker;
+
+    GenerationRequestQueue generationRequestQueue;
+
+    private final ReentrantLock schedulingLock = new ReentrantLock();
+
     public GenerationRequestScheduler(
             SbomGenerationRequestRepository requestRepository,
             KubernetesClient kubernetesClient,
             GenerationSchedulerConfig generationSchedulerConfig,
             LeaderManager leaderManager) {
+        this(
+                requestRepository,
+                kubernetesClient,
+                generationSchedulerConfig,
+                leaderManager,
+                null,
+                new GenerationRequestQueue(requestRepository, generationSchedulerConfig, null));
+    }
+
+    @Inject
+    public GenerationRequestScheduler(
+            SbomGenerationRequestRepository requestRepository,
+            KubernetesClient kubernetesClient,
+            GenerationSchedulerConfig generationSchedulerConfig,
+            LeaderManager leaderManager,
+            GenerationRequestTracker generationRequestTracker,
+            GenerationRequestQueue generationRequestQueue) {
         this.requestRepository = requestRepository;
         this.kubernetesClient = kubernetesClient;
         this.generationSchedulerConfig = generationSchedulerConfig;
         this.leaderManager = leaderManager;
+        this.generationRequestTracker = generationRequestTracker;
+        this.generationRequestQueue = generationRequestQueue;
     }
 
     /**
@@ -83,7 +112,8 @@ public class GenerationRequestScheduler {
      * <p>
      * If there are less than {@link GenerationSchedulerConfig#maxConcurrentGenerations()} generations currently running
      * it will check whether there are some generations waiting to be scheduled in the database. If there are such
-     * generations found, it will fetch up to {@link GenerationSchedulerConfig#syncBatch()} generations and create
+     * generations found, it will fetch up to {@link GenerationSchedulerConfig#syncBatch()} generations (selected by the
+     * {@link GenerationRequestQueue} according to the {@link GenerationSchedulerConfig#policy()}) and create
      * {@link GenerationRequest} instances (basically ConfigMap) for each one of them. These ill then will be picked by
      * the controller.
      * </p>
@@ -91,7 +121,14 @@ public class GenerationRequestScheduler {
      *
      * <p>
      * This method is run periodically. By default every 15 seconds. It is controlled by the
-     * {@code sbomer.service.generation-scheduler.sync-interval} property.
+     * {@code sbomer.service.generation-scheduler.sync-interval} property. Additionally, if
+     * {@link GenerationSchedulerConfig#eventDriven()} is enabled, it is run by the {@link GenerationSchedulingTrigger}
+     * as soon as new generation requests are stored or capacity is freed.
+     * </p>
+     *
+     * <p>
+     * Runs are executed one at a time, whichever the caller, so that the capacity check is not raced by another run.
+     * The lock is taken before the transaction is started.
      * </p>
      */
     @Scheduled(
@@ -99,20 +136,32 @@ public class GenerationRequestScheduler {
             delay = 1,
             delayUnit = TimeUnit.MINUTES,
             concurrentExecution = ConcurrentExecution.SKIP)
-    @Transactional(value = TxType.REQUIRES_NEW)
     public void scheduleGenerations() {
+        schedulingLock.lock();
+
+        try {
+            doScheduleGenerations();
+        } finally {
+            schedulingLock.unlock();
+        }
+    }
+
+    @Transactional(value = TxType.REQUIRES_NEW)
+    void doScheduleGenerations() {
         if (!leaderManager.isLeader()) {
             log.info("Current instance is not the leader, skipping scheduling of generations in this instance");
+
+            if (generationRequestTracker != null) {
+                generationRequestTracker.stop();
+            }
+
             return;
         }
 
-        // Get all ConfigMaps that represent generation requests within the namespace that are in progress
-        int scheduledGenerationsCount = kubernetesClient.configMaps()
-                .withLabelSelector(
-                        "sbomer.jboss.org/type=generation-request,sbomer.jboss.org/status notin (FAILED, FINISHED)")
-                .list()
-                .getItems()
-                .size();
+        // Any work claimed below is abandoned as soon as this leadership is lost
+        long fencingToken = leaderManager.getFencingToken();
+
+        int scheduledGenerationsCount = countGenerationsInProgress();
 
         log.info("There are {} generations in progress", scheduledGenerationsCount);
 
@@ -127,22 +176,61 @@ public class GenerationRequestScheduler {
 
         log.debug("There is space in the cluster to process new generations, fetching them now...");
 
-        @SuppressWarnings("unchecked")
-        List<SbomGenerationRequest> oldestResultsBatch = requestRepository.getEntityManager()
-                .createNativeQuery(
-                        String.format(
-                                "SELECT * FROM sbom_generation_request WHERE status = '%s' ORDER BY creation_time ASC FOR UPDATE SKIP LOCKED LIMIT %s",
-                                SbomGenerationStatus.NEW,
-                                generationSchedulerConfig.syncBatch()),
-                        SbomGenerationRequest.class)
-                .getResultList();
+        List<SbomGenerationRequest> batch = generationRequestQueue.nextBatch(generationSchedulerConfig.syncBatch());
 
-        log.debug("Got {} generations to be scheduled...", oldestResultsBatch.size());
+        log.debug("Got {} generations to be scheduled...", batch.size());
+
+        for (SbomGenerationRequest g : batch) {
+            if (leaderManager.isFenced(fencingToken)) {
+                log.warn(
+                        "Leadership with fencing token {} was lost, leaving generation '{}' and the rest of the batch "
+                                + "to the new leader",
+                        fencingToken,
+                        g.getId());
+                return;
+            }
 
-        oldestResultsBatch.forEach(g -> {
             g.setStatus(SbomGenerationStatus.SCHEDULED);
             schedule(g);
-        });
+        }
+    }
+
+    /**
+     * Counts the generation requests in progress within the namespace. The count is taken from the
+     * {@link GenerationRequestTracker} when available, otherwise all ConfigMaps representing generation requests in
+     * progress are listed.
+     */
+    private int countGenerationsInProgress() {
+        if (generationRequestTracker != null) {
+            OptionalInt count = generationRequestTracker.countInProgress();
+
+            if (count.isPresent()) {
+                return count.getAsInt();
+            }
+        }
+
+        // Get all ConfigMaps that represent generation requests within the namespace that are in progress
+        return kubernetesClient.configMaps()
+                .withLabelSelector(
+                        "sbomer.jboss.org/type=generation-request,sbomer.jboss.org/status notin (FAILED, FINISHED)")
+                .list()
+                .getItems()
+                .size();
+    }
+
+    /**
+     * Checks whether the ConfigMap representing a generation request is known to exist already, according to the
+     * {@link GenerationRequestTracker}. The informer cache can lag behind the cluster, a ConfigMap not known to exist
+     * may still exist, this is handled when the ConfigMap is created.
+     */
+    private boolean generationRequestKnownToExist(String configMapName) {
+        if (generationRequestTracker == null) {
+            return false;
+        }
+
+        Optional<Boolean> exists = generationRequestTracker.exists(configMapName);
+
+        return exists.isPresent() && exists.get();
     }
 
     /**
@@ -151,7 +239,8 @@ public class GenerationRequestScheduler {
      * </p>
      *
      * <p>
-     * A new ConfigMap is created if it does not exist already.
+     * A new ConfigMap is created if it does not exist already. The ConfigMap is never replaced, a ConfigMap created in
+     * the meantime (the creation is rejected with a conflict) is left untouched.
      * </p>
      *
      * @param sbomGenerationRequest
@@ -160,9 +249,8 @@ public class GenerationRequestScheduler {
         log.debug("Scheduling Generation Request '{}'...", sbomGenerationRequest.getId());
 
         String configMapName = "sbom-request-" + sbomGenerationRequest.getId().toLowerCase();
-        GenerationRequest request = (GenerationRequest) kubernetesClient.configMaps().withName(configMapName).get();
 
-        if (request != null) {
+        if (generationRequestKnownToExist(configMapName)) {
             log.warn(
                     "The generation request '{}' already exists as a ConfigMap, skipping sync",
                     sbomGenerationRequest.getId());
@@ -204,7 +292,7 @@ public class GenerationRequestScheduler {
 
         // put the span into the current Context
         try (Scope scope = span.makeCurrent()) {
-            request = new GenerationRequestBuilder(sbomGenerationRequest.getType())
+            GenerationRequest request = new GenerationRequestBuilder(sbomGenerationRequest.getType())
                     .withId(sbomGenerationRequest.getId())
                     .withConfig(sbomGenerationRequest.getConfig())
                     .withIdentifier(sbomGenerationRequest.getIdentifier())
@@ -220,7 +308,25 @@ public class GenerationRequestScheduler {
                                     span.getSpanContext().getTraceFlags().asHex()))
                     .build();
 
-            ConfigMap cm = kubernetesClient.configMaps().resource(request).createOrReplace();
+            ConfigMap cm;
+
+            try {
+                cm = kubernetesClient.configMaps().resource(request).create();
+            } catch (KubernetesClientException e) {
+                if (e.getCode() != HttpURLConnection.HTTP_CONFLICT) {
+                    throw e;
+                }
+
+                log.warn(
+                        "The generation request '{}' already exists as a ConfigMap, skipping sync",
+                        sbomGenerationRequest.getId());
+                return;
+            }
+
+            if (generationRequestTracker != null) {
+                // Counted as in progress until the informer sees it, otherwise the next run could exceed the capacity
+                generationRequestTracker.created(configMapName);
+            }
 
             log.debug(
                     "ConfigMap '{}' created as a representation of the Generation Request '{}'...",
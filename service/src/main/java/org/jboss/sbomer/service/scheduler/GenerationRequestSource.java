@@ -0,0 +1,55 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.scheduler;
+
+import org.jboss.sbomer.core.config.request.ErrataAdvisoryRequestConfig;
+import org.jboss.sbomer.core.features.sbom.enums.RequestEventType;
+import org.jboss.sbomer.service.feature.sbom.model.RequestEvent;
+
+/**
+ * The origin of a generation request, used to share the scheduling capacity fairly between sources.
+ */
+public enum GenerationRequestSource {
+    REST, UMB, ERRATA;
+
+    /**
+     * Determines the source of generation requests created for the given {@link RequestEvent}.
+     *
+     * @param requestEvent the request event, can be {@code null}
+     * @return the source
+     */
+    public static GenerationRequestSource of(RequestEvent requestEvent) {
+        if (requestEvent == null) {
+            return REST;
+        }
+
+        if (requestEvent.getRequestConfig() instanceof ErrataAdvisoryRequestConfig) {
+            return ERRATA;
+        }
+
+        return RequestEventType.UMB.equals(requestEvent.getEventType()) ? UMB : REST;
+    }
+
+    public static GenerationRequestSource fromName(String source) {
+        return GenerationRequestSource.valueOf(source.toUpperCase());
+    }
+
+    public String toName() {
+        return this.name().toLowerCase();
+    }
+}
@@ -0,0 +1,299 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.scheduler;
+
+import static org.jboss.sbomer.service.feature.sbom.k8s.resources.Labels.LABEL_STATUS;
+import static org.jboss.sbomer.service.feature.sbom.k8s.resources.Labels.LABEL_TYPE;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+
+import org.jboss.sbomer.service.feature.sbom.k8s.model.SbomGenerationStatus;
+import org.jboss.sbomer.service.leader.LeadershipChangedEvent;
+
+import io.fabric8.kubernetes.api.model.ConfigMap;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.informers.ResourceEventHandler;
+import io.fabric8.kubernetes.client.informers.SharedIndexInformer;
+import io.fabric8.kubernetes.client.informers.cache.Cache;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>
+ * Keeps track of the generation requests (ConfigMaps) within the namespace using an informer, so that the number of
+ * generations in progress and the existence of a generation request can be read from memory instead of listing all
+ * ConfigMaps through the Kubernetes API.
+ * </p>
+ *
+ * <p>
+ * The informer cache is indexed by the {@code sbomer.jboss.org/status} label ({@link #STATUS_INDEX}), counts are index
+ * lookups.
+ * </p>
+ *
+ * <p>
+ * The generation requests created by the scheduler are counted as in progress until the informer sees them, so that
+ * the scheduling runs following each other closely do not exceed the capacity.
+ * </p>
+ *
+ * <p>
+ * Whenever a generation request finishes (or is removed) capacity is freed and the
+ * {@link GenerationSchedulingTrigger} is notified.
+ * </p>
+ */
+@ApplicationScoped
+@Slf4j
+public class GenerationRequestTracker implements ResourceEventHandler<ConfigMap> {
+
+    /**
+     * Index of the generation requests by their status label.
+     */
+    public static final String STATUS_INDEX = "status";
+
+    /**
+     * Index key of the generation requests without the indexed label.
+     */
+    public static final String NO_LABEL = "NONE";
+
+    /**
+     * Time after which a generation request created by the scheduler, but not seen by the informer, is not counted
+     * anymore.
+     */
+    static final Duration CREATED_EXPIRY = Duration.ofMinutes(5);
+
+    KubernetesClient kubernetesClient;
+
+    GenerationSchedulerConfig generationSchedulerConfig;
+
+    GenerationSchedulingTrigger schedulingTrigger;
+
+    SharedIndexInformer<ConfigMap> informer;
+
+    /**
+     * Keys of the generation requests created by the scheduler which were not seen by the informer yet, with their
+     * creation time.
+     */
+    private final Map<String, Instant> created = new HashMap<>();
+
+    @Inject
+    public GenerationRequestTracker(
+            KubernetesClient kubernetesClient,
+            GenerationSchedulerConfig generationSchedulerConfig,
+            GenerationSchedulingTrigger schedulingTrigger) {
+        this.kubernetesClient = kubernetesClient;
+        this.generationSchedulerConfig = generationSchedulerConfig;
+        this.schedulingTrigger = schedulingTrigger;
+    }
+
+    /**
+     * Returns the number of generation requests in progress, if known. The informer is started on first use.
+     *
+     * @return the number of generation requests in progress or empty if it is not (yet) known
+     */
+    public synchronized OptionalInt countInProgress() {
+        ensureInformer();
+
+        if (!isSynced()) {
+            return OptionalInt.empty();
+        }
+
+        // Mirrors the "sbomer.jboss.org/status notin (FAILED, FINISHED)" label selector
+        int total = informer.getStore().listKeys().size();
+        int done = count(STATUS_INDEX, SbomGenerationStatus.FAILED.name())
+                + count(STATUS_INDEX, SbomGenerationStatus.FINISHED.name());
+
+        return OptionalInt.of(total - done + countCreatedNotSeen());
+    }
+
+    /**
+     * Records that the generation request with the provided name was just created, it is counted as in progress until
+     * the informer sees it.
+     *
+     * @param name the name of the ConfigMap representing the generation request
+     */
+    public synchronized void created(String name) {
+        if (informer == null) {
+            return;
+        }
+
+        created.put(Cache.namespaceKeyFunc(kubernetesClient.getNamespace(), name), Instant.now());
+    }
+
+    /**
+     * Returns whether the generation request with the provided name exists in the cluster, if known. The informer is
+     * started on first use.
+     *
+     * @param name the name of the ConfigMap representing the generation request
+     * @return whether the generation request exists or empty if it is not (yet) known
+     */
+    public synchronized Optional<Boolean> exists(String name) {
+        ensureInformer();
+
+        if (!isSynced()) {
+            return Optional.empty();
+        }
+
+        String key = Cache.namespaceKeyFunc(kubernetesClient.getNamespace(), name);
+
+        return Optional.of(informer.getStore().getByKey(key) != null || created.containsKey(key));
+    }
+
+    /**
+     * Returns the number of generation requests in the cluster by their status, if tracked. Does not start the
+     * informer, meaning that the counts are available only on the instance scheduling the generations.
+     *
+     * @return the number of generation requests by status or empty if these are not tracked
+     */
+    public synchronized Optional<Map<String, Integer>> countByStatus() {
+        if (!isSynced()) {
+            return Optional.empty();
+        }
+
+        Map<String, Integer> counts = new LinkedHashMap<>();
+
+        for (SbomGenerationStatus status : SbomGenerationStatus.values()) {
+            putIfPresent(counts, status.name(), count(STATUS_INDEX, status.name()));
+        }
+
+        putIfPresent(counts, NO_LABEL, count(STATUS_INDEX, NO_LABEL));
+
+        return Optional.of(counts);
+    }
+
+    /**
+     * Stops the informer, for example when the current instance is not the leader anymore.
+     */
+    @PreDestroy
+    public synchronized void stop() {
+        if (informer != null) {
+            log.info("Stopping generation request informer");
+            informer.close();
+            informer = null;
+        }
+
+        created.clear();
+    }
+
+    void onLeadershipChanged(@Observes LeadershipChangedEvent event) {
+        if (!event.leader()) {
+            stop();
+        }
+    }
+
+    private boolean isSynced() {
+        return informer != null && informer.hasSynced();
+    }
+
+    /**
+     * Forgets the created generation requests which are seen by the informer now (or were not for too long) and
+     * returns the number of the remaining ones.
+     */
+    private int countCreatedNotSeen() {
+        Instant expiry = Instant.now().minus(CREATED_EXPIRY);
+
+        created.entrySet()
+                .removeIf(
+                        entry -> entry.getValue().isBefore(expiry)
+                                || informer.getStore().getByKey(entry.getKey()) != null);
+
+        return created.size();
+    }
+
+    private int count(String index, String key) {
+        return informer.getIndexer().byIndex(index, key).size();
+    }
+
+    private static void putIfPresent(Map<String, Integer> counts, String key, int count) {
+        if (count > 0) {
+            counts.put(key, count);
+        }
+    }
+
+    private static List<String> labelValue(ConfigMap configMap, String label) {
+        return List.of(
+                Optional.ofNullable(configMap.getMetadata().getLabels())
+                        .map(labels -> labels.get(label))
+                        .orElse(NO_LABEL));
+    }
+
+    private void ensureInformer() {
+        if (informer != null && informer.isRunning()) {
+            return;
+        }
+
+        stop();
+
+        log.info("Instantiating informer for generation requests");
+
+        try {
+            SharedIndexInformer<ConfigMap> created = kubernetesClient.configMaps()
+                    .withLabel(LABEL_TYPE, "generation-request")
+                    .runnableInformer(generationSchedulerConfig.informerResyncPeriod().toMillis());
+
+            created.addIndexers(Map.of(STATUS_INDEX, configMap -> labelValue(configMap, LABEL_STATUS)));
+            created.addEventHandler(this);
+            created.start();
+
+            informer = created;
+        } catch (Exception e) {
+            log.warn("Unable to start the generation request informer", e);
+            informer = null;
+        }
+    }
+
+    @Override
+    public void onAdd(ConfigMap configMap) {
+        // Nothing to do, new generation requests are counted on the next scheduling run (the ones created by the
+        // scheduler are counted already, see #created(String))
+    }
+
+    @Override
+    public void onUpdate(ConfigMap oldConfigMap, ConfigMap newConfigMap) {
+        if (isInProgress(oldConfigMap) && !isInProgress(newConfigMap)) {
+            log.debug("Generation request '{}' finished, capacity freed", newConfigMap.getMetadata().getName());
+            schedulingTrigger.wakeUp();
+        }
+    }
+
+    @Override
+    public void onDelete(ConfigMap configMap, boolean deletedFinalStateUnknown) {
+        if (isInProgress(configMap)) {
+            log.debug("Generation request '{}' removed, capacity freed", configMap.getMetadata().getName());
+            schedulingTrigger.wakeUp();
+        }
+    }
+
+    /**
+     * Mirrors the {@code sbomer.jboss.org/status notin (FAILED, FINISHED)} label selector.
+     */
+    private boolean isInProgress(ConfigMap configMap) {
+        String status = labelValue(configMap, LABEL_STATUS).get(0);
+
+        return !SbomGenerationStatus.FAILED.name().equals(status)
+                && !SbomGenerationStatus.FINISHED.name().equals(status);
+    }
+}
@@ -17,8 +17,12 @@
  */
 package org.jboss.sbomer.service.scheduler;
 
+import java.time.Duration;
+import java.util.Map;
+
 import io.smallrye.config.ConfigMapping;
 import io.smallrye.config.WithDefault;
+import io.smallrye.config.WithDefaults;
 import jakarta.enterprise.context.ApplicationScoped;
 
 @ApplicationScoped
@@ -42,4 +46,43 @@ public interface GenerationSchedulerConfig {
      */
     @WithDefault("15s")
     String syncInterval();
+
+    /**
+     * Whether generations should be scheduled as soon as new generation requests are stored or capacity is freed. If
+     * enabled, the periodic run is only a safety net.
+     */
+    @WithDefault("true")
+    boolean eventDriven();
+
+    /**
+     * The resync period of the informer tracking the generation requests in the cluster.
+     */
+    @WithDefault("5m")
+    Duration informerResyncPeriod();
+
+    /**
+     * The interval on which the depth of the generation request queues is sampled for the metrics.
+     */
+    @WithDefault("1m")
+    String queueMetricsInterval();
+
+    /**
+     * The order in which generation requests waiting in the database are scheduled.
+     */
+    @WithDefault("fair")
+    SchedulingPolicy policy();
+
+    /**
+     * Relative share of the scheduling capacity for every {@link GenerationRequestSource} (by its name, for example
+     * {@code rest}), used by the {@link SchedulingPolicy#FAIR} policy. Sources not listed have weight 1.
+     */
+    @WithDefaults
+    Map<String, Integer> sourceWeights();
+
+    /**
+     * Relative share of the scheduling capacity for every generation request type (by its name, for example
+     * {@code containerimage}), used by the {@link SchedulingPolicy#FAIR} policy. Types not listed have weight 1.
+     */
+    @WithDefaults
+    Map<String, Integer> typeWeights();
 }
@@ -0,0 +1,124 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.scheduler;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.jboss.sbomer.service.leader.LeadershipChangedEvent;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>
+ * Runs the {@link GenerationRequestScheduler} as soon as there may be something to schedule, instead of waiting for
+ * the next periodic run.
+ * </p>
+ *
+ * <p>
+ * Wake-ups are coalesced: any number of wake-ups requested while a scheduling run is queued results in a single run.
+ * Runs are serialized with the periodic ones by the {@link GenerationRequestScheduler} itself, so that the capacity
+ * check is not raced by another run.
+ * </p>
+ *
+ * <p>
+ * The {@link NewGenerationRequestEvent} is only observed within the instance which stored the generation request, the
+ * {@link GenerationRequestNotificationListener} wakes the leader up for the ones stored by other instances.
+ * </p>
+ */
+@ApplicationScoped
+@Slf4j
+public class GenerationSchedulingTrigger {
+
+    GenerationRequestScheduler scheduler;
+
+    GenerationSchedulerConfig generationSchedulerConfig;
+
+    private final AtomicBoolean pending = new AtomicBoolean();
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "generation-scheduling-trigger");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Inject
+    public GenerationSchedulingTrigger(
+            GenerationRequestScheduler scheduler,
+            GenerationSchedulerConfig generationSchedulerConfig) {
+        this.scheduler = scheduler;
+        this.generationSchedulerConfig = generationSchedulerConfig;
+    }
+
+    /**
+     * Triggers scheduling once the transaction which stored a new generation request was committed.
+     *
+     * @param event the event
+     */
+    void onNewGenerationRequest(@Observes(during = TransactionPhase.AFTER_SUCCESS) NewGenerationRequestEvent event) {
+        log.debug("New generation request '{}' stored, triggering scheduling", event.generationRequestId());
+        wakeUp();
+    }
+
+    /**
+     * Triggers scheduling as soon as the current instance becomes the leader, instead of waiting for the next periodic
+     * run.
+     *
+     * @param event the event
+     */
+    void onLeadershipChanged(@Observes LeadershipChangedEvent event) {
+        if (event.leader()) {
+            wakeUp();
+        }
+    }
+
+    /**
+     * Requests a scheduling run. Does nothing if the event-driven scheduling is disabled.
+     */
+    public void wakeUp() {
+        if (!generationSchedulerConfig.eventDriven()) {
+            return;
+        }
+
+        if (!pending.compareAndSet(false, true)) {
+            log.trace("Scheduling run already requested, skipping");
+            return;
+        }
+
+        executor.execute(() -> {
+            pending.set(false);
+
+            try {
+                scheduler.scheduleGenerations();
+            } catch (Exception e) {
+                log.warn("Unable to schedule generations, these will be picked by the periodic run", e);
+            }
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.stats;
+
+import io.micrometer.core.instrument.Tags;
+import lombok.Getter;
+
+/**
+ * Counters backing the statistics endpoint, maintained by the {@link StatsCounters}.
+ */
+@Getter
+public enum StatsCounter {
+    SBOMS("sbomer.stats.manifests", Tags.empty()),
+    GENERATION_REQUESTS("sbomer.stats.generations", Tags.empty()),
+    GENERATION_REQUESTS_IN_PROGRESS("sbomer.stats.generations.in_progress", Tags.empty()),
+    PNC_RECEIVED("sbomer.stats.umb.messages", Tags.of("consumer", "pnc", "status", "received")),
+    PNC_PROCESSED("sbomer.stats.umb.messages", Tags.of("consumer", "pnc", "status", "processed")),
+    PNC_SKIPPED("sbomer.stats.umb.messages", Tags.of("consumer", "pnc", "status", "skipped")),
+    ERRATA_RECEIVED("sbomer.stats.umb.messages", Tags.of("consumer", "errata", "status", "received")),
+    ERRATA_PROCESSED("sbomer.stats.umb.messages", Tags.of("consumer", "errata", "status", "processed")),
+    ERRATA_SKIPPED("sbomer.stats.umb.messages", Tags.of("consumer", "errata", "status", "skipped"));
+
+    private final String metricName;
+
+    private final Tags tags;
+
+    StatsCounter(String metricName, Tags tags) {
+        this.metricName = metricName;
+        this.tags = tags;
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.stats;
+
+import static org.jboss.sbomer.service.feature.sbom.model.RequestEvent.EVENT_KEY_UMB_CONSUMER;
+import static org.jboss.sbomer.service.feature.sbom.model.RequestEvent.EVENT_KEY_UMB_MSG_STATUS;
+import static org.jboss.sbomer.service.feature.sbom.model.RequestEvent.EVENT_KEY_UMB_MSG_TYPE;
+import static org.jboss.sbomer.service.feature.sbom.model.RequestEvent.EVENT_VALUE_UMB_UNKNOWN_MSG_TYPE;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.sbomer.core.features.sbom.enums.RequestEventType;
+import org.jboss.sbomer.core.features.sbom.enums.UMBConsumer;
+import org.jboss.sbomer.core.features.sbom.enums.UMBMessageStatus;
+import org.jboss.sbomer.service.feature.sbom.config.features.UmbConfig;
+import org.jboss.sbomer.service.feature.sbom.k8s.model.SbomGenerationStatus;
+import org.jboss.sbomer.service.feature.sbom.model.RequestEvent;
+import org.jboss.sbomer.service.feature.sbom.model.SbomGenerationRequest;
+import org.jboss.sbomer.service.feature.sbom.service.RequestEventRepository;
+import org.jboss.sbomer.service.feature.sbom.service.SbomService;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.arc.Arc;
+import io.quarkus.scheduler.Scheduled;
+import io.quarkus.scheduler.Scheduled.ConcurrentExecution;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * <p>
+ * Keeps the numbers served by the statistics endpoint in memory, so that these do not need to be counted in the
+ * database on every request.
+ * </p>
+ *
+ * <p>
+ * Entities accounted in the counters fire a {@link StatsCountersChangedEvent} when stored or removed, the counters are
+ * updated once the transaction is committed. Changes done outside of the entity lifecycle (bulk updates, other
+ * service instances) are picked up by the periodic reconciliation against the database, controlled by the
+ * {@code sbomer.stats.reconcile-interval} property. All counters are exposed as gauges as well.
+ * </p>
+ */
+@ApplicationScoped
+@Slf4j
+public class StatsCounters {
+
+    private static final Set<SbomGenerationStatus> FINAL_STATUSES = EnumSet
+            .of(SbomGenerationStatus.FINISHED, SbomGenerationStatus.FAILED, SbomGenerationStatus.NO_OP);
+
+    SbomService sbomService;
+
+    RequestEventRepository requestEventRepository;
+
+    UmbConfig umbConfig;
+
+    private final Map<StatsCounter, AtomicLong> values = new EnumMap<>(StatsCounter.class);
+
+    private volatile boolean reconciled = false;
+
+    @Inject
+    public StatsCounters(
+            SbomService sbomService,
+            RequestEventRepository requestEventRepository,
+            UmbConfig umbConfig,
+            MeterRegistry meterRegistry) {
+        this.sbomService = sbomService;
+        this.requestEventRepository = requestEventRepository;
+        this.umbConfig = umbConfig;
+
+        for (StatsCounter counter : StatsCounter.values()) {
+            AtomicLong value = new AtomicLong();
+            values.put(counter, value);
+
+            if (meterRegistry != null) {
+                Gauge.builder(counter.getMetricName(), value, AtomicLong::get)
+                        .tags(counter.getTags())
+                        .register(meterRegistry);
+            }
+        }
+    }
+
+    /**
+     * Returns the current value of the counter. The counters are reconciled with the database on the first call, if
+     * the periodic reconciliation did not run yet.
+     *
+     * @param counter the counter
+     * @return the current value
+     */
+    public long get(StatsCounter counter) {
+        if (!reconciled) {
+            reconcile();
+        }
+
+        return values.get(counter).get();
+    }
+
+    /**
+     * Sets all counters to the values counted in the database.
+     */
+    @Scheduled(
+            every = "${sbomer.stats.reconcile-interval:10m}",
+            delay = 1,
+            delayUnit = TimeUnit.MINUTES,
+            concurrentExecution = ConcurrentExecution.SKIP)
+    @Transactional
+    public synchronized void reconcile() {
+        log.debug("Reconciling statistics counters with the database");
+
+        values.get(StatsCounter.SBOMS).set(sbomService.countSboms());
+        values.get(StatsCounter.GENERATION_REQUESTS).set(sbomService.countSbomGenerationRequests());
+        values.get(StatsCounter.GENERATION_REQUESTS_IN_PROGRESS)
+                .set(sbomService.countInProgressSbomGenerationRequests());
+
+        if (umbConfig.isEnabled()) {
+            values.get(StatsCounter.PNC_RECEIVED).set(requestEventRepository.countPncReceivedMessages());
+            values.get(StatsCounter.PNC_PROCESSED).set(requestEventRepository.countPncProcessedMessages());
+            values.get(StatsCounter.PNC_SKIPPED).set(requestEventRepository.countPncSkippedMessages());
+            values.get(StatsCounter.ERRATA_RECEIVED).set(requestEventRepository.countErrataReceivedMessages());
+            values.get(StatsCounter.ERRATA_PROCESSED).set(requestEventRepository.countErrataProcessedMessages());
+            values.get(StatsCounter.ERRATA_SKIPPED).set(requestEventRepository.countErrataSkippedMessages());
+        }
+
+        reconciled = true;
+    }
+
+    /**
+     * Applies the change once the transaction which stored the entity was committed.
+     *
+     * @param event the event
+     */
+    public void onChange(@Observes(during = TransactionPhase.AFTER_SUCCESS) StatsCountersChangedEvent event) {
+        for (StatsCounter counter : event.previous()) {
+            if (!event.current().contains(counter)) {
+                values.get(counter).decrementAndGet();
+            }
+        }
+
+        for (StatsCounter counter : event.current()) {
+            if (!event.previous().contains(counter)) {
+                values.get(counter).incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Notifies the counters about the change of an entity, if the set of counters it is accounted in changed.
+     *
+     * @param previous the counters the entity was accounted in before the change, or {@code null}
+     * @param current the counters the entity is accounted in after the change, or {@code null}
+     * @return the {@code current} counters, to be remembered by the entity
+     */
+    public static Set<StatsCounter> track(Set<StatsCounter> previous, Set<StatsCounter> current) {
+        Set<StatsCounter> before = previous == null ? Collections.emptySet() : previous;
+        Set<StatsCounter> after = current == null ? Collections.emptySet() : current;
+
+        if (!before.equals(after) && Arc.container() != null) {
+            Arc.container().beanManager().getEvent().fire(new StatsCountersChangedEvent(before, after));
+        }
+
+        return after;
+    }
+
+    public static Set<StatsCounter> countersOf(SbomGenerationRequest generationRequest) {
+        SbomGenerationStatus status = generationRequest.getStatus();
+
+        if (status == null || FINAL_STATUSES.contains(status)) {
+            return EnumSet.of(StatsCounter.GENERATION_REQUESTS);
+        }
+
+        return EnumSet.of(StatsCounter.GENERATION_REQUESTS, StatsCounter.GENERATION_REQUESTS_IN_PROGRESS);
+    }
+
+    /**
+     * Mirrors the conditions of the {@link RequestEventRepository#countAllUMBEventsFrom(UMBConsumer)} and
+     * {@link RequestEventRepository#countUMBEventsWithStatusFrom(UMBMessageStatus, UMBConsumer)} queries.
+     */
+    public static Set<StatsCounter> countersOf(RequestEvent requestEvent) {
+        JsonNode event = requestEvent.getEvent();
+
+        if (requestEvent.getEventType() != RequestEventType.UMB || event == null
+                || !event.hasNonNull(EVENT_KEY_UMB_CONSUMER)) {
+            return EnumSet.noneOf(StatsCounter.class);
+        }
+
+        String consumer = event.get(EVENT_KEY_UMB_CONSUMER).asText();
+        boolean pnc = UMBConsumer.PNC.name().equals(consumer);
+
+        if (!pnc && !UMBConsumer.ERRATA.name().equals(consumer)) {
+            return EnumSet.noneOf(StatsCounter.class);
+        }
+
+        Set<StatsCounter> counters = EnumSet.of(pnc ? StatsCounter.PNC_RECEIVED : StatsCounter.ERRATA_RECEIVED);
+
+        if (!event.hasNonNull(EVENT_KEY_UMB_MSG_TYPE)
+                || Objects.equals(event.get(EVENT_KEY_UMB_MSG_TYPE).asText(), EVENT_VALUE_UMB_UNKNOWN_MSG_TYPE)
+                || !event.hasNonNull(EVENT_KEY_UMB_MSG_STATUS)) {
+            return counters;
+        }
+
+        String status = event.get(EVENT_KEY_UMB_MSG_STATUS).asText();
+
+        if (UMBMessageStatus.ACK.name().equals(status)) {
+            counters.add(pnc ? StatsCounter.PNC_PROCESSED : StatsCounter.ERRATA_PROCESSED);
+        } else if (UMBMessageStatus.SKIPPED.name().equals(status)) {
+            counters.add(pnc ? StatsCounter.PNC_SKIPPED : StatsCounter.ERRATA_SKIPPED);
+        }
+
+        return counters;
+    }
+}
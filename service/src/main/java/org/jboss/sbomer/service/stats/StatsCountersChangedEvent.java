@@ -0,0 +1,31 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.stats;
+
+import java.util.Set;
+
+/**
+ * Fired when an entity which is accounted in the {@link StatsCounters} is stored or removed. The counters the entity
+ * was accounted in before the change are decremented and the counters it is accounted in after the change are
+ * incremented.
+ *
+ * @param previous the counters the entity was accounted in before the change
+ * @param current the counters the entity is accounted in after the change
+ */
+public record StatsCountersChangedEvent(Set<StatsCounter> previous, Set<StatsCounter> current) {
+}
@@ -22,7 +22,6 @@ import java.time.Duration;
 
 import org.eclipse.microprofile.config.ConfigProvider;
 import org.jboss.sbomer.service.feature.sbom.config.features.UmbConfig;
-import org.jboss.sbomer.service.feature.sbom.features.umb.consumer.AmqpMessageConsumer;
 import org.jboss.sbomer.service.feature.sbom.features.umb.producer.AmqpMessageProducer;
 import org.jboss.sbomer.service.feature.sbom.model.Stats;
 import org.jboss.sbomer.service.feature.sbom.model.Stats.Deployment;
@@ -33,25 +32,25 @@ import org.jboss.sbomer.service.feature.sbom.model.Stats.PncConsumer;
 import org.jboss.sbomer.service.feature.sbom.model.Stats.Producer;
 import org.jboss.sbomer.service.feature.sbom.model.Stats.Resources;
 import org.jboss.sbomer.service.feature.sbom.model.Stats.SbomStats;
-import org.jboss.sbomer.service.feature.sbom.service.SbomService;
+import org.jboss.sbomer.service.scheduler.GenerationRequestTracker;
 
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 
 @ApplicationScoped
 public class StatsService {
-    @Inject
-    AmqpMessageConsumer messageConsumer;
-
     @Inject
     AmqpMessageProducer messageProducer;
 
     @Inject
-    SbomService sbomService;
+    StatsCounters statsCounters;
 
     @Inject
     UmbConfig umbConfig;
 
+    @Inject
+    GenerationRequestTracker generationRequestTracker;
+
     private long getUptimeMillis() {
         return ManagementFactory.getRuntimeMXBean().getUptime();
     }
@@ -61,13 +60,14 @@ public class StatsService {
     }
 
     private SbomStats sbomStats() {
-        return SbomStats.builder().withTotal(sbomService.countSboms()).build();
+        return SbomStats.builder().withTotal(statsCounters.get(StatsCounter.SBOMS)).build();
     }
 
     private GenerationRequestStats generationRequestStats() {
         return GenerationRequestStats.builder()
-                .withTotal(sbomService.countSbomGenerationRequests())
-                .withInProgress(sbomService.countInProgressSbomGenerationRequests())
+                .withTotal(statsCounters.get(StatsCounter.GENERATION_REQUESTS))
+                .withInProgress(statsCounters.get(StatsCounter.GENERATION_REQUESTS_IN_PROGRESS))
+                .withInCluster(generationRequestTracker.countByStatus().orElse(null))
                 .build();
     }
 
@@ -88,15 +88,15 @@ public class StatsService {
             messaging = Messaging.builder()
                     .withPncConsumer(
                             PncConsumer.builder()
-                                    .withProcessed(messageConsumer.getPncProcessedMessages())
-                                    .withReceived(messageConsumer.getPncReceivedMessages())
-                                    .withSkipped(messageConsumer.getPncSkippedMessages())
+                                    .withProcessed(statsCounters.get(StatsCounter.PNC_PROCESSED))
+                                    .withReceived(statsCounters.get(StatsCounter.PNC_RECEIVED))
+                                    .withSkipped(statsCounters.get(StatsCounter.PNC_SKIPPED))
                                     .build())
                     .withErrataConsumer(
                             ErrataConsumer.builder()
-                                    .withProcessed(messageConsumer.getErrataProcessedMessages())
-                                    .withReceived(messageConsumer.getErrataReceivedMessages())
-                                    .withSkipped(messageConsumer.getErrataSkippedMessages())
+                                    .withProcessed(statsCounters.get(StatsCounter.ERRATA_PROCESSED))
+                                    .withReceived(statsCounters.get(StatsCounter.ERRATA_RECEIVED))
+                                    .withSkipped(statsCounters.get(StatsCounter.ERRATA_SKIPPED))
                                     .build())
 
                     .withProducer(
@@ -0,0 +1,32 @@
+--
+-- JBoss, Home of Professional Open Source.
+-- Copyright 2023 Red Hat, Inc., and individual contributors
+-- as indicated by the @author tags.
+--
+-- Licensed under the Apache License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.
+-- You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing, software
+-- distributed under the License is distributed on an "AS IS" BASIS,
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+-- See the License for the specific language governing permissions and
+-- limitations under the License.
+--
+
+BEGIN;
+
+-- Columns used by the scheduler to prioritize generation requests and to share the capacity between sources
+ALTER TABLE sbom_generation_request ADD COLUMN priority integer NOT NULL DEFAULT 0;
+ALTER TABLE sbom_generation_request ADD COLUMN source character varying(255) NULL;
+
+CREATE INDEX idx_request_scheduling ON sbom_generation_request (status, priority DESC, creation_time);
+
+INSERT INTO
+    db_version (version, creation_time)
+VALUES
+    ('00026', now ());
+
+COMMIT;
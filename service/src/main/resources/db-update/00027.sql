@@ -0,0 +1,50 @@
+--
+-- JBoss, Home of Professional Open Source.
+-- Copyright 2023 Red Hat, Inc., and individual contributors
+-- as indicated by the @author tags.
+--
+-- Licensed under the Apache License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.
+-- You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing, software
+-- distributed under the License is distributed on an "AS IS" BASIS,
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+-- See the License for the specific language governing permissions and
+-- limitations under the License.
+--
+
+BEGIN;
+
+-- Idempotency store for the UMB consumers, one row per received message. Only messages with the 'ACK' status are
+-- skipped on redelivery, 'CLAIMED' messages were not processed completely and are taken over by the redelivery.
+CREATE TABLE umb_message_receipt (
+    request_id character varying(255) NOT NULL,
+    consumer character varying(255) NOT NULL,
+    msg_id character varying(255) NOT NULL,
+    creation_time timestamp without time zone NOT NULL,
+    status character varying(20) NOT NULL,
+    duplicates integer NOT NULL DEFAULT 0,
+    CONSTRAINT umb_message_receipt_pkey PRIMARY KEY (request_id),
+    CONSTRAINT uq_umb_message_receipt_consumer_msgid UNIQUE (consumer, msg_id)
+);
+
+-- Seed it with the messages which were already acknowledged, keeping the earliest event for every message
+INSERT INTO umb_message_receipt (request_id, consumer, msg_id, creation_time, status)
+SELECT DISTINCT ON (event ->> 'consumer', event ->> 'msg_id')
+    id, event ->> 'consumer', event ->> 'msg_id', receival_time, 'ACK'
+FROM request
+WHERE event_type = 'UMB'
+    AND event ->> 'msg_status' = 'ACK'
+    AND event ->> 'msg_id' IS NOT NULL
+    AND event ->> 'consumer' IS NOT NULL
+ORDER BY event ->> 'consumer', event ->> 'msg_id', receival_time;
+
+INSERT INTO
+    db_version (version, creation_time)
+VALUES
+    ('00027', now ());
+
+COMMIT;
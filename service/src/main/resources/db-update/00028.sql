@@ -0,0 +1,64 @@
+--
+-- JBoss, Home of Professional Open Source.
+-- Copyright 2023 Red Hat, Inc., and individual contributors
+-- as indicated by the @author tags.
+--
+-- Licensed under the Apache License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.
+-- You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing, software
+-- distributed under the License is distributed on an "AS IS" BASIS,
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+-- See the License for the specific language governing permissions and
+-- limitations under the License.
+--
+
+BEGIN;
+
+-- Keys used to route container image manifests, extracted from the manifest when it is stored
+ALTER TABLE sbom ADD COLUMN nvr text NULL;
+ALTER TABLE sbom ADD COLUMN arch character varying(255) NULL;
+ALTER TABLE sbom ADD COLUMN image_digest character varying(255) NULL;
+
+-- Populate the keys of the container image manifests which are already stored
+UPDATE sbom s
+SET
+    nvr = labels.component || '-' || labels.version || '-' || labels.release
+FROM
+    (
+        SELECT
+            id,
+            (SELECT p ->> 'value' FROM jsonb_array_elements(sbom -> 'components' -> 0 -> 'properties') p WHERE p ->> 'name' = 'sbomer:image:labels:com.redhat.component' LIMIT 1) AS component,
+            (SELECT p ->> 'value' FROM jsonb_array_elements(sbom -> 'components' -> 0 -> 'properties') p WHERE p ->> 'name' = 'sbomer:image:labels:version' LIMIT 1) AS version,
+            (SELECT p ->> 'value' FROM jsonb_array_elements(sbom -> 'components' -> 0 -> 'properties') p WHERE p ->> 'name' = 'sbomer:image:labels:release' LIMIT 1) AS release
+        FROM
+            sbom
+        WHERE
+            root_purl LIKE 'pkg:oci/%'
+            AND jsonb_typeof(sbom -> 'components' -> 0 -> 'properties') = 'array'
+    ) labels
+WHERE
+    s.id = labels.id
+    AND labels.component IS NOT NULL
+    AND labels.version IS NOT NULL
+    AND labels.release IS NOT NULL;
+
+UPDATE sbom
+SET
+    image_digest = replace(substring(root_purl FROM '^pkg:oci/[^@?#]+@([^?#]+)'), '%3A', ':'),
+    arch = substring(root_purl FROM '[?&]arch=([^&#]+)')
+WHERE
+    root_purl LIKE 'pkg:oci/%';
+
+CREATE INDEX idx_sbom_nvr ON sbom (nvr);
+CREATE INDEX idx_sbom_image_digest ON sbom (image_digest);
+
+INSERT INTO
+    db_version (version, creation_time)
+VALUES
+    ('00028', now ());
+
+COMMIT;
@@ -0,0 +1,42 @@
+--
+-- JBoss, Home of Professional Open Source.
+-- Copyright 2023 Red Hat, Inc., and individual contributors
+-- as indicated by the @author tags.
+--
+-- Licensed under the Apache License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.
+-- You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing, software
+-- distributed under the License is distributed on an "AS IS" BASIS,
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+-- See the License for the specific language governing permissions and
+-- limitations under the License.
+--
+
+BEGIN;
+
+-- Progress of the release manifest rewrite, one row per build manifest already updated for a release generation,
+-- together with the original state of the manifest to roll it back to if the release fails
+CREATE TABLE release_manifest_checkpoint (
+    id character varying(255) NOT NULL,
+    generation_id character varying(255) NOT NULL,
+    sbom_id character varying(255) NOT NULL,
+    original_root_purl text,
+    original_sbom_hash character varying(64),
+    original_release_metadata jsonb,
+    creation_time timestamp without time zone NOT NULL,
+    CONSTRAINT release_manifest_checkpoint_pkey PRIMARY KEY (id),
+    CONSTRAINT uq_release_manifest_checkpoint_generation_sbom UNIQUE (generation_id, sbom_id),
+    CONSTRAINT fk_release_manifest_checkpoint_generation FOREIGN KEY (generation_id) REFERENCES sbom_generation_request(id) ON DELETE CASCADE,
+    CONSTRAINT fk_release_manifest_checkpoint_sbom FOREIGN KEY (sbom_id) REFERENCES sbom(id) ON DELETE CASCADE
+);
+
+INSERT INTO
+    db_version (version, creation_time)
+VALUES
+    ('00029', now ());
+
+COMMIT;
@@ -0,0 +1,31 @@
+--
+-- JBoss, Home of Professional Open Source.
+-- Copyright 2023 Red Hat, Inc., and individual contributors
+-- as indicated by the @author tags.
+--
+-- Licensed under the Apache License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.
+-- You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing, software
+-- distributed under the License is distributed on an "AS IS" BASIS,
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+-- See the License for the specific language governing permissions and
+-- limitations under the License.
+--
+
+BEGIN;
+
+-- SHA-256 hashes of the stored BOM content, used as entity tags when serving the BOMs. Existing rows are left empty,
+-- the hash is computed from the stored content when these are served.
+ALTER TABLE sbom ADD COLUMN sbom_hash character varying(64);
+ALTER TABLE manifest ADD COLUMN bom_hash character varying(64);
+
+INSERT INTO
+    db_version (version, creation_time)
+VALUES
+    ('00030', now ());
+
+COMMIT;
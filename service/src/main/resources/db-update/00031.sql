@@ -0,0 +1,46 @@
+--
+-- JBoss, Home of Professional Open Source.
+-- Copyright 2023 Red Hat, Inc., and individual contributors
+-- as indicated by the @author tags.
+--
+-- Licensed under the Apache License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.
+-- You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing, software
+-- distributed under the License is distributed on an "AS IS" BASIS,
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+-- See the License for the specific language governing permissions and
+-- limitations under the License.
+--
+
+BEGIN;
+
+-- Manifest content stored once for every distinct BOM, gzip compressed and addressed by the SHA-256 digest of its
+-- canonical JSON serialization. New manifests reference the content with the sbom_hash (and bom_hash) columns and
+-- leave the inline JSONB columns empty, these are still read for the manifests stored before.
+CREATE TABLE manifest_blob (
+    digest character varying(64) NOT NULL,
+    content bytea NOT NULL,
+    size bigint NOT NULL,
+    creation_time timestamp without time zone NOT NULL,
+    last_used timestamp without time zone NOT NULL,
+    CONSTRAINT manifest_blob_pkey PRIMARY KEY (digest)
+);
+
+-- Blobs no longer referenced by any manifest are removed once these were not used for a grace period
+CREATE INDEX idx_manifest_blob_last_used ON manifest_blob (last_used);
+
+ALTER TABLE manifest ALTER COLUMN bom DROP NOT NULL;
+
+CREATE INDEX idx_sbom_sbom_hash ON sbom (sbom_hash);
+CREATE INDEX idx_manifest_bom_hash ON manifest (bom_hash);
+
+INSERT INTO
+    db_version (version, creation_time)
+VALUES
+    ('00031', now ());
+
+COMMIT;
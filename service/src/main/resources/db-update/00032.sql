@@ -0,0 +1,43 @@
+--
+-- JBoss, Home of Professional Open Source.
+-- Copyright 2023 Red Hat, Inc., and individual contributors
+-- as indicated by the @author tags.
+--
+-- Licensed under the Apache License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.
+-- You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing, software
+-- distributed under the License is distributed on an "AS IS" BASIS,
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+-- See the License for the specific language governing permissions and
+-- limitations under the License.
+--
+
+BEGIN;
+
+-- Announces the generation requests waiting to be scheduled on the sbomer_generation_requests channel, no matter
+-- which instance stored these. The leader listens on the channel and runs the scheduling right away, the
+-- notifications are delivered when the transaction commits.
+CREATE OR REPLACE FUNCTION notify_new_generation_request()
+RETURNS TRIGGER AS $$
+BEGIN
+    PERFORM pg_notify('sbomer_generation_requests', NEW.id);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_notify_new_generation_request
+    AFTER INSERT OR UPDATE OF status ON sbom_generation_request
+    FOR EACH ROW
+    WHEN (NEW.status = 'NEW')
+    EXECUTE FUNCTION notify_new_generation_request();
+
+INSERT INTO
+    db_version (version, creation_time)
+VALUES
+    ('00032', now ());
+
+COMMIT;
@@ -23,7 +23,9 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
@@ -32,6 +34,7 @@ import java.util.Map;
 import org.hamcrest.CoreMatchers;
 import org.hamcrest.Matchers;
 import org.jboss.sbomer.service.feature.FeatureFlags;
+import org.jboss.sbomer.service.feature.s3.LogStream;
 import org.jboss.sbomer.service.feature.s3.S3ClientFacade;
 import org.jboss.sbomer.service.feature.s3.S3StorageHandler;
 import org.jboss.sbomer.service.feature.sbom.config.GenerationRequestControllerConfig;
@@ -200,7 +203,8 @@ class S3FeatureTest {
         PanacheMock.mock(SbomGenerationRequest.class);
         when(SbomGenerationRequest.findById("REQUESTID")).thenReturn(request); // NOSONAR
 
-        when(clientFacade.log("REQUESTID", "a/path/to/generate.log")).thenReturn("This is a log content");
+        when(clientFacade.log("REQUESTID", "a/path/to/generate.log", null))
+                .thenReturn(logStream("This is a log content", null));
 
         // Ensure s3 feature is enabled
         when(featureFlags.s3Storage()).thenReturn(true);
@@ -215,4 +219,34 @@ class S3FeatureTest {
                 .contentType(ContentType.TEXT)
                 .body(Matchers.equalTo("This is a log content"));
     }
+
+    @Test
+    void testFetchLogTail() {
+        SbomGenerationRequest request = new SbomGenerationRequest();
+        request.setStatus(SbomGenerationStatus.FINISHED);
+
+        PanacheMock.mock(SbomGenerationRequest.class);
+        when(SbomGenerationRequest.findById("REQUESTID")).thenReturn(request); // NOSONAR
+
+        when(clientFacade.log("REQUESTID", "a/path/to/generate.log", "bytes=-7"))
+                .thenReturn(logStream("content", "bytes 14-20/21"));
+
+        // Ensure s3 feature is enabled
+        when(featureFlags.s3Storage()).thenReturn(true);
+
+        RestAssured.given()
+                .accept(ContentType.TEXT)
+                .when()
+                .get("/api/v1beta1/generations/REQUESTID/logs/{path}?tail=7", "a/path/to/generate.log")
+                .then()
+                .assertThat()
+                .statusCode(206)
+                .header("Content-Range", "bytes 14-20/21")
+                .body(Matchers.equalTo("content"));
+    }
+
+    private static LogStream logStream(String content, String contentRange) {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        return new LogStream(new ByteArrayInputStream(bytes), (long) bytes.length, contentRange);
+    }
 }
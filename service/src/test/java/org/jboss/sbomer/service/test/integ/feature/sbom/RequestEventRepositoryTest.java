@@ -18,15 +18,24 @@
 package org.jboss.sbomer.service.test.integ.feature.sbom;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
 
 import org.jboss.sbomer.core.config.request.ErrataAdvisoryRequestConfig;
 import org.jboss.sbomer.core.config.request.PncBuildRequestConfig;
 import org.jboss.sbomer.core.config.request.RequestConfig;
+import org.jboss.sbomer.core.errors.ApplicationException;
 import org.jboss.sbomer.core.features.sbom.enums.RequestEventType;
 import org.jboss.sbomer.core.features.sbom.enums.UMBConsumer;
 import org.jboss.sbomer.core.features.sbom.enums.UMBMessageStatus;
+import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
 import org.jboss.sbomer.service.feature.sbom.model.RequestEvent;
+import org.jboss.sbomer.service.feature.sbom.model.UMBMessageReceipt;
 import org.jboss.sbomer.service.feature.sbom.service.RequestEventRepository;
 import org.jboss.sbomer.service.test.utils.QuarkusTransactionalTest;
 import org.jboss.sbomer.service.test.utils.umb.TestUmbProfile;
@@ -36,9 +45,11 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import io.quarkus.test.junit.TestProfile;
 import jakarta.inject.Inject;
+import jakarta.persistence.PersistenceException;
 import lombok.extern.slf4j.Slf4j;
 
 @QuarkusTransactionalTest
@@ -85,4 +96,100 @@ class RequestEventRepositoryTest {
                 repository.countEventsForConfigWithIdentifierValue(PncBuildRequestConfig.class, "ARYT3LBXDVYAC"));
     }
 
+    @Test
+    @Order(3)
+    void testClaimUMBMessage() {
+        ObjectNode event = ObjectMapperProvider.json()
+                .createObjectNode()
+                .put(RequestEvent.EVENT_KEY_UMB_CONSUMER, UMBConsumer.PNC.name())
+                .put(RequestEvent.EVENT_KEY_UMB_MSG_ID, "ID:duplicated-1");
+
+        RequestEvent first = repository.createRequestEvent(null, event, null);
+        RequestEvent redelivered = repository.createRequestEvent(null, event, null);
+
+        assertFalse(repository.isUMBMessageClaimed(UMBConsumer.PNC.name(), "ID:duplicated-1"));
+
+        repository.claimUMBMessage(first, UMBConsumer.PNC.name(), "ID:duplicated-1");
+
+        assertTrue(repository.isUMBMessageClaimed(UMBConsumer.PNC.name(), "ID:duplicated-1"));
+        assertFalse(repository.isUMBMessageClaimed(UMBConsumer.ERRATA.name(), "ID:duplicated-1"));
+        assertThrows(
+                PersistenceException.class,
+                () -> repository.claimUMBMessage(redelivered, UMBConsumer.PNC.name(), "ID:duplicated-1"));
+    }
+
+    @Test
+    @Order(4)
+    void testAckAndReleaseUMBMessage() {
+        ObjectNode event = ObjectMapperProvider.json()
+                .createObjectNode()
+                .put(RequestEvent.EVENT_KEY_UMB_CONSUMER, UMBConsumer.ERRATA.name())
+                .put(RequestEvent.EVENT_KEY_UMB_MSG_ID, "ID:redelivered-1");
+
+        RequestEvent failed = repository.createRequestEvent(null, event, null);
+        repository.claimUMBMessage(failed, UMBConsumer.ERRATA.name(), "ID:redelivered-1");
+
+        // A claim which was not acked yet is not a duplicate
+        assertTrue(repository.isUMBMessageClaimed(UMBConsumer.ERRATA.name(), "ID:redelivered-1"));
+        assertFalse(repository.isUMBMessageAcked(UMBConsumer.ERRATA.name(), "ID:redelivered-1"));
+        assertEquals(
+                UMBMessageReceipt.Status.CLAIMED,
+                repository.findUMBMessageReceipt(UMBConsumer.ERRATA.name(), "ID:redelivered-1").getStatus());
+
+        // Releasing the claim lets the redelivery claim the message again
+        repository.releaseUMBMessage(failed);
+        assertFalse(repository.isUMBMessageClaimed(UMBConsumer.ERRATA.name(), "ID:redelivered-1"));
+
+        RequestEvent redelivered = repository.createRequestEvent(null, event, null);
+        repository.claimUMBMessage(redelivered, UMBConsumer.ERRATA.name(), "ID:redelivered-1");
+        repository.ackUMBMessage(redelivered);
+
+        assertTrue(repository.isUMBMessageAcked(UMBConsumer.ERRATA.name(), "ID:redelivered-1"));
+
+        long received = repository.countErrataReceivedMessages();
+        long skipped = repository.countErrataSkippedMessages();
+
+        repository.recordUMBMessageDuplicate(UMBConsumer.ERRATA.name(), "ID:redelivered-1");
+
+        assertEquals(1, repository.countUMBMessageDuplicatesFrom(UMBConsumer.ERRATA));
+        assertEquals(0, repository.countUMBMessageDuplicatesFrom(UMBConsumer.PNC));
+        assertEquals(received + 1, repository.countErrataReceivedMessages());
+        assertEquals(skipped + 1, repository.countErrataSkippedMessages());
+    }
+
+    @Test
+    @Order(5)
+    void testTakeOverAbandonedUMBMessageClaim() {
+        ObjectNode event = ObjectMapperProvider.json()
+                .createObjectNode()
+                .put(RequestEvent.EVENT_KEY_UMB_CONSUMER, UMBConsumer.PNC.name())
+                .put(RequestEvent.EVENT_KEY_UMB_MSG_ID, "ID:abandoned-1");
+
+        RequestEvent abandoned = repository.createRequestEvent(null, event, null);
+        UMBMessageReceipt receipt = repository.claimUMBMessage(abandoned, UMBConsumer.PNC.name(), "ID:abandoned-1");
+
+        // A recent claim is still being processed
+        assertFalse(repository.takeOverUMBMessage(receipt, Instant.now().minus(Duration.ofMinutes(10))));
+        assertTrue(repository.isUMBMessageClaimed(UMBConsumer.PNC.name(), "ID:abandoned-1"));
+
+        // Only one of the redeliveries takes the abandoned claim over
+        Instant claimedBefore = Instant.now().plusSeconds(1);
+        assertTrue(repository.takeOverUMBMessage(receipt, claimedBefore));
+        assertFalse(repository.takeOverUMBMessage(receipt, claimedBefore));
+        assertFalse(repository.isUMBMessageClaimed(UMBConsumer.PNC.name(), "ID:abandoned-1"));
+
+        RequestEvent redelivered = repository.createRequestEvent(null, event, null);
+        repository.claimUMBMessage(redelivered, UMBConsumer.PNC.name(), "ID:abandoned-1");
+
+        // The request which lost its claim cannot ack the message anymore
+        assertThrows(ApplicationException.class, () -> repository.ackUMBMessage(abandoned));
+        assertFalse(repository.isUMBMessageAcked(UMBConsumer.PNC.name(), "ID:abandoned-1"));
+
+        repository.ackUMBMessage(redelivered);
+
+        assertTrue(repository.isUMBMessageAcked(UMBConsumer.PNC.name(), "ID:abandoned-1"));
+        assertEquals(
+                redelivered.getId(),
+                repository.findUMBMessageReceipt(UMBConsumer.PNC.name(), "ID:abandoned-1").getRequestId());
+    }
 }
@@ -21,12 +21,16 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.spy;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 import org.jboss.sbomer.core.dto.BaseSbomRecord;
+import org.jboss.sbomer.core.errors.ClientException;
 import org.jboss.sbomer.core.features.sbom.rest.Page;
 import org.jboss.sbomer.service.feature.sbom.model.Sbom;
 import org.jboss.sbomer.service.feature.sbom.service.SbomRepository;
@@ -93,6 +97,73 @@ class SBOMServiceTest {
         assertNotNull(foundSbom);
     }
 
+    @Test
+    void testKeysetPaginationWithoutTotal() {
+        List<String> expected = sbomService.searchSbomRecordsByQueryPaginated(0, 200, null, "creationTime=desc=")
+                .getContent()
+                .stream()
+                .map(BaseSbomRecord::id)
+                .toList();
+
+        assertTrue(expected.size() > 1);
+
+        List<String> ids = new ArrayList<>();
+        String cursor = null;
+
+        do {
+            Page<BaseSbomRecord> page = sbomService
+                    .searchSbomRecordsByQueryPaginated(0, 1, null, "creationTime=desc=", cursor, false);
+
+            assertEquals(-1, page.getTotalHits());
+            assertEquals(-1, page.getTotalPages());
+            assertEquals(1, page.getContent().size());
+
+            page.getContent().forEach(sbom -> ids.add(sbom.id()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(expected, ids);
+    }
+
+    @Test
+    void testKeysetPaginationWithUnsupportedSort() {
+        assertThrows(
+                ClientException.class,
+                () -> sbomService.searchSbomRecordsByQueryPaginated(
+                        0,
+                        10,
+                        null,
+                        "creationTime=desc=,id=asc=",
+                        "416640206274228224",
+                        true));
+    }
+
+    @Test
+    void testKeysetPaginationAcrossNullSortValues() {
+        // Manifests without content have no root purl
+        sbomService.save(Sbom.builder().withIdentifier(INITIAL_BUILD_ID).build());
+        sbomService.save(Sbom.builder().withIdentifier(INITIAL_BUILD_ID).build());
+
+        for (String sort : List.of("rootPurl=asc=", "rootPurl=desc=")) {
+            List<Sbom> expected = sbomRepository.search(QueryParameters.builder().sort(sort).pageSize(200).build());
+
+            assertTrue(expected.stream().anyMatch(sbom -> sbom.getRootPurl() == null));
+            assertTrue(expected.stream().anyMatch(sbom -> sbom.getRootPurl() != null));
+
+            List<String> ids = new ArrayList<>();
+            List<Sbom> page = sbomRepository.search(QueryParameters.builder().sort(sort).pageSize(1).build());
+
+            while (!page.isEmpty()) {
+                String cursor = page.get(0).getId();
+
+                ids.add(cursor);
+                page = sbomRepository.search(QueryParameters.builder().sort(sort).pageSize(1).cursor(cursor).build());
+            }
+
+            assertEquals(expected.stream().map(Sbom::getId).toList(), ids, "Unexpected pages sorted by " + sort);
+        }
+    }
+
     @Nested
     class GetByPurl {
         @Test
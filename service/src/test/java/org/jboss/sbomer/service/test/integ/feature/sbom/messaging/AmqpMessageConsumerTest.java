@@ -18,15 +18,28 @@
 package org.jboss.sbomer.service.test.integ.feature.sbom.messaging;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
+import org.jboss.sbomer.core.features.sbom.enums.UMBConsumer;
 import org.jboss.sbomer.core.test.TestResources;
 import org.jboss.sbomer.service.feature.sbom.features.umb.consumer.AmqpMessageConsumer;
+import org.jboss.sbomer.service.feature.sbom.model.UMBMessageReceipt;
+import org.jboss.sbomer.service.feature.sbom.service.RequestEventRepository;
 import org.jboss.sbomer.service.test.utils.AmqpMessageHelper;
 import org.jboss.sbomer.service.test.utils.umb.TestUmbProfile;
 import org.junit.jupiter.api.Test;
 
+import io.quarkus.arc.Arc;
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import io.quarkus.test.junit.QuarkusTest;
 import io.quarkus.test.junit.TestProfile;
 import io.vertx.core.json.JsonObject;
@@ -38,6 +51,9 @@ class AmqpMessageConsumerTest {
     @Inject
     AmqpMessageConsumer consumer;
 
+    @Inject
+    RequestEventRepository requestEventRepository;
+
     @Test
     void testParsingOfUnexpectedData() {
         Map<String, Object> map = Map.of(
@@ -54,4 +70,55 @@ class AmqpMessageConsumerTest {
                 () -> consumer
                         .process(AmqpMessageHelper.toMessage(TestResources.asString("umb/unexpected.json"), headers)));
     }
+
+    @Test
+    void testConcurrentRedeliveriesAreProcessedOnce() throws Exception {
+        String msgId = "ID:orch-86-qmrdq-33543-1697588407649-5:1:3:1:2";
+        JsonObject headers = new JsonObject(
+                Map.of(
+                        "type",
+                        "DeliverableAnalysisStateChange",
+                        "timestamp",
+                        1698076061381L,
+                        "messageId",
+                        msgId,
+                        "destination",
+                        "/topic/VirtualTopic.eng.pnc.builds"));
+        String payload = TestResources.asString("umb/unexpected.json");
+
+        int deliveries = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(deliveries);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < deliveries; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    Arc.container().requestContext().activate();
+                    try {
+                        consumer.process(AmqpMessageHelper.toMessage(payload, headers)).toCompletableFuture().join();
+                    } finally {
+                        Arc.container().requestContext().terminate();
+                    }
+                    return null;
+                }));
+            }
+
+            start.countDown();
+
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Only one of the deliveries claimed the message, none of the others took the live claim over
+        UMBMessageReceipt receipt = QuarkusTransaction.requiringNew()
+                .call(() -> requestEventRepository.findUMBMessageReceipt(UMBConsumer.PNC.name(), msgId));
+
+        assertEquals(UMBMessageReceipt.Status.ACK, receipt.getStatus());
+        assertEquals(deliveries - 1, receipt.getDuplicates());
+    }
 }
@@ -0,0 +1,186 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.test.integ.feature.sbom.release;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.jboss.sbomer.core.dto.v1beta1.V1Beta1GenerationRecord;
+import org.jboss.sbomer.core.dto.v1beta1.V1Beta1RequestManifestRecord;
+import org.jboss.sbomer.core.features.sbom.enums.GenerationRequestType;
+import org.jboss.sbomer.core.features.sbom.enums.GenerationResult;
+import org.jboss.sbomer.core.features.sbom.enums.RequestEventStatus;
+import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
+import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
+import org.jboss.sbomer.service.feature.sbom.errata.event.release.ReleaseManifestRewriter;
+import org.jboss.sbomer.service.feature.sbom.errata.event.release.ReleaseManifestRewriter.RewrittenManifest;
+import org.jboss.sbomer.service.feature.sbom.k8s.model.SbomGenerationStatus;
+import org.jboss.sbomer.service.feature.sbom.model.RandomStringIdGenerator;
+import org.jboss.sbomer.service.feature.sbom.model.ReleaseManifestCheckpoint;
+import org.jboss.sbomer.service.feature.sbom.model.RequestEvent;
+import org.jboss.sbomer.service.feature.sbom.model.Sbom;
+import org.jboss.sbomer.service.feature.sbom.model.SbomGenerationRequest;
+import org.jboss.sbomer.service.feature.sbom.service.RequestEventRepository;
+import org.jboss.sbomer.service.feature.sbom.service.SbomGenerationRequestRepository;
+import org.jboss.sbomer.service.feature.sbom.service.SbomService;
+import org.jboss.sbomer.service.test.utils.umb.TestUmbProfile;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+
+@QuarkusTest
+@TestProfile(TestUmbProfile.class)
+class ReleaseManifestRewriterTest {
+
+    @Inject
+    ReleaseManifestRewriter rewriter;
+
+    @Inject
+    SbomService sbomService;
+
+    @Inject
+    SbomGenerationRequestRepository generationRequestRepository;
+
+    @Inject
+    RequestEventRepository requestEventRepository;
+
+    private SbomGenerationRequest createGeneration(RequestEvent requestEvent, GenerationRequestType type) {
+        return generationRequestRepository.save(
+                SbomGenerationRequest.builder()
+                        .withId(RandomStringIdGenerator.generate())
+                        .withIdentifier("release-" + type.toName())
+                        .withType(type)
+                        .withStatus(SbomGenerationStatus.GENERATING)
+                        .withRequest(requestEvent)
+                        .build());
+    }
+
+    private V1Beta1RequestManifestRecord toRecord(Sbom sbom, SbomGenerationRequest generation) {
+        return new V1Beta1RequestManifestRecord(
+                sbom.getId(),
+                sbom.getIdentifier(),
+                sbom.getRootPurl(),
+                sbom.getCreationTime(),
+                sbom.getConfigIndex(),
+                null,
+                new V1Beta1GenerationRecord(
+                        generation.getId(),
+                        generation.getIdentifier(),
+                        null,
+                        generation.getType().toName(),
+                        generation.getCreationTime(),
+                        null,
+                        null,
+                        null));
+    }
+
+    @Test
+    void shouldResumeFromCheckpoints() {
+        JsonNode manifest = SbomUtils
+                .toJsonNode(SbomUtils.fromPath(Paths.get("src", "test", "resources", "sboms", "complete_sbom.json")));
+
+        List<V1Beta1RequestManifestRecord> buildManifests = new ArrayList<>();
+        SbomGenerationRequest[] generations = new SbomGenerationRequest[2];
+        RequestEvent requestEvent = QuarkusTransaction.requiringNew().call(() -> {
+            RequestEvent event = requestEventRepository.createRequestEvent(
+                    RequestEventStatus.IN_PROGRESS,
+                    ObjectMapperProvider.json().createObjectNode(),
+                    null);
+
+            generations[0] = createGeneration(event, GenerationRequestType.CONTAINERIMAGE);
+            generations[1] = createGeneration(event, GenerationRequestType.BUILD);
+
+            for (int i = 0; i < 3; i++) {
+                Sbom sbom = sbomService.save(
+                        Sbom.builder()
+                                .withIdentifier("build-" + i)
+                                .withSbom(manifest)
+                                .withGenerationRequest(generations[1])
+                                .withConfigIndex(0)
+                                .build());
+                buildManifests.add(toRecord(sbom, generations[1]));
+            }
+
+            // The first manifest was already rewritten by a previous attempt
+            ReleaseManifestCheckpoint.builder()
+                    .withId(RandomStringIdGenerator.generate())
+                    .withGenerationId(generations[0].getId())
+                    .withSbomId(buildManifests.get(0).id())
+                    .withOriginalRootPurl(buildManifests.get(0).rootPurl())
+                    .withCreationTime(Instant.now())
+                    .build()
+                    .persist();
+            return event;
+        });
+
+        SbomGenerationRequest releaseGeneration = generations[0];
+        assertEquals(
+                Set.of(buildManifests.get(0).id()),
+                rewriter.getRewrittenManifests(releaseGeneration.getId()).keySet());
+
+        List<String> rewritten = Collections.synchronizedList(new ArrayList<>());
+        List<Sbom> sboms = rewriter.rewrite(
+                requestEvent,
+                "RHBA-2025:0001",
+                "docker",
+                releaseGeneration,
+                Sbom.builder()
+                        .withIdentifier(releaseGeneration.getIdentifier())
+                        .withSbom(manifest)
+                        .withGenerationRequest(releaseGeneration)
+                        .withConfigIndex(0)
+                        .build(),
+                buildManifests,
+                (manifestRecord, content) -> {
+                    rewritten.add(manifestRecord.id());
+                    return new RewrittenManifest(
+                            content,
+                            ObjectMapperProvider.json().createObjectNode().put("request_id", requestEvent.getId()),
+                            null);
+                });
+
+        assertEquals(Set.of(buildManifests.get(1).id(), buildManifests.get(2).id()), Set.copyOf(rewritten));
+        assertEquals(4, sboms.size());
+        assertEquals(releaseGeneration.getId(), sboms.get(3).getGenerationRequest().getId());
+        assertTrue(rewriter.getRewrittenManifests(releaseGeneration.getId()).isEmpty());
+
+        QuarkusTransaction.requiringNew().run(() -> {
+            SbomGenerationRequest generation = generationRequestRepository.findById(releaseGeneration.getId());
+            assertEquals(SbomGenerationStatus.FINISHED, generation.getStatus());
+            assertEquals(GenerationResult.SUCCESS, generation.getResult());
+            assertEquals(
+                    RequestEventStatus.SUCCESS,
+                    requestEventRepository.findById(requestEvent.getId()).getEventStatus());
+            assertEquals(
+                    requestEvent.getId(),
+                    sbomService.get(buildManifests.get(1).id()).getReleaseMetadata().get("request_id").asText());
+        });
+    }
+}
@@ -60,7 +60,9 @@ import org.jboss.sbomer.service.feature.sbom.model.Sbom;
 import org.jboss.sbomer.service.feature.sbom.model.SbomGenerationRequest;
 import org.jboss.sbomer.service.feature.sbom.service.AdvisoryService;
 import org.jboss.sbomer.service.feature.sbom.service.SbomService;
+import org.jboss.sbomer.service.nextgen.core.utils.JacksonUtils;
 import org.jboss.sbomer.service.pnc.PncClient;
+import org.jboss.sbomer.service.rest.RawBom;
 import org.jboss.sbomer.service.test.ErrataWireMock;
 import org.jboss.sbomer.service.test.integ.feature.sbom.ErrataClientIT;
 import org.jboss.sbomer.service.test.utils.umb.TestUmbProfile;
@@ -81,6 +83,7 @@ import io.quarkus.test.junit.QuarkusTest;
 import io.quarkus.test.junit.TestProfile;
 import io.quarkus.test.junit.mockito.InjectSpy;
 import io.restassured.RestAssured;
+import io.restassured.config.DecoderConfig;
 import io.restassured.http.ContentType;
 import io.restassured.response.Response;
 import io.smallrye.config.SmallRyeConfig;
@@ -189,6 +192,8 @@ class RestResourceTest {
         sbom.setSbom(new ObjectMapper().readTree(bomJson));
 
         Mockito.when(sbomService.get("12345")).thenReturn(sbom);
+        Mockito.when(sbomService.getRawBom("12345"))
+                .thenReturn(new RawBom("12345", bomJson, null, JacksonUtils.hash(bomJson)));
 
         given().when()
                 .contentType(ContentType.JSON)
@@ -215,6 +220,8 @@ class RestResourceTest {
         sbom.setSbom(new ObjectMapper().readTree(bomJson));
 
         Mockito.when(sbomService.get("12345")).thenReturn(sbom);
+        Mockito.when(sbomService.getRawBom("12345"))
+                .thenReturn(new RawBom("12345", bomJson, null, JacksonUtils.hash(bomJson)));
 
         given().when()
                 .contentType(ContentType.JSON)
@@ -228,6 +235,45 @@ class RestResourceTest {
                 .body("components[0].licenses[0].license.id", CoreMatchers.equalTo("Apache-2.0"));
     }
 
+    @Test
+    void testGetBomByIdWithEntityTag() throws IOException {
+        String bomJson = TestResources.asString("sboms/complete_sbom.json");
+        String hash = JacksonUtils.hash(bomJson);
+
+        Mockito.when(sbomService.getRawBom("12345")).thenReturn(new RawBom("12345", bomJson, null, hash));
+
+        given().config(RestAssured.config().decoderConfig(DecoderConfig.decoderConfig().noContentDecoders()))
+                .when()
+                .get("/api/v1beta1/manifests/12345/bom")
+                .then()
+                .statusCode(200)
+                .header("ETag", "\"" + hash + "\"")
+                .header("Content-Encoding", CoreMatchers.nullValue())
+                .body("bomFormat", CoreMatchers.equalTo("CycloneDX"));
+
+        given().when()
+                .header("Accept-Encoding", "gzip")
+                .get("/api/v1beta1/manifests/12345/bom")
+                .then()
+                .statusCode(200)
+                .header("ETag", "\"" + hash + "-gzip\"")
+                .header("Content-Encoding", "gzip")
+                .header("Vary", "Accept-Encoding")
+                .body("bomFormat", CoreMatchers.equalTo("CycloneDX"));
+
+        given().when()
+                .header("If-None-Match", "\"" + hash + "-gzip\"")
+                .get("/api/v1beta1/manifests/12345/bom")
+                .then()
+                .statusCode(304);
+
+        given().when()
+                .header("If-None-Match", "\"outdated\"")
+                .get("/api/v1beta1/manifests/12345/bom")
+                .then()
+                .statusCode(200);
+    }
+
     @Nested
     class V1Alpha3 {
         /**
@@ -21,6 +21,7 @@ import java.util.Map;
 
 import org.hamcrest.CoreMatchers;
 import org.jboss.sbomer.service.feature.sbom.service.SbomService;
+import org.jboss.sbomer.service.stats.StatsCounters;
 import org.jboss.sbomer.service.test.integ.rest.StatsResourceTest.CustomConfig;
 import org.jboss.sbomer.service.test.utils.umb.TestUmbProfile;
 import org.junit.jupiter.api.Nested;
@@ -31,6 +32,7 @@ import io.quarkus.test.junit.QuarkusTest;
 import io.quarkus.test.junit.TestProfile;
 import io.quarkus.test.junit.mockito.InjectSpy;
 import io.restassured.RestAssured;
+import jakarta.inject.Inject;
 
 @QuarkusTest
 @TestProfile(CustomConfig.class)
@@ -60,6 +62,9 @@ class StatsResourceTest {
     @InjectSpy
     SbomService sbomService;
 
+    @Inject
+    StatsCounters statsCounters;
+
     @Nested
     class V1Alpha3 {
 
@@ -67,6 +72,8 @@ class StatsResourceTest {
 
         @Test
         void testEmptyStatsEndpoint() {
+            statsCounters.reconcile();
+
             RestAssured.given()
                     .when()
                     .get(String.format("/api/%s/stats", apiVersion))
@@ -90,6 +97,7 @@ class StatsResourceTest {
         void testStatsEndpoint() {
             Mockito.when(sbomService.countSboms()).thenReturn(12L);
             Mockito.when(sbomService.countSbomGenerationRequests()).thenReturn(500L);
+            statsCounters.reconcile();
 
             RestAssured.given()
                     .when()
@@ -108,6 +116,8 @@ class StatsResourceTest {
 
         @Test
         void testEmptyStatsEndpoint() {
+            statsCounters.reconcile();
+
             RestAssured.given()
                     .when()
                     .get(String.format("/api/%s/stats", apiVersion))
@@ -131,6 +141,7 @@ class StatsResourceTest {
         void testStatsEndpoint() {
             Mockito.when(sbomService.countSboms()).thenReturn(12L);
             Mockito.when(sbomService.countSbomGenerationRequests()).thenReturn(500L);
+            statsCounters.reconcile();
 
             RestAssured.given()
                     .when()
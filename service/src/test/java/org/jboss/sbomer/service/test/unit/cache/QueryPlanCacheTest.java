@@ -0,0 +1,146 @@
+package org.jboss.sbomer.service.test.unit.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import org.jboss.sbomer.core.errors.ClientException;
+import org.jboss.sbomer.service.cache.QueryPlanCache;
+import org.jboss.sbomer.service.cache.QueryPlanCacheConfig;
+import org.jboss.sbomer.service.nextgen.query.EventsQueryProcessor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import cz.jirutka.rsql.parser.RSQLParserException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.config.WithDefault;
+
+class QueryPlanCacheTest {
+
+    QueryPlanCacheConfig.WarmUp warmUp;
+
+    SimpleMeterRegistry meterRegistry;
+
+    QueryPlanCache cache;
+
+    @BeforeEach
+    void beforeEach() {
+        QueryPlanCacheConfig config = mock(QueryPlanCacheConfig.class);
+        warmUp = mock(QueryPlanCacheConfig.WarmUp.class);
+
+        when(config.ttl()).thenReturn(Duration.ofHours(1));
+        when(config.maxSize()).thenReturn(100);
+        when(config.warmUp()).thenReturn(warmUp);
+
+        meterRegistry = new SimpleMeterRegistry();
+
+        cache = new QueryPlanCache();
+        cache.setConfig(config);
+        cache.setEventsQueryProcessor(new EventsQueryProcessor());
+        cache.setMeterRegistry(meterRegistry);
+        cache.init();
+    }
+
+    private double requests(String cacheName, String result) {
+        return meterRegistry.counter("sbomer.cache.requests", "cache", cacheName, "result", result).count();
+    }
+
+    private static List<String> defaults(String property) throws NoSuchMethodException {
+        WithDefault defaultValue = QueryPlanCacheConfig.WarmUp.class.getMethod(property)
+                .getAnnotation(WithDefault.class);
+
+        return Arrays.asList(defaultValue.value().split(","));
+    }
+
+    @Test
+    void shouldCollapseWhitespaceBetweenTerms() {
+        assertEquals(
+                "status:NEW created:>2025-01-01 sort:created:desc",
+                QueryPlanCache.normalizeWhitespace("  status:NEW \t created:>2025-01-01\n\nsort:created:desc "));
+    }
+
+    @Test
+    void shouldKeepWhitespaceInQuotedValues() {
+        assertEquals(
+                "reason:\"a  b\" status:NEW",
+                QueryPlanCache.normalizeWhitespace("reason:\"a  b\"   status:NEW"));
+        assertEquals(
+                "reason:\"a \\\"  b\" status:NEW",
+                QueryPlanCache.normalizeWhitespace("reason:\"a \\\"  b\"  status:NEW"));
+    }
+
+    @Test
+    void shouldReuseParsedRsqlQueries() {
+        assertSame(
+                cache.rsql("identifier=eq=ABCDEF;status=eq=FINISHED"),
+                cache.rsql(" identifier=eq=ABCDEF;status=eq=FINISHED "));
+        cache.rsql("identifier=eq=OTHER");
+
+        assertEquals(1, requests("query.rsql", "hit"));
+        assertEquals(2, requests("query.rsql", "miss"));
+    }
+
+    @Test
+    void shouldReuseParsedSorts() {
+        assertSame(cache.sort("creationTime=desc="), cache.sort("creationTime=desc="));
+
+        assertEquals(1, requests("query.sort", "hit"));
+        assertEquals(1, requests("query.sort", "miss"));
+    }
+
+    @Test
+    void shouldReuseCompiledEventsQueries() {
+        assertSame(cache.events("status:NEW sort:created:desc"), cache.events("status:NEW   sort:created:desc"));
+
+        assertEquals(1, requests("query.events", "hit"));
+        assertEquals(1, requests("query.events", "miss"));
+    }
+
+    @Test
+    void shouldNotCacheInvalidQueries() {
+        assertThrows(RSQLParserException.class, () -> cache.rsql("identifier=="));
+        assertThrows(RSQLParserException.class, () -> cache.rsql("identifier=="));
+        assertThrows(ClientException.class, () -> cache.events("status:PENDING"));
+        assertThrows(ClientException.class, () -> cache.events("status:PENDING"));
+
+        assertEquals(0, requests("query.rsql", "hit"));
+        assertEquals(2, requests("query.rsql", "miss"));
+        assertEquals(0, requests("query.events", "hit"));
+        assertEquals(2, requests("query.events", "miss"));
+    }
+
+    @Test
+    void shouldServeWarmedUpDefaultQueriesFromCache() throws NoSuchMethodException {
+        List<String> sorts = defaults("sorts");
+        List<String> rsqlQueries = defaults("rsqlQueries");
+        List<String> eventsQueries = defaults("eventsQueries");
+
+        when(warmUp.sorts()).thenReturn(sorts);
+        when(warmUp.rsqlQueries()).thenReturn(rsqlQueries);
+        when(warmUp.eventsQueries()).thenReturn(eventsQueries);
+
+        cache.warmUp(null);
+
+        // All the default queries are valid, these were parsed at startup
+        assertEquals(sorts.size(), requests("query.sort", "miss"));
+        assertEquals(rsqlQueries.size(), requests("query.rsql", "miss"));
+        assertEquals(eventsQueries.size(), requests("query.events", "miss"));
+
+        sorts.forEach(cache::sort);
+        rsqlQueries.forEach(cache::rsql);
+        eventsQueries.forEach(cache::events);
+
+        assertEquals(sorts.size(), requests("query.sort", "hit"));
+        assertEquals(rsqlQueries.size(), requests("query.rsql", "hit"));
+        assertEquals(eventsQueries.size(), requests("query.events", "hit"));
+        assertEquals(sorts.size(), requests("query.sort", "miss"));
+        assertEquals(rsqlQueries.size(), requests("query.rsql", "miss"));
+        assertEquals(eventsQueries.size(), requests("query.events", "miss"));
+    }
+}
@@ -0,0 +1,43 @@
+package org.jboss.sbomer.service.test.unit.db;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.jboss.sbomer.service.db.JsonbIndexCatalogue.JsonbKey;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class JsonbIndexCatalogueTest {
+
+    @Test
+    void shouldParseKey() {
+        JsonbKey key = JsonbKey.parse(" request.request_config.advisoryId ");
+
+        assertEquals(new JsonbKey("request", "request_config", "advisoryId"), key);
+        assertEquals("idx_request_request_config_advisoryid", key.indexName());
+    }
+
+    @Test
+    void shouldKeepDotsInKey() {
+        JsonbKey key = JsonbKey.parse("event.metadata.sbomer.io:source");
+
+        assertEquals("sbomer.io:source", key.key());
+        assertEquals("idx_event_metadata_sbomer_io_source", key.indexName());
+    }
+
+    @Test
+    void shouldTruncateIndexName() {
+        JsonbKey key = JsonbKey.parse("request.request_config." + "a".repeat(80));
+
+        assertEquals(63, key.indexName().length());
+    }
+
+    @ParameterizedTest
+    @ValueSource(
+            strings = { "request.request_config", "Request.request_config.buildId", "request.config;drop.buildId",
+                    "request.request_config.build'Id" })
+    void shouldRejectInvalidKeys(String value) {
+        assertThrows(IllegalArgumentException.class, () -> JsonbKey.parse(value));
+    }
+}
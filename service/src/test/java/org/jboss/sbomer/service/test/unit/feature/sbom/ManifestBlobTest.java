@@ -0,0 +1,101 @@
+package org.jboss.sbomer.service.test.unit.feature.sbom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.jboss.sbomer.core.errors.ApplicationException;
+import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
+import org.jboss.sbomer.service.feature.sbom.model.ManifestBlob;
+import org.jboss.sbomer.service.feature.sbom.model.Sbom;
+import org.jboss.sbomer.service.rest.RawBom;
+import org.junit.jupiter.api.Test;
+
+class ManifestBlobTest {
+
+    private static final String MANIFEST = "{\"bomFormat\":\"CycloneDX\",\"specVersion\":\"1.6\","
+            + "\"metadata\":{\"component\":{\"name\":\"app\",\"purl\":\"pkg:maven/org.acme/app@1.0\"}}}";
+
+    private static final String REORDERED_MANIFEST = "{\"metadata\":{\"component\":"
+            + "{\"purl\":\"pkg:maven/org.acme/app@1.0\",\"name\":\"app\"}},"
+            + "\"specVersion\":\"1.6\",\"bomFormat\":\"CycloneDX\"}";
+
+    @Test
+    void shouldAddressSameContentWithSameDigest() {
+        ManifestBlob blob = ManifestBlob.of(SbomUtils.toJsonNode(MANIFEST));
+        ManifestBlob reordered = ManifestBlob.of(SbomUtils.toJsonNode(REORDERED_MANIFEST));
+
+        assertEquals(64, blob.getDigest().length());
+        assertEquals(blob.getDigest(), reordered.getDigest());
+        assertTrue(blob.getSize() > 0);
+    }
+
+    @Test
+    void shouldAddressDifferentContentWithDifferentDigest() {
+        ManifestBlob blob = ManifestBlob.of(SbomUtils.toJsonNode(MANIFEST));
+        ManifestBlob other = ManifestBlob.of(SbomUtils.toJsonNode(MANIFEST.replace("1.0", "2.0")));
+
+        assertNotEquals(blob.getDigest(), other.getDigest());
+    }
+
+    @Test
+    void shouldReadCompressedContent() {
+        ManifestBlob blob = ManifestBlob.of(SbomUtils.toJsonNode(MANIFEST));
+
+        assertEquals(SbomUtils.toJsonNode(MANIFEST), blob.toJsonNode());
+    }
+
+    @Test
+    void shouldReferenceBlobWhenContentIsReplaced() {
+        Sbom sbom = Sbom.builder().withSbom(SbomUtils.toJsonNode(MANIFEST)).build();
+        sbom.prePersist();
+
+        assertEquals(ManifestBlob.of(SbomUtils.toJsonNode(MANIFEST)).getDigest(), sbom.getSbomHash());
+        assertEquals("pkg:maven/org.acme/app@1.0", sbom.getRootPurl());
+
+        String updated = MANIFEST.replace("1.0", "2.0");
+        sbom.setSbom(SbomUtils.toJsonNode(updated));
+        sbom.preUpdate();
+
+        assertEquals(ManifestBlob.of(SbomUtils.toJsonNode(updated)).getDigest(), sbom.getSbomHash());
+        assertEquals("pkg:maven/org.acme/app@2.0", sbom.getRootPurl());
+    }
+
+    @Test
+    void shouldMoveInlineContentToBlob() {
+        Sbom sbom = Sbom.builder().withInlineSbom(SbomUtils.toJsonNode(MANIFEST)).build();
+
+        assertNull(sbom.getSbomHash());
+        assertTrue(sbom.moveInlineSbomToBlob());
+        sbom.preUpdate();
+
+        assertEquals(ManifestBlob.of(SbomUtils.toJsonNode(MANIFEST)).getDigest(), sbom.getSbomHash());
+        assertEquals(SbomUtils.toJsonNode(MANIFEST), sbom.getSbom());
+        assertEquals("pkg:maven/org.acme/app@1.0", sbom.getRootPurl());
+        // The inline content was cleared
+        assertFalse(sbom.moveInlineSbomToBlob());
+    }
+
+    @Test
+    void shouldFailWhenReferencedBlobIsMissing() {
+        String digest = ManifestBlob.of(SbomUtils.toJsonNode(MANIFEST)).getDigest();
+
+        // The manifest references a blob, but the blob could not be joined
+        ApplicationException e = assertThrows(
+                ApplicationException.class,
+                () -> RawBom.fromRow(new Object[] { "123", null, digest, null }));
+
+        assertEquals("Content blob '" + digest + "' of manifest '123' does not exist", e.getMessage());
+        assertNull(RawBom.fromRow(new Object[] { "123", null, null, null }));
+    }
+
+    @Test
+    void shouldExposeLastUsedTime() {
+        ManifestBlob blob = ManifestBlob.of(SbomUtils.toJsonNode(MANIFEST));
+
+        assertEquals(blob.getCreationTime(), blob.getLastUsed());
+    }
+}
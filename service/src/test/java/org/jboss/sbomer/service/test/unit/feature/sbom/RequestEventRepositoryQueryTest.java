@@ -0,0 +1,108 @@
+package org.jboss.sbomer.service.test.unit.feature.sbom;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.jboss.sbomer.service.feature.sbom.service.RequestEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Parameter;
+import jakarta.persistence.Query;
+
+class RequestEventRepositoryQueryTest {
+
+    EntityManager entityManager;
+
+    Query query;
+
+    RequestEventRepository repository;
+
+    @BeforeEach
+    void beforeEach() {
+        entityManager = mock(EntityManager.class);
+        query = mock(Query.class);
+
+        when(entityManager.createNativeQuery(anyString())).thenReturn(query);
+        when(query.getResultList()).thenReturn(List.of());
+
+        repository = spy(new RequestEventRepository());
+        doReturn(entityManager).when(repository).getEntityManager();
+    }
+
+    private String executedQuery() {
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(entityManager).createNativeQuery(sql.capture());
+        return sql.getValue();
+    }
+
+    private void declareParameters(String... names) {
+        Set<Parameter<?>> parameters = new HashSet<>();
+        for (String name : names) {
+            Parameter<?> parameter = mock(Parameter.class);
+            when(parameter.getName()).thenReturn(name);
+            parameters.add(parameter);
+        }
+
+        when(query.getParameters()).thenReturn(parameters);
+    }
+
+    @Test
+    void shouldMatchNumericErrataIdStoredAsNumberOrString() {
+        // The errata_id is stored as a JSON number, a containment with the string parameter alone would not match it
+        declareParameters("errata_id", "errata_id_typed");
+
+        repository.searchAggregatedResultsNatively("release.errata_id=139787", false);
+
+        String sql = executedQuery();
+
+        assertTrue(
+                sql.endsWith(
+                        "AND (s.release_metadata @> jsonb_build_object('errata_id', CAST(:errata_id AS text)) "
+                                + "OR s.release_metadata @> CAST(:errata_id_typed AS jsonb))"),
+                sql);
+        verify(query).setParameter("errata_id", "139787");
+        verify(query).setParameter("errata_id_typed", "{\"errata_id\":139787}");
+    }
+
+    @Test
+    void shouldBindTypedValuesOfAllContainmentConditions() {
+        declareParameters("type", "type_typed", "advisoryId", "advisoryId_typed");
+
+        repository.searchAggregatedResultsNatively("errata-advisory=139787", false);
+
+        verify(query).setParameter("type", "errata-advisory");
+        verify(query).setParameter("type_typed", "{\"type\":\"errata-advisory\"}");
+        verify(query).setParameter("advisoryId", "139787");
+        verify(query).setParameter("advisoryId_typed", "{\"advisoryId\":139787}");
+    }
+
+    @Test
+    void shouldUseContainmentForStringValues() {
+        declareParameters("errata_fullname", "errata_fullname_typed");
+
+        repository.searchAggregatedResultsNatively("release.errata_fullname=RHBA-2025:1234", false);
+
+        String sql = executedQuery();
+
+        assertTrue(
+                sql.endsWith(
+                        "AND (s.release_metadata @> jsonb_build_object('errata_fullname', "
+                                + "CAST(:errata_fullname AS text)) "
+                                + "OR s.release_metadata @> CAST(:errata_fullname_typed AS jsonb))"),
+                sql);
+        verify(query).setParameter("errata_fullname", "RHBA-2025:1234");
+        verify(query).setParameter("errata_fullname_typed", "{\"errata_fullname\":\"RHBA-2025:1234\"}");
+    }
+}
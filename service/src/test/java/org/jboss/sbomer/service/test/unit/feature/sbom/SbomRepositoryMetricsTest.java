@@ -0,0 +1,110 @@
+package org.jboss.sbomer.service.test.unit.feature.sbom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
+import org.jboss.sbomer.service.feature.sbom.model.ManifestBlob;
+import org.jboss.sbomer.service.feature.sbom.model.Sbom;
+import org.jboss.sbomer.service.feature.sbom.service.SbomRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SbomRepositoryMetricsTest {
+
+    private static final String MANIFEST = "{\"bomFormat\":\"CycloneDX\",\"specVersion\":\"1.6\","
+            + "\"metadata\":{\"component\":{\"name\":\"app\",\"purl\":\"pkg:maven/org.acme/app@1.0\"}}}";
+
+    SimpleMeterRegistry meterRegistry;
+
+    SbomRepository repository;
+
+    @BeforeEach
+    void beforeEach() {
+        meterRegistry = new SimpleMeterRegistry();
+
+        repository = spy(new SbomRepository());
+        repository.setMeterRegistry(meterRegistry);
+
+        // Mimic the lifecycle callback invoked when the entity is persisted
+        doAnswer(invocation -> {
+            invocation.<Sbom> getArgument(0).prePersist();
+            return null;
+        }).when(repository).persist(any(Sbom.class));
+        doNothing().when(repository).flush();
+        doNothing().when(repository).removeSboms(anyList());
+    }
+
+    private static Sbom sbom(String version) {
+        return Sbom.builder().withId(version).withSbom(SbomUtils.toJsonNode(MANIFEST.replace("1.0", version))).build();
+    }
+
+    @Test
+    void shouldRecordStoredManifests() {
+        List<Sbom> stored = repository.saveSboms(List.of(sbom("1.0"), sbom("2.0.1")));
+
+        long expectedBytes = ManifestBlob.of(SbomUtils.toJsonNode(MANIFEST)).getSize()
+                + ManifestBlob.of(SbomUtils.toJsonNode(MANIFEST.replace("1.0", "2.0.1"))).getSize();
+
+        assertEquals(2, stored.size());
+        assertEquals(expectedBytes, stored.get(0).getStoredSize() + stored.get(1).getStoredSize());
+        assertEquals(2, meterRegistry.counter("sbomer.sbom.store.rows").count());
+        assertEquals(expectedBytes, meterRegistry.counter("sbomer.sbom.store.bytes").count());
+        assertEquals(1, meterRegistry.timer("sbomer.sbom.store.duration").count());
+    }
+
+    @Test
+    void shouldRecordManifestsWithoutContent() {
+        repository.saveSboms(List.of(Sbom.builder().build()));
+
+        assertEquals(1, meterRegistry.counter("sbomer.sbom.store.rows").count());
+        assertEquals(0, meterRegistry.counter("sbomer.sbom.store.bytes").count());
+    }
+
+    @Test
+    void shouldStoreInBatches() {
+        repository.setBatchSize(2);
+
+        List<Sbom> stored = repository.saveSboms(List.of(sbom("1.0"), sbom("2.0"), sbom("3.0")));
+
+        assertEquals(3, stored.size());
+        verify(repository, times(3)).persist(any(Sbom.class));
+        // Flushed (and committed) once for the full batch and once for the rest
+        verify(repository, times(2)).flush();
+    }
+
+    @Test
+    void shouldRemoveStoredBatchesOnFailure() {
+        RuntimeException failure = new IllegalStateException("Cannot read manifest");
+        List<Sbom> handedOver = new ArrayList<>();
+
+        repository.setBatchSize(2);
+
+        assertSame(failure, assertThrows(RuntimeException.class, () -> repository.saveSboms(store -> {
+            for (String version : List.of("1.0", "2.0", "3.0")) {
+                Sbom sbom = sbom(version);
+                handedOver.add(sbom);
+                store.accept(sbom);
+            }
+
+            throw failure;
+        })));
+
+        // Only the first batch was stored, it is removed again
+        verify(repository).removeSboms(handedOver.subList(0, 2));
+        assertEquals(0, meterRegistry.counter("sbomer.sbom.store.rows").count());
+    }
+}
@@ -0,0 +1,42 @@
+package org.jboss.sbomer.service.test.unit.feature.sbom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.jboss.sbomer.core.features.sbom.utils.SbomUtils;
+import org.jboss.sbomer.service.feature.sbom.model.Sbom;
+import org.junit.jupiter.api.Test;
+
+class SbomRoutingKeysTest {
+
+    private static final String CONTAINER_MANIFEST = "{\"metadata\":{\"component\":{\"purl\":"
+            + "\"pkg:oci/ubi9@sha256%3A4c8d0b8e7fb4f4c1e2e1?arch=amd64&repository_url=registry.redhat.io/ubi9\"}},"
+            + "\"components\":[{\"name\":\"ubi9\",\"properties\":["
+            + "{\"name\":\"sbomer:image:labels:com.redhat.component\",\"value\":\"ubi9-container\"},"
+            + "{\"name\":\"sbomer:image:labels:version\",\"value\":\"9.4\"},"
+            + "{\"name\":\"sbomer:image:labels:release\",\"value\":\"1214\"}]}]}";
+
+    @Test
+    void shouldExtractContainerKeysOnStore() {
+        Sbom sbom = Sbom.builder().withSbom(SbomUtils.toJsonNode(CONTAINER_MANIFEST)).build();
+        sbom.prePersist();
+
+        assertEquals("ubi9-container-9.4-1214", sbom.getNvr());
+        assertEquals("amd64", sbom.getArch());
+        assertEquals("sha256:4c8d0b8e7fb4f4c1e2e1", sbom.getImageDigest());
+    }
+
+    @Test
+    void shouldNotExtractContainerKeysForOtherManifests() {
+        Sbom sbom = Sbom.builder()
+                .withSbom(
+                        SbomUtils.toJsonNode(
+                                "{\"metadata\":{\"component\":{\"purl\":\"pkg:maven/org.acme/app@1.0\"}}}"))
+                .build();
+        sbom.prePersist();
+
+        assertNull(sbom.getNvr());
+        assertNull(sbom.getArch());
+        assertNull(sbom.getImageDigest());
+    }
+}
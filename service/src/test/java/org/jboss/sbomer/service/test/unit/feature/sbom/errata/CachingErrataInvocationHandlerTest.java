@@ -0,0 +1,102 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.test.unit.feature.sbom.errata;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import org.jboss.sbomer.core.errors.NotFoundException;
+import org.jboss.sbomer.service.feature.sbom.errata.CachingErrataInvocationHandler;
+import org.jboss.sbomer.service.feature.sbom.errata.ErrataClient;
+import org.jboss.sbomer.service.feature.sbom.errata.ErrataClientCacheConfig;
+import org.jboss.sbomer.service.feature.sbom.errata.dto.ErrataCDNRepoNormalized;
+import org.jboss.sbomer.service.feature.sbom.errata.dto.ErrataVariant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CachingErrataInvocationHandlerTest {
+
+    ErrataClient delegate;
+
+    ErrataClient client;
+
+    @BeforeEach
+    void setup() {
+        ErrataClientCacheConfig config = mock(ErrataClientCacheConfig.class);
+        when(config.ttl()).thenReturn(Duration.ofMinutes(10));
+        when(config.maxSize()).thenReturn(100);
+
+        delegate = mock(ErrataClient.class);
+        client = CachingErrataInvocationHandler.createProxy(delegate, config, Runnable::run, null);
+    }
+
+    @Test
+    void shouldCacheVariants() {
+        ErrataVariant variant = new ErrataVariant();
+        when(delegate.getVariant("AppStream-9.4.0.Z.EUS")).thenReturn(variant);
+
+        assertSame(variant, client.getVariant("AppStream-9.4.0.Z.EUS"));
+        assertSame(variant, client.getVariant("AppStream-9.4.0.Z.EUS"));
+
+        verify(delegate, times(1)).getVariant("AppStream-9.4.0.Z.EUS");
+    }
+
+    @Test
+    void shouldNotCacheFailures() {
+        when(delegate.getVariant("missing")).thenThrow(new NotFoundException("Not found"));
+
+        assertThrows(NotFoundException.class, () -> client.getVariant("missing"));
+        assertThrows(NotFoundException.class, () -> client.getVariant("missing"));
+
+        verify(delegate, times(2)).getVariant("missing");
+    }
+
+    @Test
+    void shouldPrefetchDistinctVariants() {
+        when(delegate.getVariant(anyString())).thenReturn(new ErrataVariant());
+
+        client.prefetchVariants(List.of("BaseOS-9.4.0.Z.EUS", "AppStream-9.4.0.Z.EUS", "BaseOS-9.4.0.Z.EUS"));
+        client.getVariant("BaseOS-9.4.0.Z.EUS");
+        client.getVariant("AppStream-9.4.0.Z.EUS");
+
+        verify(delegate, times(1)).getVariant("BaseOS-9.4.0.Z.EUS");
+        verify(delegate, times(1)).getVariant("AppStream-9.4.0.Z.EUS");
+    }
+
+    @Test
+    void shouldCacheCDNReposLookedUpByDefaultMethods() {
+        Collection<ErrataCDNRepoNormalized> repos = List.of();
+        when(delegate.getCDNReposOfVariant("BaseOS-9.4.0.Z.EUS", "RHEL")).thenReturn(repos);
+
+        assertEquals(1, client.getCDNReposOfVariant(Set.of("BaseOS-9.4.0.Z.EUS"), "RHEL").size());
+        assertSame(repos, client.getCDNReposOfVariant("BaseOS-9.4.0.Z.EUS", "RHEL"));
+
+        verify(delegate, times(1)).getCDNReposOfVariant("BaseOS-9.4.0.Z.EUS", "RHEL");
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.test.unit.feature.sbom.kerberos;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import javax.security.auth.Subject;
+import javax.security.auth.kerberos.KerberosPrincipal;
+import javax.security.auth.kerberos.KerberosTicket;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Set;
+
+import org.jboss.sbomer.service.feature.sbom.kerberos.KerberosTicketCache;
+import org.jboss.sbomer.service.feature.sbom.kerberos.SubjectTgtPair;
+import org.junit.jupiter.api.Test;
+
+class KerberosTicketCacheTest {
+
+    private static KerberosTicket ticket(String server, Instant endTime) {
+        return new KerberosTicket(
+                new byte[] { 1 },
+                new KerberosPrincipal("sbomer@EXAMPLE.COM"),
+                new KerberosPrincipal(server),
+                new byte[16],
+                17,
+                null,
+                Date.from(Instant.now()),
+                Date.from(Instant.now()),
+                Date.from(endTime),
+                null,
+                null);
+    }
+
+    private static Subject subject(KerberosTicket... tickets) {
+        Subject subject = new Subject();
+        subject.getPrivateCredentials().addAll(Set.of(tickets));
+        return subject;
+    }
+
+    @Test
+    void shouldCacheOnlySubjectsWithTgt() {
+        KerberosTicketCache cache = new KerberosTicketCache();
+        KerberosTicket tgt = ticket("krbtgt/EXAMPLE.COM@EXAMPLE.COM", Instant.now().plus(Duration.ofHours(8)));
+        KerberosTicket serviceTicket = ticket("HTTP/errata.example.com@EXAMPLE.COM", Instant.now().plusSeconds(60));
+
+        cache.cacheTgt("nosbomer@EXAMPLE.COM", subject(serviceTicket));
+        assertNull(cache.getTgt("nosbomer@EXAMPLE.COM"));
+
+        Subject subject = subject(tgt, serviceTicket);
+        cache.cacheTgt("sbomer@EXAMPLE.COM", subject);
+
+        assertSame(tgt, cache.getTgt("sbomer@EXAMPLE.COM").getTgt());
+        assertSame(subject, cache.getTgt("sbomer@EXAMPLE.COM").getSubject());
+        assertEquals(Set.of("sbomer@EXAMPLE.COM"), cache.getUserPrincipals());
+
+        cache.invalidateTgt("sbomer@EXAMPLE.COM");
+        assertTrue(cache.getUserPrincipals().isEmpty());
+    }
+
+    @Test
+    void shouldDetectTgtsAboutToExpire() {
+        SubjectTgtPair pair = new SubjectTgtPair(
+                ticket("krbtgt/EXAMPLE.COM@EXAMPLE.COM", Instant.now().plus(Duration.ofMinutes(10))),
+                new Subject());
+
+        assertFalse(pair.isExpired());
+        assertTrue(pair.expiresWithin(Duration.ofMinutes(15)));
+        assertFalse(pair.expiresWithin(Duration.ofMinutes(5)));
+    }
+}
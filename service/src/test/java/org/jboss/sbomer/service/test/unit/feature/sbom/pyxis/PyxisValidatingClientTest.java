@@ -0,0 +1,253 @@
+package org.jboss.sbomer.service.test.unit.feature.sbom.pyxis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.microprofile.context.ManagedExecutor;
+import org.jboss.sbomer.service.feature.sbom.pyxis.PyxisClient;
+import org.jboss.sbomer.service.feature.sbom.pyxis.PyxisClientConfig;
+import org.jboss.sbomer.service.feature.sbom.pyxis.PyxisValidatingClient;
+import org.jboss.sbomer.service.feature.sbom.pyxis.dto.PyxisRepository;
+import org.jboss.sbomer.service.feature.sbom.pyxis.dto.PyxisRepositoryDetails;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+
+class PyxisValidatingClientTest {
+
+    static final List<String> INCLUDES = List.of("data.repositories.published");
+
+    PyxisClient pyxisClient;
+
+    Validator validator;
+
+    PyxisClientConfig config;
+
+    ExecutorService executor;
+
+    SimpleMeterRegistry meterRegistry;
+
+    PyxisValidatingClient client;
+
+    @BeforeEach
+    void beforeEach() {
+        pyxisClient = mock(PyxisClient.class);
+        validator = mock(Validator.class);
+        config = mock(PyxisClientConfig.class);
+        executor = Executors.newCachedThreadPool();
+        meterRegistry = new SimpleMeterRegistry();
+
+        when(validator.validate(any())).thenReturn(Set.of());
+        when(config.concurrency()).thenReturn(2);
+        when(config.cacheTtl()).thenReturn(Duration.ofHours(1));
+        when(config.cacheMaxSize()).thenReturn(100);
+
+        ManagedExecutor managedExecutor = mock(ManagedExecutor.class);
+        doAnswer(invocation -> {
+            executor.execute(invocation.getArgument(0));
+            return null;
+        }).when(managedExecutor).execute(any(Runnable.class));
+
+        client = new PyxisValidatingClient();
+        client.setPyxisClient(pyxisClient);
+        client.setValidator(validator);
+        client.setConfig(config);
+        client.setManagedExecutor(managedExecutor);
+        client.setMeterRegistry(meterRegistry);
+    }
+
+    @AfterEach
+    void afterEach() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private static PyxisRepositoryDetails details() {
+        return new PyxisRepositoryDetails();
+    }
+
+    private static PyxisRepository repository(String name) {
+        PyxisRepository repository = new PyxisRepository();
+        repository.setRegistry("registry.access.redhat.com");
+        repository.setRepository(name);
+        return repository;
+    }
+
+    private double cacheRequests(String result) {
+        return meterRegistry.counter("sbomer.cache.requests", "cache", "pyxis.repositories", "result", result)
+                .count();
+    }
+
+    private void awaitLanes() throws InterruptedException {
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void shouldResolveAllNvrsWithBoundedLanes() throws InterruptedException {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        when(pyxisClient.getRepositoriesDetails(anyString(), anyList())).thenAnswer(invocation -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            running.decrementAndGet();
+            return details();
+        });
+
+        client.init();
+        Map<String, PyxisRepositoryDetails> details = client
+                .getAllRepositoriesDetails(List.of("a-1-1", "b-1-1", "c-1-1", "a-1-1", "d-1-1", "e-1-1"), INCLUDES);
+
+        assertEquals(Set.of("a-1-1", "b-1-1", "c-1-1", "d-1-1", "e-1-1"), details.keySet());
+        // Duplicated NVRs are requested once
+        verify(pyxisClient, times(1)).getRepositoriesDetails("a-1-1", INCLUDES);
+        verify(pyxisClient, times(5)).getRepositoriesDetails(anyString(), eq(INCLUDES));
+        assertTrue(maxRunning.get() <= 2, "At most 2 concurrent requests expected, got " + maxRunning.get());
+        assertEquals(5, meterRegistry.timer("sbomer.pyxis.requests", "operation", "repositories_details").count());
+
+        awaitLanes();
+    }
+
+    @Test
+    void shouldNotRequestAnythingWithoutNvrs() {
+        client.init();
+
+        assertTrue(client.getAllRepositoriesDetails(List.of(), INCLUDES).isEmpty());
+        verify(pyxisClient, never()).getRepositoriesDetails(anyString(), anyList());
+    }
+
+    @Test
+    void shouldRethrowFirstFailureAndSkipRemainingNvrs() throws InterruptedException {
+        RuntimeException failure = new IllegalStateException("Pyxis is down");
+
+        // Lane 0 resolves a, c and e, lane 1 resolves b, d and f
+        when(pyxisClient.getRepositoriesDetails(anyString(), anyList())).thenAnswer(invocation -> {
+            if ("a-1-1".equals(invocation.getArgument(0))) {
+                throw failure;
+            }
+
+            Thread.sleep(100);
+            return details();
+        });
+
+        client.init();
+        RuntimeException thrown = assertThrows(
+                RuntimeException.class,
+                () -> client.getAllRepositoriesDetails(
+                        List.of("a-1-1", "b-1-1", "c-1-1", "d-1-1", "e-1-1", "f-1-1"),
+                        INCLUDES));
+
+        assertSame(failure, thrown);
+
+        awaitLanes();
+
+        verify(pyxisClient, never()).getRepositoriesDetails("c-1-1", INCLUDES);
+        verify(pyxisClient, never()).getRepositoriesDetails("d-1-1", INCLUDES);
+        verify(pyxisClient, never()).getRepositoriesDetails("e-1-1", INCLUDES);
+        verify(pyxisClient, never()).getRepositoriesDetails("f-1-1", INCLUDES);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldRethrowConstraintViolations() throws InterruptedException {
+        PyxisRepositoryDetails unpublished = details();
+
+        when(pyxisClient.getRepositoriesDetails(anyString(), anyList())).thenReturn(unpublished);
+        when(validator.validate(unpublished)).thenReturn(Set.of(mock(ConstraintViolation.class)));
+
+        client.init();
+
+        assertThrows(
+                ConstraintViolationException.class,
+                () -> client.getAllRepositoriesDetails(List.of("a-1-1"), INCLUDES));
+
+        awaitLanes();
+    }
+
+    @Test
+    void shouldCacheRepositoriesByRegistryRepositoryAndIncludes() {
+        when(pyxisClient.getRepository(anyString(), anyString(), anyList()))
+                .thenAnswer(invocation -> repository(invocation.getArgument(1)));
+
+        client.init();
+
+        PyxisRepository first = client.getRepository("registry.access.redhat.com", "ubi9/ubi", INCLUDES);
+        PyxisRepository second = client.getRepository("registry.access.redhat.com", "ubi9/ubi", INCLUDES);
+
+        assertSame(first, second);
+        verify(pyxisClient, times(1)).getRepository("registry.access.redhat.com", "ubi9/ubi", INCLUDES);
+
+        // Any part of the key requests the repository again
+        client.getRepository("registry.access.redhat.com", "ubi9/ubi-minimal", INCLUDES);
+        client.getRepository("registry.redhat.io", "ubi9/ubi", INCLUDES);
+        client.getRepository("registry.access.redhat.com", "ubi9/ubi", List.of("_id"));
+
+        verify(pyxisClient, times(4)).getRepository(anyString(), anyString(), anyList());
+        assertEquals(1, cacheRequests("hit"));
+        assertEquals(4, cacheRequests("miss"));
+    }
+
+    @Test
+    void shouldRequestExpiredRepositoriesAgain() {
+        when(config.cacheTtl()).thenReturn(Duration.ZERO);
+        when(pyxisClient.getRepository(anyString(), anyString(), anyList()))
+                .thenAnswer(invocation -> repository(invocation.getArgument(1)));
+
+        client.init();
+
+        client.getRepository("registry.access.redhat.com", "ubi9/ubi", INCLUDES);
+        client.getRepository("registry.access.redhat.com", "ubi9/ubi", INCLUDES);
+
+        verify(pyxisClient, times(2)).getRepository("registry.access.redhat.com", "ubi9/ubi", INCLUDES);
+        assertEquals(0, cacheRequests("hit"));
+        assertEquals(2, cacheRequests("miss"));
+    }
+
+    @Test
+    void shouldNotCacheFailures() {
+        RuntimeException failure = new IllegalStateException("Pyxis is down");
+
+        when(pyxisClient.getRepository(anyString(), anyString(), anyList())).thenThrow(failure)
+                .thenAnswer(invocation -> repository(invocation.getArgument(1)));
+
+        client.init();
+
+        assertSame(
+                failure,
+                assertThrows(
+                        RuntimeException.class,
+                        () -> client.getRepository("registry.access.redhat.com", "ubi9/ubi", INCLUDES)));
+        assertEquals(
+                "ubi9/ubi",
+                client.getRepository("registry.access.redhat.com", "ubi9/ubi", INCLUDES).getRepository());
+
+        verify(pyxisClient, times(2)).getRepository("registry.access.redhat.com", "ubi9/ubi", INCLUDES);
+    }
+}
@@ -2,20 +2,31 @@ package org.jboss.sbomer.service.test.unit.feature.sbom.syftimage;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 import org.cyclonedx.model.Bom;
+import org.eclipse.microprofile.context.ManagedExecutor;
+import org.jboss.sbomer.core.errors.ApplicationException;
 import org.jboss.sbomer.core.features.sbom.config.Config;
 import org.jboss.sbomer.core.features.sbom.config.SyftImageConfig;
 import org.jboss.sbomer.core.features.sbom.enums.GenerationRequestType;
@@ -33,6 +44,7 @@ import org.jboss.sbomer.service.feature.sbom.model.Sbom;
 import org.jboss.sbomer.service.feature.sbom.model.SbomGenerationRequest;
 import org.jboss.sbomer.service.feature.sbom.service.SbomRepository;
 import org.jboss.sbomer.service.generator.image.controller.SyftImageController;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
@@ -46,11 +58,14 @@ import io.fabric8.tekton.v1beta1.TaskRun;
 import io.fabric8.tekton.v1beta1.TaskRunBuilder;
 import io.javaoperatorsdk.operator.api.reconciler.UpdateControl;
 import jakarta.enterprise.inject.Vetoed;
+import jakarta.validation.ValidationException;
 
 class SyftImageControllerTest {
     static class MockSbomRepository extends SbomRepository {
         @Override
-        public List<Sbom> saveSboms(List<Sbom> sboms) {
+        public List<Sbom> saveSboms(Consumer<Consumer<Sbom>> source) {
+            List<Sbom> sboms = new ArrayList<>();
+            source.accept(sboms::add);
             return sboms;
         }
     }
@@ -64,9 +79,14 @@ class SyftImageControllerTest {
             return super.reconcileGenerating(generationRequest, secondaryResources);
         }
 
-        @Override
-        public List<Bom> readManifests(List<Path> manifestPaths) {
-            return super.readManifests(manifestPaths);
+        public void readManifestsInto(List<Path> manifestPaths, Consumer<Bom> consumer) {
+            readManifests(manifestPaths, consumer);
+        }
+
+        public List<Bom> readAllManifests(List<Path> manifestPaths) {
+            List<Bom> boms = new ArrayList<>();
+            readManifests(manifestPaths, boms::add);
+            return boms;
         }
     }
 
@@ -92,9 +112,27 @@ class SyftImageControllerTest {
 
     SyftImageControllerAlt controller;
 
+    ExecutorService executor;
+
+    ManagedExecutor managedExecutor;
+
     @BeforeEach
     void beforeEach() {
+        executor = Executors.newCachedThreadPool();
+        managedExecutor = mock(ManagedExecutor.class);
+        doAnswer(invocation -> {
+            executor.execute(invocation.getArgument(0));
+            return null;
+        }).when(managedExecutor).execute(any(Runnable.class));
+
         controller = new SyftImageControllerAlt();
+        controller.setManagedExecutor(managedExecutor);
+    }
+
+    @AfterEach
+    void afterEach() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
     }
 
     @Test
@@ -137,7 +175,7 @@ class SyftImageControllerTest {
         Path manifest2 = tmpDir.resolve("2.json");
         Files.write(manifest2, TestResources.asString("sboms/complete_operation_sbom.json").getBytes());
 
-        List<Bom> boms = controller.readManifests(List.of(manifest1, manifest2));
+        List<Bom> boms = controller.readAllManifests(List.of(manifest1, manifest2));
 
         assertEquals(2, boms.size());
         assertEquals(
@@ -148,6 +186,79 @@ class SyftImageControllerTest {
                 boms.get(1).getMetadata().getComponent().getPurl());
     }
 
+    @Test
+    void shouldReadManifestsConcurrentlyInOrder(@TempDir Path tmpDir) throws Exception {
+        GenerationRequestControllerConfig controllerConfig = Mockito.mock(GenerationRequestControllerConfig.class);
+        when(controllerConfig.manifestReadConcurrency()).thenReturn(2);
+        controller.setControllerConfig(controllerConfig);
+
+        List<Path> manifests = new ArrayList<>();
+
+        for (int i = 0; i < 5; i++) {
+            Path manifest = tmpDir.resolve(i + ".json");
+            Files.write(
+                    manifest,
+                    TestResources
+                            .asString(i % 2 == 0 ? "sboms/complete_sbom.json" : "sboms/complete_operation_sbom.json")
+                            .getBytes());
+            manifests.add(manifest);
+        }
+
+        List<Bom> boms = controller.readAllManifests(manifests);
+
+        assertEquals(5, boms.size());
+        // Read on the shared executor
+        verify(managedExecutor, times(5)).execute(any(Runnable.class));
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(
+                    i % 2 == 0
+                            ? "pkg:maven/org.eclipse.microprofile.graphql/microprofile-graphql-parent@1.1.0.redhat-00008?type=pom"
+                            : "pkg:generic/my-broker-7.11.5.CR3-bin.zip@7.11.5.CR3?operation=A5RPHL7Y3AIAA",
+                    boms.get(i).getMetadata().getComponent().getPurl());
+        }
+    }
+
+    @Test
+    void shouldFailReadingManifestsConcurrently(@TempDir Path tmpDir) throws Exception {
+        GenerationRequestControllerConfig controllerConfig = Mockito.mock(GenerationRequestControllerConfig.class);
+        when(controllerConfig.manifestReadConcurrency()).thenReturn(2);
+        controller.setControllerConfig(controllerConfig);
+
+        Path manifest1 = tmpDir.resolve("1.json");
+        Files.write(manifest1, TestResources.asString("sboms/complete_sbom.json").getBytes());
+
+        Path manifest2 = tmpDir.resolve("2.json");
+        Files.write(manifest2, "not a manifest".getBytes());
+
+        List<Path> manifests = List.of(manifest1, manifest2);
+
+        ApplicationException ex = assertThrows(
+                ApplicationException.class,
+                () -> controller.readAllManifests(manifests));
+        assertTrue(ex.getMessage().startsWith("Could not read the manifest at"));
+    }
+
+    @Test
+    void shouldValidateManifestsWhileReading(@TempDir Path tmpDir) throws Exception {
+        Path manifest1 = tmpDir.resolve("1.json");
+        Files.write(manifest1, TestResources.asString("sboms/complete_sbom.json").getBytes());
+
+        Path manifest2 = tmpDir.resolve("2.json");
+        Files.write(manifest2, "{\"bomFormat\": \"SPDX\", \"specVersion\": \"1.6\"}".getBytes());
+
+        List<Bom> consumed = new ArrayList<>();
+        List<Path> manifests = List.of(manifest1, manifest2);
+
+        ValidationException ex = assertThrows(
+                ValidationException.class,
+                () -> controller.readManifestsInto(manifests, consumed::add));
+        assertTrue(ex.getMessage().startsWith("Manifest at '" + manifest2.toAbsolutePath() + "' is not a valid"));
+
+        // Manifests are handed over as these are read, the valid one was consumed already
+        assertEquals(1, consumed.size());
+    }
+
     private void withController(Path tmpDir, BiConsumer<Path, SyftImageControllerAlt> consumer) throws IOException {
 
         Path requestDir = tmpDir.resolve("sbom-request-" + GENERATION_REQUEST.getId().toLowerCase());
@@ -161,6 +272,7 @@ class SyftImageControllerTest {
         ctrl.setAtlasHandler(mock(AtlasHandler.class));
         ctrl.setControllerConfig(controllerConfig);
         ctrl.setSbomRepository(new MockSbomRepository());
+        ctrl.setManagedExecutor(managedExecutor);
 
         try (MockedStatic<SbomGenerationRequest> sbomGenerationRequest = Mockito
                 .mockStatic(SbomGenerationRequest.class)) {
@@ -0,0 +1,151 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2023 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.sbomer.service.test.unit.generator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.microprofile.context.ManagedExecutor;
+import org.jboss.sbomer.service.nextgen.core.dto.api.GenerationRequest;
+import org.jboss.sbomer.service.nextgen.core.dto.api.Generator;
+import org.jboss.sbomer.service.nextgen.core.dto.api.Target;
+import org.jboss.sbomer.service.nextgen.core.dto.model.GenerationRecord;
+import org.jboss.sbomer.service.nextgen.core.enums.GenerationStatus;
+import org.jboss.sbomer.service.nextgen.core.generator.AbstractGenerator;
+import org.jboss.sbomer.service.nextgen.core.generator.GeneratorDispatcher;
+import org.jboss.sbomer.service.nextgen.core.utils.JacksonUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class GeneratorDispatcherTest {
+
+    @Mock
+    ManagedExecutor managedExecutor;
+
+    AbstractGenerator syft;
+
+    AbstractGenerator koji;
+
+    SimpleMeterRegistry meterRegistry;
+
+    GeneratorDispatcher dispatcher;
+
+    private static AbstractGenerator generator(String name, String version, String... types) {
+        AbstractGenerator generator = mock(AbstractGenerator.class);
+
+        lenient().when(generator.getGeneratorName()).thenReturn(name);
+        lenient().when(generator.getGeneratorVersion()).thenReturn(version);
+        lenient().when(generator.getSupportedTypes()).thenReturn(Set.of(types));
+
+        return generator;
+    }
+
+    private static GenerationRecord generation(GenerationRequest request) {
+        return new GenerationRecord(
+                "G",
+                Instant.now(),
+                Instant.now(),
+                null,
+                JacksonUtils.toObjectNode(request),
+                null,
+                GenerationStatus.SCHEDULED,
+                null,
+                null);
+    }
+
+    @BeforeEach
+    void beforeEach() {
+        syft = generator("syft", "1.27", "CONTAINER_IMAGE");
+        koji = generator("koji", "0.1.0", "BREW_RPM");
+        meterRegistry = new SimpleMeterRegistry();
+        dispatcher = new GeneratorDispatcher(List.of(syft, koji), managedExecutor, meterRegistry);
+    }
+
+    @Test
+    void shouldDispatchToMatchingGeneratorOnly() {
+        GenerationRequest request = new GenerationRequest(
+                new Generator("koji", "0.1.0", null),
+                new Target("BREW_RPM", "TEST1"));
+        GenerationRecord generation = generation(request);
+
+        assertTrue(dispatcher.dispatch(generation, request));
+
+        ArgumentCaptor<Runnable> runnableCaptor = ArgumentCaptor.forClass(Runnable.class);
+        verify(managedExecutor).runAsync(runnableCaptor.capture());
+
+        assertEquals(
+                1,
+                meterRegistry.get("sbomer.generator.queue.depth").tags("generator", "koji").gauge().value());
+
+        runnableCaptor.getValue().run();
+
+        verify(koji).process(generation);
+        verify(syft, never()).process(generation);
+        assertEquals(
+                0,
+                meterRegistry.get("sbomer.generator.queue.depth").tags("generator", "koji").gauge().value());
+        assertEquals(
+                1,
+                meterRegistry.get("sbomer.generator.dispatch.latency").tags("generator", "koji").timer().count());
+    }
+
+    @Test
+    void shouldNotDispatchForUnsupportedType() {
+        GenerationRequest request = new GenerationRequest(
+                new Generator("koji", "0.1.0", null),
+                new Target("CONTAINER_IMAGE", "TEST1"));
+
+        assertFalse(dispatcher.dispatch(generation(request), request));
+        verifyNoInteractions(managedExecutor);
+    }
+
+    @Test
+    void shouldNotDispatchForDifferentVersion() {
+        GenerationRequest request = new GenerationRequest(
+                new Generator("syft", "0.0.1", null),
+                new Target("CONTAINER_IMAGE", "TEST1"));
+
+        assertFalse(dispatcher.dispatch(generation(request), request));
+        verifyNoInteractions(managedExecutor);
+    }
+
+    @Test
+    void shouldNotDispatchWithoutGenerator() {
+        GenerationRequest request = new GenerationRequest(null, new Target("BREW_RPM", "TEST1"));
+
+        assertFalse(dispatcher.dispatch(generation(request), request));
+        verifyNoInteractions(managedExecutor);
+    }
+}
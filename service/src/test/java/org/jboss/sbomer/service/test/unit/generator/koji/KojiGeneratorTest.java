@@ -20,6 +20,7 @@ package org.jboss.sbomer.service.test.unit.generator.koji;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
@@ -28,6 +29,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.Set;
 
 import org.eclipse.microprofile.context.ManagedExecutor;
@@ -38,7 +40,7 @@ import org.jboss.sbomer.service.nextgen.core.dto.api.Generator;
 import org.jboss.sbomer.service.nextgen.core.dto.api.Target;
 import org.jboss.sbomer.service.nextgen.core.dto.model.GenerationRecord;
 import org.jboss.sbomer.service.nextgen.core.enums.GenerationStatus;
-import org.jboss.sbomer.service.nextgen.core.events.GenerationStatusChangeEvent;
+import org.jboss.sbomer.service.nextgen.core.generator.GeneratorDispatcher;
 import org.jboss.sbomer.service.nextgen.core.rest.SBOMerClient;
 import org.jboss.sbomer.service.nextgen.core.utils.JacksonUtils;
 import org.jboss.sbomer.service.nextgen.generator.koji.KojiGenerator;
@@ -75,10 +77,13 @@ public class KojiGeneratorTest {
 
     KojiGenerator generator;
 
+    GeneratorDispatcher dispatcher;
+
     @BeforeEach
     void beforeEach() {
         generator = spy(
                 new KojiGenerator(client, kubernetesClient, controllerConfig, managedExecutor, mapper, leaderManager));
+        dispatcher = new GeneratorDispatcher(List.of(generator), managedExecutor, null);
     }
 
     @Test
@@ -98,88 +103,64 @@ public class KojiGeneratorTest {
     }
 
     @Test
-    void shouldInvokeGenerationEventForKojiBrewRPM() {
-        GenerationStatusChangeEvent event = createGenerationStatusChangeEvent(
-                "G",
-                "koji",
-                "0.1.0",
-                "BREW_RPM",
-                "TEST1");
+    void shouldDispatchGenerationForKojiBrewRPM() {
+        GenerationRequest request = createGenerationRequest("koji", "0.1.0", "BREW_RPM", "TEST1");
+        GenerationRecord generation = createGeneration("G", request);
 
         ArgumentCaptor<Runnable> runnableCaptor = ArgumentCaptor.forClass(Runnable.class);
-        generator.onEvent(event);
+        assertTrue(dispatcher.dispatch(generation, request));
         verify(managedExecutor).runAsync(runnableCaptor.capture());
         runnableCaptor.getValue().run();
 
-        verify(generator, times(1)).generate(any());
+        verify(generator, times(1)).process(generation);
+        verify(generator, times(1)).generate(generation);
     }
 
     @Test
-    void shouldNotInvokeGenerationEventForEmptyGenerator() {
-        GenerationStatusChangeEvent event = createGenerationStatusChangeEventWithoutGenerator("G", "BREW_RPM", "TEST1");
-        generator.onEvent(event);
+    void shouldNotDispatchGenerationForEmptyGenerator() {
+        GenerationRequest request = new GenerationRequest(null, new Target("BREW_RPM", "TEST1"));
+        assertFalse(dispatcher.dispatch(createGeneration("G", request), request));
         verifyNoInteractions(managedExecutor);
         verify(generator, never()).generate(any());
     }
 
     @Test
-    void shouldNotInvokeGenerationEventForDifferentGenerator() {
-        GenerationStatusChangeEvent event = createGenerationStatusChangeEvent("G", "syft", "1.27", "BREW_RPM", "TEST1");
-        generator.onEvent(event);
+    void shouldNotDispatchGenerationForDifferentGenerator() {
+        GenerationRequest request = createGenerationRequest("syft", "1.27", "BREW_RPM", "TEST1");
+        assertFalse(dispatcher.dispatch(createGeneration("G", request), request));
         verifyNoInteractions(managedExecutor);
         verify(generator, never()).generate(any());
     }
 
     @Test
-    void shouldNotInvokeGenerationEventForDifferentType() {
-        GenerationStatusChangeEvent event = createGenerationStatusChangeEvent(
-                "G",
-                "koji",
-                "0.1.0",
-                "CONTAINER_IMAGE",
-                "TEST1");
-        generator.onEvent(event);
+    void shouldNotDispatchGenerationForDifferentType() {
+        GenerationRequest request = createGenerationRequest("koji", "0.1.0", "CONTAINER_IMAGE", "TEST1");
+        assertFalse(dispatcher.dispatch(createGeneration("G", request), request));
         verifyNoInteractions(managedExecutor);
         verify(generator, never()).generate(any());
     }
 
-    private GenerationStatusChangeEvent createGenerationStatusChangeEvent(
-            String generationId,
+    private GenerationRequest createGenerationRequest(
             String generatorName,
             String generatorVersion,
             String typeName,
             String identifier) {
-        return new GenerationStatusChangeEvent(
-                new GenerationRecord(
-                        generationId,
-                        Instant.now(),
-                        Instant.now(),
-                        null,
-                        JacksonUtils.toObjectNode(
-                                new GenerationRequest(
-                                        new Generator(generatorName, generatorVersion, null),
-                                        new Target(typeName, identifier))),
-                        null,
-                        GenerationStatus.SCHEDULED,
-                        null,
-                        null));
+        return new GenerationRequest(
+                new Generator(generatorName, generatorVersion, null),
+                new Target(typeName, identifier));
     }
 
-    private GenerationStatusChangeEvent createGenerationStatusChangeEventWithoutGenerator(
-            String generationId,
-            String typeName,
-            String identifier) {
-        return new GenerationStatusChangeEvent(
-                new GenerationRecord(
-                        generationId,
-                        Instant.now(),
-                        Instant.now(),
-                        null,
-                        JacksonUtils.toObjectNode(new GenerationRequest(null, new Target(typeName, identifier))),
-                        null,
-                        GenerationStatus.SCHEDULED,
-                        null,
-                        null));
+    private GenerationRecord createGeneration(String generationId, GenerationRequest request) {
+        return new GenerationRecord(
+                generationId,
+                Instant.now(),
+                Instant.now(),
+                null,
+                JacksonUtils.toObjectNode(request),
+                null,
+                GenerationStatus.SCHEDULED,
+                null,
+                null);
     }
 
 }
\ No newline at end of file
@@ -3,12 +3,15 @@ package org.jboss.sbomer.service.test.unit.generator.rhrelease;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import java.time.Instant;
@@ -25,6 +28,7 @@ import org.jboss.sbomer.service.nextgen.core.dto.model.GenerationRecord;
 import org.jboss.sbomer.service.nextgen.core.dto.model.ManifestRecord;
 import org.jboss.sbomer.service.nextgen.core.enums.GenerationStatus;
 import org.jboss.sbomer.service.nextgen.core.events.GenerationStatusChangeEvent;
+import org.jboss.sbomer.service.nextgen.core.generator.GeneratorDispatcher;
 import org.jboss.sbomer.service.nextgen.core.rest.SBOMerClient;
 import org.jboss.sbomer.service.nextgen.core.utils.JacksonUtils;
 import org.jboss.sbomer.service.nextgen.generator.rhrelease.RedHatReleaseGenerator;
@@ -48,9 +52,12 @@ public class RedHatReleaseGeneratorTest {
 
     RedHatReleaseGenerator generator;
 
+    GeneratorDispatcher dispatcher;
+
     @BeforeEach
     void beforeEach() {
         generator = spy(new RedHatReleaseGenerator(client, managedExecutor));
+        dispatcher = new GeneratorDispatcher(List.of(generator), managedExecutor, null);
     }
 
     private List<ManifestRecord> genManifests(int numManifests) {
@@ -102,85 +109,76 @@ public class RedHatReleaseGeneratorTest {
         assertFalse(generator.getGeneratorVersion().isBlank());
     }
 
+    private GenerationRecord scheduledGeneration(GenerationRequest request) {
+        return new GenerationRecord(
+                "G",
+                Instant.now(),
+                Instant.now(),
+                null,
+                request != null ? JacksonUtils.toObjectNode(request) : null,
+                null,
+                GenerationStatus.SCHEDULED,
+                null,
+                null);
+    }
+
+    @Test
+    void shouldDispatchEventToGenerator() {
+        GenerationRequest request = new GenerationRequest(
+                new Generator(generator.getGeneratorName(), generator.getGeneratorVersion(), null),
+                new Target("EVENT", "E1"));
+        GenerationRecord generation = scheduledGeneration(request);
+
+        assertTrue(dispatcher.dispatch(generation, request));
+
+        ArgumentCaptor<Runnable> runnableCaptor = ArgumentCaptor.forClass(Runnable.class);
+        verify(managedExecutor).runAsync(runnableCaptor.capture());
+        doNothing().when(generator).generate(generation);
+        runnableCaptor.getValue().run();
+
+        verify(generator, times(1)).process(generation);
+        verify(generator, times(1)).generate(generation);
+    }
+
     @Test
     void shouldSkipEventIfUnsupportedGeneratorName() {
-        GenerationStatusChangeEvent event = new GenerationStatusChangeEvent(
-                new GenerationRecord(
-                        "G",
-                        Instant.now(),
-                        Instant.now(),
-                        null,
-                        JacksonUtils.toObjectNode(
-                                new GenerationRequest(
-                                        new Generator("unsupported", "1.0", null),
-                                        new Target("EVENT", "E1"))),
-                        null,
-                        GenerationStatus.SCHEDULED,
-                        null,
-                        null));
-
-        generator.onEvent(event);
+        GenerationRequest request = new GenerationRequest(
+                new Generator("unsupported", "1.0", null),
+                new Target("EVENT", "E1"));
+
+        assertFalse(dispatcher.dispatch(scheduledGeneration(request), request));
 
+        verifyNoInteractions(managedExecutor);
         verify(generator, times(0)).generate(any());
     }
 
     @Test
     void shouldSkipEventIfNoGeneratorIsProvided() {
-        GenerationStatusChangeEvent event = new GenerationStatusChangeEvent(
-                new GenerationRecord(
-                        "G",
-                        Instant.now(),
-                        Instant.now(),
-                        null,
-                        JacksonUtils.toObjectNode(new GenerationRequest(null, new Target("EVENT", "E1"))),
-                        null,
-                        GenerationStatus.SCHEDULED,
-                        null,
-                        null));
-
-        generator.onEvent(event);
+        GenerationRequest request = new GenerationRequest(null, new Target("EVENT", "E1"));
 
+        assertFalse(dispatcher.dispatch(scheduledGeneration(request), request));
+
+        verifyNoInteractions(managedExecutor);
         verify(generator, times(0)).generate(any());
     }
 
     @Test
     void shouldSkipEventIfNoRequestIsProvided() {
-        GenerationStatusChangeEvent event = new GenerationStatusChangeEvent(
-                new GenerationRecord(
-                        "G",
-                        Instant.now(),
-                        Instant.now(),
-                        null,
-                        null,
-                        null,
-                        GenerationStatus.SCHEDULED,
-                        null,
-                        null));
-
-        generator.onEvent(event);
+        dispatcher.onEvent(new GenerationStatusChangeEvent(scheduledGeneration(null)));
 
+        verifyNoInteractions(managedExecutor);
         verify(generator, times(0)).generate(any());
     }
 
     @Test
     void shouldSkipEventIfUnsupportedGeneratorVersion() {
-        GenerationStatusChangeEvent event = new GenerationStatusChangeEvent(
-                new GenerationRecord(
-                        "G",
-                        Instant.now(),
-                        Instant.now(),
-                        null,
-                        JacksonUtils.toObjectNode(
-                                new GenerationRequest(
-                                        new Generator("redhat-release", "1.0", null),
-                                        new Target("EVENT", "E1"))),
-                        null,
-                        GenerationStatus.SCHEDULED,
-                        null,
-                        null));
-
-        generator.onEvent(event);
+        GenerationRequest request = new GenerationRequest(
+                new Generator("redhat-release", "1.0", null),
+                new Target("EVENT", "E1"));
+
+        assertFalse(dispatcher.dispatch(scheduledGeneration(request), request));
 
+        verifyNoInteractions(managedExecutor);
         verify(generator, times(0)).generate(any());
     }
 
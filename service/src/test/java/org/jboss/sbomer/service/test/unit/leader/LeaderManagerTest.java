@@ -1,14 +1,18 @@
 package org.jboss.sbomer.service.test.unit.leader;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.isA;
 import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Clock;
+import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 
@@ -18,23 +22,46 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import io.fabric8.kubernetes.api.model.coordination.v1.Lease;
+import io.fabric8.kubernetes.api.model.coordination.v1.LeaseBuilder;
 import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
 import io.fabric8.kubernetes.client.dsl.MixedOperation;
 import io.fabric8.kubernetes.client.dsl.Resource;
 
 public class LeaderManagerTest {
     LeaderManager leaderManager;
     KubernetesClient kubernetesClient;
+    Clock clock;
+    Instant now;
 
     @BeforeEach
     void beforeEach() {
         LeaseConfig leaseConfig = mock(LeaseConfig.class);
 
         when(leaseConfig.leaseDuration()).thenReturn(30);
+        when(leaseConfig.renewDeadline()).thenReturn(20);
         when(leaseConfig.checkInterval()).thenReturn("10s");
 
+        this.now = Instant.now();
+        this.clock = mock(Clock.class);
+        when(clock.instant()).thenAnswer(invocation -> now);
+
         this.kubernetesClient = mock(KubernetesClient.class, RETURNS_DEEP_STUBS);
-        this.leaderManager = new LeaderManager(leaseConfig, kubernetesClient);
+        this.leaderManager = new LeaderManager(leaseConfig, kubernetesClient, clock);
+    }
+
+    private Lease lease(String holder, Instant renewTime, int transitions) {
+        return new LeaseBuilder().withNewMetadata()
+                .withName("sbomer-generation-scheduler")
+                .withResourceVersion("1")
+                .endMetadata()
+                .withNewSpec()
+                .withHolderIdentity(holder)
+                .withLeaseDurationSeconds(30)
+                .withRenewTime(ZonedDateTime.ofInstant(renewTime, ZoneId.of("UTC")))
+                .withLeaseTransitions(transitions)
+                .endSpec()
+                .build();
     }
 
     @Test
@@ -77,8 +104,9 @@ public class LeaderManagerTest {
         leaderManager.lease();
 
         assertTrue(leaderManager.isLeader());
+        assertEquals(0, leaderManager.getFencingToken());
         verify(leases, times(1)).withName("sbomer-generation-scheduler");
-        verify(leaseResource, times(1)).createOrReplace();
+        verify(leaseResource, times(1)).create();
     }
 
     @Test
@@ -104,8 +132,117 @@ public class LeaderManagerTest {
         leaderManager.lease();
 
         assertTrue(leaderManager.isLeader());
+        assertEquals(1, leaderManager.getFencingToken());
         verify(leases, times(1)).withName("sbomer-generation-scheduler");
-        verify(leaseResource, times(1)).createOrReplace();
+        verify(leaseResource, times(1)).update();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldNotBecomeLeaderIfAnotherInstanceUpdatedTheLease() {
+        Lease lease = lease("someone-else", now.minusSeconds(60), 3);
+
+        var leaseResource = mock(Resource.class);
+        when(leaseResource.get()).thenReturn(lease);
+        when(leaseResource.update()).thenThrow(new KubernetesClientException("Conflict", 409, null));
+
+        var leases = mock(MixedOperation.class);
+        when(leases.resource(isA(Lease.class))).thenReturn(leaseResource);
+        when(leases.withName("sbomer-generation-scheduler")).thenReturn(leaseResource);
+
+        when(kubernetesClient.leases()).thenReturn(leases);
+
+        leaderManager.lease();
+
+        assertFalse(leaderManager.isLeader());
+        assertEquals(-1, leaderManager.getFencingToken());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldStepDownIfLeaseCannotBeRenewedWithinDeadline() {
+        var leaseResource = mock(Resource.class);
+        when(leaseResource.get()).thenReturn(null);
+
+        var leases = mock(MixedOperation.class);
+        when(leases.resource(isA(Lease.class))).thenReturn(leaseResource);
+        when(leases.withName("sbomer-generation-scheduler")).thenReturn(leaseResource);
+
+        when(kubernetesClient.leases()).thenReturn(leases);
+
+        leaderManager.lease();
+
+        long fencingToken = leaderManager.getFencingToken();
+
+        assertTrue(leaderManager.isLeader());
+        assertFalse(leaderManager.isFenced(fencingToken));
+
+        // The API server is not reachable anymore
+        when(leaseResource.get()).thenThrow(new KubernetesClientException("Unavailable", 503, null));
+
+        now = now.plusSeconds(10);
+        leaderManager.lease();
+
+        assertTrue(leaderManager.isLeader());
+
+        now = now.plusSeconds(11);
+        leaderManager.lease();
+
+        assertFalse(leaderManager.isLeader());
+        assertTrue(leaderManager.isFenced(fencingToken));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldBecomeLeaderIfLeaseIsNotRenewedForLeaseDuration() {
+        // Renew time in the future, as if the clock of the leader was ahead
+        Lease lease = lease("someone-else", now.plusSeconds(300), 3);
+
+        var leaseResource = mock(Resource.class);
+        when(leaseResource.get()).thenReturn(lease);
+
+        var leases = mock(MixedOperation.class);
+        when(leases.resource(isA(Lease.class))).thenReturn(leaseResource);
+        when(leases.withName("sbomer-generation-scheduler")).thenReturn(leaseResource);
+
+        when(kubernetesClient.leases()).thenReturn(leases);
+
+        leaderManager.lease();
+        now = now.plusSeconds(20);
+        leaderManager.lease();
+
+        assertFalse(leaderManager.isLeader());
+        verify(leaseResource, never()).update();
+
+        now = now.plusSeconds(11);
+        leaderManager.lease();
+
+        assertTrue(leaderManager.isLeader());
+        assertEquals(4, leaderManager.getFencingToken());
+        assertEquals("sbomer", lease.getSpec().getHolderIdentity());
+        verify(leaseResource, times(1)).update();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldRenewOwnLeaseKeepingFencingToken() {
+        Lease lease = lease("sbomer", now.minusSeconds(5), 7);
+
+        var leaseResource = mock(Resource.class);
+        when(leaseResource.get()).thenReturn(lease);
+
+        var leases = mock(MixedOperation.class);
+        when(leases.resource(isA(Lease.class))).thenReturn(leaseResource);
+        when(leases.withName("sbomer-generation-scheduler")).thenReturn(leaseResource);
+
+        when(kubernetesClient.leases()).thenReturn(leases);
+
+        leaderManager.lease();
+
+        assertTrue(leaderManager.isLeader());
+        assertEquals(7, leaderManager.getFencingToken());
+        assertEquals("1", lease.getMetadata().getResourceVersion());
+        verify(leaseResource, times(1)).update();
     }
 
 }
@@ -6,6 +6,7 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.Map;
 import java.util.stream.Stream;
@@ -73,12 +74,24 @@ class EventsQueryProcessorTest {
                 // Nested Field Queries
                 Arguments.of(
                         "metadata.type:PROCESS",
-                        "(FUNCTION('jsonb_extract_path_text', metadata, 'type') = :param0)",
-                        Map.of("param0", "PROCESS")),
+                        "(jsonb_has_entry(metadata, :param0, :param1) = true)",
+                        Map.of("param0", "type", "param1", "PROCESS")),
                 Arguments.of(
                         "metadata.type:PROCESS,DONE",
-                        "(FUNCTION('jsonb_extract_path_text', metadata, 'type') = :param0 OR FUNCTION('jsonb_extract_path_text', metadata, 'type') = :param1)",
-                        Map.of("param0", "PROCESS", "param1", "DONE")));
+                        "(jsonb_has_entry(metadata, :param0, :param1) = true"
+                                + " OR jsonb_has_entry(metadata, :param0, :param2) = true)",
+                        Map.of("param0", "type", "param1", "PROCESS", "param2", "DONE")),
+                // Numbers and booleans can be stored as JSON strings or as JSON scalars
+                Arguments.of(
+                        "metadata.errata_id:139787",
+                        "(jsonb_has_entry(metadata, :param0, :param1) = true"
+                                + " OR jsonb_has_entry(metadata, :param0, :param2) = true)",
+                        Map.of("param0", "errata_id", "param1", "139787", "param2", new BigDecimal("139787"))),
+                Arguments.of(
+                        "metadata.retried:true",
+                        "(jsonb_has_entry(metadata, :param0, :param1) = true"
+                                + " OR jsonb_has_entry(metadata, :param0, :param2) = true)",
+                        Map.of("param0", "retried", "param1", "true", "param2", Boolean.TRUE)));
     }
 
     @DisplayName("Should correctly process valid sorting queries")
@@ -0,0 +1,112 @@
+package org.jboss.sbomer.service.test.unit.scheduler;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.Statement;
+
+import org.jboss.sbomer.service.leader.LeadershipChangedEvent;
+import org.jboss.sbomer.service.scheduler.GenerationRequestNotificationListener;
+import org.jboss.sbomer.service.scheduler.GenerationSchedulerConfig;
+import org.jboss.sbomer.service.scheduler.GenerationSchedulingTrigger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+import io.agroal.api.AgroalDataSource;
+
+class GenerationRequestNotificationListenerTest {
+
+    AgroalDataSource dataSource;
+
+    Connection connection;
+
+    Statement statement;
+
+    GenerationSchedulingTrigger trigger;
+
+    GenerationSchedulerConfig config;
+
+    GenerationRequestNotificationListener listener;
+
+    @BeforeEach
+    void beforeEach() throws Exception {
+        dataSource = mock(AgroalDataSource.class);
+        connection = mock(Connection.class);
+        statement = mock(Statement.class);
+        trigger = mock(GenerationSchedulingTrigger.class);
+        config = mock(GenerationSchedulerConfig.class);
+
+        when(config.eventDriven()).thenReturn(true);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+
+        listener = new GenerationRequestNotificationListener(dataSource, trigger, config);
+    }
+
+    @AfterEach
+    void afterEach() {
+        listener.shutdown();
+    }
+
+    private static PGNotification[] waitForNotifications() {
+        try {
+            Thread.sleep(10);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        return new PGNotification[0];
+    }
+
+    @Test
+    void shouldWakeUpTheSchedulerWhileLeader() throws Exception {
+        PGConnection pgConnection = mock(PGConnection.class);
+
+        when(connection.isWrapperFor(PGConnection.class)).thenReturn(true);
+        when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+        when(pgConnection.getNotifications(anyInt()))
+                .thenReturn(new PGNotification[] { mock(PGNotification.class) })
+                .thenAnswer(invocation -> waitForNotifications());
+
+        listener.onLeadershipChanged(new LeadershipChangedEvent(true, 1));
+
+        verify(statement, timeout(5000)).execute("LISTEN sbomer_generation_requests");
+        // Once for the generation requests stored before listening and once for the notification
+        verify(trigger, timeout(5000).times(2)).wakeUp();
+
+        listener.onLeadershipChanged(new LeadershipChangedEvent(false, 1));
+
+        verify(statement, timeout(5000)).execute("UNLISTEN sbomer_generation_requests");
+        verify(connection, timeout(5000)).close();
+    }
+
+    @Test
+    void shouldNotListenWithoutNotificationsSupport() throws Exception {
+        when(connection.isWrapperFor(PGConnection.class)).thenReturn(false);
+
+        listener.onLeadershipChanged(new LeadershipChangedEvent(true, 1));
+
+        verify(connection, timeout(5000)).close();
+        verify(statement, never()).execute(anyString());
+        verify(trigger, never()).wakeUp();
+    }
+
+    @Test
+    void shouldNotListenWhenNotEventDriven() throws Exception {
+        when(config.eventDriven()).thenReturn(false);
+
+        listener.onLeadershipChanged(new LeadershipChangedEvent(true, 1));
+
+        verify(dataSource, after(200).never()).getConnection();
+    }
+}
@@ -0,0 +1,131 @@
+package org.jboss.sbomer.service.test.unit.scheduler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.jboss.sbomer.core.config.request.PncBuildRequestConfig;
+import org.jboss.sbomer.core.features.sbom.enums.GenerationRequestType;
+import org.jboss.sbomer.core.features.sbom.enums.RequestEventType;
+import org.jboss.sbomer.service.feature.sbom.model.RequestEvent;
+import org.jboss.sbomer.service.feature.sbom.model.SbomGenerationRequest;
+import org.jboss.sbomer.service.scheduler.GenerationRequestQueue;
+import org.jboss.sbomer.service.scheduler.GenerationRequestSource;
+import org.junit.jupiter.api.Test;
+
+class GenerationRequestQueueTest {
+
+    private static final Instant NOW = Instant.now();
+
+    private static SbomGenerationRequest request(
+            String id,
+            GenerationRequestSource source,
+            GenerationRequestType type,
+            int priority,
+            int ageInMinutes) {
+        return SbomGenerationRequest.builder()
+                .withId(id)
+                .withSource(source)
+                .withType(type)
+                .withPriority(priority)
+                .withCreationTime(NOW.minusSeconds(ageInMinutes * 60L))
+                .build();
+    }
+
+    private static List<String> ids(List<SbomGenerationRequest> requests) {
+        return requests.stream().map(SbomGenerationRequest::getId).toList();
+    }
+
+    @Test
+    void shouldNotStarveOtherSourcesWithEqualWeights() {
+        List<SbomGenerationRequest> candidates = List.of(
+                request("E1", GenerationRequestSource.ERRATA, GenerationRequestType.CONTAINERIMAGE, 0, 60),
+                request("E2", GenerationRequestSource.ERRATA, GenerationRequestType.CONTAINERIMAGE, 0, 59),
+                request("E3", GenerationRequestSource.ERRATA, GenerationRequestType.CONTAINERIMAGE, 0, 58),
+                request("R1", GenerationRequestSource.REST, GenerationRequestType.BUILD, 0, 1));
+
+        assertEquals(List.of("E1", "R1", "E2"), ids(GenerationRequestQueue.select(candidates, 3, r -> 1)));
+    }
+
+    @Test
+    void shouldHonorWeights() {
+        List<SbomGenerationRequest> candidates = List.of(
+                request("U1", GenerationRequestSource.UMB, GenerationRequestType.BUILD, 0, 60),
+                request("U2", GenerationRequestSource.UMB, GenerationRequestType.BUILD, 0, 59),
+                request("R1", GenerationRequestSource.REST, GenerationRequestType.BUILD, 0, 10),
+                request("R2", GenerationRequestSource.REST, GenerationRequestType.BUILD, 0, 9),
+                request("R3", GenerationRequestSource.REST, GenerationRequestType.BUILD, 0, 8));
+
+        List<SbomGenerationRequest> selected = GenerationRequestQueue
+                .select(candidates, 4, r -> r.getSource() == GenerationRequestSource.REST ? 3 : 1);
+
+        assertEquals(List.of("U1", "R1", "R2", "R3"), ids(selected));
+    }
+
+    @Test
+    void shouldScheduleHigherPriorityFirst() {
+        List<SbomGenerationRequest> candidates = List.of(
+                request("U1", GenerationRequestSource.UMB, GenerationRequestType.BUILD, 0, 60),
+                request("U2", GenerationRequestSource.UMB, GenerationRequestType.BUILD, 10, 1),
+                request("R1", GenerationRequestSource.REST, GenerationRequestType.BUILD, 5, 10));
+
+        assertEquals(List.of("U2", "R1", "U1"), ids(GenerationRequestQueue.select(candidates, 5, r -> 1)));
+    }
+
+    @Test
+    void shouldScheduleInteractiveBuildAheadOfAdvisory() {
+        List<SbomGenerationRequest> candidates = List.of(
+                request("E1", GenerationRequestSource.ERRATA, GenerationRequestType.CONTAINERIMAGE, 0, 60),
+                request("E2", GenerationRequestSource.ERRATA, GenerationRequestType.CONTAINERIMAGE, 0, 59),
+                request("E3", GenerationRequestSource.ERRATA, GenerationRequestType.CONTAINERIMAGE, 0, 58),
+                request("R1", GenerationRequestSource.REST, GenerationRequestType.BUILD, 10, 1));
+
+        // The advisory class has a higher weight, the priority still wins
+        assertEquals(
+                List.of("R1", "E1"),
+                ids(
+                        GenerationRequestQueue.select(
+                                candidates,
+                                2,
+                                r -> r.getSource() == GenerationRequestSource.ERRATA ? 5 : 1)));
+    }
+
+    @Test
+    void shouldTakePriorityFromRequestConfig() {
+        RequestEvent requestEvent = RequestEvent.builder()
+                .withEventType(RequestEventType.REST)
+                .withRequestConfig(PncBuildRequestConfig.builder().withBuildId("AAAA").withPriority(10).build())
+                .build();
+        SbomGenerationRequest prioritized = SbomGenerationRequest.builder()
+                .withId("R1")
+                .withType(GenerationRequestType.BUILD)
+                .withRequest(requestEvent)
+                .build();
+        SbomGenerationRequest unprioritized = SbomGenerationRequest.builder()
+                .withId("R2")
+                .withType(GenerationRequestType.BUILD)
+                .withRequest(
+                        RequestEvent.builder()
+                                .withEventType(RequestEventType.REST)
+                                .withRequestConfig(PncBuildRequestConfig.builder().withBuildId("BBBB").build())
+                                .build())
+                .build();
+
+        prioritized.prePersist();
+        unprioritized.prePersist();
+
+        assertEquals(10, prioritized.getPriority());
+        assertEquals(0, unprioritized.getPriority());
+    }
+
+    @Test
+    void shouldRespectLimit() {
+        List<SbomGenerationRequest> candidates = List.of(
+                request("U1", GenerationRequestSource.UMB, GenerationRequestType.BUILD, 0, 60),
+                request("U2", GenerationRequestSource.UMB, GenerationRequestType.BUILD, 0, 59));
+
+        assertEquals(List.of("U1"), ids(GenerationRequestQueue.select(candidates, 1, r -> 1)));
+        assertEquals(List.of(), ids(GenerationRequestQueue.select(List.of(), 1, r -> 1)));
+    }
+}
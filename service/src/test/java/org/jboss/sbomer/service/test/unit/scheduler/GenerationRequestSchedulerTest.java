@@ -1,6 +1,7 @@
 package org.jboss.sbomer.service.test.unit.scheduler;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
@@ -16,6 +17,13 @@ import static org.mockito.Mockito.when;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.jboss.sbomer.core.features.sbom.enums.GenerationRequestType;
 import org.jboss.sbomer.service.feature.sbom.k8s.model.GenerationRequest;
@@ -24,7 +32,9 @@ import org.jboss.sbomer.service.feature.sbom.k8s.model.SbomGenerationStatus;
 import org.jboss.sbomer.service.feature.sbom.model.SbomGenerationRequest;
 import org.jboss.sbomer.service.feature.sbom.service.SbomGenerationRequestRepository;
 import org.jboss.sbomer.service.leader.LeaderManager;
+import org.jboss.sbomer.service.scheduler.GenerationRequestQueue;
 import org.jboss.sbomer.service.scheduler.GenerationRequestScheduler;
+import org.jboss.sbomer.service.scheduler.GenerationRequestTracker;
 import org.jboss.sbomer.service.scheduler.GenerationSchedulerConfig;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -33,6 +43,7 @@ import org.mockito.ArgumentCaptor;
 import io.fabric8.kubernetes.api.model.ConfigMap;
 import io.fabric8.kubernetes.api.model.ConfigMapList;
 import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
 import io.fabric8.kubernetes.client.dsl.FilterWatchListDeletable;
 import io.fabric8.kubernetes.client.dsl.MixedOperation;
 import io.fabric8.kubernetes.client.dsl.Resource;
@@ -105,6 +116,47 @@ public class GenerationRequestSchedulerTest {
         verifyNoInteractions(requestRepository);
     }
 
+    @Test
+    void shouldUseTrackedNumberOfGenerationsInProgress() {
+        GenerationSchedulerConfig schedulerConfig = mock(GenerationSchedulerConfig.class);
+        when(schedulerConfig.maxConcurrentGenerations()).thenReturn(5);
+
+        GenerationRequestTracker tracker = mock(GenerationRequestTracker.class);
+        when(tracker.countInProgress()).thenReturn(OptionalInt.of(10));
+
+        when(leaderManager.isLeader()).thenReturn(true);
+
+        new GenerationRequestScheduler(
+                requestRepository,
+                kubernetesClient,
+                schedulerConfig,
+                leaderManager,
+                tracker,
+                mock(GenerationRequestQueue.class)).scheduleGenerations();
+
+        // The number of generations in progress is known, no need to list ConfigMaps
+        verifyNoInteractions(kubernetesClient);
+        verifyNoInteractions(requestRepository);
+    }
+
+    @Test
+    void shouldStopTrackingIfWeAreNotTheLeader() {
+        GenerationRequestTracker tracker = mock(GenerationRequestTracker.class);
+
+        when(leaderManager.isLeader()).thenReturn(false);
+
+        new GenerationRequestScheduler(
+                requestRepository,
+                kubernetesClient,
+                mock(GenerationSchedulerConfig.class),
+                leaderManager,
+                tracker,
+                mock(GenerationRequestQueue.class)).scheduleGenerations();
+
+        verify(tracker).stop();
+        verify(tracker, never()).countInProgress();
+    }
+
     @Test
     @SuppressWarnings("unchecked")
     void shouldNotCreateAnyNewGenerationsIfThereAreNoNewGenerationsInTheDatabase() {
@@ -201,12 +253,10 @@ public class GenerationRequestSchedulerTest {
         request.setType(GenerationRequestType.ANALYSIS);
         request.setIdentifier("ANALYSISID");
 
-        when(kubernetesClient.configMaps().withName(anyString())).thenReturn(mock(Resource.class));
-
         ArgumentCaptor<GenerationRequest> cmCaptor = ArgumentCaptor.forClass(GenerationRequest.class);
 
         Resource<ConfigMap> cmResource = mock(Resource.class);
-        when(cmResource.createOrReplace())
+        when(cmResource.create())
                 .thenReturn(new GenerationRequestBuilder(GenerationRequestType.ANALYSIS).build());
 
         when(kubernetesClient.configMaps().resource(cmCaptor.capture())).thenReturn(cmResource);
@@ -218,6 +268,153 @@ public class GenerationRequestSchedulerTest {
         assertEquals(GenerationRequestType.ANALYSIS, cmRequest.getType());
         assertEquals("GEN1", cmRequest.getId());
         assertEquals("ANALYSISID", cmRequest.getIdentifier());
+        verify(cmResource, never()).createOrReplace();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void shouldNotReplaceExistingGenerationRequest() {
+        var request = new SbomGenerationRequest();
+        request.setId("GEN1");
+        request.setType(GenerationRequestType.ANALYSIS);
+        request.setIdentifier("ANALYSISID");
+
+        // Not seen by the informer yet, but created in the meantime
+        GenerationRequestTracker tracker = mock(GenerationRequestTracker.class);
+        when(tracker.exists("sbom-request-gen1")).thenReturn(Optional.of(false));
+
+        Resource<ConfigMap> cmResource = mock(Resource.class);
+        when(cmResource.create()).thenThrow(new KubernetesClientException("Already exists", 409, null));
+        when(kubernetesClient.configMaps().resource(any(GenerationRequest.class))).thenReturn(cmResource);
+
+        new GenerationRequestScheduler(
+                requestRepository,
+                kubernetesClient,
+                mock(GenerationSchedulerConfig.class),
+                leaderManager,
+                tracker,
+                mock(GenerationRequestQueue.class)).schedule(request);
+
+        verify(cmResource, never()).createOrReplace();
+        verify(tracker, never()).created(anyString());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void shouldPropagateOtherCreationFailures() {
+        var request = new SbomGenerationRequest();
+        request.setId("GEN1");
+        request.setType(GenerationRequestType.ANALYSIS);
+        request.setIdentifier("ANALYSISID");
+
+        Resource<ConfigMap> cmResource = mock(Resource.class);
+        when(cmResource.create()).thenThrow(new KubernetesClientException("Forbidden", 403, null));
+        when(kubernetesClient.configMaps().resource(any(GenerationRequest.class))).thenReturn(cmResource);
+
+        KubernetesClientException thrown = assertThrows(
+                KubernetesClientException.class,
+                () -> scheduler.schedule(request));
+
+        assertEquals(403, thrown.getCode());
+    }
+
+    @Test
+    void shouldSerializeSchedulingRuns() throws Exception {
+        GenerationSchedulerConfig schedulerConfig = mock(GenerationSchedulerConfig.class);
+        when(schedulerConfig.maxConcurrentGenerations()).thenReturn(5);
+        when(schedulerConfig.syncBatch()).thenReturn(5);
+
+        GenerationRequestTracker tracker = mock(GenerationRequestTracker.class);
+        when(tracker.countInProgress()).thenReturn(OptionalInt.of(0));
+
+        when(leaderManager.isLeader()).thenReturn(true);
+
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        GenerationRequestQueue queue = mock(GenerationRequestQueue.class);
+        when(queue.nextBatch(5)).thenAnswer(invocation -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(50);
+            running.decrementAndGet();
+            return List.of();
+        });
+
+        GenerationRequestScheduler trackedScheduler = new GenerationRequestScheduler(
+                requestRepository,
+                kubernetesClient,
+                schedulerConfig,
+                leaderManager,
+                tracker,
+                queue);
+
+        // Periodic and event-driven runs
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<?>> runs = List
+                    .of(
+                            executor.submit(trackedScheduler::scheduleGenerations),
+                            executor.submit(trackedScheduler::scheduleGenerations));
+
+            for (Future<?> run : runs) {
+                run.get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(queue, times(2)).nextBatch(5);
+        assertEquals(1, maxRunning.get());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void shouldTrackCreatedGenerationRequests() {
+        var request = new SbomGenerationRequest();
+        request.setId("GEN1");
+        request.setType(GenerationRequestType.ANALYSIS);
+        request.setIdentifier("ANALYSISID");
+
+        GenerationRequestTracker tracker = mock(GenerationRequestTracker.class);
+        when(tracker.exists("sbom-request-gen1")).thenReturn(Optional.of(false));
+
+        Resource<ConfigMap> cmResource = mock(Resource.class);
+        when(cmResource.create())
+                .thenReturn(new GenerationRequestBuilder(GenerationRequestType.ANALYSIS).build());
+        when(kubernetesClient.configMaps().resource(any(GenerationRequest.class))).thenReturn(cmResource);
+
+        new GenerationRequestScheduler(
+                requestRepository,
+                kubernetesClient,
+                mock(GenerationSchedulerConfig.class),
+                leaderManager,
+                tracker,
+                mock(GenerationRequestQueue.class)).schedule(request);
+
+        // Counted as in progress until the informer sees it
+        verify(tracker).created("sbom-request-gen1");
+    }
+
+    @Test
+    void shouldUseTrackedGenerationRequestsWhenScheduling() {
+        var request = new SbomGenerationRequest();
+        request.setId("GEN1");
+        request.setType(GenerationRequestType.ANALYSIS);
+        request.setIdentifier("ANALYSISID");
+
+        GenerationRequestTracker tracker = mock(GenerationRequestTracker.class);
+        when(tracker.exists("sbom-request-gen1")).thenReturn(Optional.of(true));
+
+        new GenerationRequestScheduler(
+                requestRepository,
+                kubernetesClient,
+                mock(GenerationSchedulerConfig.class),
+                leaderManager,
+                tracker,
+                mock(GenerationRequestQueue.class)).schedule(request);
+
+        // The generation request is known to exist already, no need to read or create the ConfigMap
+        verifyNoInteractions(kubernetesClient);
     }
 
-}
\ No newline at end of file
+}
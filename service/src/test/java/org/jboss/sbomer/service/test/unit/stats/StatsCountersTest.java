@@ -0,0 +1,105 @@
+package org.jboss.sbomer.service.test.unit.stats;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import org.jboss.sbomer.core.features.sbom.enums.RequestEventType;
+import org.jboss.sbomer.core.features.sbom.enums.UMBConsumer;
+import org.jboss.sbomer.core.features.sbom.enums.UMBMessageStatus;
+import org.jboss.sbomer.core.features.sbom.utils.ObjectMapperProvider;
+import org.jboss.sbomer.service.feature.sbom.config.features.UmbConfig;
+import org.jboss.sbomer.service.feature.sbom.k8s.model.SbomGenerationStatus;
+import org.jboss.sbomer.service.feature.sbom.model.RequestEvent;
+import org.jboss.sbomer.service.feature.sbom.model.SbomGenerationRequest;
+import org.jboss.sbomer.service.feature.sbom.service.RequestEventRepository;
+import org.jboss.sbomer.service.feature.sbom.service.SbomService;
+import org.jboss.sbomer.service.stats.StatsCounter;
+import org.jboss.sbomer.service.stats.StatsCounters;
+import org.jboss.sbomer.service.stats.StatsCountersChangedEvent;
+import org.junit.jupiter.api.Test;
+
+class StatsCountersTest {
+
+    private static RequestEvent umbEvent(UMBConsumer consumer, String msgType, UMBMessageStatus status) {
+        return RequestEvent.createNew(
+                null,
+                RequestEventType.UMB,
+                ObjectMapperProvider.json()
+                        .createObjectNode()
+                        .put(RequestEvent.EVENT_KEY_UMB_CONSUMER, consumer.name())
+                        .put(RequestEvent.EVENT_KEY_UMB_MSG_TYPE, msgType)
+                        .put(RequestEvent.EVENT_KEY_UMB_MSG_STATUS, status.name()));
+    }
+
+    @Test
+    void shouldClassifyRequestEvents() {
+        assertEquals(
+                EnumSet.of(StatsCounter.PNC_RECEIVED, StatsCounter.PNC_PROCESSED),
+                StatsCounters.countersOf(umbEvent(UMBConsumer.PNC, "pnc-build", UMBMessageStatus.ACK)));
+        assertEquals(
+                EnumSet.of(StatsCounter.ERRATA_RECEIVED, StatsCounter.ERRATA_SKIPPED),
+                StatsCounters.countersOf(umbEvent(UMBConsumer.ERRATA, "errata-advisory", UMBMessageStatus.SKIPPED)));
+        assertEquals(
+                EnumSet.of(StatsCounter.PNC_RECEIVED),
+                StatsCounters.countersOf(
+                        umbEvent(
+                                UMBConsumer.PNC,
+                                RequestEvent.EVENT_VALUE_UMB_UNKNOWN_MSG_TYPE,
+                                UMBMessageStatus.ACK)));
+        assertEquals(
+                EnumSet.of(StatsCounter.PNC_RECEIVED),
+                StatsCounters.countersOf(umbEvent(UMBConsumer.PNC, "pnc-build", UMBMessageStatus.NONE)));
+        assertEquals(
+                Set.of(),
+                StatsCounters.countersOf(
+                        RequestEvent.createNew(
+                                null,
+                                RequestEventType.REST,
+                                ObjectMapperProvider.json().createObjectNode())));
+    }
+
+    @Test
+    void shouldClassifyGenerationRequests() {
+        assertEquals(
+                EnumSet.of(StatsCounter.GENERATION_REQUESTS, StatsCounter.GENERATION_REQUESTS_IN_PROGRESS),
+                StatsCounters.countersOf(
+                        SbomGenerationRequest.builder().withStatus(SbomGenerationStatus.GENERATING).build()));
+        assertEquals(
+                EnumSet.of(StatsCounter.GENERATION_REQUESTS),
+                StatsCounters.countersOf(
+                        SbomGenerationRequest.builder().withStatus(SbomGenerationStatus.FINISHED).build()));
+    }
+
+    @Test
+    void shouldApplyChangesOnTopOfReconciledValues() {
+        SbomService sbomService = mock(SbomService.class);
+        UmbConfig umbConfig = mock(UmbConfig.class);
+
+        when(sbomService.countSboms()).thenReturn(10L);
+        when(sbomService.countSbomGenerationRequests()).thenReturn(5L);
+        when(sbomService.countInProgressSbomGenerationRequests()).thenReturn(2L);
+
+        StatsCounters counters = new StatsCounters(sbomService, mock(RequestEventRepository.class), umbConfig, null);
+
+        // Reconciled lazily on first access
+        assertEquals(10L, counters.get(StatsCounter.SBOMS));
+
+        counters.onChange(new StatsCountersChangedEvent(Set.of(), EnumSet.of(StatsCounter.SBOMS)));
+        counters.onChange(
+                new StatsCountersChangedEvent(
+                        EnumSet.of(StatsCounter.GENERATION_REQUESTS, StatsCounter.GENERATION_REQUESTS_IN_PROGRESS),
+                        EnumSet.of(StatsCounter.GENERATION_REQUESTS)));
+
+        assertEquals(11L, counters.get(StatsCounter.SBOMS));
+        assertEquals(5L, counters.get(StatsCounter.GENERATION_REQUESTS));
+        assertEquals(1L, counters.get(StatsCounter.GENERATION_REQUESTS_IN_PROGRESS));
+
+        verify(sbomService, times(1)).countSboms();
+    }
+}